@@ -0,0 +1,115 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.Type;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.impl.CheckServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Сравнивает сборку чека перевода и выписки на 100 транзакций прежним способом, через formatted, который разбирает
+ * строку формата и создаёт DateTimeFormatter при каждом вызове, и через заранее разобранные шаблоны CheckServiceImpl.
+ * Выделение памяти на один чек показывает профилировщик gc: строка gc.alloc.rate.norm в байтах на операцию.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CheckTemplateBenchmark {
+
+    private CheckService checkService;
+    private TransferBalanceResponse transfer;
+    private TransactionStatementResponse statement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        checkService = new CheckServiceImpl();
+        transfer = new TransferBalanceResponse(1234567890L, LocalDate.of(2023, 9, 1), LocalTime.of(21, 40, 8),
+                Currency.BYN, Type.TRANSFER, "Клевер-Банк", "Альфа-Банк", "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q",
+                "55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9", new BigDecimal("100.00"), new BigDecimal("1000.00"),
+                new BigDecimal("900.00"), new BigDecimal("500.00"), new BigDecimal("600.00"));
+        List<TransactionStatement> transactions = IntStream.range(0, 100)
+                .mapToObj(i -> new TransactionStatement(LocalDate.of(2023, 9, 1).plusDays(i % 30),
+                        Type.values()[i % Type.values().length], i % 2 == 0 ? "Зайцева" : "Петров",
+                        BigDecimal.valueOf(100 + i), BigDecimal.valueOf(100 + i)))
+                .toList();
+        statement = new TransactionStatementResponse("Клевер-Банк", "Зайцева", "Елена", "Евгеньевна",
+                "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q", Currency.BYN, LocalDate.of(2017, 3, 1),
+                LocalDate.of(2023, 9, 1), LocalDate.of(2023, 9, 30), LocalDate.of(2023, 10, 1),
+                LocalTime.of(12, 0, 5), new BigDecimal("11700.00"), transactions);
+    }
+
+    @Benchmark
+    public String formattedCheck() {
+        String repeat = "-".repeat(61);
+        return """
+                %s%s
+                | %36s%23s
+                | Чек: %52s |
+                | %s %46s |
+                | Тип транзакции: %41s |
+                | Банк отправителя: %39s |
+                | Банк получателя: %40s |
+                | Счет отправителя: %39s |
+                | Счет получателя: %40s |
+                | Сумма: %46s %s |
+                %s
+                """.formatted("\n",
+                repeat,
+                "Банковский чек", "|",
+                transfer.transactionId(),
+                transfer.date(), transfer.time().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+                transfer.type().getName(),
+                transfer.bankSenderName(),
+                transfer.bankRecipientName(),
+                transfer.accountSenderId(),
+                transfer.accountRecipientId(),
+                transfer.sum(), transfer.currency(),
+                repeat);
+    }
+
+    @Benchmark
+    public String templateCheck() {
+        return checkService.createTransferBalanceCheck(transfer);
+    }
+
+    @Benchmark
+    public String formattedStatementRows() {
+        StringBuilder result = new StringBuilder();
+        statement.transactions()
+                .forEach(transaction -> result.append("%s %4s %-15s от %-10s %9s %s %s%s"
+                        .formatted(transaction.date(), "|", transaction.type().getName(), transaction.userLastname(),
+                                "|", transaction.sumRecipient(), statement.currency(), "\n")));
+        return result.toString();
+    }
+
+    @Benchmark
+    public String templateStatement() {
+        return checkService.createTransactionStatement(statement);
+    }
+
+}
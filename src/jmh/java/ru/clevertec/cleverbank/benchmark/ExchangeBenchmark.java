@@ -0,0 +1,99 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.cache.RateCache;
+import ru.clevertec.cleverbank.cache.impl.RateCacheImpl;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает время обмена суммы между валютами по прежнему пошаговому расчёту через BYN (два поиска курса и четыре
+ * операции BigDecimal с округлением на каждом шаге) и по матрице кросс-курсов RateCacheImpl (один поиск и одно
+ * умножение). Курсы заранее лежат в памяти, поэтому замер показывает только стоимость арифметики и поиска.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExchangeBenchmark {
+
+    @Param({"USD:EUR", "EUR:BYN", "BYN:RUB"})
+    private String pair;
+
+    private Currency currencySender;
+    private Currency currencyRecipient;
+    private BigDecimal sum;
+    private Map<Currency, NbRBCurrency> rates;
+    private RateCache rateCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] currencies = pair.split(":");
+        currencySender = Currency.valueOf(currencies[0]);
+        currencyRecipient = Currency.valueOf(currencies[1]);
+        sum = new BigDecimal("1234.56");
+        rates = Map.of(Currency.USD, rate(Currency.USD, 1, "3.2511"),
+                Currency.EUR, rate(Currency.EUR, 1, "3.4773"),
+                Currency.RUB, rate(Currency.RUB, 100, "3.3817"));
+        rateCache = new RateCacheImpl("benchmark", Clock.systemUTC());
+        rates.values().forEach(rateCache::put);
+    }
+
+    @Benchmark
+    public BigDecimal stepwise() {
+        if (currencyRecipient.equals(Currency.BYN)) {
+            NbRBCurrency nbRBCurrency = rates.get(currencySender);
+            return sum.multiply(nbRBCurrency.getRate())
+                    .divide(BigDecimal.valueOf(nbRBCurrency.getScale()), 2, RoundingMode.UP);
+        } else if (currencySender.equals(Currency.BYN)) {
+            NbRBCurrency nbRBCurrency = rates.get(currencyRecipient);
+            return sum.divide(nbRBCurrency.getRate(), 2, RoundingMode.UP)
+                    .multiply(BigDecimal.valueOf(nbRBCurrency.getScale()));
+        }
+        NbRBCurrency nbRBCurrencySender = rates.get(currencySender);
+        NbRBCurrency nbRBCurrencyRecipient = rates.get(currencyRecipient);
+        return sum.multiply(nbRBCurrencySender.getRate())
+                .divide(BigDecimal.valueOf(nbRBCurrencySender.getScale()), 2, RoundingMode.UP)
+                .divide(nbRBCurrencyRecipient.getRate(), 2, RoundingMode.UP)
+                .multiply(BigDecimal.valueOf(nbRBCurrencyRecipient.getScale()))
+                .setScale(2, RoundingMode.UP);
+    }
+
+    @Benchmark
+    public BigDecimal crossRate() {
+        return sum.multiply(rateCache.getCrossRate(currencySender, currencyRecipient).orElseThrow())
+                .setScale(2, RoundingMode.UP);
+    }
+
+    private static NbRBCurrency rate(Currency currency, int scale, String rate) {
+        return NbRBCurrency.builder()
+                .currencyId(currency.getCode())
+                .currency(currency)
+                .scale(scale)
+                .rate(new BigDecimal(rate))
+                .updateDate(LocalDateTime.now())
+                .build();
+    }
+
+}
@@ -0,0 +1,93 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.util.ExecutorManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает задержку и пропускную способность обработки запросов в пуле платформенных потоков и в виртуальных потоках
+ * при 1024 одновременных клиентах. Каждый клиент — поток JMH, который отправляет задачу в исполнитель и ждёт её
+ * завершения, как асинхронный запрос TransactionServlet. Задача имитирует типичный запрос: короткий блокирующий вызов
+ * к PostgreSQL через пул соединений размером maximumPoolSize и более долгий блокирующий вызов к MongoDB.
+ * Лимиты обоих исполнителей заданы с запасом над числом клиентов, чтобы в замер не попадали отказы 503.
+ * Режим SampleTime выводит перцентили задержки, включая p0.99, режим Throughput — число запросов в секунду.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Threads(1024)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ExecutorBenchmark {
+
+    private static final int CLIENTS = 1024;
+    private static final int DATABASE_POOL_SIZE = 30;
+    private static final long DATABASE_MILLIS = 2;
+    private static final long MONGO_MILLIS = 10;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threads;
+
+    private ExecutorService executor;
+    private Semaphore databasePool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "VIRTUAL".equals(threads)
+                ? ExecutorManager.createVirtualExecutor("benchmark", 2 * CLIENTS)
+                : ExecutorManager.createExecutor("benchmark", 20, 20, CLIENTS, 60);
+        databasePool = new Semaphore(DATABASE_POOL_SIZE, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        CompletableFuture.runAsync(this::handleRequest, executor).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void latency() {
+        CompletableFuture.runAsync(this::handleRequest, executor).join();
+    }
+
+    private void handleRequest() {
+        try {
+            databasePool.acquire();
+            try {
+                Thread.sleep(DATABASE_MILLIS);
+            } finally {
+                databasePool.release();
+            }
+            Thread.sleep(MONGO_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
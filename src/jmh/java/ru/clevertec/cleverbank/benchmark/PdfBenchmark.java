@@ -0,0 +1,94 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.Type;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.PdfService;
+import ru.clevertec.cleverbank.service.impl.CheckServiceImpl;
+import ru.clevertec.cleverbank.service.impl.PdfServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает количество чеков перевода в PDF в секунду двумя способами: прежним для таких задач, когда шрифт
+ * читается и разбирается для каждого документа, а каждая строка добавляется объектом Paragraph, и через PdfServiceImpl,
+ * который разбирает шрифт один раз и выводит строки прямо в поток содержимого страницы.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PdfBenchmark {
+
+    private static final String FONT = "liberation/LiberationMono-Regular.ttf";
+
+    private PdfService pdfService;
+    private String check;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CheckService checkService = new CheckServiceImpl();
+        pdfService = new PdfServiceImpl();
+        check = checkService.createTransferBalanceCheck(new TransferBalanceResponse(1234567890L,
+                LocalDate.of(2023, 9, 1), LocalTime.of(21, 40, 8), Currency.BYN, Type.TRANSFER, "Клевер-Банк",
+                "Альфа-Банк", "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q", "55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9",
+                new BigDecimal("100.00"), new BigDecimal("1000.00"), new BigDecimal("900.00"),
+                new BigDecimal("500.00"), new BigDecimal("600.00")));
+    }
+
+    @Benchmark
+    public byte[] paragraphCheck() throws IOException, DocumentException {
+        BaseFont baseFont;
+        try (InputStream inputStream = PdfBenchmark.class.getClassLoader().getResourceAsStream(FONT)) {
+            baseFont = BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, BaseFont.NOT_CACHED,
+                    inputStream.readAllBytes(), null);
+        }
+        Font font = new Font(baseFont, 9);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter.getInstance(document, outputStream);
+        document.open();
+        for (String line : check.split("\n")) {
+            document.add(new Paragraph(12, line, font));
+        }
+        document.close();
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedFontCheck() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfService.writeText(new StringReader(check), outputStream);
+        return outputStream.toByteArray();
+    }
+
+}
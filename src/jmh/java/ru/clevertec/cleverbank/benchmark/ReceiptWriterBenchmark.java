@@ -0,0 +1,104 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.model.DurabilityMode;
+import ru.clevertec.cleverbank.util.ReceiptWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Сравнивает время, которое поток запроса тратит на сохранение чека перевода: прежнюю запись через Files.write, которая
+ * открывает и закрывает общий файл чеков на каждый чек, и постановку чека в очередь ReceiptWriter, который записывает
+ * каждый чек в собственный файл. Чеки пишут 20 потоков, как заполненный пул transactions. Замер store включает только
+ * ожидание места в очереди, поэтому при диске медленнее потока чеков он покажет и стоимость записи. Индекс чеков
+ * в замере не сохраняется. Файлы создаются во временном каталоге и удаляются после замера.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Threads(20)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReceiptWriterBenchmark {
+
+    private static final String CHECK = """
+            ----------------------------------------------------------
+            |                     Банковский чек                     |
+            | Чек:                                        1234567890 |
+            | 2023-09-01                                    21:40:08 |
+            | Тип транзакции:                                Перевод |
+            | Банк отправителя:                          Клевер-Банк |
+            | Банк получателя:                            Альфа-Банк |
+            | Счет отправителя:   G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q |
+            | Счет получателя:    55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9 |
+            | Сумма:                                      100.00 BYN |
+            ----------------------------------------------------------
+            """;
+
+    @Param({"WRITE", "FSYNC"})
+    private DurabilityMode durability;
+
+    private Path directory;
+    private Path filesWritePath;
+    private final AtomicLong transactionIds = new AtomicLong();
+    private ReceiptWriter receiptWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("receipts");
+        filesWritePath = directory.resolve("FilesWrite.txt");
+        receiptWriter = new ReceiptWriter("benchmark.receipts", 10_000, 256, durability, directory, receipts -> {
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        receiptWriter.close(60);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void filesWrite() throws IOException {
+        if (durability == DurabilityMode.FSYNC) {
+            Files.write(filesWritePath, CHECK.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } else {
+            Files.write(filesWritePath, CHECK.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    @Benchmark
+    public void store() {
+        long transactionId = transactionIds.incrementAndGet();
+        receiptWriter.store(transactionId, CHECK + transactionId);
+    }
+
+}
@@ -0,0 +1,134 @@
+package ru.clevertec.cleverbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.clevertec.cleverbank.dao.TransactionDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.dao.impl.TransactionDAOImpl;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.model.Transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает чтение истории транзакций загруженного счёта тремя способами: весь список, как прежний
+ * findAllBySendersAccountId, страница через OFFSET и страница через курсор findHistoryPage. Перед замером таблица
+ * transactions дополняется до 10 000 000 строк 20 тестовых счетов, по 500 000 транзакций на счёт, если их ещё нет.
+ * Параметр depth задаёт, сколько транзакций пропущено до запрашиваемой страницы: OFFSET читает и отбрасывает их все,
+ * а курсор начинает чтение индекса сразу с нужного места. Нужна локальная база PostgreSQL из application.yaml
+ * с применённой миграцией history.sql.
+ * Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionHistoryBenchmark {
+
+    private static final long ROWS = 10_000_000;
+    private static final int ACCOUNTS = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final String ACCOUNT_ID = "BENCH SENDER 00";
+    private static final String OFFSET_SQL = """
+            SELECT * FROM transactions WHERE account_sender_id = ?
+            ORDER BY date DESC, id DESC OFFSET ? LIMIT ?""";
+
+    @Param({"0", "10000", "400000"})
+    private int depth;
+
+    private ConnectionManager connectionManager;
+    private TransactionDAO transactionDAO;
+    private TransactionHistoryRequest request;
+    private TransactionCursor cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connectionManager = new ConnectionManagerImpl();
+        transactionDAO = new TransactionDAOImpl(connectionManager);
+        request = new TransactionHistoryRequest(ACCOUNT_ID, null, null, null, null, null, null, PAGE_SIZE);
+        seed();
+        List<Transaction> previous = depth > 0 ? findByOffset(depth - 1, 1) : List.of();
+        cursor = previous.isEmpty() ? null : TransactionCursor.of(previous.get(0));
+    }
+
+    @Benchmark
+    public List<Transaction> unbounded() {
+        return transactionDAO.findAllBySendersAccountId(ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public List<Transaction> offsetPage() throws SQLException {
+        return findByOffset(depth, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Transaction> keysetPage() {
+        return transactionDAO.findHistoryPage(request, cursor, PAGE_SIZE);
+    }
+
+    private List<Transaction> findByOffset(int offset, int limit) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(OFFSET_SQL)) {
+            preparedStatement.setString(1, ACCOUNT_ID);
+            preparedStatement.setInt(2, offset);
+            preparedStatement.setInt(3, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    transactions.add(Transaction.builder()
+                            .id(resultSet.getLong("id"))
+                            .date(resultSet.getDate("date").toLocalDate())
+                            .build());
+                }
+            }
+        }
+        return transactions;
+    }
+
+    private void seed() throws SQLException {
+        try (Connection connection = connectionManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT count(*) FROM transactions WHERE account_sender_id LIKE 'BENCH SENDER %'")) {
+                resultSet.next();
+                if (resultSet.getLong(1) == ROWS) {
+                    return;
+                }
+            }
+            statement.executeUpdate("DELETE FROM transactions WHERE account_sender_id LIKE 'BENCH SENDER %'");
+            statement.executeUpdate("""
+                    INSERT INTO transactions (date, time, type, bank_sender_id, bank_recipient_id, account_sender_id,
+                                              account_recipient_id, sum_sender, sum_recipient)
+                    SELECT DATE '2020-01-01' + (g %% 1461)::int,
+                           TIME '00:00' + (g %% 86400) * INTERVAL '1 second',
+                           'TRANSFER', 1, 1,
+                           'BENCH SENDER ' || lpad((g %% %d)::text, 2, '0'),
+                           'BENCH RECIPIENT ' || lpad((g %% 1000)::text, 4, '0'),
+                           10, 10
+                    FROM generate_series(1, %d) g""".formatted(ACCOUNTS, ROWS));
+            statement.execute("ANALYZE transactions");
+        }
+    }
+
+}
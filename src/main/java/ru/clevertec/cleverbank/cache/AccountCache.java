@@ -0,0 +1,19 @@
+package ru.clevertec.cleverbank.cache;
+
+import ru.clevertec.cleverbank.model.Account;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface AccountCache {
+
+    Optional<Account> get(String id, Function<String, Optional<Account>> loader);
+
+    void invalidate(String id);
+
+    void invalidateAll(Collection<String> ids);
+
+    void invalidateAll();
+
+}
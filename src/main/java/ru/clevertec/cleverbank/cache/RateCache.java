@@ -0,0 +1,18 @@
+package ru.clevertec.cleverbank.cache;
+
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface RateCache {
+
+    Optional<NbRBCurrency> get(Currency currency, Function<Currency, Optional<NbRBCurrency>> loader);
+
+    void put(NbRBCurrency nbRBCurrency);
+
+    Optional<BigDecimal> getCrossRate(Currency from, Currency to);
+
+}
@@ -0,0 +1,20 @@
+package ru.clevertec.cleverbank.cache;
+
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface RateHistoryCache {
+
+    boolean covers(LocalDateTime at);
+
+    Optional<NbRBCurrency> findAt(Currency currency, LocalDateTime at,
+                                  Function<LocalDateTime, List<NbRBCurrency>> windowLoader);
+
+    void put(NbRBCurrency nbRBCurrency);
+
+}
@@ -0,0 +1,17 @@
+package ru.clevertec.cleverbank.cache;
+
+import java.util.Optional;
+
+public interface ReferenceCache<K, V> {
+
+    Optional<V> get(K id);
+
+    void put(V value);
+
+    void invalidate(K id);
+
+    void preload();
+
+    void refresh();
+
+}
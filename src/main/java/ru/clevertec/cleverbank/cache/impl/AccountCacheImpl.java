@@ -0,0 +1,120 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.model.Account;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+public class AccountCacheImpl implements AccountCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache<String, Account> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Конструктор, который создаёт кэш счетов с вытеснением по размеру (W-TinyLFU) и по времени после записи. Число
+     * попаданий, промахов, вытеснений и текущий размер кэша публикуются в MetricsRegistry под префиксом cache.{name}.
+     *
+     * @param name                     String, представляющая имя кэша в метриках
+     * @param maximumSize              long, представляющее максимальное число счетов в кэше
+     * @param expireAfterWriteSeconds  long, представляющее время жизни записи в секундах
+     */
+    public AccountCacheImpl(String name, long maximumSize, long expireAfterWriteSeconds) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        String prefix = "cache." + name;
+        MetricsRegistry.registerGauge(prefix + ".hits", () -> cache.stats().hitCount());
+        MetricsRegistry.registerGauge(prefix + ".misses", () -> cache.stats().missCount());
+        MetricsRegistry.registerGauge(prefix + ".evictions", () -> cache.stats().evictionCount());
+        MetricsRegistry.registerGauge(prefix + ".size", cache::estimatedSize);
+    }
+
+    /**
+     * Реализует метод get, который возвращает счёт из кэша, а при промахе загружает его с помощью loader и кладёт
+     * в кэш. Отсутствующие счета не кэшируются. Загрузка выполняется вне блокировок кэша, чтобы ожидание строки
+     * в базе данных не блокировало инвалидацию других счетов. Поэтому перед загрузкой запоминается поколение счёта,
+     * которое увеличивает каждая инвалидация, и загруженный счёт кладётся в кэш, только если поколение не изменилось:
+     * счёт, прочитанный до фиксации изменения, не вернётся в кэш после его инвалидации. Кэш хранит и возвращает копии
+     * счетов, поэтому изменение баланса возвращённого объекта не меняет запись в кэше.
+     *
+     * @param id     String, представляющая id счёта
+     * @param loader объект Function, загружающий счёт из базы данных при промахе
+     * @return объект Optional, содержащий копию счёта или пустой, если счёт не найден
+     */
+    @Override
+    public Optional<Account> get(String id, Function<String, Optional<Account>> loader) {
+        Account cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = generations.get(stripe(id));
+        Optional<Account> loaded = loader.apply(id);
+        loaded.ifPresent(account -> cache.asMap().compute(id, (key, current) ->
+                generations.get(stripe(id)) == generation ? copy(account) : current));
+        return loaded;
+    }
+
+    /**
+     * Реализует метод invalidate, который удаляет счёт из кэша. Вызывается после фиксации каждого изменения счёта, чтобы следующее
+     * чтение получило данные из базы данных.
+     *
+     * @param id String, представляющая id счёта
+     */
+    @Override
+    public void invalidate(String id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    /**
+     * Реализует метод invalidateAll, который удаляет из кэша все счета с заданными id.
+     *
+     * @param ids коллекция String, представляющая id счетов
+     */
+    @Override
+    public void invalidateAll(Collection<String> ids) {
+        ids.forEach(id -> generations.incrementAndGet(stripe(id)));
+        cache.invalidateAll(ids);
+    }
+
+    /**
+     * Реализует метод invalidateAll, который очищает кэш. Вызывается при удалении банка или пользователя вместе с их
+     * счетами.
+     */
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * Метод stripe, который возвращает номер поколения, общего для счетов с одинаковым остатком хэша id. Счета одного
+     * номера инвалидируют загрузки друг друга, что только снижает долю попаданий, а число поколений не растёт вместе
+     * с числом счетов.
+     *
+     * @param id String, представляющая id счёта
+     * @return int, представляющее номер поколения счёта
+     */
+    private static int stripe(String id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static Account copy(Account account) {
+        return new Account(account.getId(), account.getCurrency(), account.getBalance(), account.getOpeningDate(),
+                account.getClosingDate(), account.getBank(), account.getUser(), account.getVersion());
+    }
+
+}
@@ -0,0 +1,36 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.model.Account;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+public class DisabledAccountCache implements AccountCache {
+
+    /**
+     * Реализует метод get, который всегда загружает счёт с помощью loader, не сохраняя его.
+     *
+     * @param id     String, представляющая id счёта
+     * @param loader объект Function, загружающий счёт из базы данных
+     * @return объект Optional, содержащий счёт или пустой, если счёт не найден
+     */
+    @Override
+    public Optional<Account> get(String id, Function<String, Optional<Account>> loader) {
+        return loader.apply(id);
+    }
+
+    @Override
+    public void invalidate(String id) {
+    }
+
+    @Override
+    public void invalidateAll(Collection<String> ids) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+
+}
@@ -0,0 +1,131 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import ru.clevertec.cleverbank.cache.RateCache;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+public class RateCacheImpl implements RateCache {
+
+    private static final int CROSS_RATE_SCALE = 16;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final AtomicReference<Snapshot> snapshot;
+    private final Clock clock;
+
+    /**
+     * Конструктор, который создаёт пустую таблицу курсов. Таблица вместе с матрицей кросс-курсов хранится как
+     * неизменяемый снимок, который целиком заменяется при каждом новом курсе, поэтому чтение курса не требует
+     * блокировок. Размер таблицы и время в секундах,
+     * прошедшее с последней замены снимка, публикуются в MetricsRegistry под префиксом cache.{name}.
+     *
+     * @param name  String, представляющая имя кэша в метриках
+     * @param clock объект Clock, по которому отсчитывается возраст снимка
+     */
+    public RateCacheImpl(String name, Clock clock) {
+        this.clock = clock;
+        this.snapshot = new AtomicReference<>(new Snapshot(Map.of(), crossRates(Map.of()), clock.instant()));
+        String prefix = "cache." + name;
+        MetricsRegistry.registerGauge(prefix + ".size", () -> snapshot.get().rates().size());
+        MetricsRegistry.registerGauge(prefix + ".age.seconds",
+                () -> Duration.between(snapshot.get().swappedAt(), clock.instant()).toSeconds());
+    }
+
+    /**
+     * Реализует метод get, который возвращает курс из текущего снимка, а если курса валюты в нём ещё нет, загружает
+     * его с помощью loader и добавляет в таблицу.
+     *
+     * @param currency объект Currency, представляющий валюту
+     * @param loader   объект Function, загружающий последний курс валюты из базы данных при промахе
+     * @return объект Optional, содержащий курс или пустой, если курс не найден
+     */
+    @Override
+    public Optional<NbRBCurrency> get(Currency currency, Function<Currency, Optional<NbRBCurrency>> loader) {
+        NbRBCurrency cached = snapshot.get().rates().get(currency);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<NbRBCurrency> loaded = loader.apply(currency);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Реализует метод put, который атомарно заменяет снимок на копию с новым курсом и заново рассчитанной матрицей
+     * кросс-курсов. Курс, который старше уже сохранённого курса той же валюты, игнорируется, чтобы загрузка при промахе
+     * не затёрла более свежий курс.
+     *
+     * @param nbRBCurrency объект NbRBCurrency, представляющий курс валюты
+     */
+    @Override
+    public void put(NbRBCurrency nbRBCurrency) {
+        snapshot.updateAndGet(current -> {
+            NbRBCurrency existing = current.rates().get(nbRBCurrency.getCurrency());
+            if (existing != null && existing.getUpdateDate().isAfter(nbRBCurrency.getUpdateDate())) {
+                return current;
+            }
+            Map<Currency, NbRBCurrency> rates = new EnumMap<>(Currency.class);
+            rates.putAll(current.rates());
+            rates.put(nbRBCurrency.getCurrency(), nbRBCurrency);
+            return new Snapshot(Collections.unmodifiableMap(rates), crossRates(rates), clock.instant());
+        });
+    }
+
+    /**
+     * Реализует метод getCrossRate, который возвращает из матрицы текущего снимка, сколько единиц валюты to стоит
+     * одна единица валюты from.
+     *
+     * @param from объект Currency, представляющий исходную валюту
+     * @param to   объект Currency, представляющий целевую валюту
+     * @return объект Optional, содержащий кросс-курс, или пустой, если курса одной из валют ещё нет в кэше
+     */
+    @Override
+    public Optional<BigDecimal> getCrossRate(Currency from, Currency to) {
+        return Optional.ofNullable(snapshot.get().crossRates()[from.ordinal()][to.ordinal()]);
+    }
+
+    /**
+     * Рассчитывает матрицу кросс-курсов всех пар валют через BYN. Каждый кросс-курс получается одним делением
+     * с точностью CROSS_RATE_SCALE знаков, поэтому при обмене округляется только итоговая сумма.
+     *
+     * @param rates объект Map, представляющий последние курсы валют к BYN
+     * @return двумерный массив BigDecimal, индексированный порядковыми номерами валют, где null означает, что курса
+     * одной из валют нет
+     */
+    private static BigDecimal[][] crossRates(Map<Currency, NbRBCurrency> rates) {
+        BigDecimal[][] crossRates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (Currency from : CURRENCIES) {
+            for (Currency to : CURRENCIES) {
+                NbRBCurrency fromRate = rates.get(from);
+                NbRBCurrency toRate = rates.get(to);
+                if (from == to) {
+                    crossRates[from.ordinal()][to.ordinal()] = BigDecimal.ONE;
+                } else if ((fromRate != null || from == Currency.BYN) && (toRate != null || to == Currency.BYN)) {
+                    BigDecimal bynPerFromScale = fromRate != null ? fromRate.getRate() : BigDecimal.ONE;
+                    BigDecimal fromScale = fromRate != null ? BigDecimal.valueOf(fromRate.getScale()) : BigDecimal.ONE;
+                    BigDecimal bynPerToScale = toRate != null ? toRate.getRate() : BigDecimal.ONE;
+                    BigDecimal toScale = toRate != null ? BigDecimal.valueOf(toRate.getScale()) : BigDecimal.ONE;
+                    crossRates[from.ordinal()][to.ordinal()] = bynPerFromScale.multiply(toScale)
+                            .divide(bynPerToScale.multiply(fromScale), CROSS_RATE_SCALE, RoundingMode.HALF_EVEN);
+                }
+            }
+        }
+        return crossRates;
+    }
+
+    private record Snapshot(Map<Currency, NbRBCurrency> rates, BigDecimal[][] crossRates, Instant swappedAt) {
+    }
+
+}
@@ -0,0 +1,116 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import ru.clevertec.cleverbank.cache.RateHistoryCache;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+public class RateHistoryCacheImpl implements RateHistoryCache {
+
+    private final Map<Currency, NavigableMap<LocalDateTime, NbRBCurrency>> history = new ConcurrentHashMap<>();
+    private final String prefix;
+    private final Duration window;
+    private final Clock clock;
+
+    /**
+     * Конструктор, который создаёт кэш истории курсов за последние дни. Для каждой валюты кэш хранит курсы,
+     * упорядоченные по дате обновления, поэтому курс на дату находится как ближайший курс не позже неё. Число
+     * попаданий, промахов и число хранимых курсов публикуются в MetricsRegistry под префиксом cache.{name}.
+     *
+     * @param name   String, представляющая имя кэша в метриках
+     * @param window объект Duration, представляющий глубину хранимой истории
+     * @param clock  объект Clock, по которому отсчитывается начало хранимой истории
+     */
+    public RateHistoryCacheImpl(String name, Duration window, Clock clock) {
+        this.prefix = "cache." + name;
+        this.window = window;
+        this.clock = clock;
+        MetricsRegistry.registerGauge(prefix + ".size", () -> history.values().stream()
+                .mapToInt(Map::size)
+                .sum());
+    }
+
+    /**
+     * Реализует метод covers, который проверяет, попадает ли момент времени в хранимую историю.
+     *
+     * @param at объект LocalDateTime, представляющий момент времени
+     * @return true, если курс на этот момент можно найти в кэше, иначе false
+     */
+    @Override
+    public boolean covers(LocalDateTime at) {
+        return !at.isBefore(windowStart());
+    }
+
+    /**
+     * Реализует метод findAt, который возвращает курс валюты, действовавший в заданный момент. При первом обращении
+     * к валюте её история загружается целиком с помощью windowLoader, последующие обращения не ходят в базу данных.
+     * Загрузка выполняется вне блокировок ConcurrentHashMap, и если другой поток успел сохранить историю раньше,
+     * используется она.
+     * Курсы, вышедшие за пределы истории, удаляются, кроме последнего из них, который действует на её начало.
+     *
+     * @param currency     объект Currency, представляющий валюту
+     * @param at           объект LocalDateTime, представляющий момент времени внутри хранимой истории
+     * @param windowLoader объект Function, загружающий курсы валюты, действовавшие начиная с заданного момента
+     * @return объект Optional, содержащий курс или пустой, если на этот момент курса ещё не было
+     */
+    @Override
+    public Optional<NbRBCurrency> findAt(Currency currency, LocalDateTime at,
+                                         Function<LocalDateTime, List<NbRBCurrency>> windowLoader) {
+        NavigableMap<LocalDateTime, NbRBCurrency> rates = history.get(currency);
+        if (rates != null) {
+            MetricsRegistry.increment(prefix + ".hits");
+        } else {
+            MetricsRegistry.increment(prefix + ".misses");
+            NavigableMap<LocalDateTime, NbRBCurrency> loaded = load(windowLoader);
+            NavigableMap<LocalDateTime, NbRBCurrency> stored = history.putIfAbsent(currency, loaded);
+            rates = stored != null ? stored : loaded;
+        }
+        evictBeforeWindow(rates);
+        return Optional.ofNullable(rates.floorEntry(at))
+                .map(Map.Entry::getValue);
+    }
+
+    /**
+     * Реализует метод put, который добавляет новый курс в историю валюты, если она уже загружена. Незагруженная
+     * история получит этот курс из базы данных при первом обращении.
+     *
+     * @param nbRBCurrency объект NbRBCurrency, представляющий курс валюты
+     */
+    @Override
+    public void put(NbRBCurrency nbRBCurrency) {
+        NavigableMap<LocalDateTime, NbRBCurrency> rates = history.get(nbRBCurrency.getCurrency());
+        if (rates != null) {
+            rates.put(nbRBCurrency.getUpdateDate(), nbRBCurrency);
+        }
+    }
+
+    private NavigableMap<LocalDateTime, NbRBCurrency> load(Function<LocalDateTime, List<NbRBCurrency>> windowLoader) {
+        NavigableMap<LocalDateTime, NbRBCurrency> rates = new ConcurrentSkipListMap<>();
+        windowLoader.apply(windowStart())
+                .forEach(rate -> rates.put(rate.getUpdateDate(), rate));
+        return rates;
+    }
+
+    private void evictBeforeWindow(NavigableMap<LocalDateTime, NbRBCurrency> rates) {
+        LocalDateTime effectiveAtStart = rates.floorKey(windowStart());
+        if (effectiveAtStart != null) {
+            rates.headMap(effectiveAtStart, false).clear();
+        }
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now(clock).minus(window);
+    }
+
+}
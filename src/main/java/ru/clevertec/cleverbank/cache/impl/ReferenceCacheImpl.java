@@ -0,0 +1,141 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+public class ReferenceCacheImpl<K, V> implements ReferenceCache<K, V> {
+
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final String prefix;
+    private final Function<V, K> idGetter;
+    private final Function<K, Optional<V>> loader;
+    private final Supplier<List<V>> allLoader;
+    private final Function<OffsetDateTime, List<V>> updatedSinceLoader;
+    private final Supplier<List<K>> idsLoader;
+    private final AtomicLong generation = new AtomicLong();
+    private final Duration overlap;
+    private final Clock clock;
+    private volatile OffsetDateTime lastRefresh;
+
+    /**
+     * Конструктор, который создаёт кэш справочных данных без ограничения размера: банков и пользователей немного,
+     * и меняются они редко. Число попаданий и промахов публикуется в MetricsRegistry под префиксом cache.{name}.
+     *
+     * @param name               String, представляющая имя кэша в метриках
+     * @param idGetter           объект Function, возвращающий id значения
+     * @param loader             объект Function, загружающий значение по id при промахе
+     * @param allLoader          объект Supplier, загружающий все значения при предзагрузке
+     * @param updatedSinceLoader объект Function, загружающий значения, изменённые начиная с заданного времени
+     * @param idsLoader          объект Supplier, загружающий id всех существующих значений, чтобы обновление
+     *                           удаляло из кэша значения, удалённые из базы данных в том числе другими экземплярами
+     * @param overlap            объект Duration, на который окно обновления захватывает предыдущее, чтобы не
+     *                           пропустить изменения, зафиксированные после начала предыдущего обновления, и
+     *                           изменения при расхождении часов приложения и базы данных
+     * @param clock              объект Clock, по которому отсчитывается время обновлений
+     */
+    public ReferenceCacheImpl(String name, Function<V, K> idGetter, Function<K, Optional<V>> loader,
+                              Supplier<List<V>> allLoader, Function<OffsetDateTime, List<V>> updatedSinceLoader,
+                              Supplier<List<K>> idsLoader, Duration overlap, Clock clock) {
+        this.prefix = "cache." + name;
+        this.idGetter = idGetter;
+        this.loader = loader;
+        this.allLoader = allLoader;
+        this.updatedSinceLoader = updatedSinceLoader;
+        this.idsLoader = idsLoader;
+        this.overlap = overlap;
+        this.clock = clock;
+        MetricsRegistry.registerGauge(prefix + ".size", values::size);
+    }
+
+    /**
+     * Реализует метод get, который возвращает значение из кэша, а при промахе загружает его с помощью loader и кладёт
+     * в кэш. Отсутствующие значения не кэшируются. Если во время загрузки было вызвано invalidate, загруженное
+     * значение могло быть прочитано до удаления, поэтому оно возвращается, но в кэш не кладётся.
+     *
+     * @param id объект K, представляющий id значения
+     * @return объект Optional, содержащий значение или пустой, если оно не найдено
+     */
+    @Override
+    public Optional<V> get(K id) {
+        V value = values.get(id);
+        if (value != null) {
+            MetricsRegistry.increment(prefix + ".hits");
+            return Optional.of(value);
+        }
+        MetricsRegistry.increment(prefix + ".misses");
+        long loadGeneration = generation.get();
+        Optional<V> loaded = loader.apply(id);
+        loaded.ifPresent(loadedValue -> values.compute(id, (key, current) ->
+                generation.get() == loadGeneration ? loadedValue : current));
+        return loaded;
+    }
+
+    /**
+     * Реализует метод put, который кладёт в кэш сохранённое или обновлённое значение.
+     *
+     * @param value объект V, представляющий значение
+     */
+    @Override
+    public void put(V value) {
+        values.put(idGetter.apply(value), value);
+    }
+
+    /**
+     * Реализует метод invalidate, который удаляет значение из кэша.
+     *
+     * @param id объект K, представляющий id значения
+     */
+    @Override
+    public void invalidate(K id) {
+        generation.incrementAndGet();
+        values.remove(id);
+    }
+
+    /**
+     * Реализует метод preload, который загружает в кэш все значения и запоминает время загрузки как начало окна для
+     * следующего обновления.
+     */
+    @Override
+    public void preload() {
+        OffsetDateTime startedAt = OffsetDateTime.now(clock);
+        List<V> loaded = allLoader.get();
+        loaded.forEach(this::put);
+        lastRefresh = startedAt;
+        log.info("Preloaded {} entries into {}", loaded.size(), prefix);
+    }
+
+    /**
+     * Реализует метод refresh, который загружает только значения, изменённые после предыдущей загрузки, и обновляет
+     * их в кэше, а затем удаляет из кэша значения, id которых больше нет в базе данных. Если кэш ещё не был загружен,
+     * выполняется полная предзагрузка.
+     */
+    @Override
+    public void refresh() {
+        if (lastRefresh == null) {
+            preload();
+            return;
+        }
+        OffsetDateTime startedAt = OffsetDateTime.now(clock);
+        List<V> updated = updatedSinceLoader.apply(lastRefresh.minus(overlap));
+        updated.forEach(this::put);
+        Set<K> existingIds = new HashSet<>(idsLoader.get());
+        values.keySet().removeIf(id -> !existingIds.contains(id));
+        lastRefresh = startedAt;
+    }
+
+}
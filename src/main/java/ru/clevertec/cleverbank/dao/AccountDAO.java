@@ -2,8 +2,12 @@ package ru.clevertec.cleverbank.dao;
 
 import ru.clevertec.cleverbank.model.Account;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AccountDAO {
 
@@ -13,10 +17,18 @@ public interface AccountDAO {
 
     List<Account> findAllWithPositiveBalance();
 
+    void findAllAfter(String afterId, Integer limit, Consumer<Account> consumer);
+
+    List<Account> findAllByIdsForUpdate(Collection<String> ids);
+
     Optional<Account> save(Account account);
 
     Optional<Account> update(Account account);
 
+    Optional<BigDecimal> addToBalance(String id, BigDecimal delta);
+
+    boolean addToBalances(Map<String, BigDecimal> deltas);
+
     Optional<Account> delete(String id);
 
 }
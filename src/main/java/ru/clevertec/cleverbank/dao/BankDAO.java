@@ -2,8 +2,10 @@ package ru.clevertec.cleverbank.dao;
 
 import ru.clevertec.cleverbank.model.Bank;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BankDAO {
 
@@ -11,6 +13,12 @@ public interface BankDAO {
 
     List<Bank> findAll();
 
+    List<Bank> findAllUpdatedSince(OffsetDateTime since);
+
+    List<Long> findAllIds();
+
+    void findAllAfter(Long afterId, Integer limit, Consumer<Bank> consumer);
+
     Optional<Bank> save(Bank bank);
 
     Optional<Bank> update(Bank bank);
@@ -0,0 +1,21 @@
+package ru.clevertec.cleverbank.dao;
+
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsMismatch;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyAccountTotalsDAO {
+
+    Optional<LocalDate> findCompactedThrough();
+
+    int compact(LocalDate from, LocalDate through);
+
+    void saveCompactedThrough(LocalDate through);
+
+    void deleteAll();
+
+    List<DailyTotalsMismatch> findMismatches(LocalDate through, int limit);
+
+}
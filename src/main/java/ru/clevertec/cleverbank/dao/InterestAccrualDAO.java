@@ -0,0 +1,19 @@
+package ru.clevertec.cleverbank.dao;
+
+import ru.clevertec.cleverbank.dto.interest.InterestChunk;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InterestAccrualDAO {
+
+    boolean isCompleted(LocalDate month);
+
+    List<String> findPartitionBounds(int partitions);
+
+    InterestChunk accrueChunk(LocalDate month, BigDecimal rate, String afterId, String throughId, int limit);
+
+    void saveCompleted(LocalDate month);
+
+}
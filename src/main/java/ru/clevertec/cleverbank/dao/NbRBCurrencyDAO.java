@@ -2,12 +2,24 @@ package ru.clevertec.cleverbank.dao;
 
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface NbRBCurrencyDAO {
 
     Optional<NbRBCurrency> findByCurrencyId(Integer currencyId);
 
+    Optional<NbRBCurrency> findByCurrencyIdAt(Integer currencyId, LocalDateTime at);
+
+    List<NbRBCurrency> findAllByCurrencyIdEffectiveSince(Integer currencyId, LocalDateTime since);
+
     NbRBCurrency save(NbRBCurrency nbRBCurrency);
 
+    List<NbRBCurrency> saveAll(List<NbRBCurrency> rates);
+
+    long convertStringUpdateDates();
+
+    void createIndexes();
+
 }
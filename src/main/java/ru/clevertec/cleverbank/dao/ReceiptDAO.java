@@ -0,0 +1,14 @@
+package ru.clevertec.cleverbank.dao;
+
+import ru.clevertec.cleverbank.model.Receipt;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ReceiptDAO {
+
+    Optional<Receipt> findByTransactionId(Long transactionId);
+
+    void saveAll(List<Receipt> receipts);
+
+}
@@ -1,12 +1,15 @@
 package ru.clevertec.cleverbank.dao;
 
+import ru.clevertec.cleverbank.dto.transaction.AmountStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.model.Transaction;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionDAO {
 
@@ -16,12 +19,15 @@ public interface TransactionDAO {
 
     List<Transaction> findAllByRecipientAccountId(String id);
 
+    List<Transaction> findHistoryPage(TransactionHistoryRequest request, TransactionCursor cursor, int limit);
+
     Transaction save(Transaction transaction);
 
-    List<TransactionStatement> findAllByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id);
+    List<Transaction> saveAll(List<Transaction> transactions);
 
-    BigDecimal findSumOfSpentFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id);
+    void findAllByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id,
+                                           Consumer<TransactionStatement> consumer);
 
-    BigDecimal findSumOfReceivedFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id);
+    AmountStatement findSumOfFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id);
 
 }
@@ -2,8 +2,10 @@ package ru.clevertec.cleverbank.dao;
 
 import ru.clevertec.cleverbank.model.User;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserDAO {
 
@@ -11,6 +13,12 @@ public interface UserDAO {
 
     List<User> findAll();
 
+    List<User> findAllUpdatedSince(OffsetDateTime since);
+
+    List<Long> findAllIds();
+
+    void findAllAfter(Long afterId, Integer limit, Consumer<User> consumer);
+
     Optional<User> save(User user);
 
     Optional<User> update(User user);
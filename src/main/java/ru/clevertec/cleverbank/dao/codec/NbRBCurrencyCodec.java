@@ -1,11 +1,13 @@
 package ru.clevertec.cleverbank.dao.codec;
 
 import lombok.AllArgsConstructor;
+import org.bson.BsonDateTime;
 import org.bson.BsonDecimal128;
 import org.bson.BsonDocument;
 import org.bson.BsonInt32;
 import org.bson.BsonReader;
 import org.bson.BsonString;
+import org.bson.BsonValue;
 import org.bson.BsonWriter;
 import org.bson.codecs.BsonValueCodecProvider;
 import org.bson.codecs.Codec;
@@ -18,7 +20,9 @@ import org.bson.types.Decimal128;
 import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @AllArgsConstructor
 public class NbRBCurrencyCodec implements Codec<NbRBCurrency> {
@@ -30,6 +34,14 @@ public class NbRBCurrencyCodec implements Codec<NbRBCurrency> {
                 new BsonValueCodecProvider());
     }
 
+    /**
+     * Кодирует курс в документ BSON. Дата обновления сохраняется как дата BSON в UTC, так же как её кодирует
+     * LocalDateTimeCodec, поэтому по ней работают индекс и фильтры по диапазону дат.
+     *
+     * @param writer         объект BsonWriter, в который записывается документ
+     * @param value          объект NbRBCurrency, представляющий курс
+     * @param encoderContext объект EncoderContext, представляющий контекст кодирования
+     */
     @Override
     public void encode(BsonWriter writer, NbRBCurrency value, EncoderContext encoderContext) {
         BsonDocument document = new BsonDocument()
@@ -37,10 +49,18 @@ public class NbRBCurrencyCodec implements Codec<NbRBCurrency> {
                 .append("currency", new BsonString(value.getCurrency().name()))
                 .append("scale", new BsonInt32(value.getScale()))
                 .append("rate", new BsonDecimal128(Decimal128.parse(value.getRate().toString())))
-                .append("update_date", new BsonString(value.getUpdateDate().toString()));
+                .append("update_date", new BsonDateTime(toEpochMilli(value.getUpdateDate())));
         codecRegistry.get(BsonDocument.class).encode(writer, document, encoderContext);
     }
 
+    /**
+     * Декодирует курс из документа BSON. Дата обновления читается как дата BSON, а в документах, сохранённых до
+     * перехода на даты BSON, — как строка.
+     *
+     * @param reader         объект BsonReader, из которого читается документ
+     * @param decoderContext объект DecoderContext, представляющий контекст декодирования
+     * @return объект NbRBCurrency, представляющий курс
+     */
     @Override
     public NbRBCurrency decode(BsonReader reader, DecoderContext decoderContext) {
         BsonDocument document = codecRegistry.get(BsonDocument.class).decode(reader, decoderContext);
@@ -50,10 +70,21 @@ public class NbRBCurrencyCodec implements Codec<NbRBCurrency> {
                 .currency(Currency.valueOf(document.getString("currency").getValue()))
                 .scale(document.getInt32("scale").getValue())
                 .rate(document.getDecimal128("rate").decimal128Value().bigDecimalValue())
-                .updateDate(LocalDateTime.parse(document.getString("update_date").getValue()))
+                .updateDate(getUpdateDate(document.get("update_date")))
                 .build();
     }
 
+    private static long toEpochMilli(LocalDateTime updateDate) {
+        return updateDate.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime getUpdateDate(BsonValue updateDate) {
+        if (updateDate.isString()) {
+            return LocalDateTime.parse(updateDate.asString().getValue());
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(updateDate.asDateTime().getValue()), ZoneOffset.UTC);
+    }
+
     @Override
     public Class<NbRBCurrency> getEncoderClass() {
         return NbRBCurrency.class;
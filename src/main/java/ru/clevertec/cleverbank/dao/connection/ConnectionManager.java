@@ -0,0 +1,15 @@
+package ru.clevertec.cleverbank.dao.connection;
+
+import java.sql.Connection;
+
+public interface ConnectionManager {
+
+    Connection getConnection();
+
+    Connection bindConnection();
+
+    void releaseConnection();
+
+    boolean isConnectionBound();
+
+}
@@ -0,0 +1,11 @@
+package ru.clevertec.cleverbank.dao.connection;
+
+import java.util.function.Supplier;
+
+public interface TransactionManager {
+
+    <T> T doInTransaction(Supplier<T> action);
+
+    void afterCompletion(Runnable action);
+
+}
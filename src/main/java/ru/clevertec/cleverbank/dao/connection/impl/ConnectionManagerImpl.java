@@ -0,0 +1,114 @@
+package ru.clevertec.cleverbank.dao.connection.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.util.HikariConnectionManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Slf4j
+@AllArgsConstructor
+public class ConnectionManagerImpl implements ConnectionManager {
+
+    private static final ThreadLocal<Connection> BOUND_CONNECTION = new ThreadLocal<>();
+    private final DataSource dataSource;
+
+    public ConnectionManagerImpl() {
+        dataSource = HikariConnectionManager.getDataSource();
+    }
+
+    /**
+     * Реализует метод getConnection, который возвращает соединение для одной операции с базой данных. Если к текущему
+     * потоку привязано соединение, то возвращается оно, и его закрытие ничего не делает. Иначе соединение берётся
+     * из пула и возвращается в пул при закрытии.
+     *
+     * @return объект Connection, который нужно закрыть после использования
+     * @throws JDBCConnectionException если не удалось получить соединение из пула
+     */
+    @Override
+    public Connection getConnection() {
+        Connection boundConnection = BOUND_CONNECTION.get();
+        return boundConnection != null ? nonClosing(boundConnection) : borrowConnection();
+    }
+
+    /**
+     * Реализует метод bindConnection, который берёт соединение из пула и привязывает его к текущему потоку, чтобы все
+     * DAO в рамках одной единицы работы использовали одно и то же соединение.
+     *
+     * @return объект Connection, привязанный к текущему потоку
+     * @throws JDBCConnectionException если к потоку уже привязано соединение или его не удалось получить из пула
+     */
+    @Override
+    public Connection bindConnection() {
+        if (BOUND_CONNECTION.get() != null) {
+            log.error("Connection is already bound to thread {}", Thread.currentThread().getName());
+            throw new JDBCConnectionException();
+        }
+        Connection connection = borrowConnection();
+        BOUND_CONNECTION.set(connection);
+        return connection;
+    }
+
+    /**
+     * Реализует метод releaseConnection, который отвязывает соединение от текущего потока и возвращает его в пул.
+     */
+    @Override
+    public void releaseConnection() {
+        Connection connection = BOUND_CONNECTION.get();
+        BOUND_CONNECTION.remove();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.error(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Реализует метод isConnectionBound, который проверяет, привязано ли соединение к текущему потоку.
+     *
+     * @return true, если текущий поток уже выполняет единицу работы в рамках привязанного соединения
+     */
+    @Override
+    public boolean isConnectionBound() {
+        return BOUND_CONNECTION.get() != null;
+    }
+
+    private Connection borrowConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Оборачивает привязанное к потоку соединение так, чтобы DAO могли закрывать его в try-with-resources, не
+     * возвращая его в пул раньше окончания единицы работы.
+     *
+     * @param connection объект Connection, привязанный к текущему потоку
+     * @return объект Connection, у которого метод close ничего не делает
+     */
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,114 @@
+package ru.clevertec.cleverbank.dao.connection.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Slf4j
+@AllArgsConstructor
+public class TransactionManagerImpl implements TransactionManager {
+
+    private static final ThreadLocal<List<Runnable>> AFTER_COMPLETION = new ThreadLocal<>();
+    private final ConnectionManager connectionManager;
+
+    public TransactionManagerImpl() {
+        connectionManager = new ConnectionManagerImpl();
+    }
+
+    /**
+     * Реализует метод doInTransaction, который выполняет действие в одной транзакции базы данных. Соединение
+     * привязывается к текущему потоку, поэтому все вызовы DAO внутри действия присоединяются к этой транзакции.
+     * Если транзакция в текущем потоке уже открыта, действие выполняется в её рамках без собственного commit.
+     * После commit или rollback и возврата соединения в пул выполняются действия, зарегистрированные в
+     * afterCompletion.
+     *
+     * @param action объект Supplier, представляющий действие, которое нужно выполнить в транзакции
+     * @param <T>    тип результата действия
+     * @return результат действия после успешного commit
+     * @throws JDBCConnectionException если не удалось открыть или зафиксировать транзакцию
+     * @throws RuntimeException        исключение, выброшенное действием, после отката транзакции
+     */
+    @Override
+    public <T> T doInTransaction(Supplier<T> action) {
+        if (connectionManager.isConnectionBound()) {
+            return action.get();
+        }
+        Connection connection = connectionManager.bindConnection();
+        AFTER_COMPLETION.set(new ArrayList<>());
+        try {
+            connection.setAutoCommit(false);
+            T result = action.get();
+            connection.commit();
+            return result;
+        } catch (SQLException e) {
+            rollback(connection);
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        } catch (RuntimeException e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            restoreAutoCommit(connection);
+            connectionManager.releaseConnection();
+            runAfterCompletion();
+        }
+    }
+
+    /**
+     * Реализует метод afterCompletion, который откладывает действие до окончания транзакции, открытой в текущем
+     * потоке: действие выполняется после её commit или rollback, когда изменения уже видны другим соединениям или
+     * отменены. Если транзакция в текущем потоке не открыта, действие выполняется сразу.
+     *
+     * @param action объект Runnable, представляющий действие, которое нужно выполнить после окончания транзакции
+     */
+    @Override
+    public void afterCompletion(Runnable action) {
+        List<Runnable> actions = AFTER_COMPLETION.get();
+        if (actions == null) {
+            action.run();
+        } else {
+            actions.add(action);
+        }
+    }
+
+    /**
+     * Метод runAfterCompletion, который выполняет действия, отложенные до окончания транзакции текущего потока.
+     * Ошибка одного действия записывается в лог и не мешает выполнению остальных и результату транзакции.
+     */
+    private static void runAfterCompletion() {
+        List<Runnable> actions = AFTER_COMPLETION.get();
+        AFTER_COMPLETION.remove();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error(e.getMessage());
+            }
+        }
+    }
+
+    private void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void restoreAutoCommit(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+}
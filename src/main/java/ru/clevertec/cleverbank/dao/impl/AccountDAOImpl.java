@@ -2,14 +2,24 @@ package ru.clevertec.cleverbank.dao.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
 import ru.clevertec.cleverbank.dao.AccountDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.exception.notfound.BankNotFoundException;
+import ru.clevertec.cleverbank.exception.notfound.UserNotFoundException;
 import ru.clevertec.cleverbank.model.Account;
 import ru.clevertec.cleverbank.model.Bank;
 import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.model.User;
-import ru.clevertec.cleverbank.util.HikariConnectionManager;
+import ru.clevertec.cleverbank.util.CacheManager;
 import ru.clevertec.cleverbank.util.RandomStringGenerator;
+import ru.clevertec.cleverbank.util.YamlUtil;
 
+import java.math.BigDecimal;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -17,21 +27,33 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @AllArgsConstructor
 public class AccountDAOImpl implements AccountDAO {
 
-    private final Connection connection;
+    private static final int FETCH_SIZE = Integer.parseInt(new YamlUtil().getYamlMap().get("postgresql")
+            .get("fetchSize"));
+
+    private final ConnectionManager connectionManager;
+    private final ReferenceCache<Long, Bank> bankCache;
+    private final ReferenceCache<Long, User> userCache;
 
     public AccountDAOImpl() {
-        connection = HikariConnectionManager.getConnection();
+        connectionManager = new ConnectionManagerImpl();
+        bankCache = CacheManager.getBankCache();
+        userCache = CacheManager.getUserCache();
     }
 
     /**
-     * Находит счёт по его id и связанные с ним банк и юзера в базе данных и возвращает его в виде объекта Optional.
+     * Находит счёт по его id в базе данных и возвращает его в виде объекта Optional. Связанные со счётом банк и юзер
+     * берутся из кэша справочных данных.
      *
      * @param id String, представляющая идентификатор счета
      * @return объект Optional, содержащий счет, если он найден, или пустой, если нет
@@ -39,13 +61,12 @@ public class AccountDAOImpl implements AccountDAO {
     @Override
     public Optional<Account> findById(String id) {
         String sql = """
-                SELECT * FROM accounts a
-                JOIN banks b ON b.id = a.bank_id
-                JOIN users u ON u.id = a.user_id
-                WHERE a.id = ?
+                SELECT * FROM accounts
+                WHERE id = ?
                 """;
         Optional<Account> account = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
@@ -55,11 +76,12 @@ public class AccountDAOImpl implements AccountDAO {
         } catch (SQLException e) {
             log.error(e.getMessage());
         }
-        return account;
+        return account.map(this::resolveReferences);
     }
 
     /**
-     * Находит все счета и связанные с ним банк и юзера в базе данных и возвращает их в виде списка объектов Account.
+     * Находит все счета в базе данных и возвращает их в виде списка объектов Account. Связанные со счетами банки и
+     * юзеры берутся из кэша справочных данных.
      *
      * @return список объектов Account, представляющих счета
      */
@@ -67,16 +89,14 @@ public class AccountDAOImpl implements AccountDAO {
     public List<Account> findAll() {
         List<Account> accounts = new ArrayList<>();
         String sql = """
-                SELECT * FROM accounts a
-                JOIN banks b ON b.id = a.bank_id
-                JOIN users u ON u.id = a.user_id
+                SELECT * FROM accounts
                 """;
         return getAccounts(accounts, sql);
     }
 
     /**
-     * Находит все счета чей баланс больше 0 и связанные с ним банк и юзера в базе данных и возвращает их в виде
-     * списка объектов Account.
+     * Находит все счета чей баланс больше 0 в базе данных и возвращает их в виде списка объектов Account. Связанные со
+     * счетами банки и юзеры берутся из кэша справочных данных.
      *
      * @return список объектов Account, представляющих счета
      */
@@ -84,14 +104,77 @@ public class AccountDAOImpl implements AccountDAO {
     public List<Account> findAllWithPositiveBalance() {
         List<Account> accounts = new ArrayList<>();
         String sql = """
-                SELECT * FROM accounts a
-                JOIN banks b ON b.id = a.bank_id
-                JOIN users u ON u.id = a.user_id
-                WHERE a.balance > 0
+                SELECT * FROM accounts
+                WHERE balance > 0
                 """;
         return getAccounts(accounts, sql);
     }
 
+    /**
+     * Находит счета с заданными id одним запросом и блокирует их строки до конца текущей транзакции. Строки
+     * блокируются в порядке возрастания id, поэтому пакеты с пересекающимися счетами не приводят к взаимной
+     * блокировке. Связанные со счетами банки и юзеры берутся из кэша справочных данных.
+     *
+     * @param ids коллекция String, представляющая идентификаторы счетов
+     * @return список объектов Account, представляющих найденные счета, отсортированный по id
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<Account> findAllByIdsForUpdate(Collection<String> ids) {
+        List<Account> accounts = new ArrayList<>();
+        String sql = """
+                SELECT * FROM accounts
+                WHERE id = ANY (?)
+                ORDER BY id
+                FOR UPDATE
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            Array idArray = connection.createArrayOf("varchar", ids.toArray());
+            preparedStatement.setArray(1, idArray);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    accounts.add(getAccountFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        accounts.forEach(this::resolveReferences);
+        return accounts;
+    }
+
+    /**
+     * Последовательно читает счета с id больше afterId в порядке возрастания id и передаёт каждую запись в consumer,
+     * не собирая их в список. Счета читаются порциями не больше FETCH_SIZE записей, каждая следующая порция
+     * продолжается после последнего id предыдущей, поэтому расход памяти не зависит от размера таблицы. Банк и юзер
+     * счетов порции берутся из кэша справочных данных уже после закрытия соединения, поэтому промах кэша и медленный
+     * consumer не удерживают соединение из пула.
+     *
+     * @param afterId  String, представляющее id, после которого начинается страница, или null для первой страницы
+     * @param limit    Integer, представляющее максимальное количество записей, или null, чтобы прочитать все
+     * @param consumer объект Consumer, который получает счета по одному
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void findAllAfter(String afterId, Integer limit, Consumer<Account> consumer) {
+        String lastId = afterId != null ? afterId : "";
+        int remaining = limit != null ? limit : Integer.MAX_VALUE;
+        while (remaining > 0) {
+            int batchSize = Math.min(remaining, FETCH_SIZE);
+            List<Account> batch = findBatchAfter(lastId, batchSize);
+            batch.stream()
+                    .map(this::resolveReferences)
+                    .forEach(consumer);
+            if (batch.size() < batchSize) {
+                return;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            remaining -= batchSize;
+        }
+    }
+
     /**
      * Сохраняет счёт в базе данных и возвращает его в виде объекта Account.
      *
@@ -105,7 +188,8 @@ public class AccountDAOImpl implements AccountDAO {
                 VALUES (?, ?, ?, ?, ?, ?, ?)
                 """;
         Optional<Account> accountOptional = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setAccountValuesInStatement(preparedStatement, account);
             preparedStatement.setString(7, RandomStringGenerator.generateRandomString());
             preparedStatement.executeUpdate();
@@ -113,6 +197,7 @@ public class AccountDAOImpl implements AccountDAO {
             if (resultSet.next()) {
                 String id = resultSet.getString(1);
                 account.setId(id);
+                account.setVersion(resultSet.getLong("version"));
                 accountOptional = Optional.of(account);
             }
         } catch (SQLException e) {
@@ -122,35 +207,111 @@ public class AccountDAOImpl implements AccountDAO {
     }
 
     /**
-     * Обновляет счёт в базе данных и возвращает его в виде объекта Account.
+     * Обновляет счёт в базе данных и возвращает его в виде объекта Account. Обновление выполняется, только если версия
+     * счёта в базе данных совпадает с версией прочитанного счёта, после чего версия увеличивается на единицу.
      *
      * @param account объект Account, представляющий счёт для обновления
      * @return объект Optional, представляющий обновлённый счёт или пустой, если была SQLException
+     * @throws OptimisticLockException если счёт был изменён другой транзакцией после чтения
      */
     @Override
     public Optional<Account> update(Account account) {
         String sql = """
                 UPDATE accounts
-                SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?
-                WHERE id = ?
+                SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?,
+                    version = version + 1
+                WHERE id = ? AND version = ?
                 """;
         Optional<Account> accountOptional = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setAccountValuesInStatement(preparedStatement, account);
             preparedStatement.setString(7, account.getId());
+            preparedStatement.setLong(8, account.getVersion());
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
-            if (resultSet.next()) {
-                String id = resultSet.getString(1);
-                account.setId(id);
-                accountOptional = Optional.of(account);
+            if (!resultSet.next()) {
+                throw new OptimisticLockException("Account with ID " + account.getId()
+                                                  + " was modified concurrently, expected version " + account.getVersion());
             }
+            String id = resultSet.getString(1);
+            account.setId(id);
+            account.setVersion(resultSet.getLong("version"));
+            accountOptional = Optional.of(account);
         } catch (SQLException e) {
             log.error(e.getMessage());
         }
         return accountOptional;
     }
 
+    /**
+     * Атомарно изменяет баланс счёта на заданную величину одним UPDATE. Строка счёта блокируется до конца текущей
+     * транзакции, поэтому параллельные изменения одного счёта не теряются, а баланс не может стать отрицательным.
+     * Версия счёта увеличивается, чтобы транзакции в оптимистичном режиме заметили изменение.
+     *
+     * @param id    String, представляющая идентификатор счёта
+     * @param delta объект BigDecimal, представляющий величину изменения баланса, отрицательную при списании
+     * @return объект Optional, содержащий новый баланс, или пустой, если счёт не найден или на нём недостаточно средств
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public Optional<BigDecimal> addToBalance(String id, BigDecimal delta) {
+        String sql = """
+                UPDATE accounts
+                SET balance = balance + ?, version = version + 1
+                WHERE id = ? AND balance + ? >= 0
+                RETURNING balance
+                """;
+        Optional<BigDecimal> balance = Optional.empty();
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setBigDecimal(1, delta);
+            preparedStatement.setString(2, id);
+            preparedStatement.setBigDecimal(3, delta);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    balance = Optional.of(resultSet.getBigDecimal("balance"));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return balance;
+    }
+
+    /**
+     * Изменяет балансы нескольких счетов одним пакетом UPDATE, который отправляется в базу данных за один обмен.
+     * Как и в addToBalance, баланс не может стать отрицательным, а версия каждого счёта увеличивается.
+     *
+     * @param deltas объект Map, представляющий id счетов и величины изменения их балансов
+     * @return true, если изменены балансы всех счетов, или false, если хотя бы один счёт не найден или на нём
+     * недостаточно средств
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public boolean addToBalances(Map<String, BigDecimal> deltas) {
+        String sql = """
+                UPDATE accounts
+                SET balance = balance + ?, version = version + 1
+                WHERE id = ? AND balance + ? >= 0
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, BigDecimal> delta : deltas.entrySet()) {
+                preparedStatement.setBigDecimal(1, delta.getValue());
+                preparedStatement.setString(2, delta.getKey());
+                preparedStatement.setBigDecimal(3, delta.getValue());
+                preparedStatement.addBatch();
+            }
+            return Arrays.stream(preparedStatement.executeBatch())
+                    .allMatch(count -> count == 1 || count == Statement.SUCCESS_NO_INFO);
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
     /**
      * Удаляет счёт из базы данных по его id и возвращает его в виде объекта Optional.
      *
@@ -161,7 +322,8 @@ public class AccountDAOImpl implements AccountDAO {
     public Optional<Account> delete(String id) {
         String sql = "DELETE FROM accounts WHERE id = ?";
         Optional<Account> account = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setString(1, id);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -174,8 +336,42 @@ public class AccountDAOImpl implements AccountDAO {
         return account;
     }
 
+    /**
+     * Метод findBatchAfter, который читает не больше batchSize счетов с id больше afterId в порядке возрастания id.
+     * Банк и юзер счетов содержат только id.
+     *
+     * @param afterId   String, представляющее id, после которого начинается порция
+     * @param batchSize int, представляющее максимальное количество записей
+     * @return список объектов Account, представляющих счета порции
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    private List<Account> findBatchAfter(String afterId, int batchSize) {
+        List<Account> accounts = new ArrayList<>(batchSize);
+        String sql = """
+                SELECT * FROM accounts
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, afterId);
+            preparedStatement.setInt(2, batchSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    accounts.add(getAccountFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return accounts;
+    }
+
     private List<Account> getAccounts(List<Account> accounts, String sql) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
                     Account account = getAccountFromResultSet(resultSet);
@@ -185,6 +381,7 @@ public class AccountDAOImpl implements AccountDAO {
         } catch (SQLException e) {
             log.error(e.getMessage());
         }
+        accounts.forEach(this::resolveReferences);
         return accounts;
     }
 
@@ -196,23 +393,31 @@ public class AccountDAOImpl implements AccountDAO {
                 .balance(resultSet.getBigDecimal("balance"))
                 .openingDate(resultSet.getDate("opening_date").toLocalDate())
                 .closingDate(closingDate != null ? closingDate.toLocalDate() : null)
-                .bank(Bank.builder()
-                        .id(resultSet.getLong("bank_id"))
-                        .name(resultSet.getString("name"))
-                        .address(resultSet.getString("address"))
-                        .phoneNumber(resultSet.getString("phone_number"))
-                        .build())
-                .user(User.builder()
-                        .id(resultSet.getLong("user_id"))
-                        .lastname(resultSet.getString("lastname"))
-                        .firstname(resultSet.getString("firstname"))
-                        .surname(resultSet.getString("surname"))
-                        .registerDate(resultSet.getDate("register_date").toLocalDate())
-                        .mobileNumber(resultSet.getString("mobile_number"))
-                        .build())
+                .version(resultSet.getLong("version"))
+                .bank(Bank.builder().id(resultSet.getLong("bank_id")).build())
+                .user(User.builder().id(resultSet.getLong("user_id")).build())
                 .build();
     }
 
+    /**
+     * Заменяет банк и юзера счёта, содержащие только id, на полные объекты из кэша справочных данных. Вызывается после
+     * закрытия соединения, чтобы загрузка при промахе кэша не занимала второе соединение из пула.
+     *
+     * @param account объект Account, содержащий id банка и юзера
+     * @return объект Account с заполненными банком и юзером
+     * @throws BankNotFoundException если банк счёта не найден
+     * @throws UserNotFoundException если юзер счёта не найден
+     */
+    private Account resolveReferences(Account account) {
+        Long bankId = account.getBank().getId();
+        Long userId = account.getUser().getId();
+        account.setBank(bankCache.get(bankId)
+                .orElseThrow(() -> new BankNotFoundException("Bank with ID " + bankId + " is not found!")));
+        account.setUser(userCache.get(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with ID " + userId + " is not found!")));
+        return account;
+    }
+
     private void setAccountValuesInStatement(PreparedStatement preparedStatement, Account account) throws SQLException {
         preparedStatement.setString(1, String.valueOf(account.getCurrency()));
         preparedStatement.setBigDecimal(2, account.getBalance());
@@ -3,26 +3,35 @@ package ru.clevertec.cleverbank.dao.impl;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.dao.BankDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.Bank;
-import ru.clevertec.cleverbank.util.HikariConnectionManager;
+import ru.clevertec.cleverbank.util.YamlUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @AllArgsConstructor
 public class BankDAOImpl implements BankDAO {
 
-    private final Connection connection;
+    private static final int FETCH_SIZE = Integer.parseInt(new YamlUtil().getYamlMap().get("postgresql")
+            .get("fetchSize"));
+
+    private final ConnectionManager connectionManager;
 
     public BankDAOImpl() {
-        connection = HikariConnectionManager.getConnection();
+        connectionManager = new ConnectionManagerImpl();
     }
 
     /**
@@ -35,7 +44,8 @@ public class BankDAOImpl implements BankDAO {
     public Optional<Bank> findById(Long id) {
         String sql = "SELECT * FROM banks WHERE id = ?";
         Optional<Bank> bank = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
@@ -57,7 +67,8 @@ public class BankDAOImpl implements BankDAO {
     public List<Bank> findAll() {
         List<Bank> banks = new ArrayList<>();
         String sql = "SELECT * FROM banks";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
                     Bank bank = getBankFromResultSet(resultSet);
@@ -70,6 +81,94 @@ public class BankDAOImpl implements BankDAO {
         return banks;
     }
 
+    /**
+     * Находит банки, добавленные или изменённые начиная с заданного времени, и возвращает их в виде списка объектов
+     * Bank. Используется для инкрементального обновления кэша банков.
+     *
+     * @param since объект OffsetDateTime, представляющий время, начиная с которого нужно найти изменения
+     * @return список объектов Bank, представляющих изменённые банки
+     */
+    @Override
+    public List<Bank> findAllUpdatedSince(OffsetDateTime since) {
+        List<Bank> banks = new ArrayList<>();
+        String sql = "SELECT * FROM banks WHERE updated_at >= ?";
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, since);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    banks.add(getBankFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+        }
+        return banks;
+    }
+
+    /**
+     * Находит id всех банков в базе данных. Используется, чтобы удалять из кэша банков, удалённых из базы данных.
+     *
+     * @return список Long, представляющих id банков
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<Long> findAllIds() {
+        List<Long> ids = new ArrayList<>();
+        String sql = "SELECT id FROM banks";
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong("id"));
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return ids;
+    }
+
+    /**
+     * Последовательно читает банки с id больше afterId в порядке возрастания id и передаёт каждую запись в consumer,
+     * не собирая их в список. Запрос выполняется вне режима автофиксации с размером выборки FETCH_SIZE, поэтому драйвер
+     * PostgreSQL читает строки курсором порциями, и расход памяти не зависит от размера таблицы.
+     *
+     * @param afterId  Long, представляющее id, после которого начинается страница, или null для первой страницы
+     * @param limit    Integer, представляющее максимальное количество записей, или null, чтобы прочитать все
+     * @param consumer объект Consumer, который получает банки по одному
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void findAllAfter(Long afterId, Integer limit, Consumer<Bank> consumer) {
+        String sql = """
+                SELECT * FROM banks
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                preparedStatement.setLong(1, afterId != null ? afterId : 0L);
+                preparedStatement.setObject(2, limit, Types.INTEGER);
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(getBankFromResultSet(resultSet));
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
     /**
      * Сохраняет банк в базе данных и возвращает его в виде объекта Optional.
      *
@@ -83,7 +182,8 @@ public class BankDAOImpl implements BankDAO {
                 VALUES (?, ?, ?)
                 """;
         Optional<Bank> bankOptional = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setBankValuesInStatement(preparedStatement, bank);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -108,11 +208,13 @@ public class BankDAOImpl implements BankDAO {
     public Optional<Bank> update(Bank bank) {
         String sql = """
                 UPDATE banks
-                SET name = ?, address = ?, phone_number = ?
+                SET name = ?, address = ?, phone_number = ?,
+                    updated_at = now()
                 WHERE id = ?
                 """;
         Optional<Bank> bankOptional = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setBankValuesInStatement(preparedStatement, bank);
             preparedStatement.setLong(4, bank.getId());
             preparedStatement.executeUpdate();
@@ -138,8 +240,9 @@ public class BankDAOImpl implements BankDAO {
     public Optional<Bank> delete(Long id) {
         String sql = "DELETE FROM banks WHERE id = ?";
         Optional<Bank> bank = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            deleteAllBanksAccounts(id);
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            deleteAllBanksAccounts(connection, id);
             preparedStatement.setLong(1, id);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -155,9 +258,10 @@ public class BankDAOImpl implements BankDAO {
     /**
      * Удаляет все счета, принадлежащие банку с заданным id, из базы данных.
      *
-     * @param bankId Long, представляющее идентификатор банка, чьи счета нужно удалить
+     * @param connection объект Connection, в рамках которого удаляется банк
+     * @param bankId     Long, представляющее идентификатор банка, чьи счета нужно удалить
      */
-    private void deleteAllBanksAccounts(Long bankId) throws SQLException {
+    private void deleteAllBanksAccounts(Connection connection, Long bankId) throws SQLException {
         String sql = "DELETE FROM accounts WHERE bank_id = ?";
         try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, bankId);
@@ -0,0 +1,188 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.DailyAccountTotalsDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsMismatch;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@AllArgsConstructor
+public class DailyAccountTotalsDAOImpl implements DailyAccountTotalsDAO {
+
+    /**
+     * Суммы потраченных и полученных средств по каждому счёту за каждый день периода, посчитанные по таблице
+     * transactions так же, как TransactionDAOImpl считает их для выписки.
+     */
+    static final String RAW_TOTALS_SQL = """
+            SELECT account_id, date,
+                   SUM(sum_sender) FILTER (WHERE side = 'SENDER' AND type IN ('TRANSFER', 'EXCHANGE')
+                                           OR side = 'RECIPIENT' AND type = 'WITHDRAWAL') AS spent,
+                   SUM(sum_recipient) FILTER (WHERE side = 'RECIPIENT' AND type != 'WITHDRAWAL') AS received
+            FROM (
+                SELECT account_sender_id AS account_id, 'SENDER' AS side, date, type, sum_sender, sum_recipient
+                FROM transactions
+                UNION ALL
+                SELECT account_recipient_id AS account_id, 'RECIPIENT' AS side, date, type, sum_sender, sum_recipient
+                FROM transactions
+            ) AS account_transactions
+            WHERE date BETWEEN COALESCE(?, '-infinity'::date) AND ?
+            GROUP BY account_id, date
+            """;
+
+    private final ConnectionManager connectionManager;
+
+    public DailyAccountTotalsDAOImpl() {
+        connectionManager = new ConnectionManagerImpl();
+    }
+
+    /**
+     * Находит последний день, по который включительно суммы счетов перенесены в таблицу daily_account_totals.
+     *
+     * @return объект Optional, содержащий последний свёрнутый день, или пустой, если свёртка ещё не выполнялась
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public Optional<LocalDate> findCompactedThrough() {
+        String sql = "SELECT compacted_through FROM daily_account_totals_state";
+        try (Connection connection = connectionManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next()
+                    ? Optional.of(resultSet.getDate("compacted_through").toLocalDate())
+                    : Optional.empty();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Пересчитывает суммы счетов за дни периода по таблице transactions и записывает их в daily_account_totals,
+     * заменяя уже записанные суммы этих дней. Поэтому повторная свёртка того же периода ничего не меняет.
+     *
+     * @param from    LocalDate, представляющий первый день периода, или null, чтобы начать с первой транзакции
+     * @param through LocalDate, представляющий последний день периода
+     * @return количество записанных строк
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public int compact(LocalDate from, LocalDate through) {
+        String sql = "INSERT INTO daily_account_totals (account_id, date, spent, received) " + RAW_TOTALS_SQL + """
+                ON CONFLICT (account_id, date)
+                DO UPDATE SET spent = EXCLUDED.spent, received = EXCLUDED.received
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, from, Types.DATE);
+            preparedStatement.setObject(2, through);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Сохраняет последний день, по который включительно суммы счетов перенесены в таблицу daily_account_totals.
+     *
+     * @param through LocalDate, представляющий последний свёрнутый день
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void saveCompactedThrough(LocalDate through) {
+        String sql = """
+                INSERT INTO daily_account_totals_state (compacted_through) VALUES (?)
+                ON CONFLICT (id) DO UPDATE SET compacted_through = EXCLUDED.compacted_through
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, through);
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Удаляет все суммы счетов из таблицы daily_account_totals вместе с последним свёрнутым днём.
+     *
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void deleteAll() {
+        try (Connection connection = connectionManager.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM daily_account_totals");
+            statement.executeUpdate("DELETE FROM daily_account_totals_state");
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Сравнивает суммы счетов в таблице daily_account_totals по день through включительно с суммами, посчитанными
+     * заново по таблице transactions, и возвращает расхождения, в том числе дни, которых нет в одной из таблиц.
+     *
+     * @param through LocalDate, представляющий последний свёрнутый день
+     * @param limit   максимальное количество расхождений
+     * @return список объектов DailyTotalsMismatch, представляющих расхождения, упорядоченные по дню и счёту
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<DailyTotalsMismatch> findMismatches(LocalDate through, int limit) {
+        String sql = "WITH raw AS (" + RAW_TOTALS_SQL + """
+                ), rollup AS (
+                    SELECT * FROM daily_account_totals WHERE date <= ?
+                )
+                SELECT COALESCE(r.account_id, d.account_id) AS account_id, COALESCE(r.date, d.date) AS date,
+                       d.spent AS rollup_spent, d.received AS rollup_received,
+                       r.spent AS raw_spent, r.received AS raw_received
+                FROM raw r
+                FULL JOIN rollup d ON d.account_id = r.account_id AND d.date = r.date
+                WHERE r.account_id IS NULL OR d.account_id IS NULL
+                   OR d.spent IS DISTINCT FROM r.spent OR d.received IS DISTINCT FROM r.received
+                ORDER BY 2, 1
+                LIMIT ?
+                """;
+        List<DailyTotalsMismatch> mismatches = new ArrayList<>();
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, null, Types.DATE);
+            preparedStatement.setObject(2, through);
+            preparedStatement.setObject(3, through);
+            preparedStatement.setInt(4, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    mismatches.add(new DailyTotalsMismatch(
+                            resultSet.getString("account_id"),
+                            resultSet.getDate("date").toLocalDate(),
+                            resultSet.getBigDecimal("rollup_spent"),
+                            resultSet.getBigDecimal("rollup_received"),
+                            resultSet.getBigDecimal("raw_spent"),
+                            resultSet.getBigDecimal("raw_received")));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return mismatches;
+    }
+
+}
@@ -0,0 +1,186 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.InterestAccrualDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.dto.interest.InterestChunk;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Slf4j
+@AllArgsConstructor
+public class InterestAccrualDAOImpl implements InterestAccrualDAO {
+
+    /**
+     * Начисление процентов на одну порцию счетов одного диапазона id. Счета с положительным балансом читаются
+     * по первичному ключу от id после afterId и блокируются. Для каждого счёта в interest_accruals добавляется запись
+     * за месяц, а баланс увеличивается только на те суммы, записи о которых действительно добавились. Поэтому счёт,
+     * которому проценты за месяц уже начислены, повторно не пополняется. Место %s занимает верхняя граница диапазона.
+     */
+    static final String ACCRUE_CHUNK_SQL = """
+            WITH chunk AS (
+                SELECT id, balance FROM accounts
+                WHERE id > ? %s AND balance > 0
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE
+            ), accrued AS (
+                INSERT INTO interest_accruals (month, account_id, amount)
+                SELECT ?::date, id, TRUNC(balance * ? / 100, 2) FROM chunk
+                ON CONFLICT (month, account_id) DO NOTHING
+                RETURNING account_id, amount
+            ), credited AS (
+                UPDATE accounts SET balance = accounts.balance + accrued.amount, version = accounts.version + 1
+                FROM accrued
+                WHERE accounts.id = accrued.account_id
+                RETURNING accounts.id
+            )
+            SELECT (SELECT COUNT(*) FROM chunk) AS scanned,
+                   (SELECT MAX(id) FROM chunk) AS last_id,
+                   ARRAY(SELECT id FROM credited) AS account_ids,
+                   (SELECT COALESCE(SUM(amount), 0) FROM accrued) AS amount
+            """;
+
+    private final ConnectionManager connectionManager;
+
+    public InterestAccrualDAOImpl() {
+        connectionManager = new ConnectionManagerImpl();
+    }
+
+    /**
+     * Проверяет, завершено ли начисление процентов за месяц.
+     *
+     * @param month LocalDate, представляющий первый день месяца
+     * @return true, если начисление за месяц уже завершено, иначе false
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public boolean isCompleted(LocalDate month) {
+        String sql = "SELECT 1 FROM interest_accrual_runs WHERE month = ?";
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, month);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Делит счета с положительным балансом на partitions диапазонов id примерно одинакового размера и возвращает
+     * верхние границы всех диапазонов, кроме последнего. Границы берутся из самой таблицы в порядке сортировки
+     * базы данных, поэтому диапазоны не пересекаются и вместе покрывают все счета при любых id и правилах сравнения
+     * строк.
+     *
+     * @param partitions int, представляющее желаемое количество диапазонов
+     * @return список String, представляющий возрастающие верхние границы диапазонов, без повторов
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<String> findPartitionBounds(int partitions) {
+        String sql = """
+                SELECT percentile_disc(?) WITHIN GROUP (ORDER BY id) AS bounds
+                FROM accounts
+                WHERE balance > 0
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            Double[] fractions = IntStream.range(1, partitions)
+                    .mapToObj(i -> (double) i / partitions)
+                    .toArray(Double[]::new);
+            preparedStatement.setArray(1, connection.createArrayOf("float8", fractions));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                Array bounds = resultSet.next() ? resultSet.getArray("bounds") : null;
+                return bounds == null
+                        ? List.of()
+                        : Arrays.stream((String[]) bounds.getArray()).distinct().toList();
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Начисляет проценты за месяц на следующую порцию не больше limit счетов диапазона одним запросом ACCRUE_CHUNK_SQL.
+     * Запрос выполняется в режиме автофиксации, поэтому запись о начислении и новый баланс сохраняются вместе,
+     * а блокировки счетов порции снимаются сразу после неё.
+     *
+     * @param month     LocalDate, представляющий первый день месяца
+     * @param rate      BigDecimal, представляющий месячную ставку в процентах
+     * @param afterId   String, представляющая id, после которого начинается порция, или null для начала таблицы
+     * @param throughId String, представляющая последний id диапазона, или null для диапазона до конца таблицы
+     * @param limit     int, представляющее максимальное количество счетов в порции
+     * @return объект InterestChunk, представляющий количество прочитанных счетов, последний из них, пополненные
+     * счета и сумму начисленных процентов
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public InterestChunk accrueChunk(LocalDate month, BigDecimal rate, String afterId, String throughId, int limit) {
+        String sql = ACCRUE_CHUNK_SQL.formatted(throughId != null ? "AND id <= ?" : "");
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            preparedStatement.setString(index++, afterId != null ? afterId : "");
+            if (throughId != null) {
+                preparedStatement.setString(index++, throughId);
+            }
+            preparedStatement.setInt(index++, limit);
+            preparedStatement.setObject(index++, month);
+            preparedStatement.setBigDecimal(index, rate);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                return new InterestChunk(resultSet.getInt("scanned"),
+                        resultSet.getString("last_id"),
+                        List.of((String[]) resultSet.getArray("account_ids").getArray()),
+                        resultSet.getBigDecimal("amount"));
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+    /**
+     * Отмечает начисление процентов за месяц завершённым и сохраняет итог по всем записям interest_accruals месяца,
+     * включая записи, сделанные прерванными ранее запусками. Повторная отметка ничего не меняет.
+     *
+     * @param month LocalDate, представляющий первый день месяца
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void saveCompleted(LocalDate month) {
+        String sql = """
+                INSERT INTO interest_accrual_runs (month, accounts, amount, finished_at)
+                SELECT ?::date, COUNT(*), COALESCE(SUM(amount), 0), now()
+                FROM interest_accruals
+                WHERE month = ?
+                ON CONFLICT (month) DO NOTHING
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, month);
+            preparedStatement.setObject(2, month);
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+}
@@ -2,13 +2,19 @@ package ru.clevertec.cleverbank.dao.impl;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.InsertOneResult;
 import lombok.AllArgsConstructor;
 import org.bson.BsonObjectId;
+import org.bson.BsonType;
 import org.bson.BsonValue;
 import org.bson.codecs.IntegerCodec;
+import org.bson.codecs.ObjectIdCodec;
 import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.jsr310.LocalDateTimeCodec;
 import org.bson.types.ObjectId;
 import ru.clevertec.cleverbank.dao.NbRBCurrencyDAO;
 import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
@@ -16,6 +22,10 @@ import ru.clevertec.cleverbank.model.NbRBCurrency;
 import ru.clevertec.cleverbank.dao.codec.NbRBCurrencyCodec;
 import ru.clevertec.cleverbank.util.MongoConnectionManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -25,7 +35,8 @@ public class NbRBCurrencyDAOImpl implements NbRBCurrencyDAO {
 
     public NbRBCurrencyDAOImpl() {
         mongoCollection = MongoConnectionManager.getInstance(NbRBCurrency.class).getMongoCollection()
-                .withCodecRegistry(CodecRegistries.fromCodecs(new NbRBCurrencyCodec(), new IntegerCodec()));
+                .withCodecRegistry(CodecRegistries.fromCodecs(new NbRBCurrencyCodec(), new IntegerCodec(),
+                        new LocalDateTimeCodec(), new ObjectIdCodec()));
     }
 
     /**
@@ -42,6 +53,41 @@ public class NbRBCurrencyDAOImpl implements NbRBCurrencyDAO {
                 .first());
     }
 
+    /**
+     * Находит курс валюты НБ РБ, действовавший в заданный момент, то есть последний курс с датой обновления не позже
+     * него. Запрос использует составной индекс по currency_id и update_date.
+     *
+     * @param currencyId Integer, представляющее идентификатор курса по НБ РБ
+     * @param at         объект LocalDateTime, представляющий момент времени
+     * @return объект Optional, содержащий курс, если он найден, или пустой, если нет
+     */
+    @Override
+    public Optional<NbRBCurrency> findByCurrencyIdAt(Integer currencyId, LocalDateTime at) {
+        return Optional.ofNullable(mongoCollection.find(Filters.and(Filters.eq("currency_id", currencyId),
+                        Filters.lte("update_date", at)))
+                .sort(Sorts.descending("update_date"))
+                .limit(1)
+                .first());
+    }
+
+    /**
+     * Находит все курсы валюты НБ РБ, действовавшие начиная с заданного момента: курс, действовавший в этот момент,
+     * и все более поздние курсы, упорядоченные по дате обновления.
+     *
+     * @param currencyId Integer, представляющее идентификатор курса по НБ РБ
+     * @param since      объект LocalDateTime, представляющий начало периода
+     * @return список объектов NbRBCurrency, представляющих курсы
+     */
+    @Override
+    public List<NbRBCurrency> findAllByCurrencyIdEffectiveSince(Integer currencyId, LocalDateTime since) {
+        List<NbRBCurrency> rates = new ArrayList<>();
+        findByCurrencyIdAt(currencyId, since).ifPresent(rates::add);
+        mongoCollection.find(Filters.and(Filters.eq("currency_id", currencyId), Filters.gt("update_date", since)))
+                .sort(Sorts.ascending("update_date"))
+                .into(rates);
+        return rates;
+    }
+
     /**
      * Сохраняет курс валюты по НБ РБ в базе данных и возвращает ее в виде объекта NbRBCurrency.
      *
@@ -60,4 +106,52 @@ public class NbRBCurrencyDAOImpl implements NbRBCurrencyDAO {
         return nbRBCurrency;
     }
 
+    /**
+     * Сохраняет список курсов валют по НБ РБ в базе данных одной командой insertMany и проставляет курсам
+     * сгенерированные идентификаторы.
+     *
+     * @param rates список объектов NbRBCurrency, представляющих курсы для сохранения
+     * @return список объектов NbRBCurrency, представляющих сохраненные курсы
+     * @throws FailedConnectionException если база данных вернула идентификаторы не для всех курсов
+     */
+    @Override
+    public List<NbRBCurrency> saveAll(List<NbRBCurrency> rates) {
+        Map<Integer, BsonValue> ids = mongoCollection.insertMany(rates).getInsertedIds();
+        if (ids.size() != rates.size()) {
+            throw new FailedConnectionException("Failed to save " + rates.size() + " rates, saved " + ids.size());
+        }
+        ids.forEach((index, id) -> rates.get(index).setId(id.asObjectId().getValue()));
+        return rates;
+    }
+
+    /**
+     * Переводит даты обновления, сохранённые строкой до перехода на даты BSON, в даты BSON в UTC, чтобы по ним
+     * работали фильтры по диапазону дат и индекс. Документы обновляются одной командой bulkWrite, а каждое обновление
+     * повторно проверяет тип даты, поэтому конвертацию безопасно запускать при каждом старте.
+     *
+     * @return long, представляющее число переведённых документов
+     */
+    @Override
+    public long convertStringUpdateDates() {
+        List<UpdateOneModel<NbRBCurrency>> updates = mongoCollection
+                .find(Filters.type("update_date", BsonType.STRING))
+                .into(new ArrayList<>())
+                .stream()
+                .map(rate -> new UpdateOneModel<NbRBCurrency>(Filters.and(Filters.eq("_id", rate.getId()),
+                        Filters.type("update_date", BsonType.STRING)),
+                        Updates.set("update_date", rate.getUpdateDate())))
+                .toList();
+        return updates.isEmpty() ? 0 : mongoCollection.bulkWrite(updates).getModifiedCount();
+    }
+
+    /**
+     * Создаёт составной индекс по currency_id и update_date по убыванию, по которому выполняются поиск последнего курса
+     * и поиск курса на дату. Если индекс уже существует, MongoDB его не пересоздаёт.
+     */
+    @Override
+    public void createIndexes() {
+        mongoCollection.createIndex(Indexes.compoundIndex(Indexes.ascending("currency_id"),
+                Indexes.descending("update_date")));
+    }
+
 }
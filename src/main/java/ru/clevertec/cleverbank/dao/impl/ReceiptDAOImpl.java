@@ -0,0 +1,86 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.ReceiptDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.model.Receipt;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@AllArgsConstructor
+public class ReceiptDAOImpl implements ReceiptDAO {
+
+    private final ConnectionManager connectionManager;
+
+    public ReceiptDAOImpl() {
+        connectionManager = new ConnectionManagerImpl();
+    }
+
+    /**
+     * Находит в индексе чеков запись о чеке транзакции по её идентификатору.
+     *
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @return объект Optional, содержащий запись о чеке, если чек уже записан, или пустой, если нет
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public Optional<Receipt> findByTransactionId(Long transactionId) {
+        String sql = "SELECT * FROM receipts WHERE transaction_id = ?";
+        Optional<Receipt> receipt = Optional.empty();
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, transactionId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    receipt = Optional.of(Receipt.builder()
+                            .transactionId(resultSet.getLong("transaction_id"))
+                            .sha256(resultSet.getString("sha256"))
+                            .size(resultSet.getInt("size"))
+                            .build());
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return receipt;
+    }
+
+    /**
+     * Сохраняет записи о чеках в индекс одним пакетом INSERT. Запись о чеке транзакции, которая уже есть в индексе,
+     * не изменяется, поэтому повторная запись того же пакета ничего не меняет.
+     *
+     * @param receipts список объектов Receipt, представляющих записанные чеки
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void saveAll(List<Receipt> receipts) {
+        String sql = """
+                INSERT INTO receipts (transaction_id, sha256, size) VALUES (?, ?, ?)
+                ON CONFLICT (transaction_id) DO NOTHING
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            for (Receipt receipt : receipts) {
+                preparedStatement.setLong(1, receipt.getTransactionId());
+                preparedStatement.setString(2, receipt.getSha256());
+                preparedStatement.setInt(3, receipt.getSize());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
+}
@@ -3,11 +3,16 @@ package ru.clevertec.cleverbank.dao.impl;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.dao.TransactionDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.dto.transaction.AmountStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.Transaction;
 import ru.clevertec.cleverbank.model.Type;
-import ru.clevertec.cleverbank.util.HikariConnectionManager;
+import ru.clevertec.cleverbank.util.YamlUtil;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
@@ -19,15 +24,71 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @AllArgsConstructor
 public class TransactionDAOImpl implements TransactionDAO {
 
-    private final Connection connection;
+    private static final int FETCH_SIZE = Integer.parseInt(new YamlUtil().getYamlMap().get("postgresql")
+            .get("fetchSize"));
+
+    /**
+     * Выписка по счёту за период. Условие по счёту отправителя или получателя разделено на две ветви UNION ALL, чтобы
+     * каждая ветвь читала свой индекс (account_*_id, date DESC, id DESC) только в пределах периода. Вторая ветвь
+     * пропускает транзакции, в которых счёт был и отправителем, так как их уже вернула первая. Общий ORDER BY
+     * возвращает отправленные и полученные транзакции вперемешку по дате, а обе ветви уже упорядочены своими индексами,
+     * поэтому PostgreSQL может слить их через Merge Append без полной сортировки.
+     */
+    static final String STATEMENT_SQL = """
+            SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+            JOIN accounts a ON t.account_sender_id = a.id
+            JOIN accounts b ON t.account_recipient_id = b.id
+            JOIN users u ON a.user_id = u.id
+            WHERE t.date BETWEEN ? AND ? AND t.account_sender_id = ?
+            UNION ALL
+            SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+            JOIN accounts a ON t.account_sender_id = a.id
+            JOIN accounts b ON t.account_recipient_id = b.id
+            JOIN users u ON a.user_id = u.id
+            WHERE t.date BETWEEN ? AND ? AND t.account_recipient_id = ? AND t.account_sender_id <> ?
+            ORDER BY date, id
+            """;
+
+    /**
+     * Суммы потраченных и полученных средств за период. Дни по compacted_through включительно читаются из готовых
+     * дневных сумм daily_account_totals, поэтому их стоимость не зависит от числа транзакций. Оставшиеся дни, обычно
+     * только сегодняшний, считаются по transactions: каждая ветвь UNION ALL читает транзакции счёта по своему индексу
+     * и помечает его роль в транзакции. Транзакция счёта самому себе попадает в обе ветви, но в каждой сумме
+     * учитывается только одной из них. Потраченные средства — переводы и обмены со счёта и снятие наличных,
+     * полученные — всё, что пришло на счёт, кроме снятия наличных.
+     */
+    static final String FUNDS_SQL = """
+            WITH state AS (
+                SELECT COALESCE(MAX(compacted_through), '-infinity'::date) AS compacted_through
+                FROM daily_account_totals_state
+            )
+            SELECT SUM(spent) AS spent, SUM(received) AS received FROM (
+                SELECT d.spent, d.received FROM daily_account_totals d, state s
+                WHERE d.date BETWEEN ? AND LEAST(?, s.compacted_through) AND d.account_id = ?
+                UNION ALL
+                SELECT SUM(sum_sender) FILTER (WHERE side = 'SENDER' AND type IN ('TRANSFER', 'EXCHANGE')
+                                               OR side = 'RECIPIENT' AND type = 'WITHDRAWAL'),
+                       SUM(sum_recipient) FILTER (WHERE side = 'RECIPIENT' AND type != 'WITHDRAWAL')
+                FROM (
+                    SELECT 'SENDER' AS side, type, sum_sender, sum_recipient FROM transactions, state s
+                    WHERE date BETWEEN GREATEST(?, s.compacted_through + 1) AND ? AND account_sender_id = ?
+                    UNION ALL
+                    SELECT 'RECIPIENT' AS side, type, sum_sender, sum_recipient FROM transactions, state s
+                    WHERE date BETWEEN GREATEST(?, s.compacted_through + 1) AND ? AND account_recipient_id = ?
+                ) AS account_transactions
+            ) AS account_totals
+            """;
+
+    private final ConnectionManager connectionManager;
 
     public TransactionDAOImpl() {
-        connection = HikariConnectionManager.getConnection();
+        connectionManager = new ConnectionManagerImpl();
     }
 
     /**
@@ -41,7 +102,8 @@ public class TransactionDAOImpl implements TransactionDAO {
     public Optional<Transaction> findById(Long id) {
         String sql = "SELECT * FROM transactions WHERE id = ?";
         Optional<Transaction> transaction = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
@@ -85,6 +147,61 @@ public class TransactionDAOImpl implements TransactionDAO {
         return findAll(sql, id, transactions);
     }
 
+    /**
+     * Находит страницу истории транзакций счёта, отсортированную по дате и id по убыванию. Счёт отправителя или
+     * получателя задаёт ведущий столбец индекса (account_*_id, date DESC, id DESC), а курсор продолжает чтение с места,
+     * где закончилась предыдущая страница, условием (date, id) < (?, ?). Поэтому каждая страница читает из индекса
+     * только limit строк, как бы далеко от начала истории она ни находилась. Фильтры по типу и второй стороне
+     * проверяются для строк, прочитанных по индексу.
+     *
+     * @param request объект TransactionHistoryRequest, представляющий счёт и фильтры истории
+     * @param cursor  объект TransactionCursor, представляющий конец предыдущей страницы, или null для первой страницы
+     * @param limit   максимальное количество транзакций
+     * @return список объектов Transaction, представляющих транзакции страницы
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<Transaction> findHistoryPage(TransactionHistoryRequest request, TransactionCursor cursor, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM transactions WHERE ");
+        if (request.accountSenderId() != null) {
+            sql.append("account_sender_id = ?");
+            params.add(request.accountSenderId());
+            appendCondition(sql, params, "account_recipient_id = ?", request.counterpartyId());
+        } else {
+            sql.append("account_recipient_id = ?");
+            params.add(request.accountRecipientId());
+            appendCondition(sql, params, "account_sender_id = ?", request.counterpartyId());
+        }
+        appendCondition(sql, params, "type = ?", request.type() != null ? request.type().name() : null);
+        appendCondition(sql, params, "date >= ?", request.from());
+        appendCondition(sql, params, "date <= ?", request.to());
+        if (cursor != null) {
+            sql.append(" AND (date, id) < (?, ?)");
+            params.add(cursor.date());
+            params.add(cursor.id());
+        }
+        sql.append(" ORDER BY date DESC, id DESC LIMIT ?");
+        params.add(limit);
+
+        List<Transaction> transactions = new ArrayList<>();
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                preparedStatement.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    transactions.add(getTransactionFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return transactions;
+    }
+
     /**
      * Сохраняет транзакцию в базе данных и возвращает ее в виде объекта Transaction.
      *
@@ -99,7 +216,8 @@ public class TransactionDAOImpl implements TransactionDAO {
                 (date, time, type, bank_sender_id, bank_recipient_id, account_sender_id, account_recipient_id, sum_sender, sum_recipient)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setTransactionValuesInStatement(preparedStatement, transaction);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -115,117 +233,115 @@ public class TransactionDAOImpl implements TransactionDAO {
     }
 
     /**
-     * Находит все выписки транзакций в базе данных, выполненные в заданный период даты и в которых участвовал счёт с
-     * заданным id, и возвращает их в виде списка объектов TransactionStatement.
+     * Сохраняет транзакции в базе данных одним пакетом INSERT, который отправляется в базу данных за один обмен, и
+     * проставляет им сгенерированные id.
      *
-     * @param from LocalDate, представляющий начальную дату периода
-     * @param to   LocalDate, представляющий конечную дату периода
-     * @param id   String, представляющая идентификатор счета
-     * @return список объектов TransactionStatement, представляющих выписки транзакций
+     * @param transactions список объектов Transaction, представляющих транзакции для сохранения
+     * @return список объектов Transaction, представляющих сохраненные транзакции в исходном порядке
      * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
      */
     @Override
-    public List<TransactionStatement> findAllByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id) {
-        List<TransactionStatement> statements = new ArrayList<>();
+    public List<Transaction> saveAll(List<Transaction> transactions) {
         String sql = """
-                SELECT t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
-                JOIN accounts a ON t.account_sender_id = a.id
-                JOIN accounts b ON t.account_recipient_id = b.id
-                JOIN users u ON a.user_id = u.id
-                WHERE date BETWEEN ? AND ?
-                AND (account_sender_id = ? OR account_recipient_id = ?)
+                INSERT INTO transactions
+                (date, time, type, bank_sender_id, bank_recipient_id, account_sender_id, account_recipient_id, sum_sender, sum_recipient)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setObject(1, from);
-            preparedStatement.setObject(2, to);
-            preparedStatement.setString(3, id);
-            preparedStatement.setString(4, id);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                while (resultSet.next()) {
-                    TransactionStatement statement = new TransactionStatement(
-                            resultSet.getDate("date").toLocalDate(),
-                            Type.valueOf(resultSet.getString("type")),
-                            resultSet.getString("lastname"),
-                            resultSet.getBigDecimal("sum_sender"),
-                            resultSet.getBigDecimal("sum_recipient"));
-                    statements.add(statement);
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Transaction transaction : transactions) {
+                setTransactionValuesInStatement(preparedStatement, transaction);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+                for (Transaction transaction : transactions) {
+                    if (resultSet.next()) {
+                        transaction.setId(resultSet.getLong(1));
+                    }
                 }
             }
         } catch (SQLException e) {
             log.error(e.getMessage());
             throw new JDBCConnectionException();
         }
-        return statements;
+        return transactions;
     }
 
     /**
-     * Находит сумму потраченных средств по всем транзакциям в базе данных, выполненные в заданный период даты
-     * и в которых участвовал счёт с заданным id в качестве отправителя или получателя при выводе наличных.
+     * Последовательно читает выписки транзакций, выполненных в заданный период даты, в которых участвовал счёт
+     * с заданным id, и передаёт каждую запись в consumer, не собирая их в список. Запрос выполняется вне режима
+     * автофиксации с размером выборки FETCH_SIZE, поэтому драйвер PostgreSQL читает строки курсором порциями, и расход
+     * памяти не зависит от количества транзакций за период.
      *
-     * @param from LocalDate, представляющий начальную дату периода
-     * @param to   LocalDate, представляющий конечную дату периода
-     * @param id   String, представляющая идентификатор счета
-     * @return BigDecimal, представляющий сумму потраченных средств
+     * @param from     LocalDate, представляющий начальную дату периода
+     * @param to       LocalDate, представляющий конечную дату периода
+     * @param id       String, представляющая идентификатор счета
+     * @param consumer объект Consumer, который получает выписки транзакций по одной
      * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
      */
     @Override
-    public BigDecimal findSumOfSpentFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id) {
-        BigDecimal spentFunds = BigDecimal.ZERO;
-        String sql = """
-                SELECT SUM(sum_sender) AS spent FROM transactions
-                WHERE date BETWEEN ? AND ?
-                AND ((account_sender_id = ? AND type IN ('TRANSFER', 'EXCHANGE'))
-                OR (account_recipient_id = ? AND type = 'WITHDRAWAL'))
-                """;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setObject(1, from);
-            preparedStatement.setObject(2, to);
-            preparedStatement.setString(3, id);
-            preparedStatement.setString(4, id);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    spentFunds = resultSet.getBigDecimal("spent");
+    public void findAllByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id,
+                                                  Consumer<TransactionStatement> consumer) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(STATEMENT_SQL)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                setPeriodAndAccountId(preparedStatement, 1, from, to, id);
+                setPeriodAndAccountId(preparedStatement, 4, from, to, id);
+                preparedStatement.setString(7, id);
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(new TransactionStatement(
+                                resultSet.getDate("date").toLocalDate(),
+                                Type.valueOf(resultSet.getString("type")),
+                                resultSet.getString("lastname"),
+                                resultSet.getBigDecimal("sum_sender"),
+                                resultSet.getBigDecimal("sum_recipient")));
+                    }
                 }
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
         } catch (SQLException e) {
             log.error(e.getMessage());
             throw new JDBCConnectionException();
         }
-        return spentFunds;
     }
 
     /**
-     * Находит сумму полученных средств по всем транзакциям в базе данных, выполненные в заданный период даты
-     * и в которых участвовал счёт с заданным id в качестве получателя, кроме вывода наличных.
+     * Находит суммы потраченных и полученных средств по счёту за период одним запросом. Свёрнутые дни периода
+     * читаются из дневных сумм счёта, а транзакции остальных дней — один раз двумя диапазонами индексов, по счёту
+     * отправителя и по счёту получателя, и обе суммы считаются в одном проходе агрегатами SUM(...) FILTER (WHERE ...).
      *
      * @param from LocalDate, представляющий начальную дату периода
      * @param to   LocalDate, представляющий конечную дату периода
      * @param id   String, представляющая идентификатор счета
-     * @return BigDecimal, представляющий сумму полученных средств
+     * @return объект AmountStatement, представляющий суммы потраченных и полученных средств, каждая из которых равна
+     * null, если подходящих транзакций нет
      * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
      */
     @Override
-    public BigDecimal findSumOfReceivedFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id) {
-        BigDecimal receivedFunds = BigDecimal.ZERO;
-        String sql = """
-                SELECT SUM(sum_recipient) AS received FROM transactions
-                WHERE date BETWEEN ? AND ?
-                AND (account_recipient_id = ? AND type != 'WITHDRAWAL')
-                """;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setObject(1, from);
-            preparedStatement.setObject(2, to);
-            preparedStatement.setString(3, id);
+    public AmountStatement findSumOfFundsByPeriodOfDateAndAccountId(LocalDate from, LocalDate to, String id) {
+        AmountStatement amountStatement = new AmountStatement(null, null);
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FUNDS_SQL)) {
+            setPeriodAndAccountId(preparedStatement, 1, from, to, id);
+            setPeriodAndAccountId(preparedStatement, 4, from, to, id);
+            setPeriodAndAccountId(preparedStatement, 7, from, to, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    receivedFunds = resultSet.getBigDecimal("received");
+                    amountStatement = new AmountStatement(resultSet.getBigDecimal("spent"),
+                            resultSet.getBigDecimal("received"));
                 }
             }
         } catch (SQLException e) {
             log.error(e.getMessage());
             throw new JDBCConnectionException();
         }
-        return receivedFunds;
+        return amountStatement;
     }
 
     /**
@@ -239,7 +355,8 @@ public class TransactionDAOImpl implements TransactionDAO {
      * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
      */
     private List<Transaction> findAll(String sql, String id, List<Transaction> transactions) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
@@ -254,6 +371,20 @@ public class TransactionDAOImpl implements TransactionDAO {
         return transactions;
     }
 
+    private void setPeriodAndAccountId(PreparedStatement preparedStatement, int index, LocalDate from, LocalDate to,
+                                       String id) throws SQLException {
+        preparedStatement.setObject(index, from);
+        preparedStatement.setObject(index + 1, to);
+        preparedStatement.setString(index + 2, id);
+    }
+
+    private void appendCondition(StringBuilder sql, List<Object> params, String condition, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(condition);
+            params.add(value);
+        }
+    }
+
     private Transaction getTransactionFromResultSet(ResultSet resultSet) throws SQLException {
         return Transaction.builder()
                 .id(resultSet.getLong("id"))
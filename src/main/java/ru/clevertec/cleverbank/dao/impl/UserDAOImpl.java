@@ -3,26 +3,35 @@ package ru.clevertec.cleverbank.dao.impl;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.dao.UserDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.User;
-import ru.clevertec.cleverbank.util.HikariConnectionManager;
+import ru.clevertec.cleverbank.util.YamlUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @AllArgsConstructor
 public class UserDAOImpl implements UserDAO {
 
-    private final Connection connection;
+    private static final int FETCH_SIZE = Integer.parseInt(new YamlUtil().getYamlMap().get("postgresql")
+            .get("fetchSize"));
+
+    private final ConnectionManager connectionManager;
 
     public UserDAOImpl() {
-        connection = HikariConnectionManager.getConnection();
+        connectionManager = new ConnectionManagerImpl();
     }
 
     /**
@@ -35,7 +44,8 @@ public class UserDAOImpl implements UserDAO {
     public Optional<User> findById(Long id) {
         String sql = "SELECT * FROM users WHERE id = ?";
         Optional<User> user = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
@@ -57,7 +67,8 @@ public class UserDAOImpl implements UserDAO {
     public List<User> findAll() {
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
                     User user = getUserFromResultSet(resultSet);
@@ -70,6 +81,94 @@ public class UserDAOImpl implements UserDAO {
         return users;
     }
 
+    /**
+     * Находит пользователей, добавленных или изменённых начиная с заданного времени, и возвращает их в виде списка
+     * объектов User. Используется для инкрементального обновления кэша пользователей.
+     *
+     * @param since объект OffsetDateTime, представляющий время, начиная с которого нужно найти изменения
+     * @return список объектов User, представляющих изменённых пользователей
+     */
+    @Override
+    public List<User> findAllUpdatedSince(OffsetDateTime since) {
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT * FROM users WHERE updated_at >= ?";
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setObject(1, since);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    users.add(getUserFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+        }
+        return users;
+    }
+
+    /**
+     * Находит id всех пользователей в базе данных. Используется, чтобы удалять из кэша пользователей, удалённых из базы данных.
+     *
+     * @return список Long, представляющих id пользователей
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public List<Long> findAllIds() {
+        List<Long> ids = new ArrayList<>();
+        String sql = "SELECT id FROM users";
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong("id"));
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+        return ids;
+    }
+
+    /**
+     * Последовательно читает юзеров с id больше afterId в порядке возрастания id и передаёт каждую запись в consumer,
+     * не собирая их в список. Запрос выполняется вне режима автофиксации с размером выборки FETCH_SIZE, поэтому драйвер
+     * PostgreSQL читает строки курсором порциями, и расход памяти не зависит от размера таблицы.
+     *
+     * @param afterId  Long, представляющее id, после которого начинается страница, или null для первой страницы
+     * @param limit    Integer, представляющее максимальное количество записей, или null, чтобы прочитать все
+     * @param consumer объект Consumer, который получает юзеров по одному
+     * @throws JDBCConnectionException если произошла ошибка при работе с базой данных
+     */
+    @Override
+    public void findAllAfter(Long afterId, Integer limit, Consumer<User> consumer) {
+        String sql = """
+                SELECT * FROM users
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                preparedStatement.setLong(1, afterId != null ? afterId : 0L);
+                preparedStatement.setObject(2, limit, Types.INTEGER);
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(getUserFromResultSet(resultSet));
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new JDBCConnectionException();
+        }
+    }
+
     /**
      * Сохраняет пользователя в базе данных и возвращает его в виде объекта Optional.
      *
@@ -83,7 +182,8 @@ public class UserDAOImpl implements UserDAO {
                 VALUES (?, ?, ?, ?, ?)
                 """;
         Optional<User> optionalUser = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setUserValuesInStatement(preparedStatement, user);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -108,11 +208,13 @@ public class UserDAOImpl implements UserDAO {
     public Optional<User> update(User user) {
         String sql = """
                 UPDATE users
-                SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?
+                SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?,
+                    updated_at = now()
                 WHERE id = ?
                 """;
         Optional<User> optionalUser = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setUserValuesInStatement(preparedStatement, user);
             preparedStatement.setLong(6, user.getId());
             preparedStatement.executeUpdate();
@@ -138,8 +240,9 @@ public class UserDAOImpl implements UserDAO {
     public Optional<User> delete(Long id) {
         String sql = "DELETE FROM users WHERE id = ?";
         Optional<User> user = Optional.empty();
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            deleteAllUsersAccounts(id);
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            deleteAllUsersAccounts(connection, id);
             preparedStatement.setLong(1, id);
             preparedStatement.executeUpdate();
             ResultSet resultSet = preparedStatement.getGeneratedKeys();
@@ -155,10 +258,11 @@ public class UserDAOImpl implements UserDAO {
     /**
      * Удаляет все счета, принадлежащие пользователю с заданным id, из базы данных.
      *
-     * @param userId Long, представляющее идентификатор пользователя, чьи счета нужно удалить
+     * @param connection объект Connection, в рамках которого удаляется пользователь
+     * @param userId     Long, представляющее идентификатор пользователя, чьи счета нужно удалить
      * @throws SQLException если произошла ошибка при работе с базой данных
      */
-    private void deleteAllUsersAccounts(Long userId) throws SQLException {
+    private void deleteAllUsersAccounts(Connection connection, Long userId) throws SQLException {
         String sql = "DELETE FROM accounts WHERE user_id = ?";
         try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, userId);
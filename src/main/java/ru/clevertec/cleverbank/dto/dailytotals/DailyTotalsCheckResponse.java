@@ -0,0 +1,17 @@
+package ru.clevertec.cleverbank.dto.dailytotals;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import ru.clevertec.cleverbank.dto.adapter.LocalDateAdapter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DailyTotalsCheckResponse(@SerializedName("compacted_through")
+                                       @JsonAdapter(LocalDateAdapter.class)
+                                       LocalDate compactedThrough,
+
+                                       boolean consistent,
+
+                                       List<DailyTotalsMismatch> mismatches) {
+}
@@ -0,0 +1,27 @@
+package ru.clevertec.cleverbank.dto.dailytotals;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import ru.clevertec.cleverbank.dto.adapter.LocalDateAdapter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyTotalsMismatch(@SerializedName("account_id")
+                                  String accountId,
+
+                                  @JsonAdapter(LocalDateAdapter.class)
+                                  LocalDate date,
+
+                                  @SerializedName("rollup_spent")
+                                  BigDecimal rollupSpent,
+
+                                  @SerializedName("rollup_received")
+                                  BigDecimal rollupReceived,
+
+                                  @SerializedName("raw_spent")
+                                  BigDecimal rawSpent,
+
+                                  @SerializedName("raw_received")
+                                  BigDecimal rawReceived) {
+}
@@ -0,0 +1,15 @@
+package ru.clevertec.cleverbank.dto.dailytotals;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import ru.clevertec.cleverbank.dto.adapter.LocalDateAdapter;
+
+import java.time.LocalDate;
+
+public record DailyTotalsRebuildResponse(@SerializedName("compacted_through")
+                                         @JsonAdapter(LocalDateAdapter.class)
+                                         LocalDate compactedThrough,
+
+                                         @SerializedName("rows_count")
+                                         int rowsCount) {
+}
@@ -0,0 +1,65 @@
+package ru.clevertec.cleverbank.dto.download;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public record ByteRange(long start, long end) {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    /**
+     * Разбирает заголовок Range с одним диапазоном байтов: bytes=start-end, bytes=start- или bytes=-suffix. Конец
+     * диапазона ограничивается размером файла. Заголовок с несколькими диапазонами или с ошибкой игнорируется, и файл
+     * отдаётся целиком, как разрешает RFC 9110. Диапазон, который начинается за концом файла, возвращается как есть,
+     * чтобы ответить на него статусом 416.
+     *
+     * @param header String, представляющая значение заголовка Range, или null
+     * @param size   long, представляющее размер файла в байтах
+     * @return объект Optional, содержащий диапазон, или пустой, если заголовка нет или он игнорируется
+     */
+    public static Optional<ByteRange> parse(String header, long size) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = RANGE.matcher(header.strip());
+        if (!matcher.matches() || matcher.group(1).isEmpty() && matcher.group(2).isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                long suffix = Long.parseLong(matcher.group(2));
+                return Optional.of(suffix == 0
+                        ? new ByteRange(size, size - 1)
+                        : new ByteRange(Math.max(0, size - suffix), size - 1));
+            }
+            long start = Long.parseLong(matcher.group(1));
+            long end = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+            return start > end && start < size
+                    ? Optional.empty()
+                    : Optional.of(new ByteRange(start, end));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Проверяет, что диапазон пересекается с файлом заданного размера.
+     *
+     * @param size long, представляющее размер файла в байтах
+     * @return true, если диапазон можно отдать, иначе false
+     */
+    public boolean isSatisfiable(long size) {
+        return start < size;
+    }
+
+    /**
+     * Возвращает количество байтов диапазона.
+     *
+     * @return long, представляющее длину диапазона
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+}
@@ -0,0 +1,11 @@
+package ru.clevertec.cleverbank.dto.download;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+public record DownloadFile(String fileName,
+                           Path path,
+                           long size,
+                           Instant lastModified,
+                           String etag) {
+}
@@ -0,0 +1,10 @@
+package ru.clevertec.cleverbank.dto.interest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record InterestAccrualResponse(LocalDate month,
+                                      long accounts,
+                                      BigDecimal amount,
+                                      long millis) {
+}
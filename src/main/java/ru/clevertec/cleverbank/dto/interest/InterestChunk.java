@@ -0,0 +1,10 @@
+package ru.clevertec.cleverbank.dto.interest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record InterestChunk(int scanned,
+                            String lastId,
+                            List<String> accountIds,
+                            BigDecimal amount) {
+}
@@ -0,0 +1,7 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import java.math.BigDecimal;
+
+public record AmountStatement(BigDecimal spentFunds,
+                              BigDecimal receivedFunds) {
+}
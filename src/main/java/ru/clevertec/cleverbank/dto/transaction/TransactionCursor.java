@@ -0,0 +1,58 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+public record TransactionCursor(LocalDate date, Long id) {
+
+    private static final int TOKEN_BYTES = Integer.BYTES + Long.BYTES;
+
+    /**
+     * Создаёт курсор, указывающий на заданную транзакцию.
+     *
+     * @param transaction объект Transaction, представляющий последнюю транзакцию страницы
+     * @return объект TransactionCursor
+     */
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    /**
+     * Декодирует курсор из токена страницы.
+     *
+     * @param token String, представляющая токен страницы
+     * @return объект TransactionCursor
+     * @throws BadPageTokenException если токен не получен методом encode
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != TOKEN_BYTES) {
+                throw new IllegalArgumentException();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new TransactionCursor(LocalDate.ofEpochDay(buffer.getInt()), buffer.getLong());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadPageTokenException("Page token " + token + " is invalid");
+        }
+    }
+
+    /**
+     * Кодирует курсор в компактный токен страницы: номер дня от эпохи и id занимают 12 байт, которые записываются в
+     * Base64 для URL без дополнения, то есть 16 символов.
+     *
+     * @return String, представляющая токен страницы
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+                .putInt(Math.toIntExact(date.toEpochDay()))
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+}
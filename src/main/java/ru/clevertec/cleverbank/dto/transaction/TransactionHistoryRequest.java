@@ -0,0 +1,15 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import ru.clevertec.cleverbank.model.Type;
+
+import java.time.LocalDate;
+
+public record TransactionHistoryRequest(String accountSenderId,
+                                        String accountRecipientId,
+                                        Type type,
+                                        LocalDate from,
+                                        LocalDate to,
+                                        String counterpartyId,
+                                        String pageToken,
+                                        Integer limit) {
+}
@@ -0,0 +1,11 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public record TransactionPageResponse(List<TransactionResponse> transactions,
+
+                                      @SerializedName("next_page_token")
+                                      String nextPageToken) {
+}
@@ -0,0 +1,6 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+public record TransferBatchItemResponse(int index,
+                                        TransferBalanceResponse transfer,
+                                        String error) {
+}
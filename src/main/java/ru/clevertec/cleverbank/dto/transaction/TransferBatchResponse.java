@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import java.util.List;
+
+public record TransferBatchResponse(int total,
+                                    int succeeded,
+                                    int failed,
+                                    List<TransferBatchItemResponse> items) {
+}
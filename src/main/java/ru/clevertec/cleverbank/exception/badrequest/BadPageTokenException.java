@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.badrequest;
+
+public class BadPageTokenException extends BadRequestException {
+
+    public BadPageTokenException(String message) {
+        super(message);
+    }
+
+}
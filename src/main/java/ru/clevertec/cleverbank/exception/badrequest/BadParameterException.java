@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.badrequest;
+
+public class BadParameterException extends BadRequestException {
+
+    public BadParameterException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.badrequest;
+
+public class MissingParameterException extends BadRequestException {
+
+    public MissingParameterException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.conflict;
+
+public class OptimisticLockException extends ValidationException {
+
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+
+}
@@ -7,8 +7,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import ru.clevertec.cleverbank.exception.badrequest.BadRequestException;
 import ru.clevertec.cleverbank.exception.conflict.LocalDateParseException;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
 import ru.clevertec.cleverbank.exception.conflict.ValidationException;
 import ru.clevertec.cleverbank.exception.notfound.NotFoundException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ServiceUnavailableException;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -44,12 +46,16 @@ public class ExceptionHandlerServlet extends HttpServlet {
             printExceptionResponse(exception.getMessage(), printWriter);
         } else if (exception instanceof ValidationException) {
             resp.setStatus(409);
-            if (exception instanceof LocalDateParseException) {
+            if (exception instanceof LocalDateParseException || exception instanceof OptimisticLockException) {
                 printExceptionResponse(exception.getMessage(), printWriter);
             } else {
                 printWriter.print(exception.getMessage());
                 printWriter.flush();
             }
+        } else if (exception instanceof ServiceUnavailableException) {
+            resp.setStatus(503);
+            resp.setHeader("Retry-After", "1");
+            printExceptionResponse(exception.getMessage(), printWriter);
         } else {
             resp.setStatus(500);
             printExceptionResponse(exception.getMessage(), printWriter);
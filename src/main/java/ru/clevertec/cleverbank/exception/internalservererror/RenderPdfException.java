@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.internalservererror;
+
+public class RenderPdfException extends InternalServerErrorException {
+
+    public RenderPdfException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.notfound;
+
+public class ReceiptNotFoundException extends NotFoundException {
+
+    public ReceiptNotFoundException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.serviceunavailable;
+
+public class ExecutorOverloadedException extends ServiceUnavailableException {
+
+    public ExecutorOverloadedException(String message) {
+        super(message);
+    }
+
+}
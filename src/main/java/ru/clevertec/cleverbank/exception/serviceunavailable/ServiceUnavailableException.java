@@ -0,0 +1,9 @@
+package ru.clevertec.cleverbank.exception.serviceunavailable;
+
+public abstract class ServiceUnavailableException extends RuntimeException {
+
+    protected ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
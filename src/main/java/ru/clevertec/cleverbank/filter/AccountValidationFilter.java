@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-@WebFilter(urlPatterns = "/accounts")
+@WebFilter(urlPatterns = "/accounts", asyncSupported = true)
 public class AccountValidationFilter implements Filter {
 
     private final Gson gson = new Gson();
@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-@WebFilter(urlPatterns = "/banks")
+@WebFilter(urlPatterns = "/banks", asyncSupported = true)
 public class BankValidationFilter implements Filter {
 
     private final Gson gson = new Gson();
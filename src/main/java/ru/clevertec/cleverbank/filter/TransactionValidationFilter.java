@@ -1,7 +1,9 @@
 package ru.clevertec.cleverbank.filter;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -52,8 +54,14 @@ public class TransactionValidationFilter implements Filter {
                 validateStatementRequest(req, jsonObject);
             }
         } else if ("PUT".equalsIgnoreCase(req.getMethod())) {
-            JsonObject jsonObject = gson.fromJson(extractJsonFromBody(req), JsonObject.class);
-            validationService.validateRequestForNull(jsonObject, "Transaction", gson);
+            JsonElement jsonElement = gson.fromJson(extractJsonFromBody(req), JsonElement.class);
+            validationService.validateRequestForNull(jsonElement, "Transaction", gson);
+            if (jsonElement.isJsonArray()) {
+                validateTransferBatchRequest(req, jsonElement);
+                chain.doFilter(request, response);
+                return;
+            }
+            JsonObject jsonObject = jsonElement.getAsJsonObject();
             if (jsonObject.has("type")) {
                 validateTransferBalanceRequest(req, jsonObject);
             } else {
@@ -117,6 +125,25 @@ public class TransactionValidationFilter implements Filter {
         req.setAttribute("transferBalanceRequest", request);
     }
 
+    /**
+     * Валидирует пакет переводов и устанавливает атрибут "transferBatchRequest" со списком TransactionRequest в запросе.
+     * Здесь проверяется только, что пакет не пуст: каждый перевод проверяется отдельно при выполнении пакета, чтобы
+     * ошибка в одном переводе не отклоняла весь пакет.
+     *
+     * @param req         объект HttpServletRequest, содержащий данные запроса
+     * @param jsonElement объект JsonElement, содержащий JSON-массив из тела запроса
+     */
+    private void validateTransferBatchRequest(HttpServletRequest req, JsonElement jsonElement) {
+        List<TransactionRequest> requests = gson.fromJson(jsonElement, new TypeToken<List<TransactionRequest>>() {
+        }.getType());
+        if (requests.isEmpty()) {
+            Violation violation = new Violation("transactions", "Batch can not be empty");
+            String validationJson = gson.toJson(new ValidationResponse(List.of(violation)));
+            throw new ValidationException(validationJson);
+        }
+        req.setAttribute("transferBatchRequest", requests);
+    }
+
     /**
      * Валидирует данные в запросе на получение выписки по счету и устанавливает атрибут "statementRequest" с объектом
      * TransactionStatementRequest в запросе.
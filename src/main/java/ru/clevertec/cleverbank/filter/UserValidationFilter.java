@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-@WebFilter(urlPatterns = "/users")
+@WebFilter(urlPatterns = "/users", asyncSupported = true)
 public class UserValidationFilter implements Filter {
 
     private final Gson gson = new Gson();
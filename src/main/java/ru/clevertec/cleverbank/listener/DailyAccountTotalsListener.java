@@ -0,0 +1,59 @@
+package ru.clevertec.cleverbank.listener;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.service.DailyAccountTotalsService;
+import ru.clevertec.cleverbank.service.impl.DailyAccountTotalsServiceImpl;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@WebListener
+public class DailyAccountTotalsListener implements ServletContextListener {
+
+    private final ScheduledExecutorService scheduler;
+    private final DailyAccountTotalsService dailyAccountTotalsService;
+
+    public DailyAccountTotalsListener() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        dailyAccountTotalsService = new DailyAccountTotalsServiceImpl();
+    }
+
+    /**
+     * Переопределяет метод contextInitialized, чтобы периодически переносить закрытые дни в дневные суммы счетов.
+     * Первый запуск после простоя сворачивает все пропущенные дни.
+     *
+     * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        Map<String, String> dailyTotalsMap = new YamlUtil().getYamlMap().get("dailyTotals");
+        long initialDelay = Long.parseLong(dailyTotalsMap.get("initialDelay"));
+        long period = Long.parseLong(dailyTotalsMap.get("period"));
+        Runnable task = () -> {
+            try {
+                dailyAccountTotalsService.compact();
+            } catch (RuntimeException e) {
+                log.error(e.getMessage());
+            }
+        };
+        scheduler.scheduleWithFixedDelay(task, initialDelay, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Переопределяет метод contextDestroyed, чтобы остановить свёртку дневных сумм.
+     *
+     * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        scheduler.shutdown();
+    }
+
+}
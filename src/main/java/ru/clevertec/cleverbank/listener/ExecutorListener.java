@@ -0,0 +1,28 @@
+package ru.clevertec.cleverbank.listener;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import ru.clevertec.cleverbank.util.ExecutorManager;
+import ru.clevertec.cleverbank.util.ReceiptWriterManager;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+@WebListener
+public class ExecutorListener implements ServletContextListener {
+
+    /**
+     * Переопределяет метод contextDestroyed, чтобы дождаться завершения принятых транзакций и остановить пул потоков.
+     * Затем дописываются чеки, поставленные в очередь этими транзакциями.
+     *
+     * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        YamlUtil yamlUtil = new YamlUtil();
+        String shutdownTimeout = yamlUtil.getYamlMap().get("executor").get("shutdownTimeoutSeconds");
+        ExecutorManager.shutdown(Long.parseLong(shutdownTimeout));
+        String receiptsShutdownTimeout = yamlUtil.getYamlMap().get("receipts").get("shutdownTimeoutSeconds");
+        ReceiptWriterManager.shutdown(Long.parseLong(receiptsShutdownTimeout));
+    }
+
+}
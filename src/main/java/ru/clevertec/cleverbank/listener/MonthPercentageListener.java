@@ -4,17 +4,14 @@ import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
 import lombok.extern.slf4j.Slf4j;
-import ru.clevertec.cleverbank.model.Account;
-import ru.clevertec.cleverbank.service.AccountService;
-import ru.clevertec.cleverbank.service.impl.AccountServiceImpl;
+import ru.clevertec.cleverbank.service.InterestAccrualService;
+import ru.clevertec.cleverbank.service.impl.InterestAccrualServiceImpl;
 import ru.clevertec.cleverbank.util.YamlUtil;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -24,16 +21,17 @@ import java.util.concurrent.TimeUnit;
 public class MonthPercentageListener implements ServletContextListener {
 
     private final ScheduledExecutorService scheduler;
-    private final AccountService accountService;
+    private final InterestAccrualService interestAccrualService;
 
     public MonthPercentageListener() {
         scheduler = Executors.newSingleThreadScheduledExecutor();
-        accountService = new AccountServiceImpl();
+        interestAccrualService = new InterestAccrualServiceImpl();
     }
 
     /**
      * Переопределяет метод contextInitialized, чтобы запустить задачу по начислению процентов по счетам в конце
-     * каждого месяца.
+     * каждого месяца. Проценты начисляет InterestAccrualService, который не пополняет счёт дважды за месяц, поэтому
+     * задача может сработать в последние полминуты месяца несколько раз.
      *
      * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
      */
@@ -52,31 +50,16 @@ public class MonthPercentageListener implements ServletContextListener {
             boolean isInInterval = currentTime.isAfter(lowerBound) && currentTime.isBefore(upperBound);
             log.info("Scheduled task isLastDayOfMonth={} , isInInterval={}", isLastDayOfMonth, isInInterval);
             if (isLastDayOfMonth && isInInterval) {
-                accountService.findAllWithPositiveBalance()
-                        .forEach(account -> CompletableFuture
-                                .supplyAsync(() -> addMonthPercentageToBalance(account, monthPercentage))
-                                .thenApplyAsync(balance -> accountService.updateBalance(account, balance))
-                                .thenAcceptAsync(acc ->
-                                        log.info("Account {} has been credited with {} at the end of month {},\nnew balance is {}",
-                                                acc.getId(), monthPercentage, currentDate.getMonth(), acc.getBalance()))
-                                .exceptionallyAsync(e -> {
-                                    log.error(e.getMessage());
-                                    return null;
-                                }));
+                try {
+                    interestAccrualService.accrue(currentDate, new BigDecimal(monthPercentage));
+                } catch (RuntimeException e) {
+                    log.error(e.getMessage());
+                }
             }
         };
         scheduler.scheduleAtFixedRate(task, initialDelay, period, TimeUnit.SECONDS);
     }
 
-    private static BigDecimal addMonthPercentageToBalance(Account account, String monthPercentage) {
-        BigDecimal balance = account.getBalance();
-        BigDecimal rate = new BigDecimal(monthPercentage);
-        BigDecimal percentage = balance.multiply(rate).multiply(BigDecimal.valueOf(0.01))
-                .setScale(2, RoundingMode.DOWN);
-        balance = balance.add(percentage);
-        return balance;
-    }
-
     /**
      * Переопределяет метод contextDestroyed, чтобы остановить пулы потоков.
      *
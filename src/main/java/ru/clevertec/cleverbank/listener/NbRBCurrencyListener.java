@@ -1,21 +1,17 @@
 package ru.clevertec.cleverbank.listener;
 
-import com.google.gson.Gson;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
 import lombok.extern.slf4j.Slf4j;
-import ru.clevertec.cleverbank.dto.nbrbcurrency.NbRBCurrencyResponse;
 import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
 import ru.clevertec.cleverbank.service.NbRBCurrencyService;
 import ru.clevertec.cleverbank.service.impl.NbRBCurrencyServiceImpl;
+import ru.clevertec.cleverbank.util.NbRBClient;
 import ru.clevertec.cleverbank.util.YamlUtil;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
@@ -28,43 +24,80 @@ public class NbRBCurrencyListener implements ServletContextListener {
 
     private final ScheduledExecutorService scheduler;
     private final NbRBCurrencyService nbRBCurrencyService;
-    private final Gson gson;
+    private final NbRBClient nbRBClient;
 
     public NbRBCurrencyListener() {
         scheduler = Executors.newScheduledThreadPool(3);
         nbRBCurrencyService = new NbRBCurrencyServiceImpl();
-        gson = new Gson();
+        nbRBClient = new NbRBClient();
     }
 
     /**
-     * Переопределяет метод contextInitialized, чтобы запустить задачу по получению курса валюты по НБ РБ.
+     * Переопределяет метод contextInitialized, чтобы создать индексы коллекции курсов, перевести строковые даты
+     * обновления старых курсов в даты BSON, загрузить последние сохранённые курсы в кэш курсов и запустить задачу по
+     * получению курса валюты по НБ РБ. Если backfillDays больше нуля, один раз загружается история курсов всех валют
+     * за backfillDays дней.
      *
      * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
      */
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         Map<String, String> shedulerMap = new YamlUtil().getYamlMap().get("NbRBScheduler");
-        String apiUrl = shedulerMap.get("url");
         long initialDelay = Long.parseLong(shedulerMap.get("initialDelay"));
         long period = Long.parseLong(shedulerMap.get("period"));
+        int backfillDays = Integer.parseInt(shedulerMap.get("backfillDays"));
+        createIndexes();
+        convertStringUpdateDates();
+        if (backfillDays > 0) {
+            scheduler.execute(() -> backfill(backfillDays));
+        }
 
         List.of(Currency.RUB, Currency.USD, Currency.EUR)
                 .forEach(currency -> {
-                    Runnable task = () -> getCurrencyFromNbRB(apiUrl, currency.getCode());
+                    loadRate(currency);
+                    Runnable task = () -> getCurrencyFromNbRB(currency);
                     scheduler.scheduleAtFixedRate(task, initialDelay, period, TimeUnit.SECONDS);
                 });
     }
 
-    private void getCurrencyFromNbRB(String apiUrl, Integer code) {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl + code))
-                .timeout(Duration.ofSeconds(5))
-                .GET()
-                .build();
-        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(body -> gson.fromJson(body, NbRBCurrencyResponse.class))
+    private void createIndexes() {
+        try {
+            nbRBCurrencyService.createIndexes();
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void convertStringUpdateDates() {
+        try {
+            long converted = nbRBCurrencyService.convertStringUpdateDates();
+            if (converted > 0) {
+                log.info("Converted update_date of {} NbRB rates from string to BSON date", converted);
+            }
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void loadRate(Currency currency) {
+        try {
+            nbRBCurrencyService.findByCurrency(currency);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void backfill(int days) {
+        try {
+            List<NbRBCurrency> saved = nbRBCurrencyService.saveAll(nbRBClient.fetchHistory(LocalDate.now(), days));
+            log.info("Backfilled {} NbRB rates for {} days", saved.size(), days);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void getCurrencyFromNbRB(Currency currency) {
+        nbRBClient.fetchRate(currency)
                 .thenApply(nbRBCurrencyService::save)
                 .thenAccept(nbRBCurrency -> log.info("Saving currency on schedule:\n{}", nbRBCurrency))
                 .exceptionally(e -> {
@@ -0,0 +1,64 @@
+package ru.clevertec.cleverbank.listener;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.util.CacheManager;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@WebListener
+public class ReferenceCacheListener implements ServletContextListener {
+
+    private final ScheduledExecutorService scheduler;
+
+    public ReferenceCacheListener() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Переопределяет метод contextInitialized, чтобы предзагрузить кэши банков и пользователей и запустить их
+     * периодическое инкрементальное обновление.
+     *
+     * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        long period = Long.parseLong(new YamlUtil().getYamlMap().get("cache").get("referenceRefreshSeconds"));
+        CacheManager.getReferenceCaches()
+                .forEach(cache -> {
+                    runSafely(cache::preload);
+                    scheduler.scheduleWithFixedDelay(() -> runSafely(cache::refresh), period, period, TimeUnit.SECONDS);
+                });
+    }
+
+    /**
+     * Переопределяет метод contextDestroyed, чтобы остановить обновление кэшей.
+     *
+     * @param sce объект ServletContextEvent, содержащий информацию о контексте сервлета
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Выполняет загрузку кэша и логирует ошибку, не прерывая последующие запуски по расписанию. Незагруженный кэш
+     * продолжает работать, загружая значения из базы данных при промахах.
+     *
+     * @param task объект Runnable, представляющий загрузку кэша
+     */
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ public interface AccountMapper {
     List<AccountResponse> toResponseList(List<Account> accounts);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "openingDate", expression = "java(LocalDate.now())")
     Account fromSaveRequest(AccountRequest request, User user, Bank bank);
 
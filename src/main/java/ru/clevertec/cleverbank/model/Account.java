@@ -21,5 +21,6 @@ public class Account {
     private LocalDate closingDate;
     private Bank bank;
     private User user;
+    private Long version;
 
 }
@@ -0,0 +1,7 @@
+package ru.clevertec.cleverbank.model;
+
+public enum DurabilityMode {
+
+    WRITE, FSYNC
+
+}
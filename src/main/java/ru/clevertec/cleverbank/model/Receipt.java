@@ -0,0 +1,18 @@
+package ru.clevertec.cleverbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Receipt {
+
+    private Long transactionId;
+    private String sha256;
+    private Integer size;
+
+}
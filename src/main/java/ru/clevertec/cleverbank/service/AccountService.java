@@ -6,7 +6,10 @@ import ru.clevertec.cleverbank.dto.account.AccountResponse;
 import ru.clevertec.cleverbank.model.Account;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AccountService {
 
@@ -18,12 +21,20 @@ public interface AccountService {
 
     List<Account> findAllWithPositiveBalance();
 
+    List<Account> findAllByIdsForUpdate(Collection<String> ids);
+
     List<AccountResponse> findAllResponses();
 
+    void findAllResponses(String after, Integer limit, Consumer<AccountResponse> consumer);
+
     AccountResponse save(AccountRequest request);
 
     Account updateBalance(Account account, BigDecimal balance);
 
+    Account addToBalance(Account account, BigDecimal delta);
+
+    void addToBalances(Map<String, BigDecimal> deltas);
+
     AccountResponse closeAccount(String id);
 
     DeleteResponse delete(String id);
@@ -6,6 +6,7 @@ import ru.clevertec.cleverbank.dto.bank.BankResponse;
 import ru.clevertec.cleverbank.model.Bank;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BankService {
 
@@ -15,6 +16,8 @@ public interface BankService {
 
     List<BankResponse> findAll();
 
+    void findAll(Long after, Integer limit, Consumer<BankResponse> consumer);
+
     BankResponse save(BankRequest request);
 
     BankResponse update(Long id, BankRequest request);
@@ -3,6 +3,7 @@ package ru.clevertec.cleverbank.service;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
 
@@ -16,6 +17,11 @@ public interface CheckService {
 
      String createTransactionStatement(TransactionStatementResponse response);
 
+     void appendTransactionStatementHeader(StringBuilder builder, TransactionStatementResponse response);
+
+     void appendTransactionStatementRow(StringBuilder builder, TransactionStatementResponse response,
+                                        TransactionStatement transaction);
+
      String createAmountStatement(AmountStatementResponse response);
 
 }
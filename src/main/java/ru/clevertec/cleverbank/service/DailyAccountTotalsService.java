@@ -0,0 +1,16 @@
+package ru.clevertec.cleverbank.service;
+
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsCheckResponse;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsRebuildResponse;
+
+import java.time.LocalDate;
+
+public interface DailyAccountTotalsService {
+
+    LocalDate compact();
+
+    DailyTotalsRebuildResponse rebuild();
+
+    DailyTotalsCheckResponse check();
+
+}
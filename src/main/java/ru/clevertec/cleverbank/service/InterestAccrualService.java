@@ -0,0 +1,12 @@
+package ru.clevertec.cleverbank.service;
+
+import ru.clevertec.cleverbank.dto.interest.InterestAccrualResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface InterestAccrualService {
+
+    InterestAccrualResponse accrue(LocalDate date, BigDecimal rate);
+
+}
@@ -5,13 +5,27 @@ import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 public interface NbRBCurrencyService {
 
     NbRBCurrency findByCurrencyId(Integer currencyId);
 
+    NbRBCurrency findByCurrency(Currency currency);
+
+    NbRBCurrency findRateAt(Currency currency, LocalDateTime at);
+
     NbRBCurrency save(NbRBCurrencyResponse response);
 
+    List<NbRBCurrency> saveAll(Map<LocalDate, List<NbRBCurrencyResponse>> ratesByDate);
+
     BigDecimal exchangeSumByCurrency(Currency currencySender, Currency currencyRecipient, BigDecimal sum);
 
+    void createIndexes();
+
+    long convertStringUpdateDates();
+
 }
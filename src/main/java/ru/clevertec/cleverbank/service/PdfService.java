@@ -0,0 +1,10 @@
+package ru.clevertec.cleverbank.service;
+
+import java.io.OutputStream;
+import java.io.Reader;
+
+public interface PdfService {
+
+    void writeText(Reader reader, OutputStream outputStream);
+
+}
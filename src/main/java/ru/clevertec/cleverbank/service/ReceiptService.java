@@ -0,0 +1,11 @@
+package ru.clevertec.cleverbank.service;
+
+import ru.clevertec.cleverbank.dto.download.DownloadFile;
+
+public interface ReceiptService {
+
+    DownloadFile findCheckByTransactionId(Long transactionId);
+
+    DownloadFile findStatement(String fileName);
+
+}
@@ -3,24 +3,27 @@ package ru.clevertec.cleverbank.service;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.dto.transaction.TransactionPageResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementRequest;
-import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchResponse;
 
-import java.sql.SQLException;
 import java.util.List;
 
 public interface TransactionService {
 
     ChangeBalanceResponse changeBalance(TransactionRequest request);
 
-    TransferBalanceResponse transferBalance(TransactionRequest request) throws SQLException;
+    TransferBalanceResponse transferBalance(TransactionRequest request);
 
-    ExchangeBalanceResponse exchangeBalance(TransactionRequest request) throws SQLException;
+    ExchangeBalanceResponse exchangeBalance(TransactionRequest request);
 
-    TransactionStatementResponse findAllByPeriodOfDateAndAccountId(TransactionStatementRequest request);
+    TransferBatchResponse transferBatch(List<TransactionRequest> requests);
+
+    void findAllByPeriodOfDateAndAccountId(TransactionStatementRequest request, TransactionStatementSink sink);
 
     AmountStatementResponse findSumOfFundsByPeriodOfDateAndAccountId(TransactionStatementRequest request);
 
@@ -30,4 +33,6 @@ public interface TransactionService {
 
     List<TransactionResponse> findAllByRecipientAccountId(String id);
 
+    TransactionPageResponse findHistory(TransactionHistoryRequest request);
+
 }
@@ -0,0 +1,14 @@
+package ru.clevertec.cleverbank.service;
+
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
+
+public interface TransactionStatementSink {
+
+    void begin(TransactionStatementResponse response);
+
+    void accept(TransactionStatement transaction);
+
+    void end();
+
+}
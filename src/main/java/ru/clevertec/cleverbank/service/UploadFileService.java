@@ -1,12 +1,17 @@
 package ru.clevertec.cleverbank.service;
 
+import ru.clevertec.cleverbank.model.Receipt;
+
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public interface UploadFileService {
 
-    Path uploadCheck(String check);
+    CompletableFuture<Receipt> uploadCheck(Long transactionId, String check);
+
+    Path createStatementPart();
 
-    Path uploadStatement(String statement);
+    Path uploadStatement(Path part);
 
     Path uploadAmount(String amount);
 
@@ -6,6 +6,7 @@ import ru.clevertec.cleverbank.dto.user.UserResponse;
 import ru.clevertec.cleverbank.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -15,6 +16,8 @@ public interface UserService {
 
     List<UserResponse> findAll();
 
+    void findAll(Long after, Integer limit, Consumer<UserResponse> consumer);
+
     UserResponse save(UserRequest request);
 
     UserResponse update(Long id, UserRequest request);
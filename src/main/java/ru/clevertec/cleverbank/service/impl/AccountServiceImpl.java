@@ -3,22 +3,32 @@ package ru.clevertec.cleverbank.service.impl;
 import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import ru.clevertec.cleverbank.aspect.annotation.ServiceLoggable;
+import ru.clevertec.cleverbank.cache.AccountCache;
 import ru.clevertec.cleverbank.dao.AccountDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.TransactionManagerImpl;
 import ru.clevertec.cleverbank.dao.impl.AccountDAOImpl;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.account.AccountRequest;
 import ru.clevertec.cleverbank.dto.account.AccountResponse;
+import ru.clevertec.cleverbank.exception.badrequest.InsufficientFundsException;
 import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
+import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
 import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
 import ru.clevertec.cleverbank.mapper.AccountMapper;
 import ru.clevertec.cleverbank.model.Account;
 import ru.clevertec.cleverbank.service.AccountService;
 import ru.clevertec.cleverbank.service.BankService;
 import ru.clevertec.cleverbank.service.UserService;
+import ru.clevertec.cleverbank.util.CacheManager;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class AccountServiceImpl implements AccountService {
@@ -27,16 +37,22 @@ public class AccountServiceImpl implements AccountService {
     private final UserService userService;
     private final BankService bankService;
     private final AccountMapper accountMapper;
+    private final AccountCache accountCache;
+    private final TransactionManager transactionManager;
 
     public AccountServiceImpl() {
         accountDAO = new AccountDAOImpl();
         userService = new UserServiceImpl();
         bankService = new BankServiceImpl();
         accountMapper = Mappers.getMapper(AccountMapper.class);
+        accountCache = CacheManager.getAccountCache();
+        transactionManager = new TransactionManagerImpl();
     }
 
     /**
-     * Реализует метод findById, который возвращает счёт по его id.
+     * Реализует метод findById, который возвращает счёт по его id. Счёт читается из кэша, а при промахе загружается
+     * из базы данных. Баланс кэшированного счёта не используется для списаний: в пессимистичном режиме новый баланс
+     * вычисляет база данных, а в оптимистичном устаревшая версия счёта приводит к конфликту и повторному чтению.
      *
      * @param id String, представляющая id счета
      * @return объект Account, представляющий счёт с заданным id
@@ -44,7 +60,7 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public Account findById(String id) {
-        return accountDAO.findById(id)
+        return accountCache.get(id, accountDAO::findById)
                 .orElseThrow(() -> new AccountNotFoundException("Account with ID " + id + " is not found!"));
     }
 
@@ -81,6 +97,18 @@ public class AccountServiceImpl implements AccountService {
         return accountDAO.findAllWithPositiveBalance();
     }
 
+    /**
+     * Реализует метод findAllByIdsForUpdate, который возвращает счета с заданными id и блокирует их до конца текущей
+     * транзакции в порядке возрастания id.
+     *
+     * @param ids коллекция String, представляющая идентификаторы счетов
+     * @return список объектов Account, представляющих найденные счета
+     */
+    @Override
+    public List<Account> findAllByIdsForUpdate(Collection<String> ids) {
+        return accountDAO.findAllByIdsForUpdate(ids);
+    }
+
     /**
      * Реализует метод findAllResponses, который возвращает список ответов со всеми данными о счетах из базы данных.
      *
@@ -91,6 +119,19 @@ public class AccountServiceImpl implements AccountService {
         return accountMapper.toResponseList(findAll());
     }
 
+    /**
+     * Реализует метод findAllResponses, который передаёт в consumer ответы с данными о счетах с id больше after по
+     * одному, не загружая все счета в память.
+     *
+     * @param after    String, представляющая id счёта, после которого начинается страница, или null
+     * @param limit    Integer, представляющее максимальное количество счетов, или null, чтобы получить все
+     * @param consumer объект Consumer, который получает ответы с данными о счетах
+     */
+    @Override
+    public void findAllResponses(String after, Integer limit, Consumer<AccountResponse> consumer) {
+        accountDAO.findAllAfter(after, limit, account -> consumer.accept(accountMapper.toResponse(account)));
+    }
+
     /**
      * Реализует метод save, который сохраняет новый счет в базу данных по данным из запроса.
      *
@@ -110,7 +151,9 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Реализует метод updateBalance, который обновляет баланс счёта в базе данных по заданному значению.
+     * Реализует метод updateBalance, который обновляет баланс счёта в базе данных по заданному значению и удаляет
+     * счёт из кэша после окончания текущей транзакции, в том числе при конфликте версий. Если удалить счёт до commit,
+     * параллельное чтение успеет вернуть в кэш прежний баланс.
      *
      * @param account объект Account, представляющий счёт, который нужно обновить
      * @param balance объект BigDecimal, представляющий новое значение баланса счёта
@@ -120,12 +163,61 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public Account updateBalance(Account account, BigDecimal balance) {
         account.setBalance(balance);
-        return accountDAO.update(account)
-                .orElseThrow(() -> new FailedConnectionException("Failed to update balance " + balance));
+        try {
+            return accountDAO.update(account)
+                    .orElseThrow(() -> new FailedConnectionException("Failed to update balance " + balance));
+        } finally {
+            String id = account.getId();
+            transactionManager.afterCompletion(() -> accountCache.invalidate(id));
+        }
+    }
+
+    /**
+     * Реализует метод addToBalance, который атомарно изменяет баланс счёта в базе данных на заданную величину. В отличие
+     * от updateBalance, новый баланс вычисляется базой данных, поэтому параллельные операции не перезаписывают друг друга.
+     * Счёт удаляется из кэша после окончания текущей транзакции.
+     *
+     * @param account объект Account, представляющий счёт, баланс которого нужно изменить
+     * @param delta   объект BigDecimal, представляющий величину изменения баланса, отрицательную при списании
+     * @return объект Account, представляющий счёт с актуальным балансом после изменения
+     * @throws InsufficientFundsException если на счёте недостаточно средств для списания
+     */
+    @Override
+    public Account addToBalance(Account account, BigDecimal delta) {
+        try {
+            BigDecimal balance = accountDAO.addToBalance(account.getId(), delta)
+                    .orElseThrow(() -> new InsufficientFundsException("Insufficient funds in the account! You want to change balance "
+                                                                      + delta.negate() + ", but you have only " + account.getBalance()));
+            account.setBalance(balance);
+            return account;
+        } finally {
+            String id = account.getId();
+            transactionManager.afterCompletion(() -> accountCache.invalidate(id));
+        }
     }
 
     /**
-     * Реализует метод closeAccount, который закрывает счёт в базе данных по его идентификатору.
+     * Реализует метод addToBalances, который изменяет балансы нескольких счетов одним пакетом запросов и удаляет
+     * эти счета из кэша после окончания текущей транзакции.
+     *
+     * @param deltas объект Map, представляющий id счетов и величины изменения их балансов
+     * @throws TransactionException если баланс хотя бы одного счёта не удалось изменить
+     */
+    @Override
+    public void addToBalances(Map<String, BigDecimal> deltas) {
+        try {
+            if (!accountDAO.addToBalances(deltas)) {
+                throw new TransactionException("Failed to update balances of accounts " + deltas.keySet());
+            }
+        } finally {
+            Set<String> ids = Set.copyOf(deltas.keySet());
+            transactionManager.afterCompletion(() -> accountCache.invalidateAll(ids));
+        }
+    }
+
+    /**
+     * Реализует метод closeAccount, который закрывает счёт в базе данных по его идентификатору и удаляет его из кэша.
+     * Счёт читается мимо кэша, чтобы обновление выполнялось по актуальной версии.
      *
      * @param id String, представляющая id счёта
      * @return объект AccountResponse, представляющий ответ с данными о закрытом счёте
@@ -135,15 +227,21 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @ServiceLoggable
     public AccountResponse closeAccount(String id) {
-        return Optional.of(findById(id))
-                .map(accountMapper::fromCloseRequest)
-                .flatMap(accountDAO::update)
-                .map(accountMapper::toResponse)
-                .orElseThrow(() -> new FailedConnectionException("Failed to close account by id " + id));
+        Account account = accountDAO.findById(id)
+                .orElseThrow(() -> new AccountNotFoundException("Account with ID " + id + " is not found!"));
+        try {
+            return Optional.of(account)
+                    .map(accountMapper::fromCloseRequest)
+                    .flatMap(accountDAO::update)
+                    .map(accountMapper::toResponse)
+                    .orElseThrow(() -> new FailedConnectionException("Failed to close account by id " + id));
+        } finally {
+            accountCache.invalidate(id);
+        }
     }
 
     /**
-     * Реализует метод delete, который удаляет счёт из базы данных по его id.
+     * Реализует метод delete, который удаляет счёт из базы данных и из кэша по его id.
      *
      * @param id String, представляющая id счёта
      * @return объект DeleteResponse, представляющий ответ с сообщением об успешном удалении счёта
@@ -152,9 +250,13 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @ServiceLoggable
     public DeleteResponse delete(String id) {
-        return accountDAO.delete(id)
-                .map(account -> new DeleteResponse("Account with ID " + id + " was successfully deleted"))
-                .orElseThrow(() -> new AccountNotFoundException("No Account with ID " + id + " to delete"));
+        try {
+            return accountDAO.delete(id)
+                    .map(account -> new DeleteResponse("Account with ID " + id + " was successfully deleted"))
+                    .orElseThrow(() -> new AccountNotFoundException("No Account with ID " + id + " to delete"));
+        } finally {
+            accountCache.invalidate(id);
+        }
     }
 
 }
@@ -3,6 +3,8 @@ package ru.clevertec.cleverbank.service.impl;
 import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import ru.clevertec.cleverbank.aspect.annotation.ServiceLoggable;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
 import ru.clevertec.cleverbank.dao.BankDAO;
 import ru.clevertec.cleverbank.dao.impl.BankDAOImpl;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
@@ -13,19 +15,25 @@ import ru.clevertec.cleverbank.exception.notfound.BankNotFoundException;
 import ru.clevertec.cleverbank.mapper.BankMapper;
 import ru.clevertec.cleverbank.model.Bank;
 import ru.clevertec.cleverbank.service.BankService;
+import ru.clevertec.cleverbank.util.CacheManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class BankServiceImpl implements BankService {
 
     private final BankDAO bankDAO;
     private final BankMapper bankMapper;
+    private final ReferenceCache<Long, Bank> bankCache;
+    private final AccountCache accountCache;
 
     public BankServiceImpl() {
         bankDAO = new BankDAOImpl();
         bankMapper = Mappers.getMapper(BankMapper.class);
+        bankCache = CacheManager.getBankCache();
+        accountCache = CacheManager.getAccountCache();
 
     }
 
@@ -38,7 +46,7 @@ public class BankServiceImpl implements BankService {
      */
     @Override
     public Bank findById(Long id) {
-        return bankDAO.findById(id)
+        return bankCache.get(id)
                 .orElseThrow(() -> new BankNotFoundException("Bank with ID " + id + " is not found!"));
     }
 
@@ -65,6 +73,19 @@ public class BankServiceImpl implements BankService {
         return bankMapper.toResponseList(bankDAO.findAll());
     }
 
+    /**
+     * Реализует метод findAll, который передаёт в consumer ответы с данными о банках с id больше after по одному, не
+     * загружая их все в память.
+     *
+     * @param after    Long, представляющее id банка, после которого начинается страница, или null
+     * @param limit    Integer, представляющее максимальное количество записей, или null, чтобы получить все
+     * @param consumer объект Consumer, который получает ответы с данными о банках
+     */
+    @Override
+    public void findAll(Long after, Integer limit, Consumer<BankResponse> consumer) {
+        bankDAO.findAllAfter(after, limit, bank -> consumer.accept(bankMapper.toResponse(bank)));
+    }
+
     /**
      * Реализует метод save, который сохраняет новый банк в базу данных по данным из запроса.
      *
@@ -78,6 +99,10 @@ public class BankServiceImpl implements BankService {
         return Optional.of(request)
                 .map(bankMapper::fromSaveRequest)
                 .flatMap(bankDAO::save)
+                .map(bank -> {
+                    bankCache.put(bank);
+                    return bank;
+                })
                 .map(bankMapper::toResponse)
                 .orElseThrow(() -> new UniquePhoneNumberException("Bank with phone number " + request.phoneNumber()
                                                                   + " is already exist"));
@@ -98,6 +123,10 @@ public class BankServiceImpl implements BankService {
         return Optional.of(findById(id))
                 .map(bank -> bankMapper.fromUpdateRequest(request, bank.getId()))
                 .flatMap(bankDAO::update)
+                .map(bank -> {
+                    bankCache.put(bank);
+                    return bank;
+                })
                 .map(bankMapper::toResponse)
                 .orElseThrow(() -> new UniquePhoneNumberException("Bank with phone number " + request.phoneNumber()
                                                                   + " is already exist"));
@@ -105,6 +134,7 @@ public class BankServiceImpl implements BankService {
 
     /**
      * Реализует метод delete, который удаляет банк из базы данных по его id.
+     * Кэши сбрасываются только после удаления, чтобы параллельное чтение не вернуло в кэш удалённую запись.
      *
      * @param id Long, представляющее id банка
      * @return объект DeleteResponse, представляющий ответ с сообщением об успешном удалении банка
@@ -113,7 +143,10 @@ public class BankServiceImpl implements BankService {
     @Override
     @ServiceLoggable
     public DeleteResponse delete(Long id) {
-        return bankDAO.delete(id)
+        Optional<Bank> deleted = bankDAO.delete(id);
+        bankCache.invalidate(id);
+        accountCache.invalidateAll();
+        return deleted
                 .map(bank -> new DeleteResponse("Bank with ID " + id + " was successfully deleted"))
                 .orElseThrow(() -> new BankNotFoundException("No Bank with ID " + id + " to delete"));
     }
@@ -3,16 +3,40 @@ package ru.clevertec.cleverbank.service.impl;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
 import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.util.ReceiptTemplate;
 
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
 public class CheckServiceImpl implements CheckService {
 
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final String[] CHECK_FIELDS = {"transactionId", "date", "time", "type", "bankSender",
+            "bankRecipient"};
+    private static final String[] STATEMENT_FIELDS = {"bankName", "lastname", "firstname", "surname", "accountId",
+            "currency", "openingDate", "from", "to", "formationDate", "formationTime", "balance"};
+    private static final ReceiptTemplate CHANGE_BALANCE_CHECK = ReceiptTemplate.load("template/ChangeBalanceCheck.txt",
+            fields(CHECK_FIELDS, "accountRecipient", "sum", "currency"));
+    private static final ReceiptTemplate TRANSFER_BALANCE_CHECK = ReceiptTemplate.load(
+            "template/TransferBalanceCheck.txt",
+            fields(CHECK_FIELDS, "accountSender", "accountRecipient", "sum", "currency"));
+    private static final ReceiptTemplate EXCHANGE_BALANCE_CHECK = ReceiptTemplate.load(
+            "template/ExchangeBalanceCheck.txt",
+            fields(CHECK_FIELDS, "accountSender", "accountRecipient", "sumSender", "currencySender", "sumRecipient",
+                    "currencyRecipient"));
+    private static final ReceiptTemplate TRANSACTION_STATEMENT = ReceiptTemplate.load(
+            "template/TransactionStatement.txt", STATEMENT_FIELDS);
+    private static final ReceiptTemplate TRANSACTION_STATEMENT_ROW = ReceiptTemplate.load(
+            "template/TransactionStatementRow.txt", "date", "type", "lastname", "sum", "currency");
+    private static final ReceiptTemplate AMOUNT_STATEMENT = ReceiptTemplate.load("template/AmountStatement.txt",
+            fields(STATEMENT_FIELDS, "receivedFunds", "spentFunds"));
+
     /**
      * Реализует метод createChangeBalanceCheck, который создает чек по операции изменения баланса счёта.
      *
@@ -21,29 +45,13 @@ public class CheckServiceImpl implements CheckService {
      */
     @Override
     public String createChangeBalanceCheck(ChangeBalanceResponse response) {
-        String repeat = "-".repeat(61);
-        return """
-                %s%s
-                | %36s%23s
-                | Чек: %52s |
-                | %s %46s |
-                | Тип транзакции: %41s |
-                | Банк отправителя: %39s |
-                | Банк получателя: %40s |
-                | Счет получателя: %40s |
-                | Сумма: %46s %s |
-                %s
-                """.formatted("\n",
-                repeat,
-                "Банковский чек", "|",
-                response.transactionId(),
-                response.date(), response.time().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+        return CHANGE_BALANCE_CHECK.render(response.transactionId(),
+                response.date(), TIME_FORMATTER.format(response.time()),
                 response.type().getName(),
                 response.bankSenderName(),
                 response.bankRecipientName(),
                 response.accountRecipientId(),
-                response.type() == Type.WITHDRAWAL ? "-" + response.sum() : "" + response.sum(), response.currency(),
-                repeat);
+                response.type() == Type.WITHDRAWAL ? "-" + response.sum() : response.sum(), response.currency());
     }
 
     /**
@@ -54,31 +62,14 @@ public class CheckServiceImpl implements CheckService {
      */
     @Override
     public String createTransferBalanceCheck(TransferBalanceResponse response) {
-        String repeat = "-".repeat(61);
-        return """
-                %s%s
-                | %36s%23s
-                | Чек: %52s |
-                | %s %46s |
-                | Тип транзакции: %41s |
-                | Банк отправителя: %39s |
-                | Банк получателя: %40s |
-                | Счет отправителя: %39s |
-                | Счет получателя: %40s |
-                | Сумма: %46s %s |
-                %s
-                """.formatted("\n",
-                repeat,
-                "Банковский чек", "|",
-                response.transactionId(),
-                response.date(), response.time().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+        return TRANSFER_BALANCE_CHECK.render(response.transactionId(),
+                response.date(), TIME_FORMATTER.format(response.time()),
                 response.type().getName(),
                 response.bankSenderName(),
                 response.bankRecipientName(),
                 response.accountSenderId(),
                 response.accountRecipientId(),
-                response.sum(), response.currency(),
-                repeat);
+                response.sum(), response.currency());
     }
 
     /**
@@ -89,33 +80,15 @@ public class CheckServiceImpl implements CheckService {
      */
     @Override
     public String createExchangeBalanceCheck(ExchangeBalanceResponse response) {
-        String repeat = "-".repeat(61);
-        return """
-                %s%s
-                | %36s%23s
-                | Чек: %52s |
-                | %s %46s |
-                | Тип транзакции: %41s |
-                | Банк отправителя: %39s |
-                | Банк получателя: %40s |
-                | Счет отправителя: %39s |
-                | Счет получателя: %40s |
-                | Сумма отправителя: %34s %s |
-                | Сумма получателя: %35s %s |
-                %s
-                """.formatted("\n",
-                repeat,
-                "Банковский чек", "|",
-                response.transactionId(),
-                response.date(), response.time().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+        return EXCHANGE_BALANCE_CHECK.render(response.transactionId(),
+                response.date(), TIME_FORMATTER.format(response.time()),
                 response.type().getName(),
                 response.bankSenderName(),
                 response.bankRecipientName(),
                 response.accountSenderId(),
                 response.accountRecipientId(),
                 response.sumSender(), response.currencySender(),
-                response.sumRecipient(), response.currencyRecipient(),
-                repeat);
+                response.sumRecipient(), response.currencyRecipient());
     }
 
     /**
@@ -127,48 +100,55 @@ public class CheckServiceImpl implements CheckService {
      */
     @Override
     public String createTransactionStatement(TransactionStatementResponse response) {
-        String line = "|";
-        StringBuilder result = new StringBuilder();
+        int rows = response.transactions().size();
+        StringBuilder result = new StringBuilder(TRANSACTION_STATEMENT.getCapacity()
+                                                 + rows * TRANSACTION_STATEMENT_ROW.getCapacity());
+        appendTransactionStatementHeader(result, response);
         response.transactions()
-                .forEach(transaction -> {
-                    String sum = transaction.sumRecipient().toString();
-                    if (transaction.type().equals(Type.WITHDRAWAL)) {
-                        sum = "-" + transaction.sumRecipient();
-                    } else if ((transaction.type().equals(Type.TRANSFER) || transaction.type().equals(Type.EXCHANGE))
-                               && transaction.userLastname().equals(response.lastname())) {
-                        sum = "-" + transaction.sumSender();
-                    }
-                    result.append("%s %4s %-15s от %-10s %9s %s %s%s"
-                            .formatted(transaction.date(), line, transaction.type().getName(), transaction.userLastname(),
-                                    line, sum, response.currency(), "\n"));
-                });
-        result.deleteCharAt(result.length() - 1);
-        return """
-                %s%36s
-                %38s
-                Клиент %25s %s %s %s
-                Счет %27s %s
-                Валюта %25s %s
-                Дата открытия %18s %s
-                Период %25s %s - %s
-                Дата и время формирования %6s %s,  %s
-                Остаток %24s %s %s
-                %8s %6s %20s %18s %8s
-                %s
-                %s
-                """.formatted("\n",
-                "Выписка",
-                response.bankName(),
-                line, response.lastname(), response.firstname(), response.surname(),
-                line, response.accountId(),
-                line, response.currency(),
-                line, response.openingDate(),
-                line, response.from(), response.to(),
-                line, response.formationDate(), response.formationTime().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
-                line, response.balance(), response.currency(),
-                "Дата", line, "Примечание", line, "Сумма",
-                "-".repeat(70),
-                result);
+                .forEach(transaction -> appendTransactionStatementRow(result, response, transaction));
+        return result.toString();
+    }
+
+    /**
+     * Реализует метод appendTransactionStatementHeader, который дописывает шапку выписки по транзакциям, включая
+     * заголовок таблицы транзакций, в конец переданного StringBuilder.
+     *
+     * @param builder  объект StringBuilder, в который дописывается шапка
+     * @param response объект TransactionStatementResponse, представляющий данные о счёте и периоде дат
+     */
+    @Override
+    public void appendTransactionStatementHeader(StringBuilder builder, TransactionStatementResponse response) {
+        TRANSACTION_STATEMENT.appendTo(builder, response.bankName(),
+                response.lastname(), response.firstname(), response.surname(),
+                response.accountId(),
+                response.currency(),
+                response.openingDate(),
+                response.from(), response.to(),
+                response.formationDate(), TIME_FORMATTER.format(response.formationTime()),
+                response.balance());
+    }
+
+    /**
+     * Реализует метод appendTransactionStatementRow, который дописывает строку одной транзакции выписки в конец
+     * переданного StringBuilder. Сумма снятия, а также перевода и обмена, отправленных владельцем счёта, выводится
+     * со знаком минус.
+     *
+     * @param builder     объект StringBuilder, в который дописывается строка
+     * @param response    объект TransactionStatementResponse, представляющий данные о счёте и периоде дат
+     * @param transaction объект TransactionStatement, представляющий транзакцию
+     */
+    @Override
+    public void appendTransactionStatementRow(StringBuilder builder, TransactionStatementResponse response,
+                                              TransactionStatement transaction) {
+        Object sum = transaction.sumRecipient();
+        if (transaction.type().equals(Type.WITHDRAWAL)) {
+            sum = "-" + transaction.sumRecipient();
+        } else if ((transaction.type().equals(Type.TRANSFER) || transaction.type().equals(Type.EXCHANGE))
+                   && transaction.userLastname().equals(response.lastname())) {
+            sum = "-" + transaction.sumSender();
+        }
+        TRANSACTION_STATEMENT_ROW.appendTo(builder, transaction.date(), transaction.type().getName(),
+                transaction.userLastname(), sum, response.currency());
     }
 
     /**
@@ -181,34 +161,29 @@ public class CheckServiceImpl implements CheckService {
      */
     @Override
     public String createAmountStatement(AmountStatementResponse response) {
-        String line = "|";
-        return """
-                %s%36s
-                %32s
-                Клиент %25s %s %s %s
-                Счет %27s %s
-                Валюта %25s %s
-                Дата открытия %18s %s
-                Период %25s %s - %s
-                Дата и время формирования %6s %s,  %s
-                Остаток %24s %s %s
-                %20s %6s %8s
-                %42s
-                %20s %6s %12s
-                """.formatted("\n",
-                "Выписка по деньгам",
-                response.bankName(),
-                line, response.lastname(), response.firstname(), response.surname(),
-                line, response.accountId(),
-                line, response.currency(),
-                line, response.openingDate(),
-                line, response.from(), response.to(),
-                line, response.formationDate(), response.formationTime().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
-                line, response.balance(), response.currency(),
-                "Приход", line, "Уход",
-                "-".repeat(32),
-                response.receivedFunds() == null ? BigDecimal.ZERO : response.receivedFunds(), line,
+        return AMOUNT_STATEMENT.render(response.bankName(),
+                response.lastname(), response.firstname(), response.surname(),
+                response.accountId(),
+                response.currency(),
+                response.openingDate(),
+                response.from(), response.to(),
+                response.formationDate(), TIME_FORMATTER.format(response.formationTime()),
+                response.balance(),
+                response.receivedFunds() == null ? BigDecimal.ZERO : response.receivedFunds(),
                 response.spentFunds() == null ? BigDecimal.ZERO : "-" + response.spentFunds());
     }
 
+    /**
+     * Метод fields, который дополняет общие поля шаблонов полями одного шаблона.
+     *
+     * @param common общие поля чеков или выписок
+     * @param own    поля, которые есть только в этом шаблоне
+     * @return массив названий полей шаблона в порядке передачи их значений
+     */
+    private static String[] fields(String[] common, String... own) {
+        String[] fields = Arrays.copyOf(common, common.length + own.length);
+        System.arraycopy(own, 0, fields, common.length, own.length);
+        return fields;
+    }
+
 }
@@ -0,0 +1,98 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dao.DailyAccountTotalsDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.TransactionManagerImpl;
+import ru.clevertec.cleverbank.dao.impl.DailyAccountTotalsDAOImpl;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsCheckResponse;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsMismatch;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsRebuildResponse;
+import ru.clevertec.cleverbank.service.DailyAccountTotalsService;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@AllArgsConstructor
+public class DailyAccountTotalsServiceImpl implements DailyAccountTotalsService {
+
+    private static final int CHECK_LIMIT = Integer.parseInt(new YamlUtil().getYamlMap()
+            .get("dailyTotals").get("checkLimit"));
+
+    private final DailyAccountTotalsDAO dailyAccountTotalsDAO;
+    private final TransactionManager transactionManager;
+    private final Clock clock;
+
+    public DailyAccountTotalsServiceImpl() {
+        dailyAccountTotalsDAO = new DailyAccountTotalsDAOImpl();
+        transactionManager = new TransactionManagerImpl();
+        clock = Clock.systemDefaultZone();
+    }
+
+    /**
+     * Реализует метод compact, который переносит в дневные суммы счетов все закрытые дни, то есть дни до сегодняшнего.
+     * Транзакции сохраняются с текущей датой, поэтому суммы закрытого дня больше не меняются. Последний свёрнутый день
+     * пересчитывается ещё раз, чтобы учесть транзакции, зафиксированные уже после его свёртки. Суммы и последний
+     * свёрнутый день сохраняются в одной транзакции базы данных, поэтому выписка всегда видит их согласованными.
+     *
+     * @return объект LocalDate, представляющий последний свёрнутый день
+     */
+    @Override
+    public LocalDate compact() {
+        LocalDate through = LocalDate.now(clock).minusDays(1);
+        Optional<LocalDate> compactedThrough = dailyAccountTotalsDAO.findCompactedThrough();
+        if (compactedThrough.filter(date -> date.isAfter(through)).isPresent()) {
+            return compactedThrough.get();
+        }
+        LocalDate from = compactedThrough.orElse(null);
+        int rowsCount = transactionManager.doInTransaction(() -> {
+            int count = dailyAccountTotalsDAO.compact(from, through);
+            dailyAccountTotalsDAO.saveCompactedThrough(through);
+            return count;
+        });
+        log.info("Daily account totals compacted from {} through {}, {} rows written", from, through, rowsCount);
+        return through;
+    }
+
+    /**
+     * Реализует метод rebuild, который удаляет все дневные суммы счетов и заново сворачивает все закрытые дни по
+     * таблице transactions в одной транзакции базы данных.
+     *
+     * @return объект DailyTotalsRebuildResponse, представляющий последний свёрнутый день и количество записанных строк
+     */
+    @Override
+    public DailyTotalsRebuildResponse rebuild() {
+        LocalDate through = LocalDate.now(clock).minusDays(1);
+        int rowsCount = transactionManager.doInTransaction(() -> {
+            dailyAccountTotalsDAO.deleteAll();
+            int count = dailyAccountTotalsDAO.compact(null, through);
+            dailyAccountTotalsDAO.saveCompactedThrough(through);
+            return count;
+        });
+        log.info("Daily account totals rebuilt through {}, {} rows written", through, rowsCount);
+        return new DailyTotalsRebuildResponse(through, rowsCount);
+    }
+
+    /**
+     * Реализует метод check, который сверяет дневные суммы счетов по последний свёрнутый день с суммами, посчитанными
+     * заново по таблице transactions, и возвращает не больше checkLimit расхождений.
+     *
+     * @return объект DailyTotalsCheckResponse, представляющий последний свёрнутый день и найденные расхождения
+     */
+    @Override
+    public DailyTotalsCheckResponse check() {
+        Optional<LocalDate> compactedThrough = dailyAccountTotalsDAO.findCompactedThrough();
+        if (compactedThrough.isEmpty()) {
+            return new DailyTotalsCheckResponse(null, true, List.of());
+        }
+        List<DailyTotalsMismatch> mismatches = dailyAccountTotalsDAO
+                .findMismatches(compactedThrough.get(), CHECK_LIMIT);
+        return new DailyTotalsCheckResponse(compactedThrough.get(), mismatches.isEmpty(), mismatches);
+    }
+
+}
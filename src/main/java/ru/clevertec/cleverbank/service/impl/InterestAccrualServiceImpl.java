@@ -0,0 +1,169 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.dao.InterestAccrualDAO;
+import ru.clevertec.cleverbank.dao.impl.InterestAccrualDAOImpl;
+import ru.clevertec.cleverbank.dto.interest.InterestAccrualResponse;
+import ru.clevertec.cleverbank.dto.interest.InterestChunk;
+import ru.clevertec.cleverbank.service.InterestAccrualService;
+import ru.clevertec.cleverbank.util.CacheManager;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@AllArgsConstructor
+public class InterestAccrualServiceImpl implements InterestAccrualService {
+
+    private final InterestAccrualDAO interestAccrualDAO;
+    private final AccountCache accountCache;
+    private final int partitions;
+    private final int workers;
+    private final int chunkSize;
+
+    public InterestAccrualServiceImpl() {
+        Map<String, String> interestMap = new YamlUtil().getYamlMap().get("interestAccrual");
+        interestAccrualDAO = new InterestAccrualDAOImpl();
+        accountCache = CacheManager.getAccountCache();
+        partitions = Integer.parseInt(interestMap.get("partitions"));
+        workers = Integer.parseInt(interestMap.get("workers"));
+        chunkSize = Integer.parseInt(interestMap.get("chunkSize"));
+    }
+
+    /**
+     * Реализует метод accrue, который начисляет проценты за месяц даты date на все счета с положительным балансом.
+     * Счета делятся на диапазоны id, которые обрабатывают не больше workers потоков, а внутри диапазона проценты
+     * начисляются порциями по chunkSize счетов одним запросом на порцию. Каждому счёту проценты за месяц начисляются
+     * не больше одного раза: повторный запуск после сбоя продолжает с непополненных счетов, а запуск после
+     * завершения месяца сразу возвращает пустой итог. Ход начисления пишется в лог после каждого диапазона и
+     * в счётчики interestAccrual.accounts и interestAccrual.partitions.
+     *
+     * @param date объект LocalDate, представляющий день, за месяц которого начисляются проценты
+     * @param rate объект BigDecimal, представляющий месячную ставку в процентах
+     * @return объект InterestAccrualResponse, представляющий количество счетов, пополненных этим запуском, сумму
+     * начисленных процентов и время начисления
+     */
+    @Override
+    public InterestAccrualResponse accrue(LocalDate date, BigDecimal rate) {
+        LocalDate month = date.withDayOfMonth(1);
+        if (interestAccrualDAO.isCompleted(month)) {
+            log.info("Interest for {} has already been accrued", month);
+            return new InterestAccrualResponse(month, 0, BigDecimal.ZERO, 0);
+        }
+        long start = System.nanoTime();
+        List<String> bounds = interestAccrualDAO.findPartitionBounds(partitions);
+        List<Partition> partitionList = toPartitions(bounds);
+        AtomicInteger done = new AtomicInteger();
+        List<CompletableFuture<InterestAccrualResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("interest-accrual-", 1).factory())) {
+            for (Partition partition : partitionList) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    InterestAccrualResponse result = accruePartition(month, rate, partition);
+                    log.info("Interest for {}: {}/{} id ranges done, {} accounts credited with {} in {} ms",
+                            month, done.incrementAndGet(), partitionList.size(), result.accounts(), result.amount(),
+                            result.millis());
+                    return result;
+                }, executor));
+            }
+        }
+        InterestAccrualResponse response = sum(month, futures, start);
+        interestAccrualDAO.saveCompleted(month);
+        log.info("Interest for {} accrued: {} accounts credited with {} in {} ms, {} accounts/s", month,
+                response.accounts(), response.amount(), response.millis(),
+                response.accounts() * 1000 / Math.max(response.millis(), 1));
+        return response;
+    }
+
+    /**
+     * Метод accruePartition, который начисляет проценты на счета одного диапазона id порциями, пока порция не окажется
+     * неполной. После каждой порции пополненные счета удаляются из кэша счетов.
+     *
+     * @param month     объект LocalDate, представляющий первый день месяца
+     * @param rate      объект BigDecimal, представляющий месячную ставку в процентах
+     * @param partition объект Partition, представляющий диапазон id
+     * @return объект InterestAccrualResponse, представляющий итог начисления по диапазону
+     */
+    private InterestAccrualResponse accruePartition(LocalDate month, BigDecimal rate, Partition partition) {
+        long start = System.nanoTime();
+        long accounts = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        String afterId = partition.afterId();
+        InterestChunk chunk;
+        do {
+            chunk = interestAccrualDAO.accrueChunk(month, rate, afterId, partition.throughId(), chunkSize);
+            accountCache.invalidateAll(chunk.accountIds());
+            MetricsRegistry.add("interestAccrual.accounts", chunk.accountIds().size());
+            accounts += chunk.accountIds().size();
+            amount = amount.add(chunk.amount());
+            afterId = chunk.lastId();
+        } while (chunk.scanned() == chunkSize);
+        MetricsRegistry.increment("interestAccrual.partitions");
+        return new InterestAccrualResponse(month, accounts, amount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Метод toPartitions, который превращает верхние границы диапазонов в сами диапазоны. Первый диапазон начинается
+     * с начала таблицы, а последний не ограничен сверху, поэтому в него попадают и счета, открытые после расчёта
+     * границ.
+     *
+     * @param bounds список String, представляющий возрастающие верхние границы диапазонов
+     * @return список объектов Partition, представляющих диапазоны id
+     */
+    private static List<Partition> toPartitions(List<String> bounds) {
+        List<Partition> partitionList = new ArrayList<>();
+        String afterId = null;
+        for (String bound : bounds) {
+            partitionList.add(new Partition(afterId, bound));
+            afterId = bound;
+        }
+        partitionList.add(new Partition(afterId, null));
+        return partitionList;
+    }
+
+    /**
+     * Метод sum, который дожидается всех диапазонов и складывает их итоги.
+     *
+     * @param month   объект LocalDate, представляющий первый день месяца
+     * @param futures список объектов CompletableFuture, представляющих итоги диапазонов
+     * @param start   long, представляющее время начала начисления в наносекундах
+     * @return объект InterestAccrualResponse, представляющий общий итог начисления
+     * @throws RuntimeException исключение первого диапазона, который завершился ошибкой
+     */
+    private static InterestAccrualResponse sum(LocalDate month,
+                                               List<CompletableFuture<InterestAccrualResponse>> futures, long start) {
+        long accounts = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        try {
+            for (CompletableFuture<InterestAccrualResponse> future : futures) {
+                accounts += future.join().accounts();
+                amount = amount.add(future.join().amount());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return new InterestAccrualResponse(month, accounts, amount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Диапазон id счетов: после afterId, если он задан, и по throughId включительно, если он задан.
+     */
+    private record Partition(String afterId, String throughId) {
+    }
+
+}
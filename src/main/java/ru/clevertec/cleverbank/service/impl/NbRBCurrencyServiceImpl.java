@@ -2,6 +2,8 @@ package ru.clevertec.cleverbank.service.impl;
 
 import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
+import ru.clevertec.cleverbank.cache.RateCache;
+import ru.clevertec.cleverbank.cache.RateHistoryCache;
 import ru.clevertec.cleverbank.dao.NbRBCurrencyDAO;
 import ru.clevertec.cleverbank.dao.impl.NbRBCurrencyDAOImpl;
 import ru.clevertec.cleverbank.dto.nbrbcurrency.NbRBCurrencyResponse;
@@ -10,19 +12,35 @@ import ru.clevertec.cleverbank.mapper.NbRBCurrencyMapper;
 import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 import ru.clevertec.cleverbank.service.NbRBCurrencyService;
+import ru.clevertec.cleverbank.util.CacheManager;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @AllArgsConstructor
 public class NbRBCurrencyServiceImpl implements NbRBCurrencyService {
 
     private final NbRBCurrencyDAO nbRBCurrencyDAO;
     private final NbRBCurrencyMapper currencyMapper;
+    private final RateCache rateCache;
+    private final RateHistoryCache rateHistoryCache;
 
     public NbRBCurrencyServiceImpl() {
         nbRBCurrencyDAO = new NbRBCurrencyDAOImpl();
         currencyMapper = Mappers.getMapper(NbRBCurrencyMapper.class);
+        rateCache = CacheManager.getRateCache();
+        rateHistoryCache = CacheManager.getRateHistoryCache();
     }
 
     /**
@@ -40,19 +58,114 @@ public class NbRBCurrencyServiceImpl implements NbRBCurrencyService {
     }
 
     /**
-     * Реализует метод save, который сохраняет курс в базу данных по данным из ответа.
+     * Реализует метод findByCurrency, который возвращает последний курс НБ РБ валюты из кэша курсов. База данных
+     * запрашивается, только если курса валюты ещё нет в кэше.
+     *
+     * @param currency объект Currency, представляющий валюту
+     * @return объект NbRBCurrency, представляющий последний курс валюты
+     * @throws NbRBCurrencyNotFoundException если курс валюты не найден в базе данных
+     */
+    @Override
+    public NbRBCurrency findByCurrency(Currency currency) {
+        return rateCache.get(currency, key -> nbRBCurrencyDAO.findByCurrencyId(key.getCode()))
+                .orElseThrow(() -> new NbRBCurrencyNotFoundException("NbRBCurrency with currencyId "
+                                                                     + currency.getCode() + " is not found!"));
+    }
+
+    /**
+     * Реализует метод findRateAt, который возвращает курс НБ РБ валюты, действовавший в заданный момент. Курсы за
+     * последние rateHistoryDays дней берутся из кэша истории курсов, более ранние ищутся в базе данных по индексу.
+     *
+     * @param currency объект Currency, представляющий валюту
+     * @param at       объект LocalDateTime, представляющий момент времени
+     * @return объект NbRBCurrency, представляющий курс, действовавший в заданный момент
+     * @throws NbRBCurrencyNotFoundException если на заданный момент курса валюты в базе данных нет
+     */
+    @Override
+    public NbRBCurrency findRateAt(Currency currency, LocalDateTime at) {
+        Optional<NbRBCurrency> rate = rateHistoryCache.covers(at)
+                ? rateHistoryCache.findAt(currency, at, since -> nbRBCurrencyDAO
+                        .findAllByCurrencyIdEffectiveSince(currency.getCode(), since))
+                : nbRBCurrencyDAO.findByCurrencyIdAt(currency.getCode(), at);
+        return rate.orElseThrow(() -> new NbRBCurrencyNotFoundException("NbRBCurrency with currencyId "
+                                                                        + currency.getCode() + " is not found at "
+                                                                        + at));
+    }
+
+    /**
+     * Реализует метод save, который сохраняет курс в базу данных по данным из ответа и заменяет им курс валюты в кэше.
      *
      * @param response объект NbRBCurrencyResponse, представляющий ответ с данными для создания нового курса
      * @return объект NbRBCurrency, представляющий объект с данными о созданном курсе
      */
     @Override
     public NbRBCurrency save(NbRBCurrencyResponse response) {
-        return nbRBCurrencyDAO.save(currencyMapper.fromResponse(response));
+        NbRBCurrency nbRBCurrency = nbRBCurrencyDAO.save(currencyMapper.fromResponse(response));
+        rateCache.put(nbRBCurrency);
+        rateHistoryCache.put(nbRBCurrency);
+        return nbRBCurrency;
     }
 
     /**
-     * Этот метод рассчитывает сумму обмена валют, используя курсы НБ РБ. Иностранные валюты вначале переводятся в BYN,
-     * затем переводятся в необходимую иностранную валюту.
+     * Реализует метод saveAll, который сохраняет курсы, полученные за несколько дат, одной командой insertMany. Датой
+     * обновления курса становится начало даты, на которую он установлен. Курс пропускается, если для его currencyId
+     * на ту же дату уже есть курс в базе данных, в том числе сохранённый по расписанию в течение дня, или в этой же
+     * загрузке, поэтому повторная загрузка истории не создаёт дубликатов. Сохранённые курсы добавляются в кэш
+     * истории курсов, а кэш последних курсов не меняется, так как загруженная история не новее курсов по расписанию.
+     *
+     * @param ratesByDate объект Map, содержащий списки ответов с курсами по датам
+     * @return список объектов NbRBCurrency, представляющих сохранённые курсы
+     */
+    @Override
+    public List<NbRBCurrency> saveAll(Map<LocalDate, List<NbRBCurrencyResponse>> ratesByDate) {
+        if (ratesByDate.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime since = Collections.min(ratesByDate.keySet()).atStartOfDay();
+        List<NbRBCurrency> rates = ratesByDate.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream()
+                        .map(response -> fromResponseOnDate(response, entry.getKey())))
+                .toList();
+        Map<Integer, Set<LocalDate>> savedDates = rates.stream()
+                .map(NbRBCurrency::getCurrencyId)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), currencyId -> nbRBCurrencyDAO
+                        .findAllByCurrencyIdEffectiveSince(currencyId, since).stream()
+                        .map(rate -> rate.getUpdateDate().toLocalDate())
+                        .collect(Collectors.toCollection(HashSet::new))));
+        List<NbRBCurrency> newRates = rates.stream()
+                .filter(rate -> savedDates.get(rate.getCurrencyId()).add(rate.getUpdateDate().toLocalDate()))
+                .toList();
+        if (newRates.isEmpty()) {
+            return List.of();
+        }
+        List<NbRBCurrency> saved = nbRBCurrencyDAO.saveAll(newRates);
+        saved.forEach(rateHistoryCache::put);
+        return saved;
+    }
+
+    /**
+     * Реализует метод createIndexes, который создаёт индексы коллекции курсов, если их ещё нет.
+     */
+    @Override
+    public void createIndexes() {
+        nbRBCurrencyDAO.createIndexes();
+    }
+
+    /**
+     * Реализует метод convertStringUpdateDates, который переводит строковые даты обновления курсов в даты BSON.
+     *
+     * @return long, представляющее число переведённых курсов
+     */
+    @Override
+    public long convertStringUpdateDates() {
+        return nbRBCurrencyDAO.convertStringUpdateDates();
+    }
+
+    /**
+     * Этот метод рассчитывает сумму обмена валют, используя матрицу кросс-курсов НБ РБ из кэша курсов. Кросс-курс
+     * пересчитывается с фиксированной точностью при каждом новом курсе, поэтому обмен — это один поиск в матрице и одно
+     * умножение, а округление вверх до копеек выполняется только для итоговой суммы.
      *
      * @param currencySender    валюта отправителя
      * @param currencyRecipient валюта получателя
@@ -64,23 +177,34 @@ public class NbRBCurrencyServiceImpl implements NbRBCurrencyService {
     public BigDecimal exchangeSumByCurrency(Currency currencySender, Currency currencyRecipient, BigDecimal sum) {
         if (currencySender.equals(currencyRecipient)) {
             return sum;
-        } else if (currencyRecipient.equals(Currency.BYN)) {
-            NbRBCurrency nbRBCurrency = findByCurrencyId(currencySender.getCode());
-            return sum.multiply(nbRBCurrency.getRate())
-                    .divide(BigDecimal.valueOf(nbRBCurrency.getScale()), 2, RoundingMode.UP);
-        } else if (currencySender.equals(Currency.BYN)) {
-            NbRBCurrency nbRBCurrency = findByCurrencyId(currencyRecipient.getCode());
-            return sum.divide(nbRBCurrency.getRate(), 2, RoundingMode.UP)
-                    .multiply(BigDecimal.valueOf(nbRBCurrency.getScale()));
-        } else {
-            NbRBCurrency nbRBCurrencySender = findByCurrencyId(currencySender.getCode());
-            NbRBCurrency nbRBCurrencyRecipient = findByCurrencyId(currencyRecipient.getCode());
-            return sum.multiply(nbRBCurrencySender.getRate())
-                    .divide(BigDecimal.valueOf(nbRBCurrencySender.getScale()), 2, RoundingMode.UP)
-                    .divide(nbRBCurrencyRecipient.getRate(), 2, RoundingMode.UP)
-                    .multiply(BigDecimal.valueOf(nbRBCurrencyRecipient.getScale()))
-                    .setScale(2, RoundingMode.UP);
         }
+        BigDecimal crossRate = rateCache.getCrossRate(currencySender, currencyRecipient)
+                .orElseGet(() -> loadCrossRate(currencySender, currencyRecipient));
+        return sum.multiply(crossRate)
+                .setScale(2, RoundingMode.UP);
+    }
+
+    private NbRBCurrency fromResponseOnDate(NbRBCurrencyResponse response, LocalDate date) {
+        NbRBCurrency nbRBCurrency = currencyMapper.fromResponse(response);
+        nbRBCurrency.setUpdateDate(date.atStartOfDay());
+        return nbRBCurrency;
+    }
+
+    /**
+     * Загружает в кэш курсы валют, которых ещё нет в матрице кросс-курсов, и возвращает пересчитанный кросс-курс.
+     *
+     * @param currencySender    валюта отправителя
+     * @param currencyRecipient валюта получателя
+     * @return объект BigDecimal, представляющий кросс-курс
+     * @throws NbRBCurrencyNotFoundException если курс с заданным currencyId не найден в базе данных
+     */
+    private BigDecimal loadCrossRate(Currency currencySender, Currency currencyRecipient) {
+        Stream.of(currencySender, currencyRecipient)
+                .filter(currency -> !currency.equals(Currency.BYN))
+                .forEach(this::findByCurrency);
+        return rateCache.getCrossRate(currencySender, currencyRecipient)
+                .orElseThrow(() -> new NbRBCurrencyNotFoundException("NbRBCurrency cross rate " + currencySender
+                                                                     + "/" + currencyRecipient + " is not found!"));
     }
 
 }
@@ -0,0 +1,123 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.ExceptionConverter;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.exception.internalservererror.RenderPdfException;
+import ru.clevertec.cleverbank.service.PdfService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+
+@Slf4j
+public class PdfServiceImpl implements PdfService {
+
+    private static final String FONT = "liberation/LiberationMono-Regular.ttf";
+    private static final float FONT_SIZE = 9;
+    private static final float LEADING = 12;
+    private static final float MARGIN = 36;
+    private static final Rectangle PAGE_SIZE = PageSize.A4;
+    private static final float FIRST_LINE = PAGE_SIZE.getHeight() - MARGIN - FONT_SIZE;
+    private static final int LINES_PER_PAGE = (int) ((PAGE_SIZE.getHeight() - 2 * MARGIN) / LEADING);
+    private static final BaseFont BASE_FONT = loadFont();
+
+    /**
+     * Реализует метод writeText, который переносит текст чека или выписки в PDF построчно, сохраняя расположение
+     * колонок. Текст читается по строке, и каждая заполненная страница сразу записывается в outputStream, поэтому
+     * даже файл выписок любого размера не держится в памяти целиком. Поток outputStream не закрывается.
+     *
+     * @param reader       объект Reader, из которого читается текст
+     * @param outputStream объект OutputStream, в который записывается PDF
+     * @throws RenderPdfException если текст не удалось прочитать или PDF не удалось записать
+     */
+    @Override
+    public void writeText(Reader reader, OutputStream outputStream) {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        try (Pages pages = new Pages(outputStream)) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                pages.writeLine(line);
+            }
+        } catch (IOException | DocumentException | ExceptionConverter e) {
+            log.error(e.getMessage());
+            throw new RenderPdfException("Sorry! We got Server render pdf problems");
+        }
+    }
+
+    /**
+     * Метод loadFont, который один раз загружает моноширинный шрифт с кириллицей из ресурсов. Шрифт встраивается
+     * в каждый PDF подмножеством только использованных символов, поэтому названия Type и фамилии клиентов
+     * отображаются без шрифтов на стороне клиента, а файл остаётся небольшим. Объект BaseFont не изменяется при
+     * записи документов, поэтому один объект используется всеми потоками.
+     *
+     * @return объект BaseFont, представляющий шрифт для текста PDF
+     * @throws IllegalStateException если шрифта нет в ресурсах или его не удалось прочитать
+     */
+    private static BaseFont loadFont() {
+        try (InputStream inputStream = PdfServiceImpl.class.getClassLoader().getResourceAsStream(FONT)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Font " + FONT + " is not found");
+            }
+            return BaseFont.createFont(FONT, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, BaseFont.CACHED,
+                    inputStream.readAllBytes(), null);
+        } catch (IOException | DocumentException e) {
+            throw new IllegalStateException("Font " + FONT + " can not be read", e);
+        }
+    }
+
+    /**
+     * Страницы одного PDF. Строки выводятся прямо в поток содержимого страницы с постоянным интервалом, без
+     * объектов Paragraph и Chunk на каждую строку, а новая страница начинается, когда текущая заполнена.
+     */
+    private static final class Pages implements AutoCloseable {
+
+        private final Document document;
+        private final PdfContentByte content;
+        private int line;
+
+        private Pages(OutputStream outputStream) throws DocumentException {
+            document = new Document(PAGE_SIZE, MARGIN, MARGIN, MARGIN, MARGIN);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            document.open();
+            content = writer.getDirectContent();
+            writer.setPageEmpty(false);
+            content.beginText();
+            content.setFontAndSize(BASE_FONT, FONT_SIZE);
+        }
+
+        private void newPage() {
+            content.endText();
+            document.newPage();
+            content.beginText();
+            content.setFontAndSize(BASE_FONT, FONT_SIZE);
+            line = 0;
+        }
+
+        private void writeLine(String text) {
+            if (line == LINES_PER_PAGE) {
+                newPage();
+            }
+            content.setTextMatrix(MARGIN, FIRST_LINE - line * LEADING);
+            content.showText(text);
+            line++;
+        }
+
+        @Override
+        public void close() {
+            content.endText();
+            document.close();
+        }
+
+    }
+
+}
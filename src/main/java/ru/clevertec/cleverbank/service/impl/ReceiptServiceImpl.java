@@ -0,0 +1,102 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import lombok.AllArgsConstructor;
+import ru.clevertec.cleverbank.dao.ReceiptDAO;
+import ru.clevertec.cleverbank.dao.impl.ReceiptDAOImpl;
+import ru.clevertec.cleverbank.dto.download.DownloadFile;
+import ru.clevertec.cleverbank.exception.notfound.ReceiptNotFoundException;
+import ru.clevertec.cleverbank.service.ReceiptService;
+import ru.clevertec.cleverbank.util.ReceiptWriter;
+import ru.clevertec.cleverbank.util.ReceiptWriterManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.Set;
+
+@AllArgsConstructor
+public class ReceiptServiceImpl implements ReceiptService {
+
+    private static final Set<String> STATEMENTS = Set.of("TransactionStatement.txt", "AmountStatement.txt");
+
+    private final ReceiptDAO receiptDAO;
+    private final ReceiptWriter receiptWriter;
+
+    public ReceiptServiceImpl() {
+        receiptDAO = new ReceiptDAOImpl();
+        receiptWriter = ReceiptWriterManager.getReceiptWriter();
+    }
+
+    /**
+     * Реализует метод findCheckByTransactionId, который находит файл чека транзакции по пути, вычисленному из её id,
+     * поэтому чек находится, даже если запись о нём не попала в индекс. Файл появляется только после записи целиком.
+     * Файл чека никогда не изменяется, поэтому его ETag — это SHA-256 содержимого из индекса, а если записи в индексе
+     * нет, ETag строится из размера и времени изменения файла.
+     *
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @return объект DownloadFile, представляющий файл чека
+     * @throws ReceiptNotFoundException если файл чека транзакции ещё не записан
+     */
+    @Override
+    public DownloadFile findCheckByTransactionId(Long transactionId) {
+        return Optional.of(receiptWriter.checkPath(transactionId))
+                .filter(Files::exists)
+                .flatMap(path -> toDownloadFile("check-" + transactionId + ".txt", path, findCheckEtag(transactionId)))
+                .orElseThrow(() -> new ReceiptNotFoundException("Check for transaction with ID " + transactionId
+                                                                + " is not found!"));
+    }
+
+    /**
+     * Реализует метод findStatement, который находит файл выписки по его названию. Ищутся только файлы выписок
+     * в каталоге хранилища, поэтому по названию нельзя получить другой файл сервера. Выписки только дописываются,
+     * поэтому ETag строится из размера и времени изменения файла.
+     *
+     * @param fileName String, представляющая название файла выписки
+     * @return объект DownloadFile, представляющий файл выписки
+     * @throws ReceiptNotFoundException если такой выписки нет
+     */
+    @Override
+    public DownloadFile findStatement(String fileName) {
+        return Optional.of(fileName)
+                .filter(STATEMENTS::contains)
+                .flatMap(name -> toDownloadFile(name, receiptWriter.getDirectory().resolve(name), null))
+                .orElseThrow(() -> new ReceiptNotFoundException("File " + fileName + " is not found!"));
+    }
+
+    /**
+     * Метод findCheckEtag, который строит ETag чека из SHA-256 его содержимого, сохранённого в индексе чеков.
+     *
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @return String, представляющая ETag чека, или null, если записи о чеке в индексе нет
+     */
+    private String findCheckEtag(Long transactionId) {
+        return receiptDAO.findByTransactionId(transactionId)
+                .map(receipt -> "\"" + receipt.getSha256() + "\"")
+                .orElse(null);
+    }
+
+    /**
+     * Метод toDownloadFile, который читает размер и время изменения файла одним системным вызовом.
+     *
+     * @param fileName String, представляющая название файла для клиента
+     * @param path     объект Path, представляющий путь к файлу
+     * @param etag     String, представляющая ETag файла, или null, чтобы построить его из размера и времени изменения
+     * @return объект Optional, содержащий DownloadFile, или пустой, если файла нет
+     */
+    private static Optional<DownloadFile> toDownloadFile(String fileName, Path path, String etag) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String fileEtag = etag == null
+                    ? "\"%x-%x\"".formatted(attributes.size(), lastModified)
+                    : etag;
+            return Optional.of(new DownloadFile(fileName, path, attributes.size(),
+                    attributes.lastModifiedTime().toInstant(), fileEtag));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+}
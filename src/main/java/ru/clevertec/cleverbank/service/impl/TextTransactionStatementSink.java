@@ -0,0 +1,128 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
+import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.TransactionStatementSink;
+import ru.clevertec.cleverbank.service.UploadFileService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+public class TextTransactionStatementSink implements TransactionStatementSink, AutoCloseable {
+
+    private final CheckService checkService;
+    private final UploadFileService uploadFileService;
+    private final Path part;
+    private final BufferedWriter writer;
+    private final StringBuilder builder = new StringBuilder();
+    private char[] chars = new char[0];
+    private TransactionStatementResponse response;
+    private boolean uploaded;
+
+    /**
+     * Конструктор класса, который создаёт временный файл выписки в хранилище и открывает его на запись.
+     *
+     * @param checkService      объект CheckService, который оформляет шапку и строки выписки
+     * @param uploadFileService объект UploadFileService, который создаёт и загружает файл выписки
+     * @throws UploadFileException если временный файл не удалось создать или открыть
+     */
+    public TextTransactionStatementSink(CheckService checkService, UploadFileService uploadFileService) {
+        this.checkService = checkService;
+        this.uploadFileService = uploadFileService;
+        part = uploadFileService.createStatementPart();
+        try {
+            writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            deleteQuietly();
+            throw new UploadFileException("Can not find a way to upload a txt file");
+        }
+    }
+
+    /**
+     * Реализует метод begin, который записывает шапку выписки во временный файл.
+     *
+     * @param response объект TransactionStatementResponse, представляющий данные о счёте и периоде дат
+     */
+    @Override
+    public void begin(TransactionStatementResponse response) {
+        this.response = response;
+        checkService.appendTransactionStatementHeader(builder, response);
+        flush();
+    }
+
+    /**
+     * Реализует метод accept, который записывает строку транзакции во временный файл. Строка собирается в один
+     * и тот же StringBuilder и копируется в буфер BufferedWriter без создания промежуточной строки.
+     *
+     * @param transaction объект TransactionStatement, представляющий транзакцию
+     */
+    @Override
+    public void accept(TransactionStatement transaction) {
+        checkService.appendTransactionStatementRow(builder, response, transaction);
+        flush();
+    }
+
+    /**
+     * Реализует метод end, который закрывает временный файл и передаёт его на дозапись в файл выписок.
+     */
+    @Override
+    public void end() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            throw new UploadFileException("Sorry! We got Server upload file problems");
+        }
+        uploadFileService.uploadStatement(part);
+        uploaded = true;
+    }
+
+    /**
+     * Реализует метод close, который удаляет временный файл, если выписка не была загружена, например, потому что
+     * чтение транзакций завершилось ошибкой.
+     */
+    @Override
+    public void close() {
+        if (uploaded) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+        deleteQuietly();
+    }
+
+    private void flush() {
+        int length = builder.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        builder.getChars(0, length, chars, 0);
+        builder.setLength(0);
+        try {
+            writer.write(chars, 0, length);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            throw new UploadFileException("Sorry! We got Server upload file problems");
+        }
+    }
+
+    private void deleteQuietly() {
+        try {
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+}
@@ -4,21 +4,35 @@ import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import ru.clevertec.cleverbank.aspect.annotation.ServiceLoggable;
 import ru.clevertec.cleverbank.dao.TransactionDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.TransactionManagerImpl;
 import ru.clevertec.cleverbank.dao.impl.TransactionDAOImpl;
+import ru.clevertec.cleverbank.dto.transaction.AmountStatement;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.dto.transaction.TransactionPageResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionResponse;
-import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchItemResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.exception.badrequest.BadRequestException;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.handler.Violation;
 import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
+import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
 import ru.clevertec.cleverbank.exception.notfound.TransactionNotFoundException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ServiceUnavailableException;
 import ru.clevertec.cleverbank.mapper.TransactionMapper;
 import ru.clevertec.cleverbank.model.Account;
 import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.model.LockingMode;
 import ru.clevertec.cleverbank.model.Transaction;
 import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.model.User;
@@ -26,18 +40,32 @@ import ru.clevertec.cleverbank.service.AccountService;
 import ru.clevertec.cleverbank.service.CheckService;
 import ru.clevertec.cleverbank.service.NbRBCurrencyService;
 import ru.clevertec.cleverbank.service.TransactionService;
+import ru.clevertec.cleverbank.service.TransactionStatementSink;
 import ru.clevertec.cleverbank.service.UploadFileService;
 import ru.clevertec.cleverbank.service.ValidationService;
-import ru.clevertec.cleverbank.util.HikariConnectionManager;
+import ru.clevertec.cleverbank.util.RetryPolicy;
+import ru.clevertec.cleverbank.util.YamlUtil;
 
 import java.math.BigDecimal;
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Map<String, String> HISTORY_MAP = new YamlUtil().getYamlMap().get("transactionHistory");
+    private static final int HISTORY_DEFAULT_LIMIT = Integer.parseInt(HISTORY_MAP.get("defaultLimit"));
+    private static final int HISTORY_MAX_LIMIT = Integer.parseInt(HISTORY_MAP.get("maxLimit"));
+
     private final AccountService accountService;
     private final TransactionDAO transactionDAO;
     private final TransactionMapper transactionMapper;
@@ -45,7 +73,9 @@ public class TransactionServiceImpl implements TransactionService {
     private final UploadFileService uploadFileService;
     private final ValidationService validationService;
     private final NbRBCurrencyService nbRBCurrencyService;
-    private final Connection connection;
+    private final TransactionManager transactionManager;
+    private final LockingMode lockingMode;
+    private final RetryPolicy retryPolicy;
 
     public TransactionServiceImpl() {
         accountService = new AccountServiceImpl();
@@ -54,12 +84,16 @@ public class TransactionServiceImpl implements TransactionService {
         checkService = new CheckServiceImpl();
         uploadFileService = new UploadFileServiceImpl();
         validationService = new ValidationServiceImpl();
-        connection = HikariConnectionManager.getConnection();
+        transactionManager = new TransactionManagerImpl();
+        lockingMode = LockingMode.valueOf(new YamlUtil().getYamlMap().get("locking").get("mode"));
+        retryPolicy = new RetryPolicy();
         nbRBCurrencyService = new NbRBCurrencyServiceImpl();
     }
 
     /**
-     * Реализует метод changeBalance, который изменяет баланс счёта в базе данных по данным из запроса.
+     * Реализует метод changeBalance, который изменяет баланс счёта в базе данных по данным из запроса. Обновление
+     * баланса и сохранение транзакции выполняются в одной транзакции базы данных, которая повторяется при конфликте
+     * версий счёта в оптимистичном режиме.
      *
      * @param request объект TransactionRequest, представляющий запрос с данными для изменения баланса счёта
      * @return объект ChangeBalanceResponse, представляющий ответ с данными об измененном балансе счёта
@@ -67,160 +101,205 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @ServiceLoggable
     public ChangeBalanceResponse changeBalance(TransactionRequest request) {
-        Account accountRecipient = accountService.findById(request.accountRecipientId());
-        Account accountSender = accountService.findById(request.accountSenderId());
-        validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
-
-        BigDecimal oldBalance = accountRecipient.getBalance();
-        validationService.validateAccountForSufficientBalance(request.type(), request.sum(), oldBalance);
-        BigDecimal newBalance = request.type() == Type.REPLENISHMENT
-                ? oldBalance.add(request.sum())
-                : oldBalance.subtract(request.sum());
-        Account updatedAccount = accountService.updateBalance(accountRecipient, newBalance);
-
-        Bank bankRecipient = accountRecipient.getBank();
-        Bank bankSender = accountSender.getBank();
-
-        Transaction transaction = transactionMapper
-                .toChangeTransaction(request.type(), bankRecipient.getId(), bankSender.getId(), request);
-        Transaction savedTransaction = transactionDAO.save(transaction);
-
-        ChangeBalanceResponse response = transactionMapper
-                .toChangeResponse(savedTransaction, bankSender.getName(), bankRecipient.getName(),
-                        updatedAccount.getCurrency(), oldBalance, newBalance);
+        ChangeBalanceResponse response = retryPolicy.execute(() -> transactionManager.doInTransaction(() -> {
+            Account accountRecipient = accountService.findById(request.accountRecipientId());
+            Account accountSender = accountService.findById(request.accountSenderId());
+            validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
+
+            BigDecimal delta = request.type() == Type.REPLENISHMENT
+                    ? request.sum()
+                    : request.sum().negate();
+            Account updatedAccount = addToBalance(accountRecipient, delta);
+            BigDecimal newBalance = updatedAccount.getBalance();
+            BigDecimal oldBalance = newBalance.subtract(delta);
+
+            Bank bankRecipient = accountRecipient.getBank();
+            Bank bankSender = accountSender.getBank();
+
+            Transaction transaction = transactionMapper
+                    .toChangeTransaction(request.type(), bankRecipient.getId(), bankSender.getId(), request);
+            Transaction savedTransaction = transactionDAO.save(transaction);
+
+            return transactionMapper
+                    .toChangeResponse(savedTransaction, bankSender.getName(), bankRecipient.getName(),
+                            updatedAccount.getCurrency(), oldBalance, newBalance);
+        }));
         String check = checkService.createChangeBalanceCheck(response);
-        uploadFileService.uploadCheck(check);
+        uploadFileService.uploadCheck(response.transactionId(), check);
         return response;
     }
 
     /**
      * Реализует метод transferBalance, который переводит средства между двумя счётами в базе данных по данным из запроса.
+     * Списание, зачисление и сохранение транзакции выполняются в одной транзакции базы данных, которая повторяется при
+     * конфликте версий счетов в оптимистичном режиме.
      *
      * @param request объект TransactionRequest, представляющий запрос с данными для перевода средств между счетами
      * @return объект TransferBalanceResponse, представляющий ответ с данными о переведенных средствах между счетами
-     * @throws SQLException если произошла ошибка при работе с базой данных
+     * @throws TransactionException         если перевод не удался и транзакция была откачена
+     * @throws OptimisticLockException      если в оптимистичном режиме все попытки завершились конфликтом версий
+     * @throws ServiceUnavailableException если сервис временно перегружен
      */
     @Override
     @ServiceLoggable
-    public TransferBalanceResponse transferBalance(TransactionRequest request) throws SQLException {
-        connection.setAutoCommit(false);
+    public TransferBalanceResponse transferBalance(TransactionRequest request) {
+        TransferBalanceResponse response;
         try {
-            Account accountSender = accountService.findById(request.accountSenderId());
-            Account accountRecipient = accountService.findById(request.accountRecipientId());
-            validationService.validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
-            validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
-            validationService.validateAccountForCurrency(accountSender.getCurrency(), accountRecipient.getCurrency());
-
-            BigDecimal senderOldBalance = accountSender.getBalance();
-            validationService.validateAccountForSufficientBalance(Type.TRANSFER, request.sum(), senderOldBalance);
-            BigDecimal senderNewBalance = senderOldBalance.subtract(request.sum());
-            Account updatedSenderAccount = accountService.updateBalance(accountSender, senderNewBalance);
-            Bank bankSender = accountSender.getBank();
+            response = retryPolicy.execute(() -> transactionManager.doInTransaction(() -> {
+                Account accountSender = accountService.findById(request.accountSenderId());
+                Account accountRecipient = accountService.findById(request.accountRecipientId());
+                validationService.validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
+                validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
+                validationService.validateAccountForCurrency(accountSender.getCurrency(), accountRecipient.getCurrency());
 
-            BigDecimal recipientOldBalance = accountRecipient.getBalance();
-            BigDecimal recipientNewBalance = recipientOldBalance.add(request.sum());
-            Account updatedRecipientAccount = accountService.updateBalance(accountRecipient, recipientNewBalance);
-            Bank bankRecipient = accountRecipient.getBank();
+                addToBalancesInLockOrder(accountSender, request.sum().negate(), accountRecipient, request.sum());
+                BigDecimal senderNewBalance = accountSender.getBalance();
+                BigDecimal senderOldBalance = senderNewBalance.add(request.sum());
+                Bank bankSender = accountSender.getBank();
 
-            Transaction transaction = transactionMapper.toTransferTransaction(Type.TRANSFER, bankSender.getId(),
-                    bankRecipient.getId(), updatedSenderAccount.getId(), updatedRecipientAccount.getId(), request.sum());
-            Transaction savedTransaction = transactionDAO.save(transaction);
+                BigDecimal recipientNewBalance = accountRecipient.getBalance();
+                BigDecimal recipientOldBalance = recipientNewBalance.subtract(request.sum());
+                Bank bankRecipient = accountRecipient.getBank();
 
-            connection.commit();
+                Transaction transaction = transactionMapper.toTransferTransaction(Type.TRANSFER, bankSender.getId(),
+                        bankRecipient.getId(), accountSender.getId(), accountRecipient.getId(), request.sum());
+                Transaction savedTransaction = transactionDAO.save(transaction);
 
-            TransferBalanceResponse response = transactionMapper.toTransferResponse(savedTransaction,
-                    accountSender.getCurrency(), bankSender.getName(), bankRecipient.getName(), senderOldBalance,
-                    senderNewBalance, recipientOldBalance, recipientNewBalance);
-            String check = checkService.createTransferBalanceCheck(response);
-            uploadFileService.uploadCheck(check);
-            return response;
+                return transactionMapper.toTransferResponse(savedTransaction,
+                        accountSender.getCurrency(), bankSender.getName(), bankRecipient.getName(), senderOldBalance,
+                        senderNewBalance, recipientOldBalance, recipientNewBalance);
+            }));
+        } catch (OptimisticLockException | ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            connection.rollback();
             throw new TransactionException("Transaction rollback, cause: " + e.getMessage());
-        } finally {
-            connection.setAutoCommit(true);
         }
+        String check = checkService.createTransferBalanceCheck(response);
+        uploadFileService.uploadCheck(response.transactionId(), check);
+        return response;
     }
 
     /**
      * Реализует метод exchangeBalance, который переводит средства между двумя счётами с обменом валют по курсу НБ РБ
-     * в базе данных по данным из запроса.
+     * в базе данных по данным из запроса. Списание, зачисление и сохранение транзакции выполняются в одной транзакции
+     * базы данных, которая повторяется при конфликте версий счетов в оптимистичном режиме.
      *
      * @param request объект TransactionRequest, представляющий запрос с данными для перевода средств между счетами
      * @return объект ExchangeBalanceResponse, представляющий ответ с данными о переведенных средствах между счетами
-     * @throws SQLException если произошла ошибка при работе с базой данных
+     * @throws TransactionException         если обмен не удался и транзакция была откачена
+     * @throws OptimisticLockException      если в оптимистичном режиме все попытки завершились конфликтом версий
+     * @throws ServiceUnavailableException если сервис временно перегружен
      */
     @Override
     @ServiceLoggable
-    public ExchangeBalanceResponse exchangeBalance(TransactionRequest request) throws SQLException {
-        connection.setAutoCommit(false);
+    public ExchangeBalanceResponse exchangeBalance(TransactionRequest request) {
+        ExchangeBalanceResponse response;
         try {
-            Account accountSender = accountService.findById(request.accountSenderId());
-            BigDecimal senderOldBalance = accountSender.getBalance();
-            validationService.validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
-            validationService.validateAccountForSufficientBalance(Type.EXCHANGE, request.sum(), senderOldBalance);
-            Account accountRecipient = accountService.findById(request.accountRecipientId());
-            BigDecimal recipientOldBalance = accountRecipient.getBalance();
-            validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
-            BigDecimal exchangedSum = nbRBCurrencyService
-                    .exchangeSumByCurrency(accountSender.getCurrency(), accountRecipient.getCurrency(), request.sum());
-            Account updatedAccountSender = accountService
-                    .updateBalance(accountSender, accountSender.getBalance().subtract(request.sum()));
-            Account updatedAccountRecipient = accountService
-                    .updateBalance(accountRecipient, accountRecipient.getBalance().add(exchangedSum));
-            Transaction transaction = transactionMapper.toExchangeTransaction(Type.EXCHANGE, accountSender.getBank().getId(),
-                    accountRecipient.getBank().getId(), accountSender.getId(), accountRecipient.getId(), request.sum(),
-                    exchangedSum);
-            Transaction savedTransaction = transactionDAO.save(transaction);
-            connection.commit();
-            ExchangeBalanceResponse response = transactionMapper.toExchangeResponse(savedTransaction,
-                    accountSender.getCurrency(), accountRecipient.getCurrency(), accountSender.getBank().getName(),
-                    accountRecipient.getBank().getName(), senderOldBalance, updatedAccountSender.getBalance(),
-                    recipientOldBalance, updatedAccountRecipient.getBalance());
-            String check = checkService.createExchangeBalanceCheck(response);
-            uploadFileService.uploadCheck(check);
-            return response;
+            response = retryPolicy.execute(() -> transactionManager.doInTransaction(() -> {
+                Account accountSender = accountService.findById(request.accountSenderId());
+                validationService.validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
+                Account accountRecipient = accountService.findById(request.accountRecipientId());
+                validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
+                BigDecimal exchangedSum = nbRBCurrencyService
+                        .exchangeSumByCurrency(accountSender.getCurrency(), accountRecipient.getCurrency(), request.sum());
+                addToBalancesInLockOrder(accountSender, request.sum().negate(), accountRecipient, exchangedSum);
+                BigDecimal senderOldBalance = accountSender.getBalance().add(request.sum());
+                BigDecimal recipientOldBalance = accountRecipient.getBalance().subtract(exchangedSum);
+                Transaction transaction = transactionMapper.toExchangeTransaction(Type.EXCHANGE,
+                        accountSender.getBank().getId(), accountRecipient.getBank().getId(), accountSender.getId(),
+                        accountRecipient.getId(), request.sum(), exchangedSum);
+                Transaction savedTransaction = transactionDAO.save(transaction);
+                return transactionMapper.toExchangeResponse(savedTransaction,
+                        accountSender.getCurrency(), accountRecipient.getCurrency(), accountSender.getBank().getName(),
+                        accountRecipient.getBank().getName(), senderOldBalance, accountSender.getBalance(),
+                        recipientOldBalance, accountRecipient.getBalance());
+            }));
+        } catch (OptimisticLockException | ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            connection.rollback();
             throw new TransactionException("Transaction rollback, cause: " + e.getMessage());
-        } finally {
-            connection.setAutoCommit(true);
         }
+        String check = checkService.createExchangeBalanceCheck(response);
+        uploadFileService.uploadCheck(response.transactionId(), check);
+        return response;
+    }
+
+    /**
+     * Реализует метод transferBatch, который выполняет пакет переводов между счетами за одну транзакцию базы данных.
+     * Все счета пакета читаются и блокируются одним запросом в порядке возрастания id, балансы изменяются одним
+     * пакетом UPDATE, а транзакции сохраняются одним пакетом INSERT. Каждый перевод проверяется отдельно с учётом
+     * предыдущих переводов пакета: ошибочный перевод получает описание ошибки и не мешает выполнению остальных.
+     *
+     * @param requests список объектов TransactionRequest, представляющих запросы на перевод средств между счетами
+     * @return объект TransferBatchResponse, представляющий результат каждого перевода пакета
+     * @throws TransactionException если пакет не удалось выполнить и транзакция была откачена
+     */
+    @Override
+    @ServiceLoggable
+    public TransferBatchResponse transferBatch(List<TransactionRequest> requests) {
+        List<String> errors = requests.stream()
+                .map(this::validateBatchTransfer)
+                .collect(Collectors.toCollection(ArrayList::new));
+        List<TransferBatchItemResponse> items;
+        try {
+            items = transactionManager.doInTransaction(() -> applyBatchTransfers(requests, errors));
+        } catch (Exception e) {
+            throw new TransactionException("Transaction rollback, cause: " + e.getMessage());
+        }
+        items.stream()
+                .map(TransferBatchItemResponse::transfer)
+                .filter(Objects::nonNull)
+                .forEach(transfer -> uploadFileService.uploadCheck(transfer.transactionId(),
+                        checkService.createTransferBalanceCheck(transfer)));
+        int succeeded = (int) items.stream()
+                .filter(item -> item.transfer() != null)
+                .count();
+        return new TransferBatchResponse(requests.size(), succeeded, requests.size() - succeeded, items);
     }
 
     /**
      * Реализует метод findAllByPeriodOfDateAndAccountId, который формирует выписку по транзакциям счёта за определенный
-     * период дат.
+     * период дат. Транзакции читаются из базы данных курсором и по одной передаются в sink и в текстовый файл
+     * выписки, поэтому расход памяти не зависит от количества транзакций за период. Шапка выписки пишется только
+     * при получении первой транзакции, поэтому, если транзакций нет, в ответ ещё ничего не записано.
      *
      * @param request объект TransactionStatementRequest, представляющий запрос с данными о счёте и периоде дат
-     * @return объект TransactionStatementResponse, представляющий ответ со списком транзакций по счёту за период дат
+     * @param sink    объект TransactionStatementSink, который получает шапку выписки и транзакции по счёту за период
      * @throws TransactionNotFoundException если нет транзакций по счёту за период дат
      */
     @Override
     @ServiceLoggable
-    public TransactionStatementResponse findAllByPeriodOfDateAndAccountId(TransactionStatementRequest request) {
+    public void findAllByPeriodOfDateAndAccountId(TransactionStatementRequest request, TransactionStatementSink sink) {
         Account account = accountService.findById(request.accountId());
         Bank bank = account.getBank();
         User user = account.getUser();
 
-        List<TransactionStatement> transactionStatements = transactionDAO
-                .findAllByPeriodOfDateAndAccountId(request.from(), request.to(), account.getId());
-        if (transactionStatements.isEmpty()) {
-            throw new TransactionNotFoundException("It is not possible to create a transaction amount because" +
-                                                   " you do not have any transactions for this period of time : from "
-                                                   + request.from() + " to " + request.to());
-        }
-
         TransactionStatementResponse response = transactionMapper
-                .toStatementResponse(bank.getName(), user, account, request, transactionStatements);
-        String statement = checkService.createTransactionStatement(response);
-        uploadFileService.uploadStatement(statement);
-        return response;
+                .toStatementResponse(bank.getName(), user, account, request, null);
+        AtomicLong rows = new AtomicLong();
+        try (TextTransactionStatementSink file = new TextTransactionStatementSink(checkService, uploadFileService)) {
+            transactionDAO.findAllByPeriodOfDateAndAccountId(request.from(), request.to(), account.getId(),
+                    transaction -> {
+                        if (rows.getAndIncrement() == 0) {
+                            file.begin(response);
+                            sink.begin(response);
+                        }
+                        file.accept(transaction);
+                        sink.accept(transaction);
+                    });
+            if (rows.get() == 0) {
+                throw new TransactionNotFoundException("It is not possible to create a transaction amount because" +
+                                                       " you do not have any transactions for this period of time :"
+                                                       + " from " + request.from() + " to " + request.to());
+            }
+            file.end();
+            sink.end();
+        }
     }
 
     /**
      * Реализует метод findSumOfFundsByPeriodOfDateAndAccountId, который возвращает сумму потраченных и полученных
-     * средств по счёту за определенный период дат.
+     * средств по счёту за определенный период дат. Обе суммы считаются одним запросом к базе данных.
      *
      * @param request объект TransactionStatementRequest, представляющий запрос с данными о счёте и периоде дат
      * @return объект AmountStatementResponse, представляющий ответ с суммой потраченных и полученных средств по счёту
@@ -234,18 +313,16 @@ public class TransactionServiceImpl implements TransactionService {
         Bank bank = account.getBank();
         User user = account.getUser();
 
-        BigDecimal spentFunds = transactionDAO
-                .findSumOfSpentFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-        BigDecimal receivedFunds = transactionDAO
-                .findSumOfReceivedFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-        if (spentFunds == null && receivedFunds == null) {
+        AmountStatement funds = transactionDAO
+                .findSumOfFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
+        if (funds.spentFunds() == null && funds.receivedFunds() == null) {
             throw new TransactionNotFoundException("It is not possible to create a transaction amount because" +
                                                    " you do not have any transactions for this period of time : from "
                                                    + request.from() + " to " + request.to());
         }
 
         AmountStatementResponse response = transactionMapper
-                .toAmountResponse(bank.getName(), user, account, request, spentFunds, receivedFunds);
+                .toAmountResponse(bank.getName(), user, account, request, funds.spentFunds(), funds.receivedFunds());
         String amountStatement = checkService.createAmountStatement(response);
         uploadFileService.uploadAmount(amountStatement);
         return response;
@@ -288,4 +365,194 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionMapper.toResponseList(transactionDAO.findAllByRecipientAccountId(id));
     }
 
+    /**
+     * Реализует метод findHistory, который возвращает страницу истории транзакций счёта с фильтрами по типу, периоду
+     * дат и второй стороне. Из базы данных читается на одну транзакцию больше размера страницы: если она нашлась, то
+     * по последней транзакции страницы формируется токен следующей страницы.
+     *
+     * @param request объект TransactionHistoryRequest, представляющий счёт, фильтры и позицию страницы
+     * @return объект TransactionPageResponse, представляющий транзакции страницы и токен следующей страницы или null
+     * @throws BadPageTokenException если токен страницы некорректен
+     */
+    @Override
+    public TransactionPageResponse findHistory(TransactionHistoryRequest request) {
+        int limit = request.limit() != null
+                ? Math.min(Math.max(request.limit(), 1), HISTORY_MAX_LIMIT)
+                : HISTORY_DEFAULT_LIMIT;
+        TransactionCursor cursor = request.pageToken() != null
+                ? TransactionCursor.decode(request.pageToken())
+                : null;
+        List<Transaction> transactions = transactionDAO.findHistoryPage(request, cursor, limit + 1);
+        if (transactions.size() <= limit) {
+            return new TransactionPageResponse(transactionMapper.toResponseList(transactions), null);
+        }
+        List<Transaction> page = transactions.subList(0, limit);
+        String nextPageToken = TransactionCursor.of(page.get(limit - 1)).encode();
+        return new TransactionPageResponse(transactionMapper.toResponseList(page), nextPageToken);
+    }
+
+    /**
+     * Проверяет поля перевода из пакета так же, как TransactionValidationFilter проверяет одиночный перевод.
+     *
+     * @param request объект TransactionRequest, представляющий запрос на перевод
+     * @return String, представляющая описание нарушений, или null, если перевод корректен
+     */
+    private String validateBatchTransfer(TransactionRequest request) {
+        if (request == null) {
+            return "Transaction can not be null";
+        }
+        List<Violation> violations = new ArrayList<>();
+        validationService.validateAccountId(request.accountRecipientId(), "account_recipient_id", violations);
+        validationService.validateAccountId(request.accountSenderId(), "account_sender_id", violations);
+        if (request.type() != Type.TRANSFER) {
+            violations.add(new Violation("type", "Available type in batch is: TRANSFER"));
+        }
+        validationService.validateBigDecimalFieldForPositive(request.sum(), "sum", violations);
+        return violations.isEmpty()
+                ? null
+                : violations.stream()
+                .map(violation -> violation.fieldName() + ": " + violation.exception())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Блокирует счета пакета, проверяет переводы по текущим балансам, изменяет балансы и сохраняет транзакции.
+     * Вызывается внутри транзакции базы данных.
+     *
+     * @param requests список объектов TransactionRequest, представляющих запросы на перевод
+     * @param errors   список String с ошибками проверки полей, дополняется ошибками проверки счетов
+     * @return список объектов TransferBatchItemResponse в порядке запросов
+     */
+    private List<TransferBatchItemResponse> applyBatchTransfers(List<TransactionRequest> requests, List<String> errors) {
+        Set<String> ids = new TreeSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i) == null) {
+                ids.add(requests.get(i).accountSenderId());
+                ids.add(requests.get(i).accountRecipientId());
+            }
+        }
+        Map<String, Account> accounts = ids.isEmpty()
+                ? Map.of()
+                : accountService.findAllByIdsForUpdate(ids).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<String, BigDecimal> balances = new HashMap<>();
+        accounts.values().forEach(account -> balances.put(account.getId(), account.getBalance()));
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        List<BatchTransfer> transfers = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i) != null) {
+                continue;
+            }
+            TransactionRequest request = requests.get(i);
+            try {
+                Account accountSender = findBatchAccount(accounts, request.accountSenderId());
+                Account accountRecipient = findBatchAccount(accounts, request.accountRecipientId());
+                validationService.validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
+                validationService.validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
+                validationService.validateAccountForCurrency(accountSender.getCurrency(), accountRecipient.getCurrency());
+                BigDecimal senderOldBalance = balances.get(accountSender.getId());
+                validationService.validateAccountForSufficientBalance(Type.TRANSFER, request.sum(), senderOldBalance);
+
+                BigDecimal senderNewBalance = senderOldBalance.subtract(request.sum());
+                balances.put(accountSender.getId(), senderNewBalance);
+                BigDecimal recipientOldBalance = balances.get(accountRecipient.getId());
+                BigDecimal recipientNewBalance = recipientOldBalance.add(request.sum());
+                balances.put(accountRecipient.getId(), recipientNewBalance);
+                deltas.merge(accountSender.getId(), request.sum().negate(), BigDecimal::add);
+                deltas.merge(accountRecipient.getId(), request.sum(), BigDecimal::add);
+
+                Transaction transaction = transactionMapper.toTransferTransaction(Type.TRANSFER,
+                        accountSender.getBank().getId(), accountRecipient.getBank().getId(), accountSender.getId(),
+                        accountRecipient.getId(), request.sum());
+                transfers.add(new BatchTransfer(i, transaction, accountSender, accountRecipient, senderOldBalance,
+                        senderNewBalance, recipientOldBalance, recipientNewBalance));
+            } catch (BadRequestException | AccountNotFoundException e) {
+                errors.set(i, e.getMessage());
+            }
+        }
+
+        if (!transfers.isEmpty()) {
+            accountService.addToBalances(deltas);
+            transactionDAO.saveAll(transfers.stream()
+                    .map(BatchTransfer::transaction)
+                    .toList());
+        }
+        List<TransferBatchItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            items.add(new TransferBatchItemResponse(i, null, errors.get(i)));
+        }
+        transfers.forEach(transfer -> items.set(transfer.index(),
+                new TransferBatchItemResponse(transfer.index(), toTransferResponse(transfer), null)));
+        return items;
+    }
+
+    private TransferBalanceResponse toTransferResponse(BatchTransfer transfer) {
+        return transactionMapper.toTransferResponse(transfer.transaction(), transfer.sender().getCurrency(),
+                transfer.sender().getBank().getName(), transfer.recipient().getBank().getName(),
+                transfer.senderOldBalance(), transfer.senderNewBalance(),
+                transfer.recipientOldBalance(), transfer.recipientNewBalance());
+    }
+
+    private static Account findBatchAccount(Map<String, Account> accounts, String id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new AccountNotFoundException("Account with ID " + id + " is not found!");
+        }
+        return account;
+    }
+
+    /**
+     * Перевод пакета, прошедший проверку: транзакция для сохранения и балансы счетов до и после перевода.
+     */
+    private record BatchTransfer(int index,
+                                 Transaction transaction,
+                                 Account sender,
+                                 Account recipient,
+                                 BigDecimal senderOldBalance,
+                                 BigDecimal senderNewBalance,
+                                 BigDecimal recipientOldBalance,
+                                 BigDecimal recipientNewBalance) {
+    }
+
+    /**
+     * Изменяет балансы двух счетов в порядке возрастания их id. Встречные переводы между одними и теми же счетами
+     * блокируют строки в одинаковом порядке и не приводят к взаимной блокировке транзакций.
+     *
+     * @param sender         объект Account, представляющий счёт отправителя
+     * @param senderDelta    объект BigDecimal, представляющий изменение баланса счёта отправителя
+     * @param recipient      объект Account, представляющий счёт получателя
+     * @param recipientDelta объект BigDecimal, представляющий изменение баланса счёта получателя
+     */
+    private void addToBalancesInLockOrder(Account sender, BigDecimal senderDelta,
+                                          Account recipient, BigDecimal recipientDelta) {
+        if (sender.getId().compareTo(recipient.getId()) <= 0) {
+            addToBalance(sender, senderDelta);
+            addToBalance(recipient, recipientDelta);
+        } else {
+            addToBalance(recipient, recipientDelta);
+            addToBalance(sender, senderDelta);
+        }
+    }
+
+    /**
+     * Изменяет баланс счёта в соответствии с режимом блокировок. В пессимистичном режиме баланс изменяется атомарным
+     * UPDATE с блокировкой строки. В оптимистичном режиме записывается баланс, вычисленный по прочитанному счёту, и
+     * запись выполняется, только если версия счёта не изменилась с момента чтения.
+     *
+     * @param account объект Account, представляющий счёт, баланс которого нужно изменить
+     * @param delta   объект BigDecimal, представляющий величину изменения баланса, отрицательную при списании
+     * @return объект Account, представляющий счёт с новым балансом
+     * @throws OptimisticLockException если в оптимистичном режиме счёт был изменён другой транзакцией
+     */
+    private Account addToBalance(Account account, BigDecimal delta) {
+        if (lockingMode != LockingMode.OPTIMISTIC) {
+            return accountService.addToBalance(account, delta);
+        }
+        if (delta.signum() < 0) {
+            validationService.validateAccountForSufficientBalance(Type.WITHDRAWAL, delta.negate(), account.getBalance());
+        }
+        return accountService.updateBalance(account, account.getBalance().add(delta));
+    }
+
 }
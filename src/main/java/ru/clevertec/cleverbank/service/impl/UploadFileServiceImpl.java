@@ -1,89 +1,100 @@
 package ru.clevertec.cleverbank.service.impl;
 
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
+import ru.clevertec.cleverbank.model.Receipt;
 import ru.clevertec.cleverbank.service.UploadFileService;
+import ru.clevertec.cleverbank.util.ReceiptWriter;
+import ru.clevertec.cleverbank.util.ReceiptWriterManager;
 
-import java.io.IOException;
-import java.net.URL;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
+@AllArgsConstructor
 public class UploadFileServiceImpl implements UploadFileService {
 
+    private final ReceiptWriter receiptWriter;
+
+    public UploadFileServiceImpl() {
+        receiptWriter = ReceiptWriterManager.getReceiptWriter();
+    }
+
     /**
-     * Реализует метод uploadCheck, который загружает чек по транзакции в формате txt.
+     * Реализует метод uploadCheck, который загружает чек по транзакции в формате txt в отдельный файл хранилища чеков.
      *
-     * @param check String, представляющая чек по транзакции
-     * @return Path, представляющая путь к файлу
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @param check         String, представляющая чек по транзакции
+     * @return объект CompletableFuture, который завершится записью о чеке после записи файла и индекса
      */
     @Override
-    public Path uploadCheck(String check) {
-        Path path = Paths.get(findPaths("BankCheck.txt"));
-        return writeFile(check, path);
+    public CompletableFuture<Receipt> uploadCheck(Long transactionId, String check) {
+        log.info("Check of transaction {} is queued for upload", transactionId);
+        return receiptWriter.store(transactionId, check);
     }
 
     /**
-     * Реализует метод uploadStatement, который загружает выписку по транзакциям в формате txt.
+     * Реализует метод createStatementPart, который создаёт временный файл в каталоге хранилища, куда выписка
+     * по транзакциям записывается построчно по мере чтения транзакций из базы данных.
      *
-     * @param statement String, представляющая выписку по транзакциям
-     * @return Path, представляющая путь к файлу
+     * @return Path, представляющая путь к временному файлу
      */
     @Override
-    public Path uploadStatement(String statement) {
-        Path path = Paths.get(findPaths("TransactionStatement.txt"));
-        return writeFile(statement, path);
+    public Path createStatementPart() {
+        return receiptWriter.createTemporaryFile("TransactionStatement");
     }
 
     /**
-     * Реализует метод uploadAmount, который загружает выписку по суммам транзакций в формате txt.
+     * Реализует метод uploadStatement, который загружает выписку по транзакциям в формате txt. Выписка уже записана
+     * во временный файл, и поток записи целиком дописывает его в файл выписок, после чего удаляет. Метод ждёт
+     * окончания записи, поэтому ссылка на скачивание выдаётся только на файл, в котором выписка уже есть.
      *
-     * @param amount String, представляющая выписку по суммам транзакций
+     * @param part объект Path, представляющий временный файл с выпиской по транзакциям
      * @return Path, представляющая путь к файлу
+     * @throws UploadFileException если выписку не удалось записать
      */
     @Override
-    public Path uploadAmount(String amount) {
-        Path path = Paths.get(findPaths("AmountStatement.txt"));
-        return writeFile(amount, path);
+    public Path uploadStatement(Path part) {
+        Path path = receiptWriter.getDirectory().resolve("TransactionStatement.txt");
+        return awaitWritten(receiptWriter.appendFile(path, part), path);
     }
 
     /**
-     * Метод writeFile, который записывает строку в файл по заданному пути.
+     * Реализует метод uploadAmount, который загружает выписку по суммам транзакций в формате txt. Метод ждёт
+     * окончания записи, поэтому ссылка на скачивание выдаётся только на файл, в котором выписка уже есть.
      *
-     * @param file String, которую нужно записать в файл
-     * @param path объект Path, представляющий путь к файлу на сервере
+     * @param amount String, представляющая выписку по суммам транзакций
      * @return Path, представляющая путь к файлу
+     * @throws UploadFileException если выписку не удалось записать
      */
-    private static Path writeFile(String file, Path path) {
-        log.info("File download link: {}", path);
-        try {
-            return Files.write(path, file.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            log.error(e.getMessage());
-            throw new UploadFileException("Sorry! We got Server upload file problems");
-        }
+    @Override
+    public Path uploadAmount(String amount) {
+        Path path = receiptWriter.getDirectory().resolve("AmountStatement.txt");
+        return awaitWritten(receiptWriter.append(path, amount), path);
     }
 
     /**
-     * Метод findPaths, который возвращает путь к файлу на сервере по заданному названию файла.
+     * Метод awaitWritten, который ждёт, пока поток ReceiptWriter запишет текст в файл. Запись по-прежнему выполняется
+     * пакетами вместе с текстами других запросов, а вызывающий поток только ждёт её результат.
      *
-     * @param fileName String, представляющая название файла для загрузки
-     * @return String, представляющая путь к файлу на сервере
-     * @throws UploadFileException если не удается найти путь для загрузки txt файла
+     * @param written объект CompletableFuture, который завершится после записи текста в файл
+     * @param path    объект Path, представляющий путь к файлу на сервере
+     * @return Path, представляющая путь к файлу
+     * @throws UploadFileException если текст не удалось записать
      */
-    private static String findPaths(String fileName) {
-        URL url = UploadFileServiceImpl.class.getResource("/check");
-        if (url == null) {
-            throw new UploadFileException("Can not find a way to upload a txt file");
+    private Path awaitWritten(CompletableFuture<Void> written, Path path) {
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UploadFileException exception) {
+                throw exception;
+            }
+            throw e;
         }
-        return URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8)
-                .concat(fileName)
-                .substring(1);
+        log.info("File download link: {}", path);
+        return path;
     }
 
 }
@@ -3,6 +3,8 @@ package ru.clevertec.cleverbank.service.impl;
 import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import ru.clevertec.cleverbank.aspect.annotation.ServiceLoggable;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
 import ru.clevertec.cleverbank.dao.UserDAO;
 import ru.clevertec.cleverbank.dao.impl.UserDAOImpl;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
@@ -13,19 +15,25 @@ import ru.clevertec.cleverbank.exception.notfound.UserNotFoundException;
 import ru.clevertec.cleverbank.mapper.UserMapper;
 import ru.clevertec.cleverbank.model.User;
 import ru.clevertec.cleverbank.service.UserService;
+import ru.clevertec.cleverbank.util.CacheManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserDAO userDAO;
     private final UserMapper userMapper;
+    private final ReferenceCache<Long, User> userCache;
+    private final AccountCache accountCache;
 
     public UserServiceImpl() {
         userDAO = new UserDAOImpl();
         userMapper = Mappers.getMapper(UserMapper.class);
+        userCache = CacheManager.getUserCache();
+        accountCache = CacheManager.getAccountCache();
     }
 
     /**
@@ -37,7 +45,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public User findById(Long id) {
-        return userDAO.findById(id)
+        return userCache.get(id)
                 .orElseThrow(() -> new UserNotFoundException("User with ID " + id + " is not found!"));
     }
 
@@ -64,6 +72,19 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponseList(userDAO.findAll());
     }
 
+    /**
+     * Реализует метод findAll, который передаёт в consumer ответы с данными о пользователях с id больше after по
+     * одному, не загружая их все в память.
+     *
+     * @param after    Long, представляющее id пользователя, после которого начинается страница, или null
+     * @param limit    Integer, представляющее максимальное количество записей, или null, чтобы получить все
+     * @param consumer объект Consumer, который получает ответы с данными о пользователях
+     */
+    @Override
+    public void findAll(Long after, Integer limit, Consumer<UserResponse> consumer) {
+        userDAO.findAllAfter(after, limit, user -> consumer.accept(userMapper.toResponse(user)));
+    }
+
     /**
      * Реализует метод save, который сохраняет нового пользователя в базу данных по данным из запроса.
      *
@@ -77,6 +98,10 @@ public class UserServiceImpl implements UserService {
         return Optional.of(request)
                 .map(userMapper::fromSaveRequest)
                 .flatMap(userDAO::save)
+                .map(user -> {
+                    userCache.put(user);
+                    return user;
+                })
                 .map(userMapper::toResponse)
                 .orElseThrow(() -> new UniquePhoneNumberException("User with phone number " + request.mobileNumber()
                                                                   + " is already exist"));
@@ -97,6 +122,10 @@ public class UserServiceImpl implements UserService {
         return Optional.of(findById(id))
                 .map(user -> userMapper.fromUpdateRequest(request, user.getId(), user.getRegisterDate()))
                 .flatMap(userDAO::update)
+                .map(user -> {
+                    userCache.put(user);
+                    return user;
+                })
                 .map(userMapper::toResponse)
                 .orElseThrow(() -> new UniquePhoneNumberException("User with phone number " + request.mobileNumber()
                                                                   + " is already exist"));
@@ -104,6 +133,7 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Реализует метод delete, который удаляет пользователя из базы данных по его id.
+     * Кэши сбрасываются только после удаления, чтобы параллельное чтение не вернуло в кэш удалённую запись.
      *
      * @param id Long, представляющее id пользователя
      * @return объект DeleteResponse, представляющий ответ с сообщением об успешном удалении пользователя
@@ -112,7 +142,10 @@ public class UserServiceImpl implements UserService {
     @Override
     @ServiceLoggable
     public DeleteResponse delete(Long id) {
-        return userDAO.delete(id)
+        Optional<User> deleted = userDAO.delete(id);
+        userCache.invalidate(id);
+        accountCache.invalidateAll();
+        return deleted
                 .map(user -> new DeleteResponse("User with ID " + id + " was successfully deleted"))
                 .orElseThrow(() -> new UserNotFoundException("No User with ID " + id + " to delete"));
     }
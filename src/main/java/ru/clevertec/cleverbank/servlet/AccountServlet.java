@@ -1,24 +1,25 @@
 package ru.clevertec.cleverbank.servlet;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.account.AccountRequest;
 import ru.clevertec.cleverbank.dto.account.AccountResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.service.AccountService;
 import ru.clevertec.cleverbank.service.impl.AccountServiceImpl;
+import ru.clevertec.cleverbank.util.PageParameters;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
 
 @AllArgsConstructor
-@WebServlet(urlPatterns = "/accounts")
-public class AccountServlet extends HttpServlet {
+@WebServlet(urlPatterns = "/accounts", asyncSupported = true)
+public class AccountServlet extends VirtualThreadServlet {
 
     private final transient AccountService accountService;
     private final transient Gson gson;
@@ -42,7 +43,7 @@ public class AccountServlet extends HttpServlet {
         if (id != null) {
             findById(id, printWriter);
         } else {
-            findAll(printWriter);
+            findAll(req.getParameter("after"), req.getParameter("limit"), printWriter);
         }
     }
 
@@ -114,15 +115,24 @@ public class AccountServlet extends HttpServlet {
     }
 
     /**
-     * Приватный метод findAll, который получает все счета и выводит их в формате JSON.
+     * Метод findAll, который выводит счета в формате JSON-массива по мере их чтения из базы данных. Каждый счёт
+     * сразу записывается в поток печати через JsonWriter, поэтому расход памяти не зависит от размера таблицы.
+     * Параметры after и limit задают страницу с keyset-пагинацией: записи с id больше after, не более limit штук.
+     * Размер страницы больше maxLimit из секции pagination уменьшается до maxLimit.
      *
-     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных о всех счетах
+     * @param after       String, представляющая id, после которого начинается страница, или null
+     * @param limit       String, представляющая максимальное количество записей, или null
+     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных
+     * @throws IOException           если возникает ошибка ввода-вывода при работе с потоком печати
+     * @throws BadParameterException если limit некорректен
      */
-    private void findAll(PrintWriter printWriter) {
-        List<AccountResponse> responses = accountService.findAllResponses();
-        String accountsJson = gson.toJson(responses);
-        printWriter.print(accountsJson);
-        printWriter.flush();
+    private void findAll(String after, String limit, PrintWriter printWriter) throws IOException {
+        JsonWriter jsonWriter = gson.newJsonWriter(printWriter);
+        jsonWriter.beginArray();
+        accountService.findAllResponses(after, PageParameters.parseLimit(limit),
+                response -> gson.toJson(response, AccountResponse.class, jsonWriter));
+        jsonWriter.endArray();
+        jsonWriter.flush();
     }
 
 }
@@ -1,24 +1,25 @@
 package ru.clevertec.cleverbank.servlet;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.bank.BankRequest;
 import ru.clevertec.cleverbank.dto.bank.BankResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.service.BankService;
 import ru.clevertec.cleverbank.service.impl.BankServiceImpl;
+import ru.clevertec.cleverbank.util.PageParameters;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
 
 @AllArgsConstructor
-@WebServlet(urlPatterns = "/banks")
-public class BankServlet extends HttpServlet {
+@WebServlet(urlPatterns = "/banks", asyncSupported = true)
+public class BankServlet extends VirtualThreadServlet {
 
     private final transient BankService bankService;
     private final transient Gson gson;
@@ -42,7 +43,7 @@ public class BankServlet extends HttpServlet {
         if (id != null) {
             findById(id, printWriter);
         } else {
-            findAll(printWriter);
+            findAll(req.getParameter("after"), req.getParameter("limit"), printWriter);
         }
     }
 
@@ -116,15 +117,24 @@ public class BankServlet extends HttpServlet {
     }
 
     /**
-     * Метод findAll, который получает все банки и выводит их в формате JSON.
+     * Метод findAll, который выводит банки в формате JSON-массива по мере их чтения из базы данных. Каждый банк
+     * сразу записывается в поток печати через JsonWriter, поэтому расход памяти не зависит от размера таблицы.
+     * Параметры after и limit задают страницу с keyset-пагинацией: записи с id больше after, не более limit штук.
+     * Размер страницы больше maxLimit из секции pagination уменьшается до maxLimit.
      *
-     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных о всех банках
+     * @param after       String, представляющая id, после которого начинается страница, или null
+     * @param limit       String, представляющая максимальное количество записей, или null
+     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных
+     * @throws IOException           если возникает ошибка ввода-вывода при работе с потоком печати
+     * @throws BadParameterException если after или limit некорректны
      */
-    private void findAll(PrintWriter printWriter) {
-        List<BankResponse> responses = bankService.findAll();
-        String bankJson = gson.toJson(responses);
-        printWriter.print(bankJson);
-        printWriter.flush();
+    private void findAll(String after, String limit, PrintWriter printWriter) throws IOException {
+        JsonWriter jsonWriter = gson.newJsonWriter(printWriter);
+        jsonWriter.beginArray();
+        bankService.findAll(PageParameters.parseAfter(after), PageParameters.parseLimit(limit),
+                response -> gson.toJson(response, BankResponse.class, jsonWriter));
+        jsonWriter.endArray();
+        jsonWriter.flush();
     }
 
 }
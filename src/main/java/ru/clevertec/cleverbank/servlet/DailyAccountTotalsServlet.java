@@ -0,0 +1,62 @@
+package ru.clevertec.cleverbank.servlet;
+
+import com.google.gson.Gson;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsCheckResponse;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsRebuildResponse;
+import ru.clevertec.cleverbank.service.DailyAccountTotalsService;
+import ru.clevertec.cleverbank.service.impl.DailyAccountTotalsServiceImpl;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+@AllArgsConstructor
+@WebServlet(urlPatterns = "/daily_account_totals")
+public class DailyAccountTotalsServlet extends VirtualThreadServlet {
+
+    private final transient DailyAccountTotalsService dailyAccountTotalsService;
+    private final transient Gson gson;
+
+    public DailyAccountTotalsServlet() {
+        dailyAccountTotalsService = new DailyAccountTotalsServiceImpl();
+        gson = new Gson();
+    }
+
+    /**
+     * Переопределяет метод doGet, который обрабатывает GET-запросы к ресурсу /daily_account_totals, сверяет дневные
+     * суммы счетов с таблицей transactions и выводит найденные расхождения в формате JSON.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param resp объект HttpServletResponse, представляющий ответ
+     * @throws IOException если возникает ошибка ввода-вывода при работе с потоком печати
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        DailyTotalsCheckResponse response = dailyAccountTotalsService.check();
+        String checkJson = gson.toJson(response);
+        PrintWriter printWriter = resp.getWriter();
+        printWriter.print(checkJson);
+        printWriter.flush();
+    }
+
+    /**
+     * Переопределяет метод doPost, который обрабатывает POST-запросы к ресурсу /daily_account_totals, заново строит
+     * дневные суммы счетов по таблице transactions и выводит результат в формате JSON.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param resp объект HttpServletResponse, представляющий ответ
+     * @throws IOException если возникает ошибка ввода-вывода при работе с потоком печати
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        DailyTotalsRebuildResponse response = dailyAccountTotalsService.rebuild();
+        String rebuildJson = gson.toJson(response);
+        PrintWriter printWriter = resp.getWriter();
+        printWriter.print(rebuildJson);
+        printWriter.flush();
+    }
+
+}
@@ -1,22 +1,54 @@
 package ru.clevertec.cleverbank.servlet;
 
-import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import ru.clevertec.cleverbank.dto.download.ByteRange;
+import ru.clevertec.cleverbank.dto.download.DownloadFile;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+import ru.clevertec.cleverbank.exception.badrequest.MissingParameterException;
+import ru.clevertec.cleverbank.service.PdfService;
+import ru.clevertec.cleverbank.service.ReceiptService;
+import ru.clevertec.cleverbank.service.impl.PdfServiceImpl;
+import ru.clevertec.cleverbank.service.impl.ReceiptServiceImpl;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Objects;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
 
+@AllArgsConstructor
 @WebServlet(urlPatterns = "/download")
 public class DownloadServlet extends HttpServlet {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final transient ReceiptService receiptService;
+    private final transient PdfService pdfService;
+
+    public DownloadServlet() {
+        receiptService = new ReceiptServiceImpl();
+        pdfService = new PdfServiceImpl();
+    }
+
     /**
-     * Переопределяет метод doGet, который обрабатывает GET-запросы к ресурсу /download. Через него можно скачать чеки
-     * и выписки по транзакциям.
+     * Переопределяет метод doGet, который обрабатывает GET-запросы к ресурсу /download. С параметром transaction_id
+     * отдаёт чек одной транзакции, с параметром file — выписку с этим названием. Поддерживает условные запросы по
+     * заголовкам If-None-Match и If-Modified-Since, на которые отвечает статусом 304 без тела, и докачку по заголовку
+     * Range с одним диапазоном байтов, на которую отвечает статусом 206. Заголовок If-Range отменяет докачку, если
+     * файл изменился. С параметром format=pdf файл отдаётся в PDF, который строится по мере отправки ответа.
      *
      * @param req  объект HttpServletRequest, представляющий запрос
      * @param resp объект HttpServletResponse, представляющий ответ
@@ -24,29 +56,167 @@ public class DownloadServlet extends HttpServlet {
      */
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        String file = extractTextFromBody(req);
-        if (!file.isEmpty()) {
-            resp.setHeader("Content-Disposition", "attachment; filename=\"%s\"".formatted(file));
-            resp.setContentType("text/plain");
-            resp.setCharacterEncoding("UTF-8");
-            try (ServletOutputStream outputStream = resp.getOutputStream();
-                 InputStream inputStream = DownloadServlet.class.getClassLoader()
-                         .getResourceAsStream("check/%s".formatted(file))) {
-                if (Objects.nonNull(inputStream)) {
-                    outputStream.write(inputStream.readAllBytes());
-                }
-            }
+        DownloadFile file = findFile(req);
+        if ("pdf".equals(req.getParameter("format"))) {
+            sendPdf(resp, file);
+            return;
+        }
+        resp.setHeader("Content-Disposition", "attachment; filename=\"%s\"".formatted(file.fileName()));
+        resp.setContentType("text/plain");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Accept-Ranges", "bytes");
+        resp.setHeader("ETag", file.etag());
+        resp.setDateHeader("Last-Modified", file.lastModified().toEpochMilli());
+        if (isNotModified(req, file)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        Optional<ByteRange> range = isRangeApplicable(req, file)
+                ? ByteRange.parse(req.getHeader("Range"), file.size())
+                : Optional.empty();
+        if (range.isPresent() && !range.get().isSatisfiable(file.size())) {
+            resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            resp.setHeader("Content-Range", "bytes */" + file.size());
+            return;
+        }
+        long start = 0;
+        long length = file.size();
+        if (range.isPresent()) {
+            start = range.get().start();
+            length = range.get().length();
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", "bytes %d-%d/%d".formatted(start, range.get().end(), file.size()));
+        }
+        resp.setContentLengthLong(length);
+        sendFile(req, resp, file.path(), start, length);
+    }
+
+    private DownloadFile findFile(HttpServletRequest req) {
+        String transactionId = req.getParameter("transaction_id");
+        if (transactionId != null) {
+            return receiptService.findCheckByTransactionId(parseTransactionId(transactionId));
+        }
+        String fileName = req.getParameter("file");
+        if (fileName == null) {
+            throw new MissingParameterException("Request parameter transaction_id or file is required");
+        }
+        return receiptService.findStatement(fileName);
+    }
+
+    /**
+     * Метод parseTransactionId, который преобразует параметр запроса в id транзакции.
+     *
+     * @param transactionId String, представляющая id транзакции
+     * @return Long, представляющий id транзакции
+     * @throws BadParameterException если id транзакции не является целым числом
+     */
+    private Long parseTransactionId(String transactionId) {
+        try {
+            return Long.valueOf(transactionId);
+        } catch (NumberFormatException e) {
+            throw new BadParameterException("Transaction id " + transactionId + " is not an integer number");
+        }
+    }
+
+    /**
+     * Метод sendPdf, который отправляет текст чека или выписки в PDF. Страницы PDF пишутся в ответ по мере чтения
+     * файла, поэтому размер ответа заранее неизвестен, и докачка по заголовку Range для PDF не поддерживается.
+     *
+     * @param resp объект HttpServletResponse, представляющий ответ
+     * @param file объект DownloadFile, представляющий текстовый файл чека или выписки
+     * @throws IOException если возникает ошибка ввода-вывода при чтении файла или записи ответа
+     */
+    private void sendPdf(HttpServletResponse resp, DownloadFile file) throws IOException {
+        String fileName = file.fileName().replaceFirst("\\.txt$", ".pdf");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"%s\"".formatted(fileName));
+        resp.setContentType("application/pdf");
+        resp.setDateHeader("Last-Modified", file.lastModified().toEpochMilli());
+        try (Reader reader = Files.newBufferedReader(file.path(), StandardCharsets.UTF_8)) {
+            pdfService.writeText(reader, resp.getOutputStream());
         }
     }
 
-    private String extractTextFromBody(HttpServletRequest req) throws IOException {
-        BufferedReader reader = req.getReader();
-        StringBuilder result = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            result.append(line);
+    /**
+     * Метод isNotModified, который проверяет условный запрос. Если есть заголовок If-None-Match, файл не изменился,
+     * когда один из перечисленных ETag совпадает с текущим. Иначе сравнивается время изменения файла с точностью до
+     * секунды с заголовком If-Modified-Since.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param file объект DownloadFile, представляющий скачиваемый файл
+     * @return true, если клиенту можно ответить статусом 304, иначе false
+     */
+    private static boolean isNotModified(HttpServletRequest req, DownloadFile file) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::strip)
+                    .map(etag -> etag.startsWith("W/") ? etag.substring(2) : etag)
+                    .anyMatch(etag -> etag.equals("*") || etag.equals(file.etag()));
+        }
+        long ifModifiedSince = getDateHeader(req, "If-Modified-Since");
+        return ifModifiedSince >= 0 && file.lastModified().getEpochSecond() <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Метод isRangeApplicable, который проверяет заголовок If-Range. Докачка разрешена, если заголовка нет или он
+     * содержит текущий ETag или время изменения файла.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param file объект DownloadFile, представляющий скачиваемый файл
+     * @return true, если заголовок Range нужно учитывать, иначе false
+     */
+    private static boolean isRangeApplicable(HttpServletRequest req, DownloadFile file) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag());
+        }
+        return file.lastModified().getEpochSecond() == getDateHeader(req, "If-Range") / 1000;
+    }
+
+    private static long getDateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Метод sendFile, который отправляет length байтов файла, начиная с start. Если контейнер поддерживает sendfile,
+     * файл передаётся ему через атрибуты запроса, и ядро копирует байты из файла в сокет, минуя память приложения.
+     * Иначе байты переносятся FileChannel.transferTo в поток ответа частями, поэтому даже файл в сотни мегабайт
+     * не читается в память целиком.
+     *
+     * @param req    объект HttpServletRequest, представляющий запрос
+     * @param resp   объект HttpServletResponse, представляющий ответ
+     * @param path   объект Path, представляющий путь к файлу
+     * @param start  long, представляющее номер первого отправляемого байта
+     * @param length long, представляющее количество отправляемых байтов
+     * @throws IOException если возникает ошибка ввода-вывода при чтении файла или записи ответа
+     */
+    private static void sendFile(HttpServletRequest req, HttpServletResponse resp, Path path, long start, long length)
+            throws IOException {
+        if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+            req.setAttribute(SENDFILE_FILENAME, path.toRealPath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             WritableByteChannel target = Channels.newChannel(resp.getOutputStream())) {
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
         }
-        return result.toString();
     }
 
 }
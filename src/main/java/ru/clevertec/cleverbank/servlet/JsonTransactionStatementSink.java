@@ -0,0 +1,88 @@
+package ru.clevertec.cleverbank.servlet;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
+import ru.clevertec.cleverbank.service.TransactionStatementSink;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class JsonTransactionStatementSink implements TransactionStatementSink {
+
+    private final Gson gson;
+    private final HttpServletResponse response;
+    private JsonWriter jsonWriter;
+
+    public JsonTransactionStatementSink(Gson gson, HttpServletResponse response) {
+        this.gson = gson;
+        this.response = response;
+    }
+
+    /**
+     * Возвращает признак того, что запись выписки в ответ уже началась. После этого ошибку нельзя отправить клиенту
+     * отдельным ответом, и ответ просто обрывается.
+     *
+     * @return true, если шапка выписки уже записана в ответ, иначе false
+     */
+    public boolean isStarted() {
+        return jsonWriter != null;
+    }
+
+    /**
+     * Реализует метод begin, который устанавливает статус 201 и начинает писать JSON выписки в ответ: поля шапки
+     * и открывающую скобку массива transactions. Поля шапки пишутся в том же виде, что и при сериализации
+     * TransactionStatementResponse целиком, поэтому клиент получает прежний JSON.
+     *
+     * @param header объект TransactionStatementResponse без списка транзакций, представляющий шапку выписки
+     * @throws JsonIOException если возникает ошибка ввода-вывода при записи ответа
+     */
+    @Override
+    public void begin(TransactionStatementResponse header) {
+        try {
+            response.setStatus(201);
+            jsonWriter = gson.newJsonWriter(response.getWriter());
+            jsonWriter.beginObject();
+            for (Map.Entry<String, JsonElement> field : gson.toJsonTree(header).getAsJsonObject().entrySet()) {
+                jsonWriter.name(field.getKey());
+                gson.toJson(field.getValue(), jsonWriter);
+            }
+            jsonWriter.name("transactions").beginArray();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Реализует метод accept, который пишет транзакцию элементом массива transactions. Writer контейнера сам
+     * отправляет клиенту заполненный буфер, поэтому ответ не накапливается в памяти.
+     *
+     * @param transaction объект TransactionStatement, представляющий транзакцию
+     * @throws JsonIOException если возникает ошибка ввода-вывода при записи ответа
+     */
+    @Override
+    public void accept(TransactionStatement transaction) {
+        gson.toJson(transaction, TransactionStatement.class, jsonWriter);
+    }
+
+    /**
+     * Реализует метод end, который закрывает массив transactions и объект выписки и отправляет остаток ответа.
+     *
+     * @throws JsonIOException если возникает ошибка ввода-вывода при записи ответа
+     */
+    @Override
+    public void end() {
+        try {
+            jsonWriter.endArray();
+            jsonWriter.endObject();
+            jsonWriter.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+}
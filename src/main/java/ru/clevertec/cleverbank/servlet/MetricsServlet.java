@@ -0,0 +1,40 @@
+package ru.clevertec.cleverbank.servlet;
+
+import com.google.gson.Gson;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+@AllArgsConstructor
+@WebServlet(urlPatterns = "/metrics")
+public class MetricsServlet extends HttpServlet {
+
+    private final transient Gson gson;
+
+    public MetricsServlet() {
+        gson = new Gson();
+    }
+
+    /**
+     * Переопределяет метод doGet, который обрабатывает GET-запросы к ресурсу /metrics и выводит текущие значения
+     * счётчиков и показателей приложения в формате JSON.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param resp объект HttpServletResponse, представляющий ответ
+     * @throws IOException если возникает ошибка ввода-вывода при работе с потоком печати
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String metricsJson = gson.toJson(MetricsRegistry.snapshot());
+        PrintWriter printWriter = resp.getWriter();
+        printWriter.print(metricsJson);
+        printWriter.flush();
+    }
+
+}
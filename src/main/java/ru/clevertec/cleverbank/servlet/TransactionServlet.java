@@ -11,21 +11,32 @@ import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.dto.transaction.TransactionPageResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementRequest;
-import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
-import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+import ru.clevertec.cleverbank.exception.conflict.LocalDateParseException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
 import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.service.TransactionService;
 import ru.clevertec.cleverbank.service.impl.TransactionServiceImpl;
+import ru.clevertec.cleverbank.util.ExecutorManager;
+import ru.clevertec.cleverbank.util.PageParameters;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
 
@@ -34,12 +45,17 @@ import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
 @WebServlet(urlPatterns = "/transactions", asyncSupported = true)
 public class TransactionServlet extends HttpServlet {
 
+    private static final List<String> HISTORY_PARAMS = List.of("type", "from", "to", "counterparty_id", "page_token",
+            "limit");
+
     private final transient TransactionService transactionService;
     private final transient Gson gson;
+    private final transient Executor executor;
 
     public TransactionServlet() {
         transactionService = new TransactionServiceImpl();
         gson = new Gson();
+        executor = ExecutorManager.getTransactionExecutor();
     }
 
     /**
@@ -51,27 +67,31 @@ public class TransactionServlet extends HttpServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
         AsyncContext asyncContext = req.startAsync();
-        CompletableFuture.runAsync(() -> {
+        runAsync(req, asyncContext, () -> {
+            JsonTransactionStatementSink sink = null;
             try {
-                String transactionJson;
+                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
                 TransactionRequest request = (TransactionRequest) asyncContext.getRequest()
                         .getAttribute("changeBalanceRequest");
                 if (request != null) {
-                    transactionJson = changeBalance(gson, request);
+                    String transactionJson = changeBalance(gson, request);
+                    response.setStatus(201);
+                    PrintWriter printWriter = response.getWriter();
+                    printWriter.print(transactionJson);
+                    printWriter.flush();
                 } else {
                     TransactionStatementRequest statementRequest = (TransactionStatementRequest) asyncContext.getRequest()
                             .getAttribute("statementRequest");
-                    transactionJson = findAllByPeriodOfDateAndAccountId(gson, statementRequest);
+                    sink = new JsonTransactionStatementSink(gson, response);
+                    transactionService.findAllByPeriodOfDateAndAccountId(statementRequest, sink);
                 }
-
-                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
-                response.setStatus(201);
-                PrintWriter printWriter = response.getWriter();
-                printWriter.print(transactionJson);
-                printWriter.flush();
             } catch (Exception e) {
-                req.setAttribute(ERROR_EXCEPTION, e);
-                asyncContext.dispatch("/exception_handler");
+                if (sink != null && sink.isStarted()) {
+                    log.error("Statement stream is interrupted: {}", e.getMessage());
+                } else {
+                    req.setAttribute(ERROR_EXCEPTION, e);
+                    asyncContext.dispatch("/exception_handler");
+                }
             } finally {
                 asyncContext.complete();
             }
@@ -87,7 +107,7 @@ public class TransactionServlet extends HttpServlet {
     @Override
     protected void doPut(HttpServletRequest req, HttpServletResponse resp) {
         AsyncContext asyncContext = req.startAsync();
-        CompletableFuture.runAsync(() -> {
+        runAsync(req, asyncContext, () -> {
             try {
                 String transactionJson;
                 TransactionRequest request = (TransactionRequest) asyncContext.getRequest()
@@ -99,9 +119,16 @@ public class TransactionServlet extends HttpServlet {
                         transactionJson = transferBalance(gson, request);
                     }
                 } else {
-                    TransactionStatementRequest statementRequest = (TransactionStatementRequest) asyncContext.getRequest()
-                            .getAttribute("amountRequest");
-                    transactionJson = findSumOfFundsByPeriodOfDateAndAccountId(gson, statementRequest);
+                    @SuppressWarnings("unchecked")
+                    List<TransactionRequest> batchRequest = (List<TransactionRequest>) asyncContext.getRequest()
+                            .getAttribute("transferBatchRequest");
+                    if (batchRequest != null) {
+                        transactionJson = transferBatch(gson, batchRequest);
+                    } else {
+                        TransactionStatementRequest statementRequest = (TransactionStatementRequest) asyncContext.getRequest()
+                                .getAttribute("amountRequest");
+                        transactionJson = findSumOfFundsByPeriodOfDateAndAccountId(gson, statementRequest);
+                    }
                 }
                 HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
                 response.setStatus(201);
@@ -132,6 +159,9 @@ public class TransactionServlet extends HttpServlet {
         PrintWriter printWriter = resp.getWriter();
         if (id != null) {
             findById(id, printWriter);
+        } else if ((senderAccountId != null || recipientAccountId != null)
+                   && HISTORY_PARAMS.stream().anyMatch(req.getParameterMap()::containsKey)) {
+            findHistory(toHistoryRequest(req, senderAccountId, recipientAccountId), printWriter);
         } else if (senderAccountId != null) {
             findAllBySendersAccountId(senderAccountId, printWriter);
         } else {
@@ -139,6 +169,24 @@ public class TransactionServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Метод runAsync, который выполняет задачу в пуле потоков транзакций. Если пул перегружен и задача отклонена,
+     * запрос сразу передаётся в обработчик исключений, который отвечает статусом 503.
+     *
+     * @param req          объект HttpServletRequest, представляющий запрос
+     * @param asyncContext объект AsyncContext, представляющий асинхронный контекст запроса
+     * @param task         объект Runnable, представляющий задачу обработки запроса
+     */
+    private void runAsync(HttpServletRequest req, AsyncContext asyncContext, Runnable task) {
+        try {
+            CompletableFuture.runAsync(task, executor);
+        } catch (ExecutorOverloadedException e) {
+            log.warn(e.getMessage());
+            req.setAttribute(ERROR_EXCEPTION, e);
+            asyncContext.dispatch("/exception_handler");
+        }
+    }
+
     /**
      * Метод changeBalance, который выполняет операцию изменения баланса счёта и возвращает строку JSON с данными о транзакции.
      *
@@ -160,46 +208,33 @@ public class TransactionServlet extends HttpServlet {
      * @return String JSON, представляющая ответ с данными о транзакции
      */
     private String transferBalance(Gson gson, TransactionRequest request) {
-        TransferBalanceResponse response;
-        try {
-            response = transactionService.transferBalance(request);
-        } catch (SQLException e) {
-            log.error(e.getMessage());
-            throw new JDBCConnectionException();
-        }
+        TransferBalanceResponse response = transactionService.transferBalance(request);
         return gson.toJson(response);
     }
 
     /**
-     * Метод exchangeBalance, который выполняет операцию обмена валют средств между счетами и возвращает строку JSON
-     * с данными о транзакции.
+     * Метод transferBatch, который выполняет пакет переводов средств между счетами и возвращает строку JSON
+     * с результатом каждого перевода.
      *
-     * @param gson    объект Gson, представляющий парсер JSON
-     * @param request объект TransactionRequest, представляющий запрос на перевод средств между счетами
-     * @return String JSON, представляющая ответ с данными о транзакции
+     * @param gson     объект Gson, представляющий парсер JSON
+     * @param requests список объектов TransactionRequest, представляющих запросы на перевод средств между счетами
+     * @return String JSON, представляющая ответ с результатами переводов
      */
-    private String exchangeBalance(Gson gson, TransactionRequest request) {
-        ExchangeBalanceResponse response;
-        try {
-            response = transactionService.exchangeBalance(request);
-        } catch (SQLException e) {
-            log.error(e.getMessage());
-            throw new JDBCConnectionException();
-        }
+    private String transferBatch(Gson gson, List<TransactionRequest> requests) {
+        TransferBatchResponse response = transactionService.transferBatch(requests);
         return gson.toJson(response);
     }
 
     /**
-     * Метод findAllByPeriodOfDateAndAccountId, который получает выписку по транзакциям по счёту за определенный период
-     * дат и возвращает строку JSON с данными о транзакциях.
+     * Метод exchangeBalance, который выполняет операцию обмена валют средств между счетами и возвращает строку JSON
+     * с данными о транзакции.
      *
      * @param gson    объект Gson, представляющий парсер JSON
-     * @param request объект TransactionStatementRequest, представляющий запрос на получение выписки по транзакциям по
-     *                счету за период дат
-     * @return String JSON, представляющая ответ с данными о транзакциях
+     * @param request объект TransactionRequest, представляющий запрос на перевод средств между счетами
+     * @return String JSON, представляющая ответ с данными о транзакции
      */
-    private String findAllByPeriodOfDateAndAccountId(Gson gson, TransactionStatementRequest request) {
-        TransactionStatementResponse response = transactionService.findAllByPeriodOfDateAndAccountId(request);
+    private String exchangeBalance(Gson gson, TransactionRequest request) {
+        ExchangeBalanceResponse response = transactionService.exchangeBalance(request);
         return gson.toJson(response);
     }
 
@@ -256,4 +291,78 @@ public class TransactionServlet extends HttpServlet {
         printWriter.flush();
     }
 
+    /**
+     * Метод findHistory, который получает страницу истории транзакций счёта и выводит её в формате JSON вместе с токеном
+     * следующей страницы.
+     *
+     * @param request     объект TransactionHistoryRequest, представляющий счёт, фильтры и позицию страницы
+     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных о транзакциях
+     */
+    private void findHistory(TransactionHistoryRequest request, PrintWriter printWriter) {
+        TransactionPageResponse response = transactionService.findHistory(request);
+        String transactionJson = gson.toJson(response);
+        printWriter.print(transactionJson);
+        printWriter.flush();
+    }
+
+    /**
+     * Метод toHistoryRequest, который собирает запрос страницы истории транзакций из параметров запроса.
+     *
+     * @param req                объект HttpServletRequest, представляющий запрос
+     * @param senderAccountId    String, представляющая id счёта отправителя, или null
+     * @param recipientAccountId String, представляющая id счёта получателя, или null
+     * @return объект TransactionHistoryRequest
+     * @throws LocalDateParseException если дата периода не соответствует формату yyyy-MM-dd
+     * @throws BadParameterException   если тип транзакции или размер страницы некорректны
+     * @throws BadPageTokenException   если токен страницы некорректен
+     */
+    private TransactionHistoryRequest toHistoryRequest(HttpServletRequest req, String senderAccountId,
+                                                       String recipientAccountId) {
+        return new TransactionHistoryRequest(senderAccountId, recipientAccountId,
+                parseType(req.getParameter("type")),
+                parseDate(req.getParameter("from")),
+                parseDate(req.getParameter("to")),
+                req.getParameter("counterparty_id"),
+                checkPageToken(req.getParameter("page_token")),
+                PageParameters.parseLimit(req.getParameter("limit")));
+    }
+
+    /**
+     * Метод parseType, который преобразует параметр запроса в тип транзакции.
+     *
+     * @param type String, представляющая тип транзакции, или null
+     * @return объект Type или null, если параметр не передан
+     * @throws BadParameterException если такого типа транзакции нет
+     */
+    private Type parseType(String type) {
+        try {
+            return type != null ? Type.valueOf(type) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadParameterException("Type " + type + " is invalid. Allowed types: "
+                                            + Arrays.toString(Type.values()));
+        }
+    }
+
+    /**
+     * Метод checkPageToken, который проверяет токен страницы до обращения к сервису.
+     *
+     * @param pageToken String, представляющая токен страницы, или null
+     * @return String, представляющая тот же токен страницы
+     * @throws BadPageTokenException если токен страницы некорректен
+     */
+    private String checkPageToken(String pageToken) {
+        if (pageToken != null) {
+            TransactionCursor.decode(pageToken);
+        }
+        return pageToken;
+    }
+
+    private LocalDate parseDate(String date) {
+        try {
+            return date != null ? LocalDate.parse(date) : null;
+        } catch (DateTimeParseException e) {
+            throw new LocalDateParseException("Date is out of pattern: yyyy-MM-dd. Right example: 2023-08-30");
+        }
+    }
+
 }
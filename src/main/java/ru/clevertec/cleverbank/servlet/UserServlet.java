@@ -1,24 +1,25 @@
 package ru.clevertec.cleverbank.servlet;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.user.UserRequest;
 import ru.clevertec.cleverbank.dto.user.UserResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.service.UserService;
 import ru.clevertec.cleverbank.service.impl.UserServiceImpl;
+import ru.clevertec.cleverbank.util.PageParameters;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
 
 @AllArgsConstructor
-@WebServlet(urlPatterns = "/users")
-public class UserServlet extends HttpServlet {
+@WebServlet(urlPatterns = "/users", asyncSupported = true)
+public class UserServlet extends VirtualThreadServlet {
 
     private final transient UserService userService;
     private final transient Gson gson;
@@ -42,7 +43,7 @@ public class UserServlet extends HttpServlet {
         if (id != null) {
             findById(id, printWriter);
         } else {
-            findAll(printWriter);
+            findAll(req.getParameter("after"), req.getParameter("limit"), printWriter);
         }
     }
 
@@ -116,15 +117,25 @@ public class UserServlet extends HttpServlet {
     }
 
     /**
-     * Метод findAll, который получает всех пользователей и выводит их в формате JSON.
+     * Метод findAll, который выводит пользователей в формате JSON-массива по мере их чтения из базы данных. Каждый
+     * пользователь сразу записывается в поток печати через JsonWriter, поэтому расход памяти не зависит от размера
+     * таблицы.
+     * Параметры after и limit задают страницу с keyset-пагинацией: записи с id больше after, не более limit штук.
+     * Размер страницы больше maxLimit из секции pagination уменьшается до maxLimit.
      *
-     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных о всех пользователях
+     * @param after       String, представляющая id, после которого начинается страница, или null
+     * @param limit       String, представляющая максимальное количество записей, или null
+     * @param printWriter объект PrintWriter, представляющий поток печати для вывода данных
+     * @throws IOException           если возникает ошибка ввода-вывода при работе с потоком печати
+     * @throws BadParameterException если after или limit некорректны
      */
-    private void findAll(PrintWriter printWriter) {
-        List<UserResponse> responses = userService.findAll();
-        String userJson = gson.toJson(responses);
-        printWriter.print(userJson);
-        printWriter.flush();
+    private void findAll(String after, String limit, PrintWriter printWriter) throws IOException {
+        JsonWriter jsonWriter = gson.newJsonWriter(printWriter);
+        jsonWriter.beginArray();
+        userService.findAll(PageParameters.parseAfter(after), PageParameters.parseLimit(limit),
+                response -> gson.toJson(response, UserResponse.class, jsonWriter));
+        jsonWriter.endArray();
+        jsonWriter.flush();
     }
 
 }
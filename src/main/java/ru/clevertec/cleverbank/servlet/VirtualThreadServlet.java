@@ -0,0 +1,68 @@
+package ru.clevertec.cleverbank.servlet;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+import ru.clevertec.cleverbank.util.ExecutorManager;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
+
+@Slf4j
+public abstract class VirtualThreadServlet extends HttpServlet {
+
+    private final transient Executor requestExecutor;
+
+    protected VirtualThreadServlet() {
+        this(ExecutorManager.getRequestExecutor().orElse(null));
+    }
+
+    protected VirtualThreadServlet(Executor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    /**
+     * Переопределяет метод service, чтобы при virtualThreads: "true" выполнять синхронные обработчики doGet, doPost,
+     * doPut и doDelete в виртуальном потоке, а поток контейнера сразу возвращать в пул. Исключения обработчиков и
+     * отказ перегруженного исполнителя передаются в обработчик исключений. Без исполнителя запрос обрабатывается как
+     * обычно, в потоке контейнера.
+     *
+     * @param req  объект HttpServletRequest, представляющий запрос
+     * @param resp объект HttpServletResponse, представляющий ответ
+     * @throws ServletException если произошла ошибка сервлета
+     * @throws IOException      если возникает ошибка ввода-вывода при работе с потоком печати
+     */
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (requestExecutor == null) {
+            super.service(req, resp);
+            return;
+        }
+        AsyncContext asyncContext = req.startAsync();
+        try {
+            requestExecutor.execute(() -> {
+                try {
+                    super.service(req, resp);
+                    asyncContext.complete();
+                } catch (Exception e) {
+                    dispatchToExceptionHandler(req, asyncContext, e);
+                }
+            });
+        } catch (ExecutorOverloadedException e) {
+            log.warn(e.getMessage());
+            dispatchToExceptionHandler(req, asyncContext, e);
+        }
+    }
+
+    private static void dispatchToExceptionHandler(HttpServletRequest req, AsyncContext asyncContext, Exception e) {
+        req.setAttribute(ERROR_EXCEPTION, e);
+        asyncContext.dispatch("/exception_handler");
+    }
+
+}
@@ -0,0 +1,89 @@
+package ru.clevertec.cleverbank.util;
+
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService delegate;
+
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        permits = new Semaphore(maxConcurrency);
+        delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-virtual-", 1).factory());
+    }
+
+    /**
+     * Переопределяет метод execute, который запускает задачу в новом виртуальном потоке. Виртуальные потоки не
+     * ограничены размером пула, поэтому число одновременно выполняемых задач ограничивается разрешениями: если все
+     * maxConcurrency разрешений заняты, задача отклоняется так же, как в переполненном пуле платформенных потоков.
+     *
+     * @param command объект Runnable, представляющий задачу
+     * @throws ExecutorOverloadedException если выполняется уже maxConcurrency задач
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            MetricsRegistry.increment("executor." + name + ".rejected");
+            throw new ExecutorOverloadedException("Server is overloaded, " + maxConcurrency + " " + name
+                                                  + " are in progress. Please try again later");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Метод getActiveCount, который возвращает число задач, выполняемых в данный момент.
+     *
+     * @return int, представляющее число занятых разрешений
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
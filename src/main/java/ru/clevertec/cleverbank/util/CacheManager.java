@@ -0,0 +1,110 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.experimental.UtilityClass;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.RateCache;
+import ru.clevertec.cleverbank.cache.RateHistoryCache;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.cache.impl.AccountCacheImpl;
+import ru.clevertec.cleverbank.cache.impl.DisabledAccountCache;
+import ru.clevertec.cleverbank.cache.impl.RateCacheImpl;
+import ru.clevertec.cleverbank.cache.impl.RateHistoryCacheImpl;
+import ru.clevertec.cleverbank.cache.impl.ReferenceCacheImpl;
+import ru.clevertec.cleverbank.dao.BankDAO;
+import ru.clevertec.cleverbank.dao.UserDAO;
+import ru.clevertec.cleverbank.dao.impl.BankDAOImpl;
+import ru.clevertec.cleverbank.dao.impl.UserDAOImpl;
+import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.model.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@UtilityClass
+public class CacheManager {
+
+    private final AccountCache ACCOUNT_CACHE;
+    private final ReferenceCache<Long, Bank> BANK_CACHE;
+    private final ReferenceCache<Long, User> USER_CACHE;
+    private final RateCache RATE_CACHE = new RateCacheImpl("rates", Clock.systemUTC());
+    private final RateHistoryCache RATE_HISTORY_CACHE;
+
+    static {
+        Map<String, String> cacheMap = new YamlUtil().getYamlMap().get("cache");
+        if (Boolean.parseBoolean(cacheMap.get("accountsEnabled"))) {
+            long maximumSize = Long.parseLong(cacheMap.get("accountsMaximumSize"));
+            long expireAfterWriteSeconds = Long.parseLong(cacheMap.get("accountsExpireAfterWriteSeconds"));
+            ACCOUNT_CACHE = new AccountCacheImpl("accounts", maximumSize, expireAfterWriteSeconds);
+        } else {
+            ACCOUNT_CACHE = new DisabledAccountCache();
+        }
+        Duration overlap = Duration.ofSeconds(Long.parseLong(cacheMap.get("referenceRefreshOverlapSeconds")));
+        BankDAO bankDAO = new BankDAOImpl();
+        BANK_CACHE = new ReferenceCacheImpl<>("banks", Bank::getId, bankDAO::findById, bankDAO::findAll,
+                bankDAO::findAllUpdatedSince, bankDAO::findAllIds, overlap, Clock.systemUTC());
+        UserDAO userDAO = new UserDAOImpl();
+        USER_CACHE = new ReferenceCacheImpl<>("users", User::getId, userDAO::findById, userDAO::findAll,
+                userDAO::findAllUpdatedSince, userDAO::findAllIds, overlap, Clock.systemUTC());
+        Duration rateHistoryWindow = Duration.ofDays(Long.parseLong(cacheMap.get("rateHistoryDays")));
+        RATE_HISTORY_CACHE = new RateHistoryCacheImpl("rateHistory", rateHistoryWindow, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Возвращает общий для всех сервисов кэш счетов. При accountsEnabled: "false" возвращается кэш, который ничего
+     * не хранит и всегда читает счёт из базы данных.
+     *
+     * @return объект AccountCache, представляющий кэш счетов
+     */
+    public AccountCache getAccountCache() {
+        return ACCOUNT_CACHE;
+    }
+
+    /**
+     * Возвращает кэш банков, из которого AccountDAOImpl и BankServiceImpl получают банки по id.
+     *
+     * @return объект ReferenceCache, представляющий кэш банков
+     */
+    public ReferenceCache<Long, Bank> getBankCache() {
+        return BANK_CACHE;
+    }
+
+    /**
+     * Возвращает кэш пользователей, из которого AccountDAOImpl и UserServiceImpl получают пользователей по id.
+     *
+     * @return объект ReferenceCache, представляющий кэш пользователей
+     */
+    public ReferenceCache<Long, User> getUserCache() {
+        return USER_CACHE;
+    }
+
+    /**
+     * Возвращает кэш курсов НБ РБ, через который NbRBCurrencyServiceImpl читает и обновляет последние курсы валют.
+     *
+     * @return объект RateCache, представляющий кэш курсов
+     */
+    public RateCache getRateCache() {
+        return RATE_CACHE;
+    }
+
+    /**
+     * Возвращает кэш истории курсов НБ РБ за последние rateHistoryDays дней, через который NbRBCurrencyServiceImpl
+     * находит курс на дату.
+     *
+     * @return объект RateHistoryCache, представляющий кэш истории курсов
+     */
+    public RateHistoryCache getRateHistoryCache() {
+        return RATE_HISTORY_CACHE;
+    }
+
+    /**
+     * Возвращает кэши справочных данных, которые предзагружаются при старте приложения и периодически обновляются.
+     *
+     * @return список объектов ReferenceCache, представляющих кэши банков и пользователей
+     */
+    public List<ReferenceCache<Long, ?>> getReferenceCaches() {
+        return List.of(BANK_CACHE, USER_CACHE);
+    }
+
+}
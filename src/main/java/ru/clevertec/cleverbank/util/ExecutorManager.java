@@ -0,0 +1,141 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@UtilityClass
+public class ExecutorManager {
+
+    private final ExecutorService TRANSACTION_EXECUTOR;
+    private final ExecutorService REQUEST_EXECUTOR;
+
+    static {
+        Map<String, String> executorMap = new YamlUtil().getYamlMap().get("executor");
+        if (Boolean.parseBoolean(executorMap.get("virtualThreads"))) {
+            int maxConcurrency = Integer.parseInt(executorMap.get("virtualMaxConcurrency"));
+            TRANSACTION_EXECUTOR = createVirtualExecutor("transactions", maxConcurrency);
+            REQUEST_EXECUTOR = createVirtualExecutor("requests", maxConcurrency);
+        } else {
+            int corePoolSize = Integer.parseInt(executorMap.get("corePoolSize"));
+            int maximumPoolSize = Integer.parseInt(executorMap.get("maximumPoolSize"));
+            int queueCapacity = Integer.parseInt(executorMap.get("queueCapacity"));
+            long keepAliveSeconds = Long.parseLong(executorMap.get("keepAliveSeconds"));
+            TRANSACTION_EXECUTOR = createExecutor("transactions", corePoolSize, maximumPoolSize, queueCapacity, keepAliveSeconds);
+            REQUEST_EXECUTOR = null;
+        }
+    }
+
+    /**
+     * Возвращает пул потоков для блокирующих операций с транзакциями. При virtualThreads: "true" каждая задача
+     * выполняется в собственном виртуальном потоке.
+     *
+     * @return объект ExecutorService, представляющий ограниченный пул потоков транзакций
+     */
+    public ExecutorService getTransactionExecutor() {
+        return TRANSACTION_EXECUTOR;
+    }
+
+    /**
+     * Возвращает исполнитель для синхронных обработчиков запросов. Он есть только при virtualThreads: "true", иначе
+     * запросы обрабатываются в потоках сервлет-контейнера.
+     *
+     * @return объект Optional, содержащий исполнитель на виртуальных потоках или пустой
+     */
+    public Optional<Executor> getRequestExecutor() {
+        return Optional.ofNullable(REQUEST_EXECUTOR);
+    }
+
+    /**
+     * Метод createExecutor, который создаёт пул потоков с ограниченной очередью. Когда заняты все потоки и очередь
+     * заполнена, новая задача отклоняется исключением ExecutorOverloadedException, которое клиент получает как ответ 503.
+     * Глубина очереди, число активных потоков и число отклонённых задач публикуются в MetricsRegistry под префиксом
+     * executor.{name}.
+     *
+     * @param name             String, представляющая имя пула в метриках и именах потоков
+     * @param corePoolSize     int, представляющее число постоянно живущих потоков
+     * @param maximumPoolSize  int, представляющее максимальное число потоков
+     * @param queueCapacity    int, представляющее максимальное число задач в очереди
+     * @param keepAliveSeconds long, представляющее время жизни простаивающего потока сверх corePoolSize в секундах
+     * @return объект ThreadPoolExecutor, представляющий созданный пул потоков
+     */
+    public ThreadPoolExecutor createExecutor(String name, int corePoolSize, int maximumPoolSize, int queueCapacity,
+                                             long keepAliveSeconds) {
+        String prefix = "executor." + name;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(corePoolSize, maximumPoolSize,
+                keepAliveSeconds, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory(name),
+                (task, pool) -> {
+                    MetricsRegistry.increment(prefix + ".rejected");
+                    throw new ExecutorOverloadedException("Server is overloaded, "
+                                                          + pool.getActiveCount() + " " + name
+                                                          + " are in progress and " + pool.getQueue().size()
+                                                          + " are waiting. Please try again later");
+                });
+        MetricsRegistry.registerGauge(prefix + ".queue.depth", () -> executor.getQueue().size());
+        MetricsRegistry.registerGauge(prefix + ".active.threads", executor::getActiveCount);
+        MetricsRegistry.registerGauge(prefix + ".pool.size", executor::getPoolSize);
+        return executor;
+    }
+
+    /**
+     * Метод createVirtualExecutor, который создаёт исполнитель, запускающий каждую задачу в новом виртуальном потоке.
+     * Блокирующие вызовы JDBC и MongoDB освобождают поток-носитель, поэтому одновременно могут ждать тысячи запросов.
+     * Число выполняемых задач ограничено maxConcurrency, сверх него задачи отклоняются исключением
+     * ExecutorOverloadedException. Задачи не ждут в очереди, поэтому из метрик пула платформенных потоков публикуется
+     * только число активных задач, а отказы считаются в executor.{name}.rejected.
+     *
+     * @param name           String, представляющая имя исполнителя в метриках и именах потоков
+     * @param maxConcurrency int, представляющее максимальное число одновременно выполняемых задач
+     * @return объект BoundedVirtualThreadExecutor, представляющий созданный исполнитель
+     */
+    public BoundedVirtualThreadExecutor createVirtualExecutor(String name, int maxConcurrency) {
+        String prefix = "executor." + name;
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(name, maxConcurrency);
+        MetricsRegistry.registerGauge(prefix + ".active.threads", executor::getActiveCount);
+        return executor;
+    }
+
+    /**
+     * Метод shutdown, который прекращает приём новых задач и ждёт завершения уже принятых.
+     *
+     * @param timeoutSeconds long, представляющее максимальное время ожидания в секундах
+     */
+    public void shutdown(long timeoutSeconds) {
+        List<ExecutorService> executors = REQUEST_EXECUTOR == null
+                ? List.of(TRANSACTION_EXECUTOR)
+                : List.of(TRANSACTION_EXECUTOR, REQUEST_EXECUTOR);
+        executors.forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService executor : executors) {
+                if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                    log.warn("Executor did not terminate in {} seconds, {} tasks are dropped",
+                            timeoutSeconds, executor.shutdownNow().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error(e.getMessage());
+            executors.forEach(ExecutorService::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory namedThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, name + "-executor-" + counter.incrementAndGet());
+    }
+
+}
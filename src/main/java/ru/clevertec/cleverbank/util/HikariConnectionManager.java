@@ -6,6 +6,7 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Map;
@@ -23,11 +24,13 @@ public class HikariConnectionManager {
         String user = postgresqlMap.get("user");
         String password = postgresqlMap.get("password");
         String maximumPoolSize = postgresqlMap.get("maximumPoolSize");
+        String leakDetectionThreshold = postgresqlMap.get("leakDetectionThreshold");
         CONFIG.setJdbcUrl(url);
         CONFIG.setUsername(user);
         CONFIG.setPassword(password);
         CONFIG.setDriverClassName("org.postgresql.Driver");
         CONFIG.setMaximumPoolSize(Integer.parseInt(maximumPoolSize));
+        CONFIG.setLeakDetectionThreshold(Long.parseLong(leakDetectionThreshold));
         DATA_SOURCE = new HikariDataSource(CONFIG);
     }
 
@@ -48,4 +51,13 @@ public class HikariConnectionManager {
         return connection;
     }
 
+    /**
+     * Возвращает пул соединений с базой данных PostgresSQL.
+     *
+     * @return объект DataSource, представляющий пул соединений HikariCP
+     */
+    public DataSource getDataSource() {
+        return DATA_SOURCE;
+    }
+
 }
@@ -0,0 +1,70 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@UtilityClass
+public class MetricsRegistry {
+
+    private final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<? extends Number>> GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * Метод increment, который увеличивает счётчик с заданным именем на единицу. Счётчик создаётся при первом вызове.
+     *
+     * @param name String, представляющая имя счётчика
+     */
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Метод add, который увеличивает счётчик с заданным именем на заданную величину.
+     *
+     * @param name  String, представляющая имя счётчика
+     * @param delta long, представляющее величину увеличения счётчика
+     */
+    public void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Метод count, который возвращает текущее значение счётчика с заданным именем.
+     *
+     * @param name String, представляющая имя счётчика
+     * @return long, представляющее значение счётчика или 0, если счётчик ещё не создан
+     */
+    public long count(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Метод registerGauge, который регистрирует показатель, значение которого вычисляется в момент снятия метрик.
+     * Повторная регистрация с тем же именем заменяет прежний показатель.
+     *
+     * @param name  String, представляющая имя показателя
+     * @param gauge объект Supplier, возвращающий текущее значение показателя
+     */
+    public void registerGauge(String name, Supplier<? extends Number> gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Метод snapshot, который возвращает значения всех счётчиков и показателей, отсортированные по имени.
+     *
+     * @return объект Map, представляющий имена метрик и их текущие значения
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> snapshot = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        GAUGES.forEach((name, gauge) -> snapshot.put(name, gauge.get()));
+        return snapshot;
+    }
+
+}
@@ -4,13 +4,13 @@ import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import lombok.Getter;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 public class MongoConnectionManager<D> {
 
-    private static final Map<Class<?>, MongoConnectionManager<?>> INSTANCES = new HashMap<>();
+    private static final Map<Class<?>, MongoConnectionManager<?>> INSTANCES = new ConcurrentHashMap<>();
     private final MongoCollection<D> mongoCollection;
 
     private MongoConnectionManager(Class<D> documentClass) {
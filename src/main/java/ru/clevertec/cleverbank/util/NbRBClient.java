@@ -0,0 +1,111 @@
+package ru.clevertec.cleverbank.util;
+
+import com.google.gson.Gson;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.dto.nbrbcurrency.NbRBCurrencyResponse;
+import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
+import ru.clevertec.cleverbank.model.Currency;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@AllArgsConstructor
+public class NbRBClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient;
+    private final Gson gson;
+    private final String apiUrl;
+
+    public NbRBClient() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .build();
+        gson = new Gson();
+        apiUrl = new YamlUtil().getYamlMap().get("NbRBScheduler").get("url");
+    }
+
+    /**
+     * Запрашивает текущий официальный курс валюты у API НБ РБ.
+     *
+     * @param currency объект Currency, представляющий валюту
+     * @return объект CompletableFuture, который завершится курсом валюты или ошибкой запроса
+     */
+    public CompletableFuture<NbRBCurrencyResponse> fetchRate(Currency currency) {
+        return send(URI.create(apiUrl + currency.getCode()))
+                .thenApply(body -> gson.fromJson(body, NbRBCurrencyResponse.class));
+    }
+
+    /**
+     * Запрашивает официальные курсы всех ежедневно устанавливаемых валют на дату одним запросом и оставляет только
+     * курсы валют из перечисления Currency. Валюты, которых нет в перечислении, Gson читает как null.
+     *
+     * @param date объект LocalDate, представляющий дату курсов
+     * @return объект CompletableFuture, который завершится списком курсов на дату или ошибкой запроса
+     */
+    public CompletableFuture<List<NbRBCurrencyResponse>> fetchRatesOnDate(LocalDate date) {
+        return send(URI.create(apiUrl + "?ondate=" + date + "&periodicity=0"))
+                .thenApply(body -> gson.fromJson(body, NbRBCurrencyResponse[].class))
+                .thenApply(responses -> Arrays.stream(responses)
+                        .filter(response -> response.currency() != null && response.currency() != Currency.BYN)
+                        .toList());
+    }
+
+    /**
+     * Запрашивает курсы за days дней, заканчивая датой lastDate. Запросы на все даты отправляются сразу через общий
+     * HttpClient и выполняются параллельно. Дата, запрос на которую завершился ошибкой, пропускается.
+     *
+     * @param lastDate объект LocalDate, представляющий последнюю дату периода
+     * @param days     количество дней периода
+     * @return объект Map, содержащий списки курсов по датам в порядке возрастания дат
+     */
+    public Map<LocalDate, List<NbRBCurrencyResponse>> fetchHistory(LocalDate lastDate, int days) {
+        Map<LocalDate, CompletableFuture<List<NbRBCurrencyResponse>>> requests = Stream
+                .iterate(lastDate, date -> date.minusDays(1))
+                .limit(days)
+                .collect(Collectors.toMap(Function.identity(), this::fetchRatesOnDate, (first, second) -> first,
+                        TreeMap::new));
+        Map<LocalDate, List<NbRBCurrencyResponse>> history = new TreeMap<>();
+        requests.forEach((date, request) -> {
+            try {
+                history.put(date, request.join());
+            } catch (CompletionException e) {
+                log.error("Failed to fetch NbRB rates on {}: {}", date, e.getMessage());
+            }
+        });
+        return history;
+    }
+
+    private CompletableFuture<String> send(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new FailedConnectionException("NbRB responded with status " + response.statusCode()
+                                                            + " to " + uri);
+                    }
+                    return response.body();
+                });
+    }
+
+}
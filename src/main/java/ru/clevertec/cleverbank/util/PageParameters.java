@@ -0,0 +1,50 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.experimental.UtilityClass;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+
+@UtilityClass
+public class PageParameters {
+
+    private final int MAX_LIMIT = Integer.parseInt(new YamlUtil().getYamlMap().get("pagination").get("maxLimit"));
+
+    /**
+     * Преобразует параметр запроса limit в размер страницы. Размер больше maxLimit из секции pagination уменьшается
+     * до maxLimit, чтобы один запрос не читал таблицу целиком.
+     *
+     * @param limit String, представляющая размер страницы, или null
+     * @return Integer, представляющий размер страницы, или null, если параметр не передан
+     * @throws BadParameterException если размер страницы не является целым числом или отрицателен
+     */
+    public Integer parseLimit(String limit) {
+        if (limit == null) {
+            return null;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            throw new BadParameterException("Limit " + limit + " is not an integer number");
+        }
+        if (value < 0) {
+            throw new BadParameterException("Limit " + limit + " must not be negative");
+        }
+        return Math.min(value, MAX_LIMIT);
+    }
+
+    /**
+     * Преобразует параметр запроса after в id, после которого начинается страница.
+     *
+     * @param after String, представляющая id, или null
+     * @return Long, представляющий id, или null, если параметр не передан
+     * @throws BadParameterException если id не является целым числом
+     */
+    public Long parseAfter(String after) {
+        try {
+            return after != null ? Long.valueOf(after) : null;
+        } catch (NumberFormatException e) {
+            throw new BadParameterException("After " + after + " is not an integer number");
+        }
+    }
+
+}
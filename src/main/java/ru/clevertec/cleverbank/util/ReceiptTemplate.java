@@ -0,0 +1,145 @@
+package ru.clevertec.cleverbank.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ReceiptTemplate {
+
+    private final String[] literals;
+    private final int[] indexes;
+    private final int[] widths;
+    private final int capacity;
+
+    /**
+     * Конструктор класса, который один раз разбирает текст шаблона на неизменяемые куски текста и поля. Поле
+     * записывается как {name}, {name:N} или {name:-N}: N задаёт ширину поля с выравниванием по правому краю, как %Ns,
+     * а -N — по левому, как %-Ns. Значение длиннее ширины выводится целиком. Одно поле может встречаться в шаблоне
+     * несколько раз.
+     *
+     * @param template String, представляющая текст шаблона
+     * @param names    названия полей в том порядке, в котором их значения передаются в render и appendTo
+     * @throws IllegalArgumentException если поле не закрыто, его ширина не число или его названия нет в names
+     */
+    public ReceiptTemplate(String template, String... names) {
+        List<String> literalList = new ArrayList<>();
+        List<int[]> fields = new ArrayList<>();
+        int literalsLength = 0;
+        int position = 0;
+        int open;
+        while ((open = template.indexOf('{', position)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Field at position " + open + " is not closed");
+            }
+            literalList.add(template.substring(position, open));
+            literalsLength += open - position;
+            fields.add(parseField(template.substring(open + 1, close), names));
+            position = close + 1;
+        }
+        literalList.add(template.substring(position));
+        literalsLength += template.length() - position;
+        literals = literalList.toArray(String[]::new);
+        indexes = fields.stream().mapToInt(field -> field[0]).toArray();
+        widths = fields.stream().mapToInt(field -> field[1]).toArray();
+        capacity = literalsLength + fields.stream().mapToInt(field -> Math.max(Math.abs(field[1]), 16)).sum();
+    }
+
+    /**
+     * Метод load, который загружает шаблон из ресурсов приложения в кодировке UTF-8 и разбирает его.
+     *
+     * @param resource String, представляющая путь к шаблону в ресурсах
+     * @param names    названия полей в том порядке, в котором их значения передаются в render и appendTo
+     * @return объект ReceiptTemplate, представляющий разобранный шаблон
+     * @throws IllegalStateException если шаблона нет в ресурсах или его не удалось прочитать
+     */
+    public static ReceiptTemplate load(String resource, String... names) {
+        try (InputStream inputStream = ReceiptTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Template " + resource + " is not found");
+            }
+            return new ReceiptTemplate(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8), names);
+        } catch (IOException e) {
+            throw new IllegalStateException("Template " + resource + " can not be read", e);
+        }
+    }
+
+    /**
+     * Метод render, который подставляет значения полей в шаблон. Строка собирается в StringBuilder, ёмкость которого
+     * рассчитана при разборе шаблона, поэтому для обычных значений он не перевыделяет память.
+     *
+     * @param values значения полей в порядке названий, переданных при разборе шаблона
+     * @return String, представляющая заполненный шаблон
+     */
+    public String render(Object... values) {
+        return appendTo(new StringBuilder(capacity), values).toString();
+    }
+
+    /**
+     * Возвращает ёмкость StringBuilder, которой хватает для заполненного шаблона с обычными значениями полей.
+     *
+     * @return int, представляющее ёмкость в символах
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Метод appendTo, который дописывает заполненный шаблон в конец переданного StringBuilder. Так строки выписки
+     * пишутся прямо в общий StringBuilder без промежуточной строки на каждую транзакцию. Значения CharSequence
+     * дописываются как есть, остальные значения — через String.valueOf, null выводится как "null", как у formatted.
+     *
+     * @param builder объект StringBuilder, в который дописывается шаблон
+     * @param values  значения полей в порядке названий, переданных при разборе шаблона
+     * @return объект StringBuilder, переданный в builder
+     */
+    public StringBuilder appendTo(StringBuilder builder, Object... values) {
+        builder.append(literals[0]);
+        for (int i = 0; i < indexes.length; i++) {
+            Object value = values[indexes[i]];
+            CharSequence text = value instanceof CharSequence charSequence ? charSequence : String.valueOf(value);
+            int padding = Math.abs(widths[i]) - text.length();
+            if (widths[i] > 0) {
+                pad(builder, padding);
+            }
+            builder.append(text);
+            if (widths[i] < 0) {
+                pad(builder, padding);
+            }
+            builder.append(literals[i + 1]);
+        }
+        return builder;
+    }
+
+    /**
+     * Метод parseField, который разбирает поле шаблона вида name, name:N или name:-N.
+     *
+     * @param field String, представляющая поле без фигурных скобок
+     * @param names названия полей шаблона
+     * @return массив из номера значения поля и его ширины, где 0 означает поле без ширины
+     * @throws IllegalArgumentException если ширина не число или названия поля нет в names
+     */
+    private static int[] parseField(String field, String[] names) {
+        int colon = field.indexOf(':');
+        String name = colon < 0 ? field : field.substring(0, colon);
+        int index = Arrays.asList(names).indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Field " + name + " is not declared");
+        }
+        try {
+            return new int[]{index, colon < 0 ? 0 : Integer.parseInt(field.substring(colon + 1))};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Width of field " + name + " is not a number");
+        }
+    }
+
+    private static void pad(StringBuilder builder, int padding) {
+        for (int i = 0; i < padding; i++) {
+            builder.append(' ');
+        }
+    }
+
+}
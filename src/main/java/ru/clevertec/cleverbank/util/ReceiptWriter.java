@@ -0,0 +1,405 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
+import ru.clevertec.cleverbank.model.DurabilityMode;
+import ru.clevertec.cleverbank.model.Receipt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+public class ReceiptWriter {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final String prefix;
+    private final int batchSize;
+    private final DurabilityMode durabilityMode;
+    private final Path directory;
+    private final Consumer<List<Receipt>> indexer;
+    private final BlockingQueue<Entry> queue;
+    private final Map<Path, FileChannel> channels = new HashMap<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public ReceiptWriter(String name, int queueCapacity, int batchSize, DurabilityMode durabilityMode,
+                         Path directory, Consumer<List<Receipt>> indexer) {
+        prefix = name;
+        this.batchSize = batchSize;
+        this.durabilityMode = durabilityMode;
+        this.directory = directory;
+        this.indexer = indexer;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            throw new UploadFileException("Can not find a way to upload a txt file");
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        MetricsRegistry.registerGauge(prefix + ".queue.depth", queue::size);
+        writer = Thread.ofPlatform()
+                .name(name + "-writer")
+                .daemon()
+                .start(this::run);
+    }
+
+    /**
+     * Возвращает каталог, в котором хранятся чеки и выписки.
+     *
+     * @return объект Path, представляющий каталог хранилища
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Метод checkPath, который возвращает путь к файлу чека по id транзакции. Файлы раскладываются по двум уровням
+     * каталогов: миллионы и тысячи id, поэтому в каталоге последнего уровня не больше тысячи чеков, а путь к чеку
+     * вычисляется без обращения к индексу.
+     *
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @return объект Path, представляющий путь к файлу чека
+     */
+    public Path checkPath(Long transactionId) {
+        return directory.resolve("checks")
+                .resolve(String.valueOf(transactionId / 1_000_000))
+                .resolve(String.valueOf(transactionId / 1_000 % 1_000))
+                .resolve(transactionId + ".txt");
+    }
+
+    /**
+     * Метод append, который ставит текст в очередь на дозапись в конец файла и сразу возвращает управление. Если
+     * очередь заполнена, вызывающий поток ждёт освобождения места, а счётчик {name}.queue.full увеличивается: чек
+     * относится к уже зафиксированной транзакции, поэтому его нельзя отбросить.
+     *
+     * @param path объект Path, представляющий файл, в конец которого дописывается текст
+     * @param text String, представляющая дописываемый текст
+     * @return объект CompletableFuture, который завершится после записи текста в файл или ошибкой записи
+     * @throws UploadFileException если запись уже остановлена или поток прерван во время ожидания места в очереди
+     */
+    public CompletableFuture<Void> append(Path path, String text) {
+        Entry entry = new Entry(path, text.getBytes(StandardCharsets.UTF_8), null, null, new CompletableFuture<>());
+        enqueue(entry);
+        return entry.written().thenApply(receipt -> null);
+    }
+
+    /**
+     * Метод createTemporaryFile, который создаёт пустой временный файл в каталоге хранилища. В нём можно собрать
+     * большой текст частями и затем передать его в appendFile, не держа текст в памяти.
+     *
+     * @param prefix String, представляющая начало названия файла
+     * @return объект Path, представляющий путь к временному файлу
+     * @throws UploadFileException если файл не удалось создать
+     */
+    public Path createTemporaryFile(String prefix) {
+        try {
+            return Files.createTempFile(directory, prefix, ".part");
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            throw new UploadFileException("Can not find a way to upload a txt file");
+        }
+    }
+
+    /**
+     * Метод appendFile, который ставит содержимое файла source в очередь на дозапись в конец файла path. Поток записи
+     * переносит содержимое целиком через FileChannel.transferTo, поэтому тексты других запросов не вклиниваются в его
+     * середину, а сам текст не читается в память. После записи файл source удаляется.
+     *
+     * @param path   объект Path, представляющий файл, в конец которого дописывается содержимое
+     * @param source объект Path, представляющий дописываемый файл
+     * @return объект CompletableFuture, который завершится после записи содержимого в файл или ошибкой записи
+     * @throws UploadFileException если запись уже остановлена или поток прерван во время ожидания места в очереди
+     */
+    public CompletableFuture<Void> appendFile(Path path, Path source) {
+        Entry entry = new Entry(path, new byte[0], source, null, new CompletableFuture<>());
+        enqueue(entry);
+        return entry.written().thenApply(receipt -> null);
+    }
+
+    /**
+     * Метод store, который ставит чек транзакции в очередь на запись в отдельный файл по пути checkPath и сразу
+     * возвращает управление. Файл пишется во временный файл и переименовывается, поэтому читатель никогда не видит
+     * недописанный чек, а уже записанный чек транзакции не перезаписывается. После записи пакета чеков записи о них с
+     * SHA-256 содержимого передаются в индекс одним вызовом.
+     *
+     * @param transactionId Long, представляющее идентификатор транзакции
+     * @param text          String, представляющая чек
+     * @return объект CompletableFuture, который завершится записью о чеке после записи файла или ошибкой записи
+     * @throws UploadFileException если запись уже остановлена или поток прерван во время ожидания места в очереди
+     */
+    public CompletableFuture<Receipt> store(Long transactionId, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        String sha256 = sha256(bytes);
+        Receipt receipt = new Receipt(transactionId, sha256, bytes.length);
+        Entry entry = new Entry(checkPath(transactionId), bytes, null, receipt, new CompletableFuture<>());
+        enqueue(entry);
+        return entry.written();
+    }
+
+    /**
+     * Метод close, который прекращает приём новых текстов, ждёт, пока поток записи допишет уже принятые, и закрывает
+     * файлы.
+     *
+     * @param timeoutSeconds long, представляющее максимальное время ожидания в секундах
+     */
+    public void close(long timeoutSeconds) {
+        closed = true;
+        try {
+            if (!writer.join(Duration.ofSeconds(timeoutSeconds))) {
+                log.warn("Receipt writer did not finish in {} seconds, {} receipts are dropped",
+                        timeoutSeconds, queue.size());
+            }
+        } catch (InterruptedException e) {
+            log.error(e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Метод enqueue, который ставит текст в очередь. Если запись остановили, пока текст ставился в очередь, поток
+     * записи мог уже завершиться, не увидев его. Поэтому после постановки флаг closed проверяется ещё раз: текст,
+     * который удалось забрать из очереди обратно, отклоняется, а иначе его уже взял поток записи и завершит сам.
+     *
+     * @param entry объект Entry, представляющий текст
+     * @throws UploadFileException если запись остановлена или поток прерван во время ожидания места в очереди
+     */
+    private void enqueue(Entry entry) {
+        if (closed) {
+            throw new UploadFileException("Receipt writer is closed");
+        }
+        if (!queue.offer(entry)) {
+            MetricsRegistry.increment(prefix + ".queue.full");
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UploadFileException("Interrupted while waiting for receipt queue");
+            }
+        }
+        if (closed && queue.remove(entry)) {
+            UploadFileException exception = new UploadFileException("Receipt writer is closed");
+            entry.written().completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        channels.values().forEach(this::closeQuietly);
+        channels.clear();
+    }
+
+    /**
+     * Метод writeBatch, который записывает пакет текстов. Тексты для дозаписи дописываются одной записью на файл, а
+     * файл открывается один раз и остаётся открытым до остановки записи. Чеки транзакций записываются в собственные
+     * файлы, после чего записи о них сохраняются в индекс одним вызовом. Чек находится по id транзакции и без индекса,
+     * поэтому ошибка индекса не отменяет записанные чеки, а только увеличивает счётчик {name}.index.failed. В режиме
+     * FSYNC каждый файл сбрасывается на диск один раз за пакет, поэтому стоимость синхронизации дозаписи делится между
+     * всеми текстами пакета. В режиме WRITE данные остаются в кэше операционной системы, как при прежней записи через
+     * Files.write.
+     *
+     * @param batch список объектов Entry, представляющих тексты в порядке постановки в очередь
+     */
+    private void writeBatch(List<Entry> batch) {
+        Map<Path, List<Entry>> appendsByPath = new LinkedHashMap<>();
+        List<Entry> stored = new ArrayList<>();
+        for (Entry entry : batch) {
+            if (entry.receipt() == null) {
+                appendsByPath.computeIfAbsent(entry.path(), path -> new ArrayList<>()).add(entry);
+            } else if (writeObject(entry)) {
+                stored.add(entry);
+            }
+        }
+        appendsByPath.forEach(this::appendAll);
+        if (!stored.isEmpty()) {
+            indexAll(stored);
+        }
+        MetricsRegistry.increment(prefix + ".batches");
+    }
+
+    private void appendAll(Path path, List<Entry> entries) {
+        try {
+            FileChannel channel = openChannel(path);
+            write(channel, entries);
+            if (durabilityMode == DurabilityMode.FSYNC) {
+                channel.force(false);
+            }
+            MetricsRegistry.add(prefix + ".written", entries.size());
+            entries.forEach(entry -> entry.written().complete(null));
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            closeQuietly(channels.remove(path));
+            fail(entries);
+        } finally {
+            entries.stream()
+                    .map(Entry::source)
+                    .filter(Objects::nonNull)
+                    .forEach(this::deleteQuietly);
+        }
+    }
+
+    private boolean writeObject(Entry entry) {
+        Path path = entry.path();
+        if (Files.exists(path)) {
+            return true;
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(channel, List.of(entry));
+                if (durabilityMode == DurabilityMode.FSYNC) {
+                    channel.force(false);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            fail(List.of(entry));
+            return false;
+        }
+    }
+
+    private void indexAll(List<Entry> entries) {
+        try {
+            indexer.accept(entries.stream()
+                    .map(Entry::receipt)
+                    .toList());
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+            MetricsRegistry.add(prefix + ".index.failed", entries.size());
+        }
+        MetricsRegistry.add(prefix + ".written", entries.size());
+        entries.forEach(entry -> entry.written().complete(entry.receipt()));
+    }
+
+    /**
+     * Метод write, который записывает тексты в файл в порядке очереди. Подряд идущие тексты записываются одной
+     * записью из нескольких буферов, а содержимое файлов-источников переносится между ними через transferTo.
+     *
+     * @param channel объект FileChannel, представляющий файл, в который идёт запись
+     * @param entries список объектов Entry, представляющих тексты в порядке постановки в очередь
+     * @throws IOException если возникает ошибка ввода-вывода при записи или чтении файла-источника
+     */
+    private static void write(FileChannel channel, List<Entry> entries) throws IOException {
+        int from = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Path source = entries.get(i).source();
+            if (source != null) {
+                writeBytes(channel, entries.subList(from, i));
+                transfer(channel, source);
+                from = i + 1;
+            }
+        }
+        writeBytes(channel, entries.subList(from, entries.size()));
+    }
+
+    private static void transfer(FileChannel channel, Path source) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = sourceChannel.size();
+            long position = 0;
+            while (position < size) {
+                position += sourceChannel.transferTo(position, size - position, channel);
+            }
+        }
+    }
+
+    private static void writeBytes(FileChannel channel, List<Entry> entries) throws IOException {
+        ByteBuffer[] buffers = entries.stream()
+                .map(entry -> ByteBuffer.wrap(entry.bytes()))
+                .toArray(ByteBuffer[]::new);
+        long remaining = entries.stream()
+                .mapToLong(entry -> entry.bytes().length)
+                .sum();
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    private void fail(List<Entry> entries) {
+        MetricsRegistry.add(prefix + ".failed", entries.size());
+        UploadFileException exception = new UploadFileException("Sorry! We got Server upload file problems");
+        entries.forEach(entry -> entry.written().completeExceptionally(exception));
+    }
+
+    private FileChannel openChannel(Path path) throws IOException {
+        FileChannel channel = channels.get(path);
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            channels.put(path, channel);
+        }
+        return channel;
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(Path path, byte[] bytes, Path source, Receipt receipt, CompletableFuture<Receipt> written) {
+    }
+
+}
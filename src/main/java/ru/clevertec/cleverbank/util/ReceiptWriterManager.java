@@ -0,0 +1,43 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.experimental.UtilityClass;
+import ru.clevertec.cleverbank.dao.impl.ReceiptDAOImpl;
+import ru.clevertec.cleverbank.model.DurabilityMode;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+@UtilityClass
+public class ReceiptWriterManager {
+
+    private final ReceiptWriter RECEIPT_WRITER;
+
+    static {
+        Map<String, String> receiptsMap = new YamlUtil().getYamlMap().get("receipts");
+        int queueCapacity = Integer.parseInt(receiptsMap.get("queueCapacity"));
+        int batchSize = Integer.parseInt(receiptsMap.get("batchSize"));
+        DurabilityMode durabilityMode = DurabilityMode.valueOf(receiptsMap.get("durability"));
+        Path directory = Path.of(receiptsMap.get("directory")).toAbsolutePath();
+        RECEIPT_WRITER = new ReceiptWriter("receipts", queueCapacity, batchSize, durabilityMode, directory,
+                new ReceiptDAOImpl()::saveAll);
+    }
+
+    /**
+     * Возвращает общий для всех сервисов поток записи чеков и выписок в txt файлы каталога directory.
+     *
+     * @return объект ReceiptWriter, представляющий поток записи с ограниченной очередью
+     */
+    public ReceiptWriter getReceiptWriter() {
+        return RECEIPT_WRITER;
+    }
+
+    /**
+     * Метод shutdown, который дописывает принятые чеки и выписки и закрывает файлы.
+     *
+     * @param timeoutSeconds long, представляющее максимальное время ожидания в секундах
+     */
+    public void shutdown(long timeoutSeconds) {
+        RECEIPT_WRITER.close(timeoutSeconds);
+    }
+
+}
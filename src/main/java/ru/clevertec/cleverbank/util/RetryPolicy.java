@@ -0,0 +1,64 @@
+package ru.clevertec.cleverbank.util;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+@AllArgsConstructor
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public RetryPolicy() {
+        Map<String, String> lockingMap = new YamlUtil().getYamlMap().get("locking");
+        maxAttempts = Integer.parseInt(lockingMap.get("maxAttempts"));
+        initialBackoffMillis = Long.parseLong(lockingMap.get("initialBackoffMillis"));
+        maxBackoffMillis = Long.parseLong(lockingMap.get("maxBackoffMillis"));
+    }
+
+    /**
+     * Метод execute, который выполняет действие и повторяет его при конфликте версий счёта. Перед каждым повтором поток
+     * ждёт случайное время в пределах экспоненциально растущей паузы, чтобы конкурирующие операции разошлись по времени.
+     * Число конфликтов, повторов и исчерпанных попыток публикуется в MetricsRegistry.
+     *
+     * @param action объект Supplier, представляющий действие, которое целиком повторяется при конфликте
+     * @param <T>    тип результата действия
+     * @return результат первой успешной попытки
+     * @throws OptimisticLockException если все попытки завершились конфликтом
+     */
+    public <T> T execute(Supplier<T> action) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockException e) {
+                MetricsRegistry.increment("accounts.optimistic.conflicts");
+                if (attempt >= maxAttempts) {
+                    MetricsRegistry.increment("accounts.optimistic.retries.exhausted");
+                    throw e;
+                }
+                MetricsRegistry.increment("accounts.optimistic.retries");
+                log.warn("Attempt {} of {} failed: {}", attempt, maxAttempts, e.getMessage());
+                pause(backoff, e);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    private void pause(long backoff, OptimisticLockException cause) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:5
+CREATE INDEX IF NOT EXISTS transactions_sender_date_id_idx
+    ON transactions (account_sender_id, date DESC, id DESC) INCLUDE (type, sum_sender, sum_recipient);
+
+CREATE INDEX IF NOT EXISTS transactions_recipient_date_id_idx
+    ON transactions (account_recipient_id, date DESC, id DESC) INCLUDE (type, sum_sender, sum_recipient);
@@ -0,0 +1,18 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:9
+CREATE TABLE IF NOT EXISTS interest_accruals
+(
+    month      DATE        NOT NULL,
+    account_id VARCHAR(40) NOT NULL,
+    amount     NUMERIC     NOT NULL,
+    PRIMARY KEY (month, account_id)
+);
+
+CREATE TABLE IF NOT EXISTS interest_accrual_runs
+(
+    month       DATE PRIMARY KEY,
+    accounts    BIGINT    NOT NULL,
+    amount      NUMERIC   NOT NULL,
+    finished_at TIMESTAMP NOT NULL
+);
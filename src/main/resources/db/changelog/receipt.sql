@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:8
+CREATE TABLE IF NOT EXISTS receipts
+(
+    transaction_id BIGINT PRIMARY KEY,
+    sha256         CHAR(64) NOT NULL,
+    size           INTEGER  NOT NULL
+);
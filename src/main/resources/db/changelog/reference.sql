@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:4
+ALTER TABLE banks
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS banks_updated_at_idx ON banks (updated_at);
+
+CREATE INDEX IF NOT EXISTS users_updated_at_idx ON users (updated_at);
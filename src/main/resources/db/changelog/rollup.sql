@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:7
+CREATE TABLE IF NOT EXISTS daily_account_totals
+(
+    account_id VARCHAR(40) NOT NULL,
+    date       DATE        NOT NULL,
+    spent      NUMERIC,
+    received   NUMERIC,
+    PRIMARY KEY (account_id, date)
+);
+
+CREATE TABLE IF NOT EXISTS daily_account_totals_state
+(
+    id                SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    compacted_through DATE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS transactions_date_idx ON transactions (date);
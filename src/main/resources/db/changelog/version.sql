@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset Grigoryev_Pavel:3
+ALTER TABLE accounts
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -27,6 +27,7 @@ public class AccountTestBuilder implements TestBuilder<Account> {
     private LocalDate closingDate = null;
     private Bank bank = BankTestBuilder.aBank().build();
     private User user = UserTestBuilder.aUser().build();
+    private Long version = 0L;
 
     @Override
     public Account build() {
@@ -38,6 +39,7 @@ public class AccountTestBuilder implements TestBuilder<Account> {
                 .closingDate(closingDate)
                 .bank(bank)
                 .user(user)
+                .version(version)
                 .build();
     }
 
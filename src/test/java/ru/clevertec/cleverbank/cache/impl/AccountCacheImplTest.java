@@ -0,0 +1,126 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.builder.account.AccountTestBuilder;
+import ru.clevertec.cleverbank.model.Account;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class AccountCacheImplTest {
+
+    private final AccountCacheImpl accountCache = new AccountCacheImpl("test", 100, 60);
+    private final Account account = AccountTestBuilder.aAccount().build();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, Optional<Account>> loader = id -> {
+        loads.incrementAndGet();
+        return id.equals(account.getId()) ? Optional.of(account) : Optional.empty();
+    };
+
+    @Test
+    @DisplayName("test get should load account once and then return it from cache")
+    void testGetShouldLoadAccountOnce() {
+        Optional<Account> first = accountCache.get(account.getId(), loader);
+        Optional<Account> second = accountCache.get(account.getId(), loader);
+
+        assertAll(
+                () -> assertThat(first).contains(account),
+                () -> assertThat(second).contains(account),
+                () -> assertThat(loads.get()).isOne()
+        );
+    }
+
+    @Test
+    @DisplayName("test get should return copy that does not change cached account")
+    void testGetShouldReturnCopy() {
+        BigDecimal expected = account.getBalance();
+        accountCache.get(account.getId(), loader);
+        Account cached = accountCache.get(account.getId(), loader).orElseThrow();
+        cached.setBalance(BigDecimal.ZERO);
+
+        Account actual = accountCache.get(account.getId(), loader).orElseThrow();
+
+        assertThat(actual.getBalance()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("test get should not cache absent account")
+    void testGetShouldNotCacheAbsentAccount() {
+        String id = "AAAA BBBB CCCC DDDD EEEE FFFF GGGG";
+
+        Optional<Account> first = accountCache.get(id, loader);
+        Optional<Account> second = accountCache.get(id, loader);
+
+        assertAll(
+                () -> assertThat(first).isEmpty(),
+                () -> assertThat(second).isEmpty(),
+                () -> assertThat(loads.get()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("test invalidate should make next get load account again")
+    void testInvalidateShouldMakeNextGetLoadAccountAgain() {
+        accountCache.get(account.getId(), loader);
+
+        accountCache.invalidate(account.getId());
+        accountCache.get(account.getId(), loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test invalidateAll should make next get load every account again")
+    void testInvalidateAllShouldMakeNextGetLoadAccountAgain() {
+        accountCache.get(account.getId(), loader);
+
+        accountCache.invalidateAll(List.of(account.getId()));
+        accountCache.get(account.getId(), loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test get should not cache account loaded before it was invalidated")
+    void testGetShouldNotCacheAccountLoadedBeforeItWasInvalidated() {
+        Function<String, Optional<Account>> committingLoader = id -> {
+            Optional<Account> loaded = loader.apply(id);
+            accountCache.invalidate(id);
+            return loaded;
+        };
+
+        Optional<Account> stale = accountCache.get(account.getId(), committingLoader);
+        accountCache.get(account.getId(), loader);
+
+        assertAll(
+                () -> assertThat(stale).contains(account),
+                () -> assertThat(loads.get()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("test should publish hits, misses and size gauges")
+    void testShouldPublishHitsMissesAndSizeGauges() {
+        accountCache.get(account.getId(), loader);
+        accountCache.get(account.getId(), loader);
+
+        Map<String, Number> snapshot = MetricsRegistry.snapshot();
+
+        assertAll(
+                () -> assertThat(snapshot.get("cache.test.hits").longValue()).isOne(),
+                () -> assertThat(snapshot.get("cache.test.misses").longValue()).isOne(),
+                () -> assertThat(snapshot.get("cache.test.size").longValue()).isOne(),
+                () -> assertThat(snapshot).containsKey("cache.test.evictions")
+        );
+    }
+
+}
@@ -0,0 +1,157 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyTestBuilder;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class RateCacheImplTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2023-07-30T06:11:00Z"));
+    private final Clock clock = new Clock() {
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+
+    };
+    private final RateCacheImpl rateCache = new RateCacheImpl("rateTest", clock);
+    private final NbRBCurrency rate = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Currency, Optional<NbRBCurrency>> loader = currency -> {
+        loads.incrementAndGet();
+        return currency == rate.getCurrency() ? Optional.of(rate) : Optional.empty();
+    };
+
+    @Test
+    @DisplayName("test get should load rate once and then return it from snapshot")
+    void testGetShouldLoadRateOnce() {
+        Optional<NbRBCurrency> first = rateCache.get(Currency.EUR, loader);
+        Optional<NbRBCurrency> second = rateCache.get(Currency.EUR, loader);
+
+        assertAll(
+                () -> assertThat(first).contains(rate),
+                () -> assertThat(second).contains(rate),
+                () -> assertThat(loads.get()).isOne()
+        );
+    }
+
+    @Test
+    @DisplayName("test get should not cache absent rate")
+    void testGetShouldNotCacheAbsentRate() {
+        rateCache.get(Currency.USD, loader);
+        Optional<NbRBCurrency> actual = rateCache.get(Currency.USD, loader);
+
+        assertAll(
+                () -> assertThat(actual).isEmpty(),
+                () -> assertThat(loads.get()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("test put should replace rate with newer one")
+    void testPutShouldReplaceRateWithNewerOne() {
+        NbRBCurrency newer = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                .withRate(BigDecimal.valueOf(3.5012))
+                .withUpdateDate(rate.getUpdateDate().plusDays(1))
+                .build();
+        rateCache.put(rate);
+
+        rateCache.put(newer);
+
+        assertThat(rateCache.get(Currency.EUR, loader)).contains(newer);
+    }
+
+    @Test
+    @DisplayName("test put should ignore rate older than cached one")
+    void testPutShouldIgnoreOlderRate() {
+        NbRBCurrency older = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                .withRate(BigDecimal.valueOf(3.4001))
+                .withUpdateDate(rate.getUpdateDate().minusDays(1))
+                .build();
+        rateCache.put(rate);
+
+        rateCache.put(older);
+
+        assertThat(rateCache.get(Currency.EUR, loader)).contains(rate);
+    }
+
+    @Test
+    @DisplayName("test getCrossRate should be empty until rates of both currencies are cached")
+    void testGetCrossRateShouldBeEmptyUntilRatesAreCached() {
+        Optional<BigDecimal> before = rateCache.getCrossRate(Currency.EUR, Currency.BYN);
+        rateCache.put(rate);
+
+        assertAll(
+                () -> assertThat(before).isEmpty(),
+                () -> assertThat(rateCache.getCrossRate(Currency.EUR, Currency.BYN)).isPresent(),
+                () -> assertThat(rateCache.getCrossRate(Currency.EUR, Currency.USD)).isEmpty(),
+                () -> assertThat(rateCache.getCrossRate(Currency.USD, Currency.USD)).contains(BigDecimal.ONE)
+        );
+    }
+
+    @Test
+    @DisplayName("test put should recalculate cross rates through BYN with scale")
+    void testPutShouldRecalculateCrossRates() {
+        NbRBCurrency rub = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                .withCurrencyId(Currency.RUB.getCode())
+                .withCurrency(Currency.RUB)
+                .withScale(100)
+                .withRate(BigDecimal.valueOf(3.3817))
+                .build();
+        rateCache.put(rate);
+        rateCache.put(rub);
+
+        assertAll(
+                () -> assertThat(rateCache.getCrossRate(Currency.EUR, Currency.BYN).orElseThrow())
+                        .isEqualByComparingTo("3.4773"),
+                () -> assertThat(rateCache.getCrossRate(Currency.BYN, Currency.EUR).orElseThrow())
+                        .isEqualByComparingTo("0.2875794438213556"),
+                () -> assertThat(rateCache.getCrossRate(Currency.RUB, Currency.EUR).orElseThrow())
+                        .isEqualByComparingTo("0.0097250740517068")
+        );
+    }
+
+    @Test
+    @DisplayName("test should publish size and age of snapshot")
+    void testShouldPublishSizeAndAgeOfSnapshot() {
+        rateCache.put(rate);
+        now.set(now.get().plus(Duration.ofMinutes(5)));
+
+        Map<String, Number> snapshot = MetricsRegistry.snapshot();
+
+        assertAll(
+                () -> assertThat(snapshot.get("cache.rateTest.size").intValue()).isOne(),
+                () -> assertThat(snapshot.get("cache.rateTest.age.seconds").longValue()).isEqualTo(300)
+        );
+    }
+
+}
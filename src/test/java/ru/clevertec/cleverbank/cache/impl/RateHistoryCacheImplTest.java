@@ -0,0 +1,132 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyTestBuilder;
+import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.NbRBCurrency;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class RateHistoryCacheImplTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2023, 8, 30, 12, 0);
+    private final RateHistoryCacheImpl rateHistoryCache = new RateHistoryCacheImpl("rateHistoryTest",
+            Duration.ofDays(7), Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    private final NbRBCurrency beforeWindow = rate(now.minusDays(8), "3.4001");
+    private final NbRBCurrency weekAgo = rate(now.minusDays(6), "3.4502");
+    private final NbRBCurrency yesterday = rate(now.minusDays(1), "3.4773");
+    private final List<LocalDateTime> loadedSince = new ArrayList<>();
+    private final Function<LocalDateTime, List<NbRBCurrency>> windowLoader = since -> {
+        loadedSince.add(since);
+        return List.of(beforeWindow, weekAgo, yesterday);
+    };
+
+    @Test
+    @DisplayName("test covers should be true only inside history window")
+    void testCoversShouldBeTrueOnlyInsideWindow() {
+        assertAll(
+                () -> assertThat(rateHistoryCache.covers(now.minusDays(3))).isTrue(),
+                () -> assertThat(rateHistoryCache.covers(now.minusDays(7))).isTrue(),
+                () -> assertThat(rateHistoryCache.covers(now.minusDays(8))).isFalse()
+        );
+    }
+
+    @Test
+    @DisplayName("test findAt should return latest rate not after given time")
+    void testFindAtShouldReturnLatestRateNotAfterGivenTime() {
+        Optional<NbRBCurrency> betweenRates = rateHistoryCache.findAt(Currency.EUR, now.minusDays(3), windowLoader);
+        Optional<NbRBCurrency> atWindowStart = rateHistoryCache.findAt(Currency.EUR, now.minusDays(7), windowLoader);
+        Optional<NbRBCurrency> exactly = rateHistoryCache.findAt(Currency.EUR, yesterday.getUpdateDate(), windowLoader);
+
+        assertAll(
+                () -> assertThat(betweenRates).contains(weekAgo),
+                () -> assertThat(atWindowStart).contains(beforeWindow),
+                () -> assertThat(exactly).contains(yesterday)
+        );
+    }
+
+    @Test
+    @DisplayName("test findAt should load history of currency once from window start")
+    void testFindAtShouldLoadHistoryOnce() {
+        rateHistoryCache.findAt(Currency.EUR, now.minusDays(3), windowLoader);
+        rateHistoryCache.findAt(Currency.EUR, now.minusDays(2), windowLoader);
+
+        assertThat(loadedSince).containsExactly(now.minusDays(7));
+    }
+
+    @Test
+    @DisplayName("test findAt should load history outside of map lock and keep history stored first")
+    void testFindAtShouldLoadHistoryOutsideOfMapLock() {
+        Function<LocalDateTime, List<NbRBCurrency>> reentrantLoader = since -> {
+            rateHistoryCache.findAt(Currency.EUR, now.minusDays(3), windowLoader);
+            return List.of(yesterday);
+        };
+
+        Optional<NbRBCurrency> actual = rateHistoryCache.findAt(Currency.EUR, now.minusDays(3), reentrantLoader);
+
+        assertAll(
+                () -> assertThat(actual).contains(weekAgo),
+                () -> assertThat(loadedSince).containsExactly(now.minusDays(7))
+        );
+    }
+
+    @Test
+    @DisplayName("test findAt should return empty if there was no rate yet")
+    void testFindAtShouldReturnEmptyIfThereWasNoRateYet() {
+        Optional<NbRBCurrency> actual = rateHistoryCache.findAt(Currency.USD, now.minusDays(3), since -> List.of());
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    @DisplayName("test put should add new rate to loaded history")
+    void testPutShouldAddNewRateToLoadedHistory() {
+        NbRBCurrency today = rate(now.minusHours(1), "3.4900");
+        rateHistoryCache.findAt(Currency.EUR, now.minusDays(3), windowLoader);
+
+        rateHistoryCache.put(today);
+
+        assertThat(rateHistoryCache.findAt(Currency.EUR, now, windowLoader)).contains(today);
+    }
+
+    @Test
+    @DisplayName("test put should not create history of not loaded currency")
+    void testPutShouldNotCreateHistoryOfNotLoadedCurrency() {
+        rateHistoryCache.put(yesterday);
+
+        rateHistoryCache.findAt(Currency.EUR, now, windowLoader);
+
+        assertThat(loadedSince).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("test findAt should evict rates older than the one effective at window start")
+    void testFindAtShouldEvictOldRates() {
+        NbRBCurrency tooOld = rate(now.minusDays(20), "3.3001");
+        rateHistoryCache.findAt(Currency.EUR, now, since -> List.of(tooOld, beforeWindow, weekAgo));
+
+        Optional<NbRBCurrency> actual = rateHistoryCache.findAt(Currency.EUR, now.minusDays(15), windowLoader);
+
+        assertThat(actual).isEmpty();
+    }
+
+    private static NbRBCurrency rate(LocalDateTime updateDate, String rate) {
+        return NbRBCurrencyTestBuilder.aNbRBCurrency()
+                .withRate(new BigDecimal(rate))
+                .withUpdateDate(updateDate)
+                .build();
+    }
+
+}
@@ -0,0 +1,184 @@
+package ru.clevertec.cleverbank.cache.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.builder.bank.BankTestBuilder;
+import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ReferenceCacheImplTest {
+
+    private final Instant now = Instant.parse("2023-08-30T12:00:00Z");
+    private final Duration overlap = Duration.ofSeconds(10);
+    private final Bank bank = BankTestBuilder.aBank().build();
+    private final Bank otherBank = BankTestBuilder.aBank().withId(2L).withName("Альфа-Банк").build();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<OffsetDateTime> refreshedSince = new ArrayList<>();
+    private final List<Bank> updated = new ArrayList<>();
+    private final List<Long> existingIds = new ArrayList<>(List.of(bank.getId(), otherBank.getId()));
+    private Runnable duringLoad = () -> {
+    };
+    private final ReferenceCacheImpl<Long, Bank> bankCache = new ReferenceCacheImpl<>("referenceTest", Bank::getId,
+            id -> {
+                loads.incrementAndGet();
+                duringLoad.run();
+                return id.equals(bank.getId()) ? Optional.of(bank) : Optional.empty();
+            },
+            () -> List.of(bank, otherBank),
+            since -> {
+                refreshedSince.add(since);
+                return updated;
+            },
+            () -> existingIds,
+            overlap, Clock.fixed(now, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("test get should load value once and then return it from cache")
+    void testGetShouldLoadValueOnce() {
+        Optional<Bank> first = bankCache.get(bank.getId());
+        Optional<Bank> second = bankCache.get(bank.getId());
+
+        assertAll(
+                () -> assertThat(first).contains(bank),
+                () -> assertThat(second).contains(bank),
+                () -> assertThat(loads.get()).isOne()
+        );
+    }
+
+    @Test
+    @DisplayName("test get should not cache absent value")
+    void testGetShouldNotCacheAbsentValue() {
+        Optional<Bank> first = bankCache.get(3L);
+        Optional<Bank> second = bankCache.get(3L);
+
+        assertAll(
+                () -> assertThat(first).isEmpty(),
+                () -> assertThat(second).isEmpty(),
+                () -> assertThat(loads.get()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("test preload should put all values without loading them one by one")
+    void testPreloadShouldPutAllValues() {
+        bankCache.preload();
+
+        assertAll(
+                () -> assertThat(bankCache.get(bank.getId())).contains(bank),
+                () -> assertThat(bankCache.get(otherBank.getId())).contains(otherBank),
+                () -> assertThat(loads.get()).isZero()
+        );
+    }
+
+    @Test
+    @DisplayName("test refresh should preload if cache was not loaded yet")
+    void testRefreshShouldPreloadIfNotLoaded() {
+        bankCache.refresh();
+
+        assertAll(
+                () -> assertThat(bankCache.get(otherBank.getId())).contains(otherBank),
+                () -> assertThat(refreshedSince).isEmpty()
+        );
+    }
+
+    @Test
+    @DisplayName("test refresh should load values updated since previous load minus overlap")
+    void testRefreshShouldLoadValuesUpdatedSincePreviousLoadMinusOverlap() {
+        Bank renamed = BankTestBuilder.aBank().withName("Клевер-Банк Плюс").build();
+        OffsetDateTime expectedSince = OffsetDateTime.ofInstant(now.minus(overlap), ZoneOffset.UTC);
+        bankCache.preload();
+        updated.add(renamed);
+
+        bankCache.refresh();
+
+        assertAll(
+                () -> assertThat(refreshedSince).containsExactly(expectedSince),
+                () -> assertThat(bankCache.get(bank.getId())).contains(renamed),
+                () -> assertThat(loads.get()).isZero()
+        );
+    }
+
+    @Test
+    @DisplayName("test refresh should evict values whose ids no longer exist")
+    void testRefreshShouldEvictValuesWhoseIdsNoLongerExist() {
+        bankCache.preload();
+        existingIds.remove(otherBank.getId());
+
+        bankCache.refresh();
+
+        assertAll(
+                () -> assertThat(bankCache.get(bank.getId())).contains(bank),
+                () -> assertThat(bankCache.get(otherBank.getId())).isEmpty(),
+                () -> assertThat(loads.get()).isOne()
+        );
+    }
+
+    @Test
+    @DisplayName("test get should not cache value if it was invalidated while loading")
+    void testGetShouldNotCacheValueIfItWasInvalidatedWhileLoading() {
+        duringLoad = () -> bankCache.invalidate(bank.getId());
+        Optional<Bank> loaded = bankCache.get(bank.getId());
+        duringLoad = () -> {
+        };
+
+        Optional<Bank> reloaded = bankCache.get(bank.getId());
+
+        assertAll(
+                () -> assertThat(loaded).contains(bank),
+                () -> assertThat(reloaded).contains(bank),
+                () -> assertThat(loads.get()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("test put should replace cached value")
+    void testPutShouldReplaceCachedValue() {
+        Bank renamed = BankTestBuilder.aBank().withName("Клевер-Банк Плюс").build();
+        bankCache.get(bank.getId());
+
+        bankCache.put(renamed);
+
+        assertThat(bankCache.get(bank.getId())).contains(renamed);
+    }
+
+    @Test
+    @DisplayName("test invalidate should make next get load value again")
+    void testInvalidateShouldMakeNextGetLoadValueAgain() {
+        bankCache.get(bank.getId());
+
+        bankCache.invalidate(bank.getId());
+        bankCache.get(bank.getId());
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test should publish hits, misses and size")
+    void testShouldPublishHitsMissesAndSize() {
+        long hits = MetricsRegistry.count("cache.referenceTest.hits");
+        long misses = MetricsRegistry.count("cache.referenceTest.misses");
+
+        bankCache.get(bank.getId());
+        bankCache.get(bank.getId());
+
+        assertAll(
+                () -> assertThat(MetricsRegistry.count("cache.referenceTest.hits") - hits).isOne(),
+                () -> assertThat(MetricsRegistry.count("cache.referenceTest.misses") - misses).isOne(),
+                () -> assertThat(MetricsRegistry.snapshot().get("cache.referenceTest.size").longValue()).isOne()
+        );
+    }
+
+}
@@ -1,5 +1,6 @@
 package ru.clevertec.cleverbank.dao.codec;
 
+import org.bson.BsonDateTime;
 import org.bson.BsonDecimal128;
 import org.bson.BsonDocument;
 import org.bson.BsonInt32;
@@ -23,6 +24,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyTestBuilder;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
+import java.time.ZoneOffset;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -58,7 +61,9 @@ class NbRBCurrencyCodecTest {
                 .append("currency", new BsonString(nbRBCurrency.getCurrency().name()))
                 .append("scale", new BsonInt32(nbRBCurrency.getScale()))
                 .append("rate", new BsonDecimal128(Decimal128.parse(nbRBCurrency.getRate().toString())))
-                .append("update_date", new BsonString(nbRBCurrency.getUpdateDate().toString()));
+                .append("update_date", new BsonDateTime(nbRBCurrency.getUpdateDate()
+                        .toInstant(ZoneOffset.UTC)
+                        .toEpochMilli()));
 
         doReturn(bsonDocumentCodec)
                 .when(codecRegistry)
@@ -79,6 +84,32 @@ class NbRBCurrencyCodecTest {
     @Test
     @DisplayName("test decode should return expected NbRBCurrency")
     void testDecodeShouldReturnExpectedNbRBCurrency() {
+        NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+        BsonDocument bsonDocument = new BsonDocument()
+                .append("_id", new BsonObjectId(expected.getId()))
+                .append("currency_id", new BsonInt32(expected.getCurrencyId()))
+                .append("currency", new BsonString(expected.getCurrency().name()))
+                .append("scale", new BsonInt32(expected.getScale()))
+                .append("rate", new BsonDecimal128(Decimal128.parse(expected.getRate().toString())))
+                .append("update_date", new BsonDateTime(expected.getUpdateDate()
+                        .toInstant(ZoneOffset.UTC)
+                        .toEpochMilli()));
+
+        doReturn(bsonDocumentCodec)
+                .when(codecRegistry)
+                .get(BsonDocument.class);
+        doReturn(bsonDocument)
+                .when(bsonDocumentCodec)
+                .decode(reader, decoderContext);
+
+        NbRBCurrency actual = codec.decode(reader, decoderContext);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("test decode should read update_date stored as string")
+    void testDecodeShouldReadUpdateDateStoredAsString() {
         NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
         BsonDocument bsonDocument = new BsonDocument()
                 .append("_id", new BsonObjectId(expected.getId()))
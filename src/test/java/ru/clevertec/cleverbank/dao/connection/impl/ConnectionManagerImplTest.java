@@ -0,0 +1,243 @@
+package ru.clevertec.cleverbank.dao.connection.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.dao.AccountDAO;
+import ru.clevertec.cleverbank.dao.impl.AccountDAOImpl;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.model.User;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionManagerImplTest {
+
+    @InjectMocks
+    private ConnectionManagerImpl connectionManager;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.releaseConnection();
+    }
+
+    @Nested
+    class GetConnectionTest {
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should borrow connection from pool if no connection is bound")
+        void testShouldBorrowConnectionFromPool() {
+            doReturn(connection)
+                    .when(dataSource)
+                    .getConnection();
+
+            Connection actual = connectionManager.getConnection();
+
+            assertThat(actual).isEqualTo(connection);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if pool is unavailable")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException("Connection is not available"))
+                    .when(dataSource)
+                    .getConnection();
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> connectionManager.getConnection());
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return bound connection which is not closed by DAO")
+        void testShouldReturnBoundConnectionWhichIsNotClosedByDAO() {
+            doReturn(connection)
+                    .when(dataSource)
+                    .getConnection();
+            doReturn(true)
+                    .when(connection)
+                    .isValid(1);
+
+            connectionManager.bindConnection();
+            try (Connection actual = connectionManager.getConnection()) {
+                assertThat(actual.isValid(1)).isTrue();
+            }
+
+            verify(connection, never()).close();
+        }
+
+    }
+
+    @Nested
+    class BindConnectionTest {
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException if connection is already bound")
+        void testShouldThrowJDBCConnectionExceptionIfConnectionIsAlreadyBound() {
+            doReturn(connection)
+                    .when(dataSource)
+                    .getConnection();
+
+            connectionManager.bindConnection();
+
+            assertThrows(JDBCConnectionException.class, () -> connectionManager.bindConnection());
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test releaseConnection should return bound connection to pool")
+        void testReleaseConnectionShouldReturnBoundConnectionToPool() {
+            doReturn(connection)
+                    .when(dataSource)
+                    .getConnection();
+
+            connectionManager.bindConnection();
+            connectionManager.releaseConnection();
+
+            verify(connection).close();
+        }
+
+    }
+
+    @Nested
+    class LoadTest {
+
+        private static final int POOL_SIZE = 8;
+        private static final int OPERATIONS = 64;
+        private static final String ACCOUNT_ID = "0J2O 6O3P 1CUB VZUT 91SJ X3FU MUR4";
+
+        private final AtomicInteger borrowed = new AtomicInteger();
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        @Mock
+        private ReferenceCache<Long, Bank> bankCache;
+        @Mock
+        private ReferenceCache<Long, User> userCache;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test concurrent clients should hold own connections at the same time up to the pool size")
+        void testConcurrentClientsShouldHoldOwnConnectionsAtTheSameTime() {
+            CyclicBarrier allQueriesRunning = new CyclicBarrier(POOL_SIZE);
+            AccountDAO accountDAO = new AccountDAOImpl(new ConnectionManagerImpl(simulatedPool(() ->
+                    allQueriesRunning.await(10, TimeUnit.SECONDS))), bankCache, userCache);
+
+            runClients(accountDAO, POOL_SIZE, POOL_SIZE);
+
+            assertThat(peak.get()).isEqualTo(POOL_SIZE);
+            assertThat(borrowed.get()).isEqualTo(POOL_SIZE);
+            assertThat(inUse.get()).isZero();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test more clients than pool size should complete every operation and return every connection")
+        void testMoreClientsThanPoolSizeShouldCompleteEveryOperation() {
+            AccountDAO accountDAO = new AccountDAOImpl(new ConnectionManagerImpl(simulatedPool(() -> null)),
+                    bankCache, userCache);
+
+            runClients(accountDAO, POOL_SIZE * 2, OPERATIONS);
+
+            assertThat(peak.get()).isBetween(1, POOL_SIZE);
+            assertThat(borrowed.get()).isEqualTo(OPERATIONS);
+            assertThat(inUse.get()).isZero();
+        }
+
+        @SneakyThrows
+        private void runClients(AccountDAO accountDAO, int clients, int operations) {
+            ExecutorService executor = Executors.newFixedThreadPool(clients);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < operations / clients; j++) {
+                        accountDAO.findById(ACCOUNT_ID);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Пул на POOL_SIZE соединений, который считает выданные соединения и наибольшее число одновременно занятых.
+         * Каждый запрос перед ответом вызывает query.
+         */
+        private DataSource simulatedPool(Callable<?> query) {
+            Semaphore permits = new Semaphore(POOL_SIZE);
+            ResultSet resultSet = proxy(ResultSet.class, (proxy, method, args) ->
+                    "next".equals(method.getName()) ? false : null);
+            PreparedStatement preparedStatement = proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if ("executeQuery".equals(method.getName())) {
+                    query.call();
+                    return resultSet;
+                }
+                return null;
+            });
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                permits.acquire();
+                borrowed.incrementAndGet();
+                peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                return proxy(Connection.class, (connectionProxy, connectionMethod, connectionArgs) -> {
+                    if ("close".equals(connectionMethod.getName())) {
+                        inUse.decrementAndGet();
+                        permits.release();
+                        return null;
+                    }
+                    return preparedStatement;
+                });
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+    }
+
+}
@@ -0,0 +1,250 @@
+package ru.clevertec.cleverbank.dao.connection.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionManagerImplTest {
+
+    @InjectMocks
+    private TransactionManagerImpl transactionManager;
+    @Mock
+    private ConnectionManager connectionManager;
+    @Mock
+    private Connection connection;
+
+    @Nested
+    class DoInTransactionTest {
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should commit and release connection if action succeeds")
+        void testShouldCommitAndReleaseConnection() {
+            String expected = "Result";
+
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+
+            String actual = transactionManager.doInTransaction(() -> expected);
+
+            InOrder inOrder = inOrder(connection, connectionManager);
+            inOrder.verify(connection).setAutoCommit(false);
+            inOrder.verify(connection).commit();
+            inOrder.verify(connection).setAutoCommit(true);
+            inOrder.verify(connectionManager).releaseConnection();
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should rollback and rethrow exception of action")
+        void testShouldRollbackAndRethrowExceptionOfAction() {
+            String expectedMessage = "Account with ID 1 is not found!";
+
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+
+            Exception exception = assertThrows(AccountNotFoundException.class, () -> transactionManager
+                    .doInTransaction(() -> {
+                        throw new AccountNotFoundException(expectedMessage);
+                    }));
+
+            verify(connection).rollback();
+            verify(connection, never()).commit();
+            verify(connectionManager).releaseConnection();
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should rollback and throw JDBCConnectionException if commit fails")
+        void testShouldRollbackAndThrowJDBCConnectionExceptionIfCommitFails() {
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+            doThrow(new SQLException("Connection reset"))
+                    .when(connection)
+                    .commit();
+
+            assertThrows(JDBCConnectionException.class, () -> transactionManager.doInTransaction(() -> "Result"));
+
+            verify(connection).rollback();
+            verify(connectionManager).releaseConnection();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should run afterCompletion action after commit and release of connection")
+        void testShouldRunAfterCompletionActionAfterCommitAndReleaseOfConnection() {
+            Runnable action = mock(Runnable.class);
+
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+
+            transactionManager.doInTransaction(() -> {
+                transactionManager.afterCompletion(action);
+                verify(action, never()).run();
+                return "Result";
+            });
+
+            InOrder inOrder = inOrder(connection, connectionManager, action);
+            inOrder.verify(connection).commit();
+            inOrder.verify(connectionManager).releaseConnection();
+            inOrder.verify(action).run();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should run afterCompletion action after rollback")
+        void testShouldRunAfterCompletionActionAfterRollback() {
+            Runnable action = mock(Runnable.class);
+
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+
+            assertThrows(AccountNotFoundException.class, () -> transactionManager.doInTransaction(() -> {
+                transactionManager.afterCompletion(action);
+                throw new AccountNotFoundException("Rollback");
+            }));
+
+            InOrder inOrder = inOrder(connection, action);
+            inOrder.verify(connection).rollback();
+            inOrder.verify(action).run();
+        }
+
+        @Test
+        @DisplayName("test should run afterCompletion action at once if there is no transaction")
+        void testShouldRunAfterCompletionActionAtOnceIfThereIsNoTransaction() {
+            Runnable action = mock(Runnable.class);
+
+            transactionManager.afterCompletion(action);
+
+            verify(action).run();
+        }
+
+        @Test
+        @DisplayName("test should join transaction that is already open in current thread")
+        void testShouldJoinTransactionThatIsAlreadyOpen() {
+            String expected = "Result";
+
+            doReturn(true)
+                    .when(connectionManager)
+                    .isConnectionBound();
+
+            String actual = transactionManager.doInTransaction(() -> expected);
+
+            verify(connectionManager, never()).bindConnection();
+            verify(connectionManager, never()).releaseConnection();
+            assertThat(actual).isEqualTo(expected);
+        }
+
+    }
+
+    @Nested
+    class ConcurrencyTest {
+
+        private static final int TRANSACTIONS = 200;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test concurrent transactions should commit or rollback only their own connections")
+        void testConcurrentTransactionsShouldNotInterfere() {
+            List<Connection> borrowed = new CopyOnWriteArrayList<>();
+            DataSource dataSource = mock(DataSource.class);
+            doAnswer(invocation -> {
+                Connection borrowedConnection = mock(Connection.class);
+                borrowed.add(borrowedConnection);
+                return borrowedConnection;
+            })
+                    .when(dataSource)
+                    .getConnection();
+            ConnectionManager realConnectionManager = new ConnectionManagerImpl(dataSource);
+            TransactionManager manager = new TransactionManagerImpl(realConnectionManager);
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                boolean failing = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return manager.doInTransaction(() -> {
+                            if (failing) {
+                                throw new AccountNotFoundException("Rollback");
+                            }
+                            return true;
+                        });
+                    } catch (AccountNotFoundException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int committed = 0;
+            for (Future<Boolean> future : futures) {
+                committed += Boolean.TRUE.equals(future.get()) ? 1 : 0;
+            }
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+
+            int committedConnections = 0;
+            for (Connection borrowedConnection : borrowed) {
+                long commits = countInvocations(borrowedConnection, "commit");
+                long rollbacks = countInvocations(borrowedConnection, "rollback");
+                verify(borrowedConnection).close();
+                assertThat(commits + rollbacks).isOne();
+                committedConnections += (int) commits;
+            }
+            assertThat(borrowed).hasSize(TRANSACTIONS);
+            assertThat(committedConnections).isEqualTo(committed).isEqualTo(TRANSACTIONS / 2);
+            assertThat(realConnectionManager.isConnectionBound()).isFalse();
+        }
+
+        private long countInvocations(Connection borrowedConnection, String methodName) {
+            return mockingDetails(borrowedConnection).getInvocations().stream()
+                    .filter(invocation -> methodName.equals(invocation.getMethod().getName()))
+                    .count();
+        }
+
+    }
+
+}
@@ -1,44 +1,77 @@
 package ru.clevertec.cleverbank.dao.impl;
 
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.account.AccountTestBuilder;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.exception.notfound.BankNotFoundException;
 import ru.clevertec.cleverbank.model.Account;
+import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.model.User;
 
+import java.math.BigDecimal;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class AccountDAOImplTest {
 
-    @InjectMocks
     private AccountDAOImpl accountDAO;
     @Mock
+    private ConnectionManager connectionManager;
+    @Mock
+    private ReferenceCache<Long, Bank> bankCache;
+    @Mock
+    private ReferenceCache<Long, User> userCache;
+    @Mock
     private Connection connection;
     @Mock
     private PreparedStatement preparedStatement;
     @Mock
     private ResultSet resultSet;
 
+    @BeforeEach
+    void setUp() {
+        accountDAO = new AccountDAOImpl(connectionManager, bankCache, userCache);
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
     @Nested
     class FindByIdTest {
 
@@ -47,10 +80,8 @@ class AccountDAOImplTest {
         @DisplayName("test should throw SQLException with expected message if there is no connection")
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.id = ?
+                    SELECT * FROM accounts
+                    WHERE id = ?
                     """;
             String id = "MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU";
             String expectedMessage = "Sorry! We got Server database connection problems";
@@ -72,10 +103,8 @@ class AccountDAOImplTest {
         @DisplayName("test should return expected response")
         void testShouldReturnExpectedResponse() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.id = ?
+                    SELECT * FROM accounts
+                    WHERE id = ?
                     """;
             Account expected = AccountTestBuilder.aAccount().build();
             String id = expected.getId();
@@ -98,6 +127,39 @@ class AccountDAOImplTest {
                     .ifPresent(actual -> assertThat(actual).isEqualTo(expected));
         }
 
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw BankNotFoundException if account bank is not found in cache")
+        void testShouldThrowBankNotFoundException() {
+            String sql = """
+                    SELECT * FROM accounts
+                    WHERE id = ?
+                    """;
+            Account account = AccountTestBuilder.aAccount().build();
+            String id = account.getId();
+            Long bankId = account.getBank().getId();
+            String expectedMessage = "Bank with ID " + bankId + " is not found!";
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            getMockedAccountColumnsFromResultSet(account);
+            doReturn(Optional.empty())
+                    .when(bankCache)
+                    .get(bankId);
+
+            Exception exception = assertThrows(BankNotFoundException.class, () -> accountDAO.findById(id));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
     }
 
     @Nested
@@ -108,9 +170,7 @@ class AccountDAOImplTest {
         @DisplayName("test should throw SQLException with expected message if there is no connection")
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
+                    SELECT * FROM accounts
                     """;
             String expectedMessage = "Sorry! We got Server database connection problems";
 
@@ -131,9 +191,7 @@ class AccountDAOImplTest {
         @DisplayName("test should return list of size one")
         void testShouldReturnListOfSizeOne() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
+                    SELECT * FROM accounts
                     """;
             Account account = AccountTestBuilder.aAccount().build();
             int expectedSize = 1;
@@ -159,9 +217,7 @@ class AccountDAOImplTest {
         @DisplayName("test should return list that contains expected response")
         void testShouldReturnListThatContainsExpectedResponse() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
+                    SELECT * FROM accounts
                     """;
             Account expected = AccountTestBuilder.aAccount().build();
 
@@ -186,9 +242,7 @@ class AccountDAOImplTest {
         @DisplayName("test should return empty list")
         void testShouldReturnEmptyList() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
+                    SELECT * FROM accounts
                     """;
 
             doReturn(preparedStatement)
@@ -216,10 +270,8 @@ class AccountDAOImplTest {
         @DisplayName("test should throw SQLException with expected message if there is no connection")
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.balance > 0
+                    SELECT * FROM accounts
+                    WHERE balance > 0
                     """;
             String expectedMessage = "Sorry! We got Server database connection problems";
 
@@ -240,10 +292,8 @@ class AccountDAOImplTest {
         @DisplayName("test should return list of size one")
         void testShouldReturnListOfSizeOne() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.balance > 0
+                    SELECT * FROM accounts
+                    WHERE balance > 0
                     """;
             Account account = AccountTestBuilder.aAccount().build();
             int expectedSize = 1;
@@ -269,10 +319,8 @@ class AccountDAOImplTest {
         @DisplayName("test should return list that contains expected response")
         void testShouldReturnListThatContainsExpectedResponse() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.balance > 0
+                    SELECT * FROM accounts
+                    WHERE balance > 0
                     """;
             Account expected = AccountTestBuilder.aAccount().build();
 
@@ -297,10 +345,8 @@ class AccountDAOImplTest {
         @DisplayName("test should return empty list")
         void testShouldReturnEmptyList() {
             String sql = """
-                    SELECT * FROM accounts a
-                    JOIN banks b ON b.id = a.bank_id
-                    JOIN users u ON u.id = a.user_id
-                    WHERE a.balance > 0
+                    SELECT * FROM accounts
+                    WHERE balance > 0
                     """;
 
             doReturn(preparedStatement)
@@ -320,6 +366,95 @@ class AccountDAOImplTest {
 
     }
 
+    @Nested
+    class FindAllAfterTest {
+
+        private final String sql = """
+                SELECT * FROM accounts
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> accountDAO.findAllAfter(null, null, account -> {
+                    }));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should pass rows to consumer resolving references after connection is closed")
+        void testShouldPassRowsToConsumerResolvingReferencesAfterConnectionIsClosed() {
+            Account expected = AccountTestBuilder.aAccount().build();
+            List<Account> actual = new ArrayList<>();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedAccountFromResultSet(expected);
+
+            accountDAO.findAllAfter(null, 10, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+            verify(preparedStatement).setString(1, "");
+            verify(preparedStatement).setInt(2, 10);
+            InOrder inOrder = inOrder(connection, bankCache);
+            inOrder.verify(connection).close();
+            inOrder.verify(bankCache).get(expected.getBank().getId());
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should read next batch after last id of full batch")
+        void testShouldReadNextBatchAfterLastIdOfFullBatch() {
+            Account expected = AccountTestBuilder.aAccount().build();
+            AtomicInteger rows = new AtomicInteger();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doAnswer(invocation -> {
+                int row = rows.incrementAndGet();
+                return row != 501 && row != 503;
+            })
+                    .when(resultSet)
+                    .next();
+            getMockedAccountFromResultSet(expected);
+
+            accountDAO.findAllAfter(null, 600, account -> {
+            });
+
+            assertThat(rows).hasValue(503);
+            verify(preparedStatement).setString(1, "");
+            verify(preparedStatement).setInt(2, 500);
+            verify(preparedStatement).setString(1, expected.getId());
+            verify(preparedStatement).setInt(2, 100);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -389,8 +524,9 @@ class AccountDAOImplTest {
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
                     UPDATE accounts
-                    SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?
-                    WHERE id = ?
+                    SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?,
+                        version = version + 1
+                    WHERE id = ? AND version = ?
                     """;
             Account account = AccountTestBuilder.aAccount().build();
             String expectedMessage = "Sorry! We got Server database connection problems";
@@ -414,8 +550,9 @@ class AccountDAOImplTest {
         void testShouldReturnExpectedResponse() {
             String sql = """
                     UPDATE accounts
-                    SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?
-                    WHERE id = ?
+                    SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?,
+                        version = version + 1
+                    WHERE id = ? AND version = ?
                     """;
             Account account = AccountTestBuilder.aAccount().build();
 
@@ -426,6 +563,9 @@ class AccountDAOImplTest {
             doNothing()
                     .when(preparedStatement)
                     .setString(7, account.getId());
+            doNothing()
+                    .when(preparedStatement)
+                    .setLong(8, account.getVersion());
             doReturn(1)
                     .when(preparedStatement)
                     .executeUpdate();
@@ -438,11 +578,250 @@ class AccountDAOImplTest {
             doReturn(account.getId())
                     .when(resultSet)
                     .getString(1);
+            doReturn(account.getVersion() + 1)
+                    .when(resultSet)
+                    .getLong("version");
 
             accountDAO.update(account)
                     .ifPresent(actual -> assertThat(actual).isEqualTo(account));
         }
 
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw OptimisticLockException if account version has changed")
+        void testShouldThrowOptimisticLockExceptionIfAccountVersionHasChanged() {
+            String sql = """
+                    UPDATE accounts
+                    SET currency = ?, balance = ?, opening_date = ?, closing_date = ?, bank_id = ?, user_id = ?,
+                        version = version + 1
+                    WHERE id = ? AND version = ?
+                    """;
+            Account account = AccountTestBuilder.aAccount().build();
+            String expectedMessage = "Account with ID " + account.getId()
+                                     + " was modified concurrently, expected version " + account.getVersion();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            doReturn(0)
+                    .when(preparedStatement)
+                    .executeUpdate();
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .getGeneratedKeys();
+            doReturn(false)
+                    .when(resultSet)
+                    .next();
+
+            Exception exception = assertThrows(OptimisticLockException.class, () -> accountDAO.update(account));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+    }
+
+    @Nested
+    class AddToBalanceTest {
+
+        private final String sql = """
+                UPDATE accounts
+                SET balance = balance + ?, version = version + 1
+                WHERE id = ? AND balance + ? >= 0
+                RETURNING balance
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String id = "MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU";
+            BigDecimal delta = BigDecimal.TEN;
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> accountDAO.addToBalance(id, delta));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return new balance")
+        void testShouldReturnNewBalance() {
+            String id = "MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU";
+            BigDecimal delta = BigDecimal.TEN.negate();
+            BigDecimal expected = BigDecimal.valueOf(90);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            doReturn(expected)
+                    .when(resultSet)
+                    .getBigDecimal("balance");
+
+            Optional<BigDecimal> actual = accountDAO.addToBalance(id, delta);
+
+            assertThat(actual).contains(expected);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return empty Optional if funds are insufficient")
+        void testShouldReturnEmptyOptionalIfFundsAreInsufficient() {
+            String id = "MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU";
+            BigDecimal delta = BigDecimal.valueOf(-1000);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(false)
+                    .when(resultSet)
+                    .next();
+
+            Optional<BigDecimal> actual = accountDAO.addToBalance(id, delta);
+
+            assertThat(actual).isEmpty();
+        }
+
+    }
+
+    @Nested
+    class FindAllByIdsForUpdateTest {
+
+        private final String sql = """
+                SELECT * FROM accounts
+                WHERE id = ANY (?)
+                ORDER BY id
+                FOR UPDATE
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            Set<String> ids = Set.of("MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU");
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> accountDAO.findAllByIdsForUpdate(ids));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should bind ids as array and return locked accounts")
+        void testShouldBindIdsAsArrayAndReturnLockedAccounts() {
+            Account expected = AccountTestBuilder.aAccount().build();
+            Set<String> ids = Set.of(expected.getId());
+            Array array = mock(Array.class);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(array)
+                    .when(connection)
+                    .createArrayOf("varchar", ids.toArray());
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedAccountFromResultSet(expected);
+
+            List<Account> actual = accountDAO.findAllByIdsForUpdate(ids);
+
+            verify(preparedStatement).setArray(1, array);
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
+    @Nested
+    class AddToBalancesTest {
+
+        private final String sql = """
+                UPDATE accounts
+                SET balance = balance + ?, version = version + 1
+                WHERE id = ? AND balance + ? >= 0
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            Map<String, BigDecimal> deltas = Map.of("MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU", BigDecimal.TEN);
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> accountDAO.addToBalances(deltas));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should add every delta to batch and return true if all rows are updated")
+        void testShouldAddEveryDeltaToBatchAndReturnTrue() {
+            Map<String, BigDecimal> deltas = new LinkedHashMap<>();
+            deltas.put("MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU", BigDecimal.TEN.negate());
+            deltas.put("G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q", BigDecimal.TEN);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(new int[]{1, 1})
+                    .when(preparedStatement)
+                    .executeBatch();
+
+            boolean actual = accountDAO.addToBalances(deltas);
+
+            verify(preparedStatement, times(2)).addBatch();
+            verify(preparedStatement).setString(2, "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q");
+            assertThat(actual).isTrue();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return false if any row is not updated")
+        void testShouldReturnFalseIfAnyRowIsNotUpdated() {
+            Map<String, BigDecimal> deltas = Map.of("MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU", BigDecimal.valueOf(-1000));
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(new int[]{0})
+                    .when(preparedStatement)
+                    .executeBatch();
+
+            boolean actual = accountDAO.addToBalances(deltas);
+
+            assertThat(actual).isFalse();
+        }
+
     }
 
     @Nested
@@ -524,6 +903,16 @@ class AccountDAOImplTest {
     }
 
     private void getMockedAccountFromResultSet(Account account) throws SQLException {
+        getMockedAccountColumnsFromResultSet(account);
+        doReturn(Optional.of(account.getBank()))
+                .when(bankCache)
+                .get(account.getBank().getId());
+        doReturn(Optional.of(account.getUser()))
+                .when(userCache)
+                .get(account.getUser().getId());
+    }
+
+    private void getMockedAccountColumnsFromResultSet(Account account) throws SQLException {
         doReturn(account.getId())
                 .when(resultSet)
                 .getString("id");
@@ -539,38 +928,16 @@ class AccountDAOImplTest {
         doReturn(null)
                 .when(resultSet)
                 .getDate("closing_date");
+        doReturn(account.getVersion())
+                .when(resultSet)
+                .getLong("version");
 
         doReturn(account.getBank().getId())
                 .when(resultSet)
                 .getLong("bank_id");
-        doReturn(account.getBank().getName())
-                .when(resultSet)
-                .getString("name");
-        doReturn(account.getBank().getAddress())
-                .when(resultSet)
-                .getString("address");
-        doReturn(account.getBank().getPhoneNumber())
-                .when(resultSet)
-                .getString("phone_number");
-
         doReturn(account.getUser().getId())
                 .when(resultSet)
                 .getLong("user_id");
-        doReturn(account.getUser().getLastname())
-                .when(resultSet)
-                .getString("lastname");
-        doReturn(account.getUser().getFirstname())
-                .when(resultSet)
-                .getString("firstname");
-        doReturn(account.getUser().getSurname())
-                .when(resultSet)
-                .getString("surname");
-        doReturn(Date.valueOf(account.getUser().getRegisterDate()))
-                .when(resultSet)
-                .getDate("register_date");
-        doReturn(account.getUser().getMobileNumber())
-                .when(resultSet)
-                .getString("mobile_number");
     }
 
 }
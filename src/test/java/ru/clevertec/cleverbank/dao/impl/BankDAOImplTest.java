@@ -1,6 +1,7 @@
 package ru.clevertec.cleverbank.dao.impl;
 
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.bank.BankTestBuilder;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.Bank;
 
 import java.sql.Connection;
@@ -16,6 +19,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class BankDAOImplTest {
@@ -31,12 +38,21 @@ class BankDAOImplTest {
     @InjectMocks
     private BankDAOImpl bankDAO;
     @Mock
+    private ConnectionManager connectionManager;
+    @Mock
     private Connection connection;
     @Mock
     private PreparedStatement preparedStatement;
     @Mock
     private ResultSet resultSet;
 
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
     @Nested
     class FindByIdTest {
 
@@ -180,6 +196,151 @@ class BankDAOImplTest {
 
     }
 
+    @Nested
+    class FindAllUpdatedSinceTest {
+
+        private final String sql = "SELECT * FROM banks WHERE updated_at >= ?";
+        private final OffsetDateTime since = OffsetDateTime.parse("2023-08-30T12:00:00Z");
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return empty list if there is no connection")
+        void testShouldReturnEmptyListIfThereIsNoConnection() {
+            doThrow(new SQLException("Sorry! We got Server database connection problems"))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            List<Bank> actual = bankDAO.findAllUpdatedSince(since);
+
+            assertThat(actual).isEmpty();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should bind since and return list that contains expected response")
+        void testShouldBindSinceAndReturnListThatContainsExpectedResponse() {
+            Bank expected = BankTestBuilder.aBank().build();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedBankFromResultSet(expected);
+
+            List<Bank> actual = bankDAO.findAllUpdatedSince(since);
+
+            verify(preparedStatement).setObject(1, since);
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
+    @Nested
+    class FindAllIdsTest {
+
+        private final String sql = "SELECT id FROM banks";
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionIfThereIsNoConnection() {
+            doThrow(new SQLException("Sorry! We got Server database connection problems"))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            assertThrows(JDBCConnectionException.class, () -> bankDAO.findAllIds());
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return ids of all banks")
+        void testShouldReturnIdsOfAllBanks() {
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, true, false)
+                    .when(resultSet)
+                    .next();
+            doReturn(1L, 3L)
+                    .when(resultSet)
+                    .getLong("id");
+
+            List<Long> actual = bankDAO.findAllIds();
+
+            assertThat(actual).containsExactly(1L, 3L);
+        }
+
+    }
+
+    @Nested
+    class FindAllAfterTest {
+
+        private final String sql = """
+                SELECT * FROM banks
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> bankDAO.findAllAfter(null, null, bank -> {
+                    }));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should pass rows to consumer reading them by cursor with fetch size")
+        void testShouldPassRowsToConsumerReadingThemByCursor() {
+            Bank expected = BankTestBuilder.aBank().build();
+            List<Bank> actual = new ArrayList<>();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(true)
+                    .when(connection)
+                    .getAutoCommit();
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedBankFromResultSet(expected);
+
+            bankDAO.findAllAfter(null, 10, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+            verify(preparedStatement).setLong(1, 0L);
+            verify(preparedStatement).setObject(2, 10, Types.INTEGER);
+            verify(preparedStatement).setFetchSize(500);
+            verify(connection).setAutoCommit(false);
+            verify(connection).setAutoCommit(true);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -249,7 +410,8 @@ class BankDAOImplTest {
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
                     UPDATE banks
-                    SET name = ?, address = ?, phone_number = ?
+                    SET name = ?, address = ?, phone_number = ?,
+                        updated_at = now()
                     WHERE id = ?
                     """;
             Bank bank = BankTestBuilder.aBank().build();
@@ -274,7 +436,8 @@ class BankDAOImplTest {
         void testShouldReturnExpectedResponse() {
             String sql = """
                     UPDATE banks
-                    SET name = ?, address = ?, phone_number = ?
+                    SET name = ?, address = ?, phone_number = ?,
+                        updated_at = now()
                     WHERE id = ?
                     """;
             Bank bank = BankTestBuilder.aBank().build();
@@ -0,0 +1,230 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsMismatch;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DailyAccountTotalsDAOImplTest {
+
+    @InjectMocks
+    private DailyAccountTotalsDAOImpl dailyAccountTotalsDAO;
+    @Mock
+    private ConnectionManager connectionManager;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    private final LocalDate through = LocalDate.of(2023, Month.AUGUST, 29);
+
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
+    @Nested
+    class FindCompactedThroughTest {
+
+        private final String sql = "SELECT compacted_through FROM daily_account_totals_state";
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return last compacted day")
+        void testShouldReturnLastCompactedDay() {
+            doReturn(statement)
+                    .when(connection)
+                    .createStatement();
+            doReturn(resultSet)
+                    .when(statement)
+                    .executeQuery(sql);
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            doReturn(Date.valueOf(through))
+                    .when(resultSet)
+                    .getDate("compacted_through");
+
+            Optional<LocalDate> actual = dailyAccountTotalsDAO.findCompactedThrough();
+
+            assertThat(actual).contains(through);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return empty Optional if totals were never compacted")
+        void testShouldReturnEmptyOptionalIfTotalsWereNeverCompacted() {
+            doReturn(statement)
+                    .when(connection)
+                    .createStatement();
+            doReturn(resultSet)
+                    .when(statement)
+                    .executeQuery(sql);
+            doReturn(false)
+                    .when(resultSet)
+                    .next();
+
+            Optional<LocalDate> actual = dailyAccountTotalsDAO.findCompactedThrough();
+
+            assertThat(actual).isEmpty();
+        }
+
+    }
+
+    @Nested
+    class CompactTest {
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should upsert totals of period and return count of written rows")
+        void testShouldUpsertTotalsOfPeriodAndReturnCountOfWrittenRows() {
+            LocalDate from = through.minusDays(3);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(argThat(sql -> sql.startsWith("INSERT INTO daily_account_totals")
+                                                     && sql.contains(DailyAccountTotalsDAOImpl.RAW_TOTALS_SQL)
+                                                     && sql.contains("ON CONFLICT (account_id, date)")));
+            doReturn(4)
+                    .when(preparedStatement)
+                    .executeUpdate();
+
+            int actual = dailyAccountTotalsDAO.compact(from, through);
+
+            assertThat(actual).isEqualTo(4);
+            verify(preparedStatement).setObject(1, from, Types.DATE);
+            verify(preparedStatement).setObject(2, through);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(argThat(sql -> sql.startsWith("INSERT INTO daily_account_totals")));
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> dailyAccountTotalsDAO.compact(null, through));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test saveCompactedThrough should upsert the only row of state")
+    void testSaveCompactedThroughShouldUpsertTheOnlyRowOfState() {
+        String sql = """
+                INSERT INTO daily_account_totals_state (compacted_through) VALUES (?)
+                ON CONFLICT (id) DO UPDATE SET compacted_through = EXCLUDED.compacted_through
+                """;
+
+        doReturn(preparedStatement)
+                .when(connection)
+                .prepareStatement(sql);
+
+        dailyAccountTotalsDAO.saveCompactedThrough(through);
+
+        verify(preparedStatement).setObject(1, through);
+        verify(preparedStatement).executeUpdate();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test deleteAll should delete totals together with last compacted day")
+    void testDeleteAllShouldDeleteTotalsTogetherWithLastCompactedDay() {
+        doReturn(statement)
+                .when(connection)
+                .createStatement();
+
+        dailyAccountTotalsDAO.deleteAll();
+
+        verify(statement).executeUpdate("DELETE FROM daily_account_totals");
+        verify(statement).executeUpdate("DELETE FROM daily_account_totals_state");
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test findMismatches should return differences between totals and raw transactions")
+    void testFindMismatchesShouldReturnDifferencesBetweenTotalsAndRawTransactions() {
+        DailyTotalsMismatch expected = new DailyTotalsMismatch("55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9", through,
+                BigDecimal.TEN, null, BigDecimal.ONE, null);
+
+        doReturn(preparedStatement)
+                .when(connection)
+                .prepareStatement(argThat(sql -> sql.startsWith("WITH raw AS (")
+                                                 && sql.contains("FULL JOIN rollup d")));
+        doReturn(resultSet)
+                .when(preparedStatement)
+                .executeQuery();
+        doReturn(true, false)
+                .when(resultSet)
+                .next();
+        doReturn(expected.accountId())
+                .when(resultSet)
+                .getString("account_id");
+        doReturn(Date.valueOf(expected.date()))
+                .when(resultSet)
+                .getDate("date");
+        doReturn(expected.rollupSpent())
+                .when(resultSet)
+                .getBigDecimal("rollup_spent");
+        doReturn(expected.rollupReceived())
+                .when(resultSet)
+                .getBigDecimal("rollup_received");
+        doReturn(expected.rawSpent())
+                .when(resultSet)
+                .getBigDecimal("raw_spent");
+        doReturn(expected.rawReceived())
+                .when(resultSet)
+                .getBigDecimal("raw_received");
+
+        List<DailyTotalsMismatch> actual = dailyAccountTotalsDAO.findMismatches(through, 100);
+
+        assertThat(actual).containsExactly(expected);
+        verify(preparedStatement).setObject(1, null, Types.DATE);
+        verify(preparedStatement).setObject(2, through);
+        verify(preparedStatement).setObject(3, through);
+        verify(preparedStatement).setInt(4, 100);
+    }
+
+}
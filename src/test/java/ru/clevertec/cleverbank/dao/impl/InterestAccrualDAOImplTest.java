@@ -0,0 +1,216 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dto.interest.InterestChunk;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualDAOImplTest {
+
+    @InjectMocks
+    private InterestAccrualDAOImpl interestAccrualDAO;
+    @Mock
+    private ConnectionManager connectionManager;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Array array;
+
+    private final LocalDate month = LocalDate.of(2023, Month.AUGUST, 1);
+    private final BigDecimal rate = BigDecimal.ONE;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test isCompleted should return true if month has been marked as completed")
+    void testIsCompletedShouldReturnTrueIfMonthHasBeenMarkedAsCompleted() {
+        doReturn(preparedStatement)
+                .when(connection)
+                .prepareStatement("SELECT 1 FROM interest_accrual_runs WHERE month = ?");
+        doReturn(resultSet)
+                .when(preparedStatement)
+                .executeQuery();
+        doReturn(true)
+                .when(resultSet)
+                .next();
+
+        boolean actual = interestAccrualDAO.isCompleted(month);
+
+        assertThat(actual).isTrue();
+        verify(preparedStatement).setObject(1, month);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test findPartitionBounds should return distinct bounds of positive balance accounts")
+    void testFindPartitionBoundsShouldReturnDistinctBoundsOfPositiveBalanceAccounts() {
+        Array fractions = mock(Array.class);
+
+        doReturn(preparedStatement)
+                .when(connection)
+                .prepareStatement(argThat(sql -> sql.startsWith("SELECT percentile_disc(?)")
+                                                 && sql.contains("WHERE balance > 0")));
+        doReturn(fractions)
+                .when(connection)
+                .createArrayOf("float8", new Double[]{0.25, 0.5, 0.75});
+        doReturn(resultSet)
+                .when(preparedStatement)
+                .executeQuery();
+        doReturn(true)
+                .when(resultSet)
+                .next();
+        doReturn(array)
+                .when(resultSet)
+                .getArray("bounds");
+        doReturn(new String[]{"0J2O 6O3P", "0J2O 6O3P", "55JN NKDA"})
+                .when(array)
+                .getArray();
+
+        List<String> actual = interestAccrualDAO.findPartitionBounds(4);
+
+        assertThat(actual).containsExactly("0J2O 6O3P", "55JN NKDA");
+        verify(preparedStatement).setArray(1, fractions);
+    }
+
+    @Nested
+    class AccrueChunkTest {
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should accrue chunk from start of table to end of table")
+        void testShouldAccrueChunkFromStartOfTableToEndOfTable() {
+            InterestChunk expected = new InterestChunk(2, "55JN NKDA", List.of("0J2O 6O3P"), new BigDecimal("1.50"));
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(InterestAccrualDAOImpl.ACCRUE_CHUNK_SQL.formatted(""));
+            stubChunk(expected);
+
+            InterestChunk actual = interestAccrualDAO.accrueChunk(month, rate, null, null, 1000);
+
+            assertThat(actual).isEqualTo(expected);
+            verify(preparedStatement).setString(1, "");
+            verify(preparedStatement).setInt(2, 1000);
+            verify(preparedStatement).setObject(3, month);
+            verify(preparedStatement).setBigDecimal(4, rate);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should accrue chunk of id range up to its upper bound")
+        void testShouldAccrueChunkOfIdRangeUpToItsUpperBound() {
+            InterestChunk expected = new InterestChunk(0, null, List.of(), BigDecimal.ZERO);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(InterestAccrualDAOImpl.ACCRUE_CHUNK_SQL.formatted("AND id <= ?"));
+            stubChunk(expected);
+
+            InterestChunk actual = interestAccrualDAO.accrueChunk(month, rate, "0J2O 6O3P", "55JN NKDA", 1000);
+
+            assertThat(actual).isEqualTo(expected);
+            verify(preparedStatement).setString(1, "0J2O 6O3P");
+            verify(preparedStatement).setString(2, "55JN NKDA");
+            verify(preparedStatement).setInt(3, 1000);
+            verify(preparedStatement).setObject(4, month);
+            verify(preparedStatement).setBigDecimal(5, rate);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(argThat(sql -> sql.startsWith("WITH chunk AS (")));
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> interestAccrualDAO.accrueChunk(month, rate, null, null, 1000));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+        @SneakyThrows
+        private void stubChunk(InterestChunk chunk) {
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            doReturn(chunk.scanned())
+                    .when(resultSet)
+                    .getInt("scanned");
+            doReturn(chunk.lastId())
+                    .when(resultSet)
+                    .getString("last_id");
+            doReturn(array)
+                    .when(resultSet)
+                    .getArray("account_ids");
+            doReturn(chunk.accountIds().toArray(String[]::new))
+                    .when(array)
+                    .getArray();
+            doReturn(chunk.amount())
+                    .when(resultSet)
+                    .getBigDecimal("amount");
+        }
+
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test saveCompleted should mark month as completed with totals of all its accruals")
+    void testSaveCompletedShouldMarkMonthAsCompletedWithTotalsOfAllItsAccruals() {
+        doReturn(preparedStatement)
+                .when(connection)
+                .prepareStatement(argThat(sql -> sql.startsWith("INSERT INTO interest_accrual_runs")
+                                                 && sql.contains("FROM interest_accruals")
+                                                 && sql.contains("ON CONFLICT (month) DO NOTHING")));
+
+        interestAccrualDAO.saveCompleted(month);
+
+        verify(preparedStatement).setObject(1, month);
+        verify(preparedStatement).setObject(2, month);
+        verify(preparedStatement).executeUpdate();
+    }
+
+}
@@ -1,15 +1,24 @@
 package ru.clevertec.cleverbank.dao.impl;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.InsertManyResult;
 import com.mongodb.client.result.InsertOneResult;
 import org.bson.BsonObjectId;
+import org.bson.BsonType;
 import org.bson.BsonValue;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,9 +26,21 @@ import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyTestBuilder;
 import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class NbRBCurrencyDAOImplTest {
@@ -33,9 +54,15 @@ class NbRBCurrencyDAOImplTest {
     @Mock
     private InsertOneResult insertOneResult;
     @Mock
+    private InsertManyResult insertManyResult;
+    @Mock
     private BsonValue bsonValue;
     @Mock
     private BsonObjectId bsonObjectId;
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+    @Captor
+    private ArgumentCaptor<List<UpdateOneModel<NbRBCurrency>>> updatesCaptor;
 
     @Test
     @DisplayName("test findByCurrencyId should return expected response")
@@ -60,6 +87,128 @@ class NbRBCurrencyDAOImplTest {
                 .ifPresent(actual -> assertThat(actual).isEqualTo(expected));
     }
 
+    @Test
+    @DisplayName("test findByCurrencyIdAt should return latest rate not after given time")
+    void testFindByCurrencyIdAtShouldReturnExpectedResponse() {
+        NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+        int currencyId = expected.getCurrencyId();
+        LocalDateTime at = expected.getUpdateDate().plusHours(3);
+
+        doReturn(findIterable)
+                .when(mongoCollection)
+                .find(Filters.and(Filters.eq("currency_id", currencyId), Filters.lte("update_date", at)));
+        doReturn(findIterable)
+                .when(findIterable)
+                .sort(Sorts.descending("update_date"));
+        doReturn(findIterable)
+                .when(findIterable)
+                .limit(1);
+        doReturn(expected)
+                .when(findIterable)
+                .first();
+
+        Optional<NbRBCurrency> actual = nbRBCurrencyDAO.findByCurrencyIdAt(currencyId, at);
+
+        assertThat(actual).contains(expected);
+    }
+
+    @Test
+    @DisplayName("test findAllByCurrencyIdEffectiveSince should return rate at since and later rates")
+    void testFindAllByCurrencyIdEffectiveSinceShouldReturnExpectedResponse() {
+        NbRBCurrency effective = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+        NbRBCurrency later = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                .withUpdateDate(effective.getUpdateDate().plusDays(1))
+                .build();
+        int currencyId = effective.getCurrencyId();
+        LocalDateTime since = effective.getUpdateDate().plusHours(1);
+        FindIterable<NbRBCurrency> laterIterable = mock();
+
+        doReturn(findIterable)
+                .when(mongoCollection)
+                .find(Filters.and(Filters.eq("currency_id", currencyId), Filters.lte("update_date", since)));
+        doReturn(findIterable)
+                .when(findIterable)
+                .sort(Sorts.descending("update_date"));
+        doReturn(findIterable)
+                .when(findIterable)
+                .limit(1);
+        doReturn(effective)
+                .when(findIterable)
+                .first();
+        doReturn(laterIterable)
+                .when(mongoCollection)
+                .find(Filters.and(Filters.eq("currency_id", currencyId), Filters.gt("update_date", since)));
+        doReturn(laterIterable)
+                .when(laterIterable)
+                .sort(Sorts.ascending("update_date"));
+        doAnswer(invocation -> {
+            List<NbRBCurrency> target = invocation.getArgument(0);
+            target.add(later);
+            return target;
+        })
+                .when(laterIterable)
+                .into(anyList());
+
+        List<NbRBCurrency> actual = nbRBCurrencyDAO.findAllByCurrencyIdEffectiveSince(currencyId, since);
+
+        assertThat(actual).containsExactly(effective, later);
+    }
+
+    @Test
+    @DisplayName("test convertStringUpdateDates should rewrite string update dates as BSON dates with one bulkWrite")
+    void testConvertStringUpdateDatesShouldRewriteStringUpdateDates() {
+        NbRBCurrency legacy = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+
+        doReturn(findIterable)
+                .when(mongoCollection)
+                .find(Filters.type("update_date", BsonType.STRING));
+        doReturn(new ArrayList<>(List.of(legacy)))
+                .when(findIterable)
+                .into(anyList());
+        doReturn(bulkWriteResult)
+                .when(mongoCollection)
+                .bulkWrite(updatesCaptor.capture());
+        doReturn(1)
+                .when(bulkWriteResult)
+                .getModifiedCount();
+
+        long actual = nbRBCurrencyDAO.convertStringUpdateDates();
+
+        UpdateOneModel<NbRBCurrency> update = updatesCaptor.getValue().get(0);
+        assertAll(
+                () -> assertThat(actual).isEqualTo(1),
+                () -> assertThat(updatesCaptor.getValue()).hasSize(1),
+                () -> assertThat(update.getFilter()).isEqualTo(Filters.and(Filters.eq("_id", legacy.getId()),
+                        Filters.type("update_date", BsonType.STRING))),
+                () -> assertThat(update.getUpdate()).isEqualTo(Updates.set("update_date", legacy.getUpdateDate()))
+        );
+    }
+
+    @Test
+    @DisplayName("test convertStringUpdateDates should not call bulkWrite if there are no string update dates")
+    void testConvertStringUpdateDatesShouldNotCallBulkWriteIfThereAreNoStringUpdateDates() {
+        doReturn(findIterable)
+                .when(mongoCollection)
+                .find(Filters.type("update_date", BsonType.STRING));
+        doReturn(new ArrayList<>())
+                .when(findIterable)
+                .into(anyList());
+
+        long actual = nbRBCurrencyDAO.convertStringUpdateDates();
+
+        assertThat(actual).isZero();
+        verify(mongoCollection, never()).bulkWrite(anyList());
+    }
+
+    @Test
+    @DisplayName("test createIndexes should create compound index on currency_id and update_date desc")
+    void testCreateIndexesShouldCreateCompoundIndex() {
+        nbRBCurrencyDAO.createIndexes();
+
+        verify(mongoCollection).createIndex(Indexes.compoundIndex(Indexes.ascending("currency_id"),
+                Indexes.descending("update_date")));
+    }
+
     @Test
     @DisplayName("test save should return expected response")
     void testSaveShouldReturnExpectedResponse() {
@@ -83,6 +232,49 @@ class NbRBCurrencyDAOImplTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("test saveAll should insert all rates with one insertMany and set their ids")
+    void testSaveAllShouldInsertAllRatesWithOneInsertMany() {
+        NbRBCurrency first = NbRBCurrencyTestBuilder.aNbRBCurrency().withId(null).build();
+        NbRBCurrency second = NbRBCurrencyTestBuilder.aNbRBCurrency().withId(null).build();
+        List<NbRBCurrency> rates = List.of(first, second);
+        ObjectId firstId = new ObjectId();
+        ObjectId secondId = new ObjectId();
+
+        doReturn(insertManyResult)
+                .when(mongoCollection)
+                .insertMany(rates);
+        doReturn(Map.of(0, new BsonObjectId(firstId), 1, new BsonObjectId(secondId)))
+                .when(insertManyResult)
+                .getInsertedIds();
+
+        List<NbRBCurrency> actual = nbRBCurrencyDAO.saveAll(rates);
+
+        assertThat(actual)
+                .extracting(NbRBCurrency::getId)
+                .containsExactly(firstId, secondId);
+    }
+
+    @Test
+    @DisplayName("test saveAll should throw FailedConnectionException with expected message if not all rates are saved")
+    void testSaveAllShouldThrowFailedConnectionExceptionWithExpectedMessage() {
+        List<NbRBCurrency> rates = List.of(NbRBCurrencyTestBuilder.aNbRBCurrency().build(),
+                NbRBCurrencyTestBuilder.aNbRBCurrency().build());
+        String expectedMessage = "Failed to save 2 rates, saved 1";
+
+        doReturn(insertManyResult)
+                .when(mongoCollection)
+                .insertMany(rates);
+        doReturn(Map.of(0, new BsonObjectId(new ObjectId())))
+                .when(insertManyResult)
+                .getInsertedIds();
+
+        Exception exception = assertThrows(FailedConnectionException.class, () -> nbRBCurrencyDAO.saveAll(rates));
+        String actualMessage = exception.getMessage();
+
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+
     @Test
     @DisplayName("test save should throw FailedConnectionException with expected message if there is no connection")
     void testSaveShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
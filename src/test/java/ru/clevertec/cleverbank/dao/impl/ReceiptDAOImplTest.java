@@ -0,0 +1,156 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.model.Receipt;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptDAOImplTest {
+
+    private static final String SHA256 = "9d60841e0a7891df0fd55b24d5c883a5d92ae544808675c2ec84537c12589c49";
+
+    @InjectMocks
+    private ReceiptDAOImpl receiptDAO;
+    @Mock
+    private ConnectionManager connectionManager;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
+    @Nested
+    class FindByTransactionIdTest {
+
+        private final String sql = "SELECT * FROM receipts WHERE transaction_id = ?";
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return indexed receipt of transaction")
+        void testShouldReturnIndexedReceiptOfTransaction() {
+            Receipt expected = new Receipt(1L, SHA256, 5);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            doReturn(expected.getTransactionId())
+                    .when(resultSet)
+                    .getLong("transaction_id");
+            doReturn(expected.getSha256())
+                    .when(resultSet)
+                    .getString("sha256");
+            doReturn(expected.getSize())
+                    .when(resultSet)
+                    .getInt("size");
+
+            Optional<Receipt> actual = receiptDAO.findByTransactionId(1L);
+
+            assertThat(actual).contains(expected);
+            verify(preparedStatement).setLong(1, 1L);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return empty Optional if check is not indexed yet")
+        void testShouldReturnEmptyOptionalIfCheckIsNotIndexedYet() {
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(false)
+                    .when(resultSet)
+                    .next();
+
+            Optional<Receipt> actual = receiptDAO.findByTransactionId(1L);
+
+            assertThat(actual).isEmpty();
+        }
+
+    }
+
+    @Nested
+    class SaveAllTest {
+
+        private final String sql = """
+                INSERT INTO receipts (transaction_id, sha256, size) VALUES (?, ?, ?)
+                ON CONFLICT (transaction_id) DO NOTHING
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should send all receipts in one batch")
+        void testShouldSendAllReceiptsInOneBatch() {
+            List<Receipt> receipts = List.of(new Receipt(1L, SHA256, 5), new Receipt(2L, SHA256, 5));
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            receiptDAO.saveAll(receipts);
+
+            verify(preparedStatement).setLong(1, 1L);
+            verify(preparedStatement).setLong(1, 2L);
+            verify(preparedStatement, times(2)).setString(2, SHA256);
+            verify(preparedStatement, times(2)).setInt(3, 5);
+            verify(preparedStatement, times(2)).addBatch();
+            verify(preparedStatement).executeBatch();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+            List<Receipt> receipts = List.of(new Receipt(1L, SHA256, 5));
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> receiptDAO.saveAll(receipts));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package ru.clevertec.cleverbank.dao.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import liquibase.command.CommandScope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assumptions.abort;
+
+/**
+ * Проверяет планы запросов выписки TransactionDAOImpl и свёртки дневных сумм DailyAccountTotalsDAOImpl, а также
+ * порядок строк выписки на локальной базе PostgreSQL из application.yaml. Миграции применяются в отдельную схему,
+ * которая удаляется после тестов. Последовательное сканирование отключено, поэтому Seq Scan по transactions в плане
+ * означает, что ни один индекс не подходит под условия запроса. Если база недоступна, тесты пропускаются.
+ */
+class TransactionDAOImplQueryPlanTest {
+
+    private static final String SCHEMA = "query_plan_test";
+    private static final String TABLE = "transactions";
+    private static final String ID = "0J2O 6O3P 1CUB VZUT 91SJ X3FU MUR4";
+    private static final String COUNTERPARTY_ID = "MU1Y 7LTU 7QLR 14XD 2789 T5MM XRXU";
+    private static final LocalDate FROM = LocalDate.of(2023, Month.JANUARY, 1);
+    private static final LocalDate TO = LocalDate.of(2023, Month.DECEMBER, 31);
+
+    private static Connection connection;
+
+    @BeforeAll
+    @SneakyThrows
+    static void setUp() {
+        Map<String, String> postgresqlMap = new YamlUtil().getYamlMap().get("postgresql");
+        try {
+            DriverManager.setLoginTimeout(2);
+            connection = DriverManager.getConnection(postgresqlMap.get("url"), postgresqlMap.get("user"),
+                    postgresqlMap.get("password"));
+        } catch (SQLException e) {
+            abort("PostgreSQL is not available: " + e.getMessage());
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+        connection.setSchema(SCHEMA);
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        database.setDefaultSchemaName(SCHEMA);
+        ClassLoaderResourceAccessor classLoaderResourceAccessor = new ClassLoaderResourceAccessor();
+        try {
+            new CommandScope("update")
+                    .addArgumentValue("changeLogFile", "db/changelog/db.changelog-master.yaml")
+                    .addArgumentValue("resourceAccessor", classLoaderResourceAccessor)
+                    .addArgumentValue("database", database)
+                    .execute();
+        } finally {
+            classLoaderResourceAccessor.close();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("test statement query should read transactions only by indexes")
+    void testStatementQueryShouldReadTransactionsOnlyByIndexes() throws SQLException {
+        List<String> scans = explainScansOfTransactions(TransactionDAOImpl.STATEMENT_SQL,
+                FROM, TO, ID, FROM, TO, ID, ID);
+
+        assertIndexScansOnly(scans);
+    }
+
+    @Test
+    @DisplayName("test statement query should return sent and received transactions in date order")
+    void testStatementQueryShouldReturnSentAndReceivedTransactionsInDateOrder() throws SQLException {
+        LocalDate first = LocalDate.of(2030, Month.MARCH, 1);
+        insertTransaction(first.plusDays(2), ID, COUNTERPARTY_ID);
+        insertTransaction(first, COUNTERPARTY_ID, ID);
+        insertTransaction(first.plusDays(1), ID, COUNTERPARTY_ID);
+        insertTransaction(first.plusDays(3), COUNTERPARTY_ID, ID);
+        insertTransaction(first.plusDays(1), COUNTERPARTY_ID, ID);
+
+        List<LocalDate> dates = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(TransactionDAOImpl.STATEMENT_SQL)) {
+            Object[] params = {first, first.plusDays(3), ID, first, first.plusDays(3), ID, ID};
+            for (int i = 0; i < params.length; i++) {
+                preparedStatement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    dates.add(resultSet.getDate("date").toLocalDate());
+                }
+            }
+        }
+
+        assertThat(dates).containsExactly(first, first.plusDays(1), first.plusDays(1), first.plusDays(2),
+                first.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("test funds query should read transactions only by indexes")
+    void testFundsQueryShouldReadTransactionsOnlyByIndexes() throws SQLException {
+        List<String> scans = explainScansOfTransactions(TransactionDAOImpl.FUNDS_SQL,
+                FROM, TO, ID, FROM, TO, ID, FROM, TO, ID);
+
+        assertIndexScansOnly(scans);
+    }
+
+    @Test
+    @DisplayName("test daily totals compaction query should read transactions only by indexes")
+    void testDailyTotalsCompactionQueryShouldReadTransactionsOnlyByIndexes() throws SQLException {
+        List<String> scans = explainScansOfTransactions(DailyAccountTotalsDAOImpl.RAW_TOTALS_SQL, FROM, TO);
+
+        assertIndexScansOnly(scans);
+    }
+
+    private static void insertTransaction(LocalDate date, String senderId, String recipientId) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("""
+                INSERT INTO transactions (date, time, type, bank_sender_id, bank_recipient_id, account_sender_id,
+                                          account_recipient_id, sum_sender, sum_recipient)
+                VALUES (?, CURRENT_TIME, 'TRANSFER', 1, 1, ?, ?, 1, 1)
+                """)) {
+            preparedStatement.setObject(1, date);
+            preparedStatement.setString(2, senderId);
+            preparedStatement.setString(3, recipientId);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private static void assertIndexScansOnly(List<String> scans) {
+        assertAll(
+                () -> assertThat(scans).isNotEmpty(),
+                () -> assertThat(scans).doesNotContain("Seq Scan")
+        );
+    }
+
+    private static List<String> explainScansOfTransactions(String sql, Object... params) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                preparedStatement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                JsonArray explain = JsonParser.parseString(resultSet.getString(1)).getAsJsonArray();
+                List<String> scans = new ArrayList<>();
+                collectScans(explain.get(0).getAsJsonObject().getAsJsonObject("Plan"), scans);
+                return scans;
+            }
+        }
+    }
+
+    private static void collectScans(JsonObject plan, List<String> scans) {
+        if (plan.has("Relation Name") && TABLE.equals(plan.get("Relation Name").getAsString())) {
+            scans.add(plan.get("Node Type").getAsString());
+        }
+        if (plan.has("Plans")) {
+            for (JsonElement child : plan.getAsJsonArray("Plans")) {
+                collectScans(child.getAsJsonObject(), scans);
+            }
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package ru.clevertec.cleverbank.dao.impl;
 
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,9 +9,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dto.transaction.AmountStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.Transaction;
+import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.builder.transaction.TransactionStatementTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.TransactionTestBuilder;
 
@@ -24,6 +30,7 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +39,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionDAOImplTest {
@@ -39,12 +49,21 @@ class TransactionDAOImplTest {
     @InjectMocks
     private TransactionDAOImpl transactionDAO;
     @Mock
+    private ConnectionManager connectionManager;
+    @Mock
     private Connection connection;
     @Mock
     private PreparedStatement preparedStatement;
     @Mock
     private ResultSet resultSet;
 
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
     @Nested
     class FindByIdTest {
 
@@ -283,6 +302,98 @@ class TransactionDAOImplTest {
 
     }
 
+    @Nested
+    class FindHistoryPageTest {
+
+        private final String senderId = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
+        private final String counterpartyId = "55JN NKDA XKNN Y2QR 3TAX KVJ9 QSAB";
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String sql = "SELECT * FROM transactions WHERE account_sender_id = ? ORDER BY date DESC, id DESC LIMIT ?";
+            TransactionHistoryRequest request = new TransactionHistoryRequest(senderId, null, null, null, null, null,
+                    null, null);
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> transactionDAO.findHistoryPage(request, null, 51));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should bind only account and limit for first page without filters")
+        void testShouldBindOnlyAccountAndLimitForFirstPageWithoutFilters() {
+            String sql = "SELECT * FROM transactions WHERE account_recipient_id = ? "
+                         + "ORDER BY date DESC, id DESC LIMIT ?";
+            Transaction expected = TransactionTestBuilder.aTransaction().build();
+            TransactionHistoryRequest request = new TransactionHistoryRequest(null, senderId, null, null, null, null,
+                    null, null);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedTransactionFromResultSet(expected);
+
+            List<Transaction> actual = transactionDAO.findHistoryPage(request, null, 51);
+
+            assertThat(actual).containsExactly(expected);
+            verify(preparedStatement).setObject(1, senderId);
+            verify(preparedStatement).setObject(2, 51);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should bind filters and continue after cursor")
+        void testShouldBindFiltersAndContinueAfterCursor() {
+            String sql = "SELECT * FROM transactions WHERE account_sender_id = ? AND account_recipient_id = ? "
+                         + "AND type = ? AND date >= ? AND date <= ? AND (date, id) < (?, ?) "
+                         + "ORDER BY date DESC, id DESC LIMIT ?";
+            LocalDate from = LocalDate.of(2023, Month.AUGUST, 1);
+            LocalDate to = LocalDate.of(2023, Month.AUGUST, 31);
+            TransactionCursor cursor = new TransactionCursor(LocalDate.of(2023, Month.AUGUST, 15), 42L);
+            TransactionHistoryRequest request = new TransactionHistoryRequest(senderId, null, Type.TRANSFER, from, to,
+                    counterpartyId, cursor.encode(), 20);
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(false)
+                    .when(resultSet)
+                    .next();
+
+            List<Transaction> actual = transactionDAO.findHistoryPage(request, cursor, 21);
+
+            assertThat(actual).isEmpty();
+            verify(preparedStatement).setObject(1, senderId);
+            verify(preparedStatement).setObject(2, counterpartyId);
+            verify(preparedStatement).setObject(3, Type.TRANSFER.name());
+            verify(preparedStatement).setObject(4, from);
+            verify(preparedStatement).setObject(5, to);
+            verify(preparedStatement).setObject(6, cursor.date());
+            verify(preparedStatement).setObject(7, cursor.id());
+            verify(preparedStatement).setObject(8, 21);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -343,6 +454,65 @@ class TransactionDAOImplTest {
 
     }
 
+    @Nested
+    class SaveAllTest {
+
+        private final String sql = """
+                INSERT INTO transactions
+                (date, time, type, bank_sender_id, bank_recipient_id, account_sender_id, account_recipient_id, sum_sender, sum_recipient)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            List<Transaction> transactions = List.of(TransactionTestBuilder.aTransaction().build());
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+
+            Exception exception = assertThrows(JDBCConnectionException.class, () -> transactionDAO.saveAll(transactions));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should insert all transactions in one batch and set generated ids in order")
+        void testShouldInsertAllTransactionsInOneBatchAndSetGeneratedIds() {
+            List<Transaction> transactions = List.of(
+                    TransactionTestBuilder.aTransaction().withId(null).build(),
+                    TransactionTestBuilder.aTransaction().withId(null).build());
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            doReturn(new int[]{1, 1})
+                    .when(preparedStatement)
+                    .executeBatch();
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .getGeneratedKeys();
+            doReturn(true)
+                    .when(resultSet)
+                    .next();
+            doReturn(7L, 8L)
+                    .when(resultSet)
+                    .getLong(1);
+
+            List<Transaction> actual = transactionDAO.saveAll(transactions);
+
+            verify(preparedStatement, times(2)).addBatch();
+            verify(preparedStatement, never()).executeUpdate();
+            assertThat(actual).extracting(Transaction::getId).containsExactly(7L, 8L);
+        }
+
+    }
+
     @Nested
     class FindAllByPeriodOfDateAndAccountIdTest {
 
@@ -351,12 +521,18 @@ class TransactionDAOImplTest {
         @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
         void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
             String sql = """
-                    SELECT t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    JOIN accounts a ON t.account_sender_id = a.id
+                    JOIN accounts b ON t.account_recipient_id = b.id
+                    JOIN users u ON a.user_id = u.id
+                    WHERE t.date BETWEEN ? AND ? AND t.account_sender_id = ?
+                    UNION ALL
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
                     JOIN accounts a ON t.account_sender_id = a.id
                     JOIN accounts b ON t.account_recipient_id = b.id
                     JOIN users u ON a.user_id = u.id
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_sender_id = ? OR account_recipient_id = ?)
+                    WHERE t.date BETWEEN ? AND ? AND t.account_recipient_id = ? AND t.account_sender_id <> ?
+                    ORDER BY date, id
                     """;
             String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
             LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
@@ -368,7 +544,8 @@ class TransactionDAOImplTest {
                     .prepareStatement(sql);
 
             Exception exception = assertThrows(JDBCConnectionException.class,
-                    () -> transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id));
+                    () -> transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id, statement -> {
+                    }));
             String actualMessage = exception.getMessage();
 
             assertThat(actualMessage).isEqualTo(expectedMessage);
@@ -376,15 +553,21 @@ class TransactionDAOImplTest {
 
         @Test
         @SneakyThrows
-        @DisplayName("test should return list of size one")
-        void testShouldReturnListOfSizeOne() {
+        @DisplayName("test should pass rows to consumer reading them by cursor with fetch size")
+        void testShouldPassRowsToConsumerReadingThemByCursor() {
             String sql = """
-                    SELECT t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
                     JOIN accounts a ON t.account_sender_id = a.id
                     JOIN accounts b ON t.account_recipient_id = b.id
                     JOIN users u ON a.user_id = u.id
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_sender_id = ? OR account_recipient_id = ?)
+                    WHERE t.date BETWEEN ? AND ? AND t.account_sender_id = ?
+                    UNION ALL
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    JOIN accounts a ON t.account_sender_id = a.id
+                    JOIN accounts b ON t.account_recipient_id = b.id
+                    JOIN users u ON a.user_id = u.id
+                    WHERE t.date BETWEEN ? AND ? AND t.account_recipient_id = ? AND t.account_sender_id <> ?
+                    ORDER BY date, id
                     """;
             TransactionStatement statement = TransactionStatementTestBuilder.aTransactionStatement().build();
             String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
@@ -395,7 +578,13 @@ class TransactionDAOImplTest {
             doReturn(preparedStatement)
                     .when(connection)
                     .prepareStatement(sql);
+            doReturn(true)
+                    .when(connection)
+                    .getAutoCommit();
             setMockedDatesAndIdInStatement(from, to, id);
+            doNothing()
+                    .when(preparedStatement)
+                    .setString(7, id);
             doReturn(resultSet)
                     .when(preparedStatement)
                     .executeQuery();
@@ -404,22 +593,33 @@ class TransactionDAOImplTest {
                     .next();
             getMockedTransactionStatementFromResultSet(statement);
 
-            List<TransactionStatement> actual = transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id);
+            List<TransactionStatement> actual = new ArrayList<>();
+
+            transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id, actual::add);
 
             assertThat(actual).hasSize(expectedSize);
+            verify(preparedStatement).setFetchSize(500);
+            verify(connection).setAutoCommit(false);
+            verify(connection).setAutoCommit(true);
         }
 
         @Test
         @SneakyThrows
-        @DisplayName("test should return list that contains expected response")
-        void testShouldReturnListThatContainsExpectedResponse() {
+        @DisplayName("test should pass expected statement to consumer")
+        void testShouldPassExpectedStatementToConsumer() {
             String sql = """
-                    SELECT t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    JOIN accounts a ON t.account_sender_id = a.id
+                    JOIN accounts b ON t.account_recipient_id = b.id
+                    JOIN users u ON a.user_id = u.id
+                    WHERE t.date BETWEEN ? AND ? AND t.account_sender_id = ?
+                    UNION ALL
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
                     JOIN accounts a ON t.account_sender_id = a.id
                     JOIN accounts b ON t.account_recipient_id = b.id
                     JOIN users u ON a.user_id = u.id
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_sender_id = ? OR account_recipient_id = ?)
+                    WHERE t.date BETWEEN ? AND ? AND t.account_recipient_id = ? AND t.account_sender_id <> ?
+                    ORDER BY date, id
                     """;
             TransactionStatement expected = TransactionStatementTestBuilder.aTransactionStatement().build();
             String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
@@ -429,7 +629,13 @@ class TransactionDAOImplTest {
             doReturn(preparedStatement)
                     .when(connection)
                     .prepareStatement(sql);
+            doReturn(true)
+                    .when(connection)
+                    .getAutoCommit();
             setMockedDatesAndIdInStatement(from, to, id);
+            doNothing()
+                    .when(preparedStatement)
+                    .setString(7, id);
             doReturn(resultSet)
                     .when(preparedStatement)
                     .executeQuery();
@@ -438,22 +644,30 @@ class TransactionDAOImplTest {
                     .next();
             getMockedTransactionStatementFromResultSet(expected);
 
-            List<TransactionStatement> actual = transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id);
+            List<TransactionStatement> actual = new ArrayList<>();
 
-            assertThat(actual.get(0)).isEqualTo(expected);
+            transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id, actual::add);
+
+            assertThat(actual).containsExactly(expected);
         }
 
         @Test
         @SneakyThrows
-        @DisplayName("test should return empty list")
-        void testShouldReturnEmptyList() {
+        @DisplayName("test should not call consumer if there are no transactions")
+        void testShouldNotCallConsumerIfThereAreNoTransactions() {
             String sql = """
-                    SELECT t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
+                    JOIN accounts a ON t.account_sender_id = a.id
+                    JOIN accounts b ON t.account_recipient_id = b.id
+                    JOIN users u ON a.user_id = u.id
+                    WHERE t.date BETWEEN ? AND ? AND t.account_sender_id = ?
+                    UNION ALL
+                    SELECT t.id, t.date, t.type, u.lastname, t.sum_sender, t.sum_recipient FROM transactions t
                     JOIN accounts a ON t.account_sender_id = a.id
                     JOIN accounts b ON t.account_recipient_id = b.id
                     JOIN users u ON a.user_id = u.id
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_sender_id = ? OR account_recipient_id = ?)
+                    WHERE t.date BETWEEN ? AND ? AND t.account_recipient_id = ? AND t.account_sender_id <> ?
+                    ORDER BY date, id
                     """;
             String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
             LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
@@ -462,7 +676,13 @@ class TransactionDAOImplTest {
             doReturn(preparedStatement)
                     .when(connection)
                     .prepareStatement(sql);
+            doReturn(true)
+                    .when(connection)
+                    .getAutoCommit();
             setMockedDatesAndIdInStatement(from, to, id);
+            doNothing()
+                    .when(preparedStatement)
+                    .setString(7, id);
             doReturn(resultSet)
                     .when(preparedStatement)
                     .executeQuery();
@@ -470,7 +690,9 @@ class TransactionDAOImplTest {
                     .when(resultSet)
                     .next();
 
-            List<TransactionStatement> actual = transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id);
+            List<TransactionStatement> actual = new ArrayList<>();
+
+            transactionDAO.findAllByPeriodOfDateAndAccountId(from, to, id, actual::add);
 
             assertThat(actual).isEmpty();
         }
@@ -478,21 +700,37 @@ class TransactionDAOImplTest {
     }
 
     @Nested
-    class FindSumOfSpentFundsByPeriodOfDateAndAccountIdTest {
+    class FindSumOfFundsByPeriodOfDateAndAccountIdTest {
+
+        private final String sql = """
+                WITH state AS (
+                    SELECT COALESCE(MAX(compacted_through), '-infinity'::date) AS compacted_through
+                    FROM daily_account_totals_state
+                )
+                SELECT SUM(spent) AS spent, SUM(received) AS received FROM (
+                    SELECT d.spent, d.received FROM daily_account_totals d, state s
+                    WHERE d.date BETWEEN ? AND LEAST(?, s.compacted_through) AND d.account_id = ?
+                    UNION ALL
+                    SELECT SUM(sum_sender) FILTER (WHERE side = 'SENDER' AND type IN ('TRANSFER', 'EXCHANGE')
+                                                   OR side = 'RECIPIENT' AND type = 'WITHDRAWAL'),
+                           SUM(sum_recipient) FILTER (WHERE side = 'RECIPIENT' AND type != 'WITHDRAWAL')
+                    FROM (
+                        SELECT 'SENDER' AS side, type, sum_sender, sum_recipient FROM transactions, state s
+                        WHERE date BETWEEN GREATEST(?, s.compacted_through + 1) AND ? AND account_sender_id = ?
+                        UNION ALL
+                        SELECT 'RECIPIENT' AS side, type, sum_sender, sum_recipient FROM transactions, state s
+                        WHERE date BETWEEN GREATEST(?, s.compacted_through + 1) AND ? AND account_recipient_id = ?
+                    ) AS account_transactions
+                ) AS account_totals
+                """;
+        private final String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
+        private final LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
+        private final LocalDate to = LocalDate.of(2020, Month.MAY, 12);
 
         @Test
         @SneakyThrows
         @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
         void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
-            String sql = """
-                    SELECT SUM(sum_sender) AS spent FROM transactions
-                    WHERE date BETWEEN ? AND ?
-                    AND ((account_sender_id = ? AND type IN ('TRANSFER', 'EXCHANGE'))
-                    OR (account_recipient_id = ? AND type = 'WITHDRAWAL'))
-                    """;
-            String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
-            LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
-            LocalDate to = LocalDate.of(2020, Month.MAY, 12);
             String expectedMessage = "Sorry! We got Server database connection problems";
 
             doThrow(new SQLException(expectedMessage))
@@ -500,7 +738,7 @@ class TransactionDAOImplTest {
                     .prepareStatement(sql);
 
             Exception exception = assertThrows(JDBCConnectionException.class,
-                    () -> transactionDAO.findSumOfSpentFundsByPeriodOfDateAndAccountId(from, to, id));
+                    () -> transactionDAO.findSumOfFundsByPeriodOfDateAndAccountId(from, to, id));
             String actualMessage = exception.getMessage();
 
             assertThat(actualMessage).isEqualTo(expectedMessage);
@@ -508,107 +746,69 @@ class TransactionDAOImplTest {
 
         @Test
         @SneakyThrows
-        @DisplayName("test should return expected response")
-        void testShouldReturnExpectedResponse() {
-            String sql = """
-                    SELECT SUM(sum_sender) AS spent FROM transactions
-                    WHERE date BETWEEN ? AND ?
-                    AND ((account_sender_id = ? AND type IN ('TRANSFER', 'EXCHANGE'))
-                    OR (account_recipient_id = ? AND type = 'WITHDRAWAL'))
-                    """;
-            BigDecimal expected = BigDecimal.TEN;
-            String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
-            LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
-            LocalDate to = LocalDate.of(2020, Month.MAY, 12);
+        @DisplayName("test should return spent and received funds from one query")
+        void testShouldReturnSpentAndReceivedFundsFromOneQuery() {
+            AmountStatement expected = new AmountStatement(BigDecimal.TEN, BigDecimal.ONE);
 
             doReturn(preparedStatement)
                     .when(connection)
                     .prepareStatement(sql);
             setMockedDatesAndIdInStatement(from, to, id);
+            doNothing()
+                    .when(preparedStatement)
+                    .setObject(7, from);
+            doNothing()
+                    .when(preparedStatement)
+                    .setObject(8, to);
+            doNothing()
+                    .when(preparedStatement)
+                    .setString(9, id);
             doReturn(resultSet)
                     .when(preparedStatement)
                     .executeQuery();
             doReturn(true)
                     .when(resultSet)
                     .next();
-            doReturn(expected)
+            doReturn(expected.spentFunds())
                     .when(resultSet)
                     .getBigDecimal("spent");
+            doReturn(expected.receivedFunds())
+                    .when(resultSet)
+                    .getBigDecimal("received");
 
-            BigDecimal actual = transactionDAO.findSumOfSpentFundsByPeriodOfDateAndAccountId(from, to, id);
+            AmountStatement actual = transactionDAO.findSumOfFundsByPeriodOfDateAndAccountId(from, to, id);
 
             assertThat(actual).isEqualTo(expected);
-        }
-
-    }
-
-    @Nested
-    class FindSumOfReceivedFundsByPeriodOfDateAndAccountIdTest {
-
-        @Test
-        @SneakyThrows
-        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
-        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
-            String sql = """
-                    SELECT SUM(sum_recipient) AS received FROM transactions
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_recipient_id = ? AND type != 'WITHDRAWAL')
-                    """;
-            String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
-            LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
-            LocalDate to = LocalDate.of(2020, Month.MAY, 12);
-            String expectedMessage = "Sorry! We got Server database connection problems";
-
-            doThrow(new SQLException(expectedMessage))
-                    .when(connection)
-                    .prepareStatement(sql);
-
-            Exception exception = assertThrows(JDBCConnectionException.class,
-                    () -> transactionDAO.findSumOfReceivedFundsByPeriodOfDateAndAccountId(from, to, id));
-            String actualMessage = exception.getMessage();
-
-            assertThat(actualMessage).isEqualTo(expectedMessage);
+            verify(connection, times(1)).prepareStatement(sql);
         }
 
         @Test
         @SneakyThrows
-        @DisplayName("test should return expected response")
-        void testShouldReturnExpectedResponse() {
-            String sql = """
-                    SELECT SUM(sum_recipient) AS received FROM transactions
-                    WHERE date BETWEEN ? AND ?
-                    AND (account_recipient_id = ? AND type != 'WITHDRAWAL')
-                    """;
-            BigDecimal expected = BigDecimal.TEN;
-            String id = "OYXM ZJ38 HR36 FQAO C21J 6ERX SEJE";
-            LocalDate from = LocalDate.of(2020, Month.APRIL, 12);
-            LocalDate to = LocalDate.of(2020, Month.MAY, 12);
-
+        @DisplayName("test should return null sums if there are no transactions")
+        void testShouldReturnNullSumsIfThereAreNoTransactions() {
             doReturn(preparedStatement)
                     .when(connection)
                     .prepareStatement(sql);
+            setMockedDatesAndIdInStatement(from, to, id);
             doNothing()
                     .when(preparedStatement)
-                    .setObject(1, from);
+                    .setObject(7, from);
             doNothing()
                     .when(preparedStatement)
-                    .setObject(2, to);
+                    .setObject(8, to);
             doNothing()
                     .when(preparedStatement)
-                    .setString(3, id);
+                    .setString(9, id);
             doReturn(resultSet)
                     .when(preparedStatement)
                     .executeQuery();
             doReturn(true)
                     .when(resultSet)
                     .next();
-            doReturn(expected)
-                    .when(resultSet)
-                    .getBigDecimal("received");
 
-            BigDecimal actual = transactionDAO.findSumOfReceivedFundsByPeriodOfDateAndAccountId(from, to, id);
+            AmountStatement actual = transactionDAO.findSumOfFundsByPeriodOfDateAndAccountId(from, to, id);
 
-            assertThat(actual).isEqualTo(expected);
+            assertThat(actual).isEqualTo(new AmountStatement(null, null));
         }
 
     }
@@ -625,7 +825,13 @@ class TransactionDAOImplTest {
                 .setString(3, id);
         doNothing()
                 .when(preparedStatement)
-                .setString(4, id);
+                .setObject(4, from);
+        doNothing()
+                .when(preparedStatement)
+                .setObject(5, to);
+        doNothing()
+                .when(preparedStatement)
+                .setString(6, id);
     }
 
     private void getMockedTransactionStatementFromResultSet(TransactionStatement statement) throws SQLException {
@@ -1,6 +1,7 @@
 package ru.clevertec.cleverbank.dao.impl;
 
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.user.UserTestBuilder;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.model.User;
 
 import java.sql.Connection;
@@ -17,6 +20,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class UserDAOImplTest {
@@ -32,12 +39,21 @@ class UserDAOImplTest {
     @InjectMocks
     private UserDAOImpl userDAO;
     @Mock
+    private ConnectionManager connectionManager;
+    @Mock
     private Connection connection;
     @Mock
     private PreparedStatement preparedStatement;
     @Mock
     private ResultSet resultSet;
 
+    @BeforeEach
+    void setUp() {
+        doReturn(connection)
+                .when(connectionManager)
+                .getConnection();
+    }
+
     @Nested
     class FindByIdTest {
 
@@ -181,6 +197,151 @@ class UserDAOImplTest {
 
     }
 
+    @Nested
+    class FindAllUpdatedSinceTest {
+
+        private final String sql = "SELECT * FROM users WHERE updated_at >= ?";
+        private final OffsetDateTime since = OffsetDateTime.parse("2023-08-30T12:00:00Z");
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return empty list if there is no connection")
+        void testShouldReturnEmptyListIfThereIsNoConnection() {
+            doThrow(new SQLException("Sorry! We got Server database connection problems"))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            List<User> actual = userDAO.findAllUpdatedSince(since);
+
+            assertThat(actual).isEmpty();
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should bind since and return list that contains expected response")
+        void testShouldBindSinceAndReturnListThatContainsExpectedResponse() {
+            User expected = UserTestBuilder.aUser().build();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedUserFromResultSet(expected);
+
+            List<User> actual = userDAO.findAllUpdatedSince(since);
+
+            verify(preparedStatement).setObject(1, since);
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
+    @Nested
+    class FindAllIdsTest {
+
+        private final String sql = "SELECT id FROM users";
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionIfThereIsNoConnection() {
+            doThrow(new SQLException("Sorry! We got Server database connection problems"))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            assertThrows(JDBCConnectionException.class, () -> userDAO.findAllIds());
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should return ids of all users")
+        void testShouldReturnIdsOfAllUsers() {
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, true, false)
+                    .when(resultSet)
+                    .next();
+            doReturn(1L, 3L)
+                    .when(resultSet)
+                    .getLong("id");
+
+            List<Long> actual = userDAO.findAllIds();
+
+            assertThat(actual).containsExactly(1L, 3L);
+        }
+
+    }
+
+    @Nested
+    class FindAllAfterTest {
+
+        private final String sql = """
+                SELECT * FROM users
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should throw JDBCConnectionException with expected message if there is no connection")
+        void testShouldThrowJDBCConnectionExceptionWithExpectedMessage() {
+            String expectedMessage = "Sorry! We got Server database connection problems";
+
+            doThrow(new SQLException(expectedMessage))
+                    .when(connection)
+                    .prepareStatement(sql);
+
+            Exception exception = assertThrows(JDBCConnectionException.class,
+                    () -> userDAO.findAllAfter(null, null, user -> {
+                    }));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should pass rows to consumer reading them by cursor with fetch size")
+        void testShouldPassRowsToConsumerReadingThemByCursor() {
+            User expected = UserTestBuilder.aUser().build();
+            List<User> actual = new ArrayList<>();
+
+            doReturn(preparedStatement)
+                    .when(connection)
+                    .prepareStatement(sql);
+            doReturn(true)
+                    .when(connection)
+                    .getAutoCommit();
+            doReturn(resultSet)
+                    .when(preparedStatement)
+                    .executeQuery();
+            doReturn(true, false)
+                    .when(resultSet)
+                    .next();
+            getMockedUserFromResultSet(expected);
+
+            userDAO.findAllAfter(null, 10, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+            verify(preparedStatement).setLong(1, 0L);
+            verify(preparedStatement).setObject(2, 10, Types.INTEGER);
+            verify(preparedStatement).setFetchSize(500);
+            verify(connection).setAutoCommit(false);
+            verify(connection).setAutoCommit(true);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -250,7 +411,8 @@ class UserDAOImplTest {
         void testShouldThrowSQLExceptionWithExpectedMessage() {
             String sql = """
                     UPDATE users
-                    SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?
+                    SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?,
+                        updated_at = now()
                     WHERE id = ?
                     """;
             User user = UserTestBuilder.aUser().build();
@@ -275,7 +437,8 @@ class UserDAOImplTest {
         void testShouldReturnExpectedResponse() {
             String sql = """
                     UPDATE users
-                    SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?
+                    SET lastname = ?, firstname = ?, surname = ?, register_date = ?, mobile_number = ?,
+                        updated_at = now()
                     WHERE id = ?
                     """;
             User user = UserTestBuilder.aUser().build();
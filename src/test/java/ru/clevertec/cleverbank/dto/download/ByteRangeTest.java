@@ -0,0 +1,58 @@
+package ru.clevertec.cleverbank.dto.download;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ByteRangeTest {
+
+    private static final long SIZE = 100;
+
+    @ParameterizedTest
+    @CsvSource({
+            "bytes=0-9, 0, 9",
+            "bytes=90-, 90, 99",
+            "bytes=90-1000, 90, 99",
+            "bytes=-10, 90, 99",
+            "bytes=-1000, 0, 99",
+            "' bytes=5-5 ', 5, 5"
+    })
+    @DisplayName("test parse should return satisfiable range limited by size of file")
+    void testParseShouldReturnSatisfiableRangeLimitedBySizeOfFile(String header, long start, long end) {
+        Optional<ByteRange> actual = ByteRange.parse(header, SIZE);
+
+        assertAll(
+                () -> assertThat(actual).contains(new ByteRange(start, end)),
+                () -> assertThat(actual.get().isSatisfiable(SIZE)).isTrue(),
+                () -> assertThat(actual.get().length()).isEqualTo(end - start + 1)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=100-", "bytes=150-200", "bytes=-0"})
+    @DisplayName("test parse should return unsatisfiable range if it starts after end of file")
+    void testParseShouldReturnUnsatisfiableRangeIfItStartsAfterEndOfFile(String header) {
+        Optional<ByteRange> actual = ByteRange.parse(header, SIZE);
+
+        assertThat(actual).hasValueSatisfying(range -> assertThat(range.isSatisfiable(SIZE)).isFalse());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "bytes=-", "bytes=9-0", "bytes=0-1,5-6", "items=0-9", "bytes=a-b",
+            "bytes=99999999999999999999-"})
+    @DisplayName("test parse should ignore absent, malformed and multiple ranges")
+    void testParseShouldIgnoreAbsentMalformedAndMultipleRanges(String header) {
+        Optional<ByteRange> actual = ByteRange.parse(header, SIZE);
+
+        assertThat(actual).isEmpty();
+    }
+
+}
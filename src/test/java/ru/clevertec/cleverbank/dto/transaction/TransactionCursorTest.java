@@ -0,0 +1,55 @@
+package ru.clevertec.cleverbank.dto.transaction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.clevertec.cleverbank.builder.transaction.TransactionTestBuilder;
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionCursorTest {
+
+    @Test
+    @DisplayName("test of should point to date and id of transaction")
+    void testOfShouldPointToDateAndIdOfTransaction() {
+        Transaction transaction = TransactionTestBuilder.aTransaction().build();
+
+        TransactionCursor actual = TransactionCursor.of(transaction);
+
+        assertThat(actual).isEqualTo(new TransactionCursor(transaction.getDate(), transaction.getId()));
+    }
+
+    @Test
+    @DisplayName("test decode should return cursor that was encoded into compact token")
+    void testDecodeShouldReturnEncodedCursor() {
+        TransactionCursor expected = new TransactionCursor(LocalDate.of(2023, Month.AUGUST, 30), 123_456_789L);
+
+        String token = expected.encode();
+        TransactionCursor actual = TransactionCursor.decode(token);
+
+        assertAll(
+                () -> assertThat(actual).isEqualTo(expected),
+                () -> assertThat(token).hasSize(16).matches("[A-Za-z0-9_-]+")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not a token", "AAB7CgAAAAE", "AAB7CgAAAAAAAAABAAAA"})
+    @DisplayName("test decode should throw BadPageTokenException with expected message if token is invalid")
+    void testDecodeShouldThrowBadPageTokenExceptionIfTokenIsInvalid(String token) {
+        String expectedMessage = "Page token " + token + " is invalid";
+
+        Exception exception = assertThrows(BadPageTokenException.class, () -> TransactionCursor.decode(token));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+    }
+
+}
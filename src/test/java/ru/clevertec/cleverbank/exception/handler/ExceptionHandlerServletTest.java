@@ -16,11 +16,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.exception.badrequest.AccountClosedException;
 import ru.clevertec.cleverbank.exception.badrequest.BadRequestException;
 import ru.clevertec.cleverbank.exception.conflict.LocalDateParseException;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
 import ru.clevertec.cleverbank.exception.conflict.ValidationException;
 import ru.clevertec.cleverbank.exception.internalservererror.InternalServerErrorException;
 import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
 import ru.clevertec.cleverbank.exception.notfound.NotFoundException;
 import ru.clevertec.cleverbank.exception.notfound.UserNotFoundException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ServiceUnavailableException;
 
 import java.io.PrintWriter;
 
@@ -176,6 +179,39 @@ class ExceptionHandlerServletTest {
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should capture expected json from PrintWriter and status 409 from OptimisticLockException")
+    void testServiceShouldCaptureExpectedJsonAndStatus409FromOptimisticLockException() {
+        String exceptionMessage = "Account with ID 1 was modified concurrently, expected version 0";
+        ExceptionResponse response = new ExceptionResponse(exceptionMessage);
+        ValidationException validationException = new OptimisticLockException(exceptionMessage);
+        String expectedJson = gson.toJson(response);
+
+        doNothing()
+                .when(resp)
+                .setContentType("application/json");
+        doNothing()
+                .when(resp)
+                .setCharacterEncoding("UTF-8");
+        doReturn(validationException)
+                .when(req)
+                .getAttribute(ERROR_EXCEPTION);
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        exceptionHandlerServlet.service(req, resp);
+
+        verify(resp).setStatus(409);
+        verify(printWriter).print(captor.capture());
+        verify(printWriter).flush();
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).isEqualTo(expectedJson);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("test service should capture expected json from PrintWriter and status 500 from InternalServerErrorException")
@@ -209,4 +245,38 @@ class ExceptionHandlerServletTest {
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should capture expected json from PrintWriter and status 503 from ServiceUnavailableException")
+    void testServiceShouldCaptureExpectedJsonAndStatus503FromServiceUnavailableException() {
+        String exceptionMessage = "Server is overloaded, 20 transactions are in progress and 200 are waiting. Please try again later";
+        ExceptionResponse response = new ExceptionResponse(exceptionMessage);
+        ServiceUnavailableException serviceUnavailableException = new ExecutorOverloadedException(exceptionMessage);
+        String expectedJson = gson.toJson(response);
+
+        doNothing()
+                .when(resp)
+                .setContentType("application/json");
+        doNothing()
+                .when(resp)
+                .setCharacterEncoding("UTF-8");
+        doReturn(serviceUnavailableException)
+                .when(req)
+                .getAttribute(ERROR_EXCEPTION);
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        exceptionHandlerServlet.service(req, resp);
+
+        verify(resp).setStatus(503);
+        verify(resp).setHeader("Retry-After", "1");
+        verify(printWriter).print(captor.capture());
+        verify(printWriter).flush();
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).isEqualTo(expectedJson);
+    }
+
 }
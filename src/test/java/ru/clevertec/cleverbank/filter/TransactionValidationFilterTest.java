@@ -27,6 +27,7 @@ import ru.clevertec.cleverbank.model.Type;
 
 import java.io.BufferedReader;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -153,6 +154,60 @@ class TransactionValidationFilterTest {
         );
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doFilter PUT should capture list of TransactionRequest values for batch")
+    void testDoFilterPUTShouldCaptureTransferBatchRequestValues() {
+        List<TransactionRequest> expectedRequests = List.of(
+                TransactionRequestTestBuilder.aTransactionRequest()
+                        .withType(Type.TRANSFER)
+                        .build(),
+                TransactionRequestTestBuilder.aTransactionRequest()
+                        .withSum(BigDecimal.TEN)
+                        .withType(Type.TRANSFER)
+                        .build());
+        String json = gson.toJson(expectedRequests);
+
+        doReturn("PUT")
+                .when(req)
+                .getMethod();
+        doReturn(bufferedReader)
+                .when(req)
+                .getReader();
+        doReturn(json, (Object) null)
+                .when(bufferedReader)
+                .readLine();
+
+        transactionValidationFilter.doFilter(request, response, chain);
+
+        verify(req).setAttribute("transferBatchRequest", expectedRequests);
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doFilter PUT should throw ValidationException with Batch can not be empty message")
+    void testDoFilterPUTShouldThrowValidationExceptionWithBatchCanNotBeEmptyMessage() {
+        String expectedMessage = """
+                {"violations":[{"fieldName":"transactions","exception":"Batch can not be empty"}]}""";
+
+        doReturn("PUT")
+                .when(req)
+                .getMethod();
+        doReturn(bufferedReader)
+                .when(req)
+                .getReader();
+        doReturn("[]", (Object) null)
+                .when(bufferedReader)
+                .readLine();
+
+        Exception exception = assertThrows(ValidationException.class,
+                () -> transactionValidationFilter.doFilter(request, response, chain));
+        String actualMessage = exception.getMessage();
+
+        assertThat(actualMessage).isEqualTo(expectedMessage);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("test doFilter should capture TransactionStatementRequest values")
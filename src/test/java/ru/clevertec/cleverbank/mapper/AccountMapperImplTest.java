@@ -113,6 +113,7 @@ class AccountMapperImplTest {
             Bank bank = BankTestBuilder.aBank().build();
             Account expected = AccountTestBuilder.aAccount()
                     .withId(null)
+                    .withVersion(null)
                     .withCurrency(request.currency())
                     .withBalance(request.balance())
                     .withOpeningDate(LocalDate.now())
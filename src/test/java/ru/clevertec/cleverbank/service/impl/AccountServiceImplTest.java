@@ -11,17 +11,26 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.account.AccountRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.account.AccountResponseTestBuilder;
 import ru.clevertec.cleverbank.builder.account.AccountTestBuilder;
 import ru.clevertec.cleverbank.builder.bank.BankTestBuilder;
 import ru.clevertec.cleverbank.builder.user.UserTestBuilder;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.impl.AccountCacheImpl;
+import ru.clevertec.cleverbank.cache.impl.DisabledAccountCache;
 import ru.clevertec.cleverbank.dao.AccountDAO;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.TransactionManagerImpl;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.account.AccountRequest;
 import ru.clevertec.cleverbank.dto.account.AccountResponse;
+import ru.clevertec.cleverbank.exception.badrequest.InsufficientFundsException;
 import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
+import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
 import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
 import ru.clevertec.cleverbank.mapper.AccountMapper;
 import ru.clevertec.cleverbank.model.Account;
@@ -31,13 +40,24 @@ import ru.clevertec.cleverbank.service.BankService;
 import ru.clevertec.cleverbank.service.UserService;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +73,10 @@ class AccountServiceImplTest {
     private BankService bankService;
     @Mock
     private AccountMapper accountMapper;
+    @Spy
+    private AccountCache accountCache = new DisabledAccountCache();
+    @Mock
+    private TransactionManager transactionManager;
     @Captor
     private ArgumentCaptor<Account> captor;
 
@@ -88,6 +112,7 @@ class AccountServiceImplTest {
             AccountResponse actual = accountService.findByIdResponse(id);
 
             assertThat(actual).isEqualTo(expected);
+            verify(accountCache).get(eq(id), any());
         }
 
     }
@@ -192,6 +217,34 @@ class AccountServiceImplTest {
 
     }
 
+    @Nested
+    class FindAllResponsesPageTest {
+
+        @Test
+        @DisplayName("test should pass page of responses to consumer")
+        void testShouldPassPageOfResponsesToConsumer() {
+            AccountResponse expected = AccountResponseTestBuilder.aAccountResponse().build();
+            Account account = AccountTestBuilder.aAccount().build();
+            List<AccountResponse> actual = new ArrayList<>();
+
+            doAnswer(invocation -> {
+                Consumer<Account> consumer = invocation.getArgument(2);
+                consumer.accept(account);
+                return null;
+            })
+                    .when(accountDAO)
+                    .findAllAfter(eq("HK5H 7CEV LQKJ XSF6 WGEL 5AMZ QXVA"), eq(20), any());
+            doReturn(expected)
+                    .when(accountMapper)
+                    .toResponse(account);
+
+            accountService.findAllResponses("HK5H 7CEV LQKJ XSF6 WGEL 5AMZ QXVA", 20, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -250,6 +303,8 @@ class AccountServiceImplTest {
         @Test
         @DisplayName("test should return updated response")
         void testShouldReturnUpdatedResponse() {
+            runAfterCompletionAtOnce();
+
             BigDecimal newBalance = BigDecimal.valueOf(1);
             Account expected = AccountTestBuilder.aAccount()
                     .withBalance(newBalance)
@@ -262,11 +317,14 @@ class AccountServiceImplTest {
             Account actual = accountService.updateBalance(expected, newBalance);
 
             assertThat(actual).isEqualTo(expected);
+            verify(accountCache).invalidate(expected.getId());
         }
 
         @Test
         @DisplayName("test should throw FailedConnectionException with expected message")
         void testShouldThrowFailedConnectionExceptionWithExpectedMessage() {
+            runAfterCompletionAtOnce();
+
             Account account = AccountTestBuilder.aAccount().build();
             BigDecimal balance = BigDecimal.TEN;
             String expectedMessage = "Failed to update balance " + balance;
@@ -275,6 +333,107 @@ class AccountServiceImplTest {
                     () -> accountService.updateBalance(account, balance));
             String actualMessage = exception.getMessage();
 
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+            verify(accountCache).invalidate(account.getId());
+        }
+
+    }
+
+    @Nested
+    class AddToBalanceTest {
+
+        @Test
+        @DisplayName("test should return account with balance returned by database")
+        void testShouldReturnAccountWithBalanceReturnedByDatabase() {
+            runAfterCompletionAtOnce();
+
+            Account account = AccountTestBuilder.aAccount().build();
+            BigDecimal delta = BigDecimal.TEN.negate();
+            BigDecimal expected = BigDecimal.valueOf(4990);
+
+            doReturn(Optional.of(expected))
+                    .when(accountDAO)
+                    .addToBalance(account.getId(), delta);
+
+            Account actual = accountService.addToBalance(account, delta);
+
+            assertThat(actual.getBalance()).isEqualTo(expected);
+            verify(accountCache).invalidate(account.getId());
+        }
+
+        @Test
+        @DisplayName("test should throw InsufficientFundsException with expected message")
+        void testShouldThrowInsufficientFundsExceptionWithExpectedMessage() {
+            Account account = AccountTestBuilder.aAccount().build();
+            BigDecimal delta = BigDecimal.valueOf(-10000);
+            String expectedMessage = "Insufficient funds in the account! You want to change balance 10000, but you have only "
+                                     + account.getBalance();
+
+            doReturn(Optional.empty())
+                    .when(accountDAO)
+                    .addToBalance(account.getId(), delta);
+
+            Exception exception = assertThrows(InsufficientFundsException.class,
+                    () -> accountService.addToBalance(account, delta));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+    }
+
+    @Nested
+    class FindAllByIdsForUpdateTest {
+
+        @Test
+        @DisplayName("test should return accounts locked by dao")
+        void testShouldReturnAccountsLockedByDao() {
+            Account account = AccountTestBuilder.aAccount().build();
+            Set<String> ids = Set.of(account.getId());
+            List<Account> expected = List.of(account);
+
+            doReturn(expected)
+                    .when(accountDAO)
+                    .findAllByIdsForUpdate(ids);
+
+            List<Account> actual = accountService.findAllByIdsForUpdate(ids);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+    }
+
+    @Nested
+    class AddToBalancesTest {
+
+        @Test
+        @DisplayName("test should not throw if all balances are updated")
+        void testShouldNotThrowIfAllBalancesAreUpdated() {
+            runAfterCompletionAtOnce();
+
+            Map<String, BigDecimal> deltas = Map.of("55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9", BigDecimal.TEN);
+
+            doReturn(true)
+                    .when(accountDAO)
+                    .addToBalances(deltas);
+
+            assertDoesNotThrow(() -> accountService.addToBalances(deltas));
+            verify(accountCache).invalidateAll(deltas.keySet());
+        }
+
+        @Test
+        @DisplayName("test should throw TransactionException with expected message if any balance is not updated")
+        void testShouldThrowTransactionExceptionIfAnyBalanceIsNotUpdated() {
+            Map<String, BigDecimal> deltas = Map.of("55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9", BigDecimal.TEN);
+            String expectedMessage = "Failed to update balances of accounts [55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9]";
+
+            doReturn(false)
+                    .when(accountDAO)
+                    .addToBalances(deltas);
+
+            Exception exception = assertThrows(TransactionException.class, () -> accountService.addToBalances(deltas));
+            String actualMessage = exception.getMessage();
+
             assertThat(actualMessage).isEqualTo(expectedMessage);
         }
 
@@ -305,6 +464,7 @@ class AccountServiceImplTest {
             AccountResponse actual = accountService.closeAccount(account.getId());
 
             assertThat(actual).isEqualTo(expected);
+            verify(accountCache).invalidate(account.getId());
         }
 
         @Test
@@ -354,6 +514,7 @@ class AccountServiceImplTest {
             DeleteResponse actual = accountService.delete(account.getId());
 
             assertThat(actual).isEqualTo(expected);
+            verify(accountCache).invalidate(account.getId());
         }
 
         @Test
@@ -382,4 +543,57 @@ class AccountServiceImplTest {
                         .build()));
     }
 
+    @Nested
+    class ReadBeforeCommitTest {
+
+        @Mock
+        private ConnectionManager connectionManager;
+        @Mock
+        private Connection connection;
+
+        @Test
+        @DisplayName("test should not keep balance read by other thread before commit of balance change")
+        void testShouldNotKeepBalanceReadByOtherThreadBeforeCommitOfBalanceChange() {
+            BigDecimal delta = BigDecimal.TEN;
+            Account before = AccountTestBuilder.aAccount().build();
+            Account after = AccountTestBuilder.aAccount()
+                    .withBalance(before.getBalance().add(delta))
+                    .build();
+            String id = before.getId();
+            TransactionManager realTransactionManager = new TransactionManagerImpl(connectionManager);
+            AccountServiceImpl service = new AccountServiceImpl(accountDAO, userService, bankService, accountMapper,
+                    new AccountCacheImpl("read-before-commit", 10, 60), realTransactionManager);
+
+            doReturn(connection)
+                    .when(connectionManager)
+                    .bindConnection();
+            doReturn(Optional.of(after.getBalance()))
+                    .when(accountDAO)
+                    .addToBalance(id, delta);
+            doReturn(Optional.of(before), Optional.of(after))
+                    .when(accountDAO)
+                    .findById(id);
+
+            Account readBeforeCommit = realTransactionManager.doInTransaction(() -> {
+                service.addToBalance(AccountTestBuilder.aAccount().build(), delta);
+                return CompletableFuture.supplyAsync(() -> service.findById(id)).join();
+            });
+            Account readAfterCommit = service.findById(id);
+
+            assertThat(readBeforeCommit.getBalance()).isEqualTo(before.getBalance());
+            assertThat(readAfterCommit.getBalance()).isEqualTo(after.getBalance());
+            verify(accountDAO, times(2)).findById(id);
+        }
+
+    }
+
+    private void runAfterCompletionAtOnce() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        })
+                .when(transactionManager)
+                .afterCompletion(any());
+    }
+
 }
@@ -9,12 +9,18 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.bank.BankRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.bank.BankResponseTestBuilder;
 import ru.clevertec.cleverbank.builder.bank.BankTestBuilder;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.cache.impl.DisabledAccountCache;
+import ru.clevertec.cleverbank.cache.impl.ReferenceCacheImpl;
 import ru.clevertec.cleverbank.dao.BankDAO;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.bank.BankRequest;
@@ -24,13 +30,21 @@ import ru.clevertec.cleverbank.exception.notfound.BankNotFoundException;
 import ru.clevertec.cleverbank.mapper.BankMapper;
 import ru.clevertec.cleverbank.model.Bank;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +56,11 @@ class BankServiceImplTest {
     private BankDAO bankDAO;
     @Mock
     private BankMapper bankMapper;
+    @Spy
+    private ReferenceCache<Long, Bank> bankCache = new ReferenceCacheImpl<>("bankServiceTest", Bank::getId,
+            id -> bankDAO.findById(id), List::of, since -> List.of(), List::of, Duration.ZERO, Clock.systemUTC());
+    @Spy
+    private AccountCache accountCache = new DisabledAccountCache();
     @Captor
     private ArgumentCaptor<Bank> captor;
 
@@ -135,6 +154,34 @@ class BankServiceImplTest {
 
     }
 
+    @Nested
+    class FindAllPageTest {
+
+        @Test
+        @DisplayName("test should pass page of responses to consumer")
+        void testShouldPassPageOfResponsesToConsumer() {
+            BankResponse expected = BankResponseTestBuilder.aBankResponse().build();
+            Bank bank = BankTestBuilder.aBank().build();
+            List<BankResponse> actual = new ArrayList<>();
+
+            doAnswer(invocation -> {
+                Consumer<Bank> consumer = invocation.getArgument(2);
+                consumer.accept(bank);
+                return null;
+            })
+                    .when(bankDAO)
+                    .findAllAfter(eq(1L), eq(20), any());
+            doReturn(expected)
+                    .when(bankMapper)
+                    .toResponse(bank);
+
+            bankService.findAll(1L, 20, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -163,6 +210,7 @@ class BankServiceImplTest {
 
             Bank bankCaptor = captor.getValue();
             assertThat(bankCaptor).isEqualTo(expected);
+            verify(bankCache).put(expected);
         }
 
         @Test
@@ -214,6 +262,7 @@ class BankServiceImplTest {
             BankResponse actual = bankService.update(bank.getId(), request);
 
             assertThat(actual).isEqualTo(expected);
+            verify(bankCache).put(bank);
         }
 
         @Test
@@ -257,7 +306,12 @@ class BankServiceImplTest {
 
             DeleteResponse actual = bankService.delete(bank.getId());
 
+            InOrder inOrder = inOrder(bankDAO, bankCache, accountCache);
+
             assertThat(actual).isEqualTo(expected);
+            inOrder.verify(bankDAO).delete(bank.getId());
+            inOrder.verify(bankCache).invalidate(bank.getId());
+            inOrder.verify(accountCache).invalidateAll();
         }
 
         @Test
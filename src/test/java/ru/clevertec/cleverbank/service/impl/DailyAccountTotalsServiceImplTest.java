@@ -0,0 +1,167 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.DailyAccountTotalsDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsCheckResponse;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsMismatch;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsRebuildResponse;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DailyAccountTotalsServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, Month.AUGUST, 30);
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    private DailyAccountTotalsServiceImpl dailyAccountTotalsService;
+    @Mock
+    private DailyAccountTotalsDAO dailyAccountTotalsDAO;
+    @Mock
+    private TransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        dailyAccountTotalsService = new DailyAccountTotalsServiceImpl(dailyAccountTotalsDAO, transactionManager,
+                clock);
+    }
+
+    @Nested
+    class CompactTest {
+
+        @Test
+        @DisplayName("test should compact all days before today on first run")
+        void testShouldCompactAllDaysBeforeTodayOnFirstRun() {
+            doReturn(Optional.empty())
+                    .when(dailyAccountTotalsDAO)
+                    .findCompactedThrough();
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+
+            LocalDate actual = dailyAccountTotalsService.compact();
+
+            assertThat(actual).isEqualTo(YESTERDAY);
+            verify(dailyAccountTotalsDAO).compact(null, YESTERDAY);
+            verify(dailyAccountTotalsDAO).saveCompactedThrough(YESTERDAY);
+        }
+
+        @Test
+        @DisplayName("test should compact again last compacted day to pick up late transactions")
+        void testShouldCompactAgainLastCompactedDayToPickUpLateTransactions() {
+            LocalDate compactedThrough = TODAY.minusDays(3);
+
+            doReturn(Optional.of(compactedThrough))
+                    .when(dailyAccountTotalsDAO)
+                    .findCompactedThrough();
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+
+            dailyAccountTotalsService.compact();
+
+            verify(dailyAccountTotalsDAO).compact(compactedThrough, YESTERDAY);
+            verify(dailyAccountTotalsDAO).saveCompactedThrough(YESTERDAY);
+        }
+
+        @Test
+        @DisplayName("test should not compact if stored day is after yesterday")
+        void testShouldNotCompactIfStoredDayIsAfterYesterday() {
+            doReturn(Optional.of(TODAY))
+                    .when(dailyAccountTotalsDAO)
+                    .findCompactedThrough();
+
+            LocalDate actual = dailyAccountTotalsService.compact();
+
+            assertThat(actual).isEqualTo(TODAY);
+            verifyNoMoreInteractions(dailyAccountTotalsDAO);
+            verifyNoInteractions(transactionManager);
+        }
+
+    }
+
+    @Test
+    @DisplayName("test rebuild should delete totals and compact all closed days again")
+    void testRebuildShouldDeleteTotalsAndCompactAllClosedDaysAgain() {
+        DailyTotalsRebuildResponse expected = new DailyTotalsRebuildResponse(YESTERDAY, 42);
+
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(transactionManager)
+                .doInTransaction(any());
+        doReturn(42)
+                .when(dailyAccountTotalsDAO)
+                .compact(null, YESTERDAY);
+
+        DailyTotalsRebuildResponse actual = dailyAccountTotalsService.rebuild();
+
+        assertThat(actual).isEqualTo(expected);
+        InOrder inOrder = inOrder(dailyAccountTotalsDAO);
+        inOrder.verify(dailyAccountTotalsDAO).deleteAll();
+        inOrder.verify(dailyAccountTotalsDAO).compact(null, YESTERDAY);
+        inOrder.verify(dailyAccountTotalsDAO).saveCompactedThrough(YESTERDAY);
+    }
+
+    @Nested
+    class CheckTest {
+
+        @Test
+        @DisplayName("test should return consistent response if totals were never compacted")
+        void testShouldReturnConsistentResponseIfTotalsWereNeverCompacted() {
+            DailyTotalsCheckResponse expected = new DailyTotalsCheckResponse(null, true, List.of());
+
+            doReturn(Optional.empty())
+                    .when(dailyAccountTotalsDAO)
+                    .findCompactedThrough();
+
+            DailyTotalsCheckResponse actual = dailyAccountTotalsService.check();
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("test should return mismatches found through last compacted day")
+        void testShouldReturnMismatchesFoundThroughLastCompactedDay() {
+            List<DailyTotalsMismatch> mismatches = List.of(new DailyTotalsMismatch(
+                    "55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9", YESTERDAY, BigDecimal.TEN, null, BigDecimal.ONE, null));
+            DailyTotalsCheckResponse expected = new DailyTotalsCheckResponse(YESTERDAY, false, mismatches);
+
+            doReturn(Optional.of(YESTERDAY))
+                    .when(dailyAccountTotalsDAO)
+                    .findCompactedThrough();
+            doReturn(mismatches)
+                    .when(dailyAccountTotalsDAO)
+                    .findMismatches(YESTERDAY, 100);
+
+            DailyTotalsCheckResponse actual = dailyAccountTotalsService.check();
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+    }
+
+}
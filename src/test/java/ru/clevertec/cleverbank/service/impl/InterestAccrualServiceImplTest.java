@@ -0,0 +1,114 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.dao.InterestAccrualDAO;
+import ru.clevertec.cleverbank.dto.interest.InterestAccrualResponse;
+import ru.clevertec.cleverbank.dto.interest.InterestChunk;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualServiceImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, Month.AUGUST, 31);
+    private static final LocalDate MONTH = DATE.withDayOfMonth(1);
+    private static final BigDecimal RATE = BigDecimal.ONE;
+    private static final String BOUND = "55JN NKDA XKNN Z0QV 5LGL FXF7 XJT9";
+
+    private InterestAccrualServiceImpl interestAccrualService;
+    @Mock
+    private InterestAccrualDAO interestAccrualDAO;
+    @Mock
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        interestAccrualService = new InterestAccrualServiceImpl(interestAccrualDAO, accountCache, 2, 2, 2);
+    }
+
+    @Test
+    @DisplayName("test accrue should accrue every id range by chunks until short chunk and mark month as completed")
+    void testAccrueShouldAccrueEveryIdRangeByChunksUntilShortChunkAndMarkMonthAsCompleted() {
+        doReturn(false)
+                .when(interestAccrualDAO)
+                .isCompleted(MONTH);
+        doReturn(List.of(BOUND))
+                .when(interestAccrualDAO)
+                .findPartitionBounds(2);
+        doReturn(new InterestChunk(2, "0J2O 6O3P", List.of("0A", "0J2O 6O3P"), new BigDecimal("3.00")))
+                .when(interestAccrualDAO)
+                .accrueChunk(MONTH, RATE, null, BOUND, 2);
+        doReturn(new InterestChunk(1, BOUND, List.of(), BigDecimal.ZERO))
+                .when(interestAccrualDAO)
+                .accrueChunk(MONTH, RATE, "0J2O 6O3P", BOUND, 2);
+        doReturn(new InterestChunk(1, "G5QZ 6B43", List.of("G5QZ 6B43"), new BigDecimal("0.50")))
+                .when(interestAccrualDAO)
+                .accrueChunk(MONTH, RATE, BOUND, null, 2);
+
+        InterestAccrualResponse actual = interestAccrualService.accrue(DATE, RATE);
+
+        assertAll(
+                () -> assertThat(actual.month()).isEqualTo(MONTH),
+                () -> assertThat(actual.accounts()).isEqualTo(3),
+                () -> assertThat(actual.amount()).isEqualByComparingTo("3.50")
+        );
+        verify(accountCache).invalidateAll(List.of("0A", "0J2O 6O3P"));
+        verify(accountCache).invalidateAll(List.of());
+        verify(accountCache).invalidateAll(List.of("G5QZ 6B43"));
+        verify(interestAccrualDAO).saveCompleted(MONTH);
+    }
+
+    @Test
+    @DisplayName("test accrue should skip month which has already been completed")
+    void testAccrueShouldSkipMonthWhichHasAlreadyBeenCompleted() {
+        doReturn(true)
+                .when(interestAccrualDAO)
+                .isCompleted(MONTH);
+
+        InterestAccrualResponse actual = interestAccrualService.accrue(DATE, RATE);
+
+        assertThat(actual).isEqualTo(new InterestAccrualResponse(MONTH, 0, BigDecimal.ZERO, 0));
+        verifyNoMoreInteractions(interestAccrualDAO);
+        verifyNoInteractions(accountCache);
+    }
+
+    @Test
+    @DisplayName("test accrue should not mark month as completed if id range fails")
+    void testAccrueShouldNotMarkMonthAsCompletedIfIdRangeFails() {
+        doReturn(false)
+                .when(interestAccrualDAO)
+                .isCompleted(MONTH);
+        doReturn(List.of())
+                .when(interestAccrualDAO)
+                .findPartitionBounds(2);
+        doThrow(new JDBCConnectionException())
+                .when(interestAccrualDAO)
+                .accrueChunk(MONTH, RATE, null, null, 2);
+
+        assertThrows(JDBCConnectionException.class, () -> interestAccrualService.accrue(DATE, RATE));
+
+        verify(interestAccrualDAO, never()).saveCompleted(any());
+    }
+
+}
@@ -4,11 +4,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyResponseTestBuilder;
 import ru.clevertec.cleverbank.builder.nbrbcurrency.NbRBCurrencyTestBuilder;
+import ru.clevertec.cleverbank.cache.RateCache;
+import ru.clevertec.cleverbank.cache.RateHistoryCache;
+import ru.clevertec.cleverbank.cache.impl.RateCacheImpl;
+import ru.clevertec.cleverbank.cache.impl.RateHistoryCacheImpl;
 import ru.clevertec.cleverbank.dao.NbRBCurrencyDAO;
 import ru.clevertec.cleverbank.dto.nbrbcurrency.NbRBCurrencyResponse;
 import ru.clevertec.cleverbank.exception.notfound.NbRBCurrencyNotFoundException;
@@ -17,21 +25,48 @@ import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.model.NbRBCurrency;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class NbRBCurrencyServiceImplTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 8, 30, 12, 0);
+
     @InjectMocks
     private NbRBCurrencyServiceImpl nbRBCurrencyService;
     @Mock
     private NbRBCurrencyDAO nbRBCurrencyDAO;
     @Mock
     private NbRBCurrencyMapper currencyMapper;
+    @Spy
+    private RateCache rateCache = new RateCacheImpl("nbRBCurrencyServiceTest", Clock.systemUTC());
+    @Spy
+    private RateHistoryCache rateHistoryCache = new RateHistoryCacheImpl("nbRBCurrencyServiceHistoryTest",
+            Duration.ofDays(7), Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
 
     @Nested
     class FindByCurrencyIdTest {
@@ -66,6 +101,99 @@ class NbRBCurrencyServiceImplTest {
 
     }
 
+    @Nested
+    class FindByCurrencyTest {
+
+        @Test
+        @DisplayName("test should throw NbRBCurrencyNotFoundException with expected message")
+        void testShouldThrowNbRBCurrencyNotFoundExceptionWithExpectedMessage() {
+            Currency currency = Currency.USD;
+            String expectedMessage = "NbRBCurrency with currencyId " + currency.getCode() + " is not found!";
+
+            Exception exception = assertThrows(NbRBCurrencyNotFoundException.class,
+                    () -> nbRBCurrencyService.findByCurrency(currency));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @DisplayName("test should load rate from database once and then return it from cache")
+        void testShouldLoadRateOnce() {
+            NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+            Currency currency = expected.getCurrency();
+
+            doReturn(Optional.of(expected))
+                    .when(nbRBCurrencyDAO)
+                    .findByCurrencyId(currency.getCode());
+
+            nbRBCurrencyService.findByCurrency(currency);
+            NbRBCurrency actual = nbRBCurrencyService.findByCurrency(currency);
+
+            assertThat(actual).isEqualTo(expected);
+            verify(nbRBCurrencyDAO, times(1)).findByCurrencyId(currency.getCode());
+        }
+
+    }
+
+    @Nested
+    class FindRateAtTest {
+
+        @Test
+        @DisplayName("test should return rate from history cache if time is inside history window")
+        void testShouldReturnRateFromHistoryCache() {
+            NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                    .withUpdateDate(NOW.minusDays(2))
+                    .build();
+            Currency currency = expected.getCurrency();
+
+            doReturn(List.of(expected))
+                    .when(nbRBCurrencyDAO)
+                    .findAllByCurrencyIdEffectiveSince(currency.getCode(), NOW.minusDays(7));
+
+            nbRBCurrencyService.findRateAt(currency, NOW.minusDays(1));
+            NbRBCurrency actual = nbRBCurrencyService.findRateAt(currency, NOW.minusHours(1));
+
+            assertThat(actual).isEqualTo(expected);
+            verify(nbRBCurrencyDAO, times(1)).findAllByCurrencyIdEffectiveSince(currency.getCode(), NOW.minusDays(7));
+        }
+
+        @Test
+        @DisplayName("test should find rate in database if time is before history window")
+        void testShouldFindRateInDatabaseIfTimeIsBeforeHistoryWindow() {
+            NbRBCurrency expected = NbRBCurrencyTestBuilder.aNbRBCurrency().build();
+            Currency currency = expected.getCurrency();
+            LocalDateTime at = NOW.minusMonths(1);
+
+            doReturn(Optional.of(expected))
+                    .when(nbRBCurrencyDAO)
+                    .findByCurrencyIdAt(currency.getCode(), at);
+
+            NbRBCurrency actual = nbRBCurrencyService.findRateAt(currency, at);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("test should throw NbRBCurrencyNotFoundException with expected message")
+        void testShouldThrowNbRBCurrencyNotFoundExceptionWithExpectedMessage() {
+            Currency currency = Currency.USD;
+            LocalDateTime at = NOW.minusMonths(1);
+            String expectedMessage = "NbRBCurrency with currencyId " + currency.getCode() + " is not found at " + at;
+
+            doReturn(Optional.empty())
+                    .when(nbRBCurrencyDAO)
+                    .findByCurrencyIdAt(currency.getCode(), at);
+
+            Exception exception = assertThrows(NbRBCurrencyNotFoundException.class,
+                    () -> nbRBCurrencyService.findRateAt(currency, at));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -85,6 +213,98 @@ class NbRBCurrencyServiceImplTest {
             NbRBCurrency actual = nbRBCurrencyService.save(response);
 
             assertThat(actual).isEqualTo(expected);
+            verify(rateCache).put(expected);
+            verify(rateHistoryCache).put(expected);
+        }
+
+    }
+
+    @Nested
+    class SaveAllTest {
+
+        private final LocalDate firstDate = LocalDate.of(2023, 8, 28);
+        private final LocalDate secondDate = firstDate.plusDays(1);
+        private final NbRBCurrencyResponse response = NbRBCurrencyResponseTestBuilder.aNbRBCurrencyResponse().build();
+
+        @Test
+        @DisplayName("test should save rates with start of their date and skip already saved ones")
+        void testShouldSaveRatesWithStartOfDateAndSkipAlreadySavedOnes() {
+            NbRBCurrency alreadySaved = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                    .withUpdateDate(firstDate.atStartOfDay())
+                    .build();
+
+            doAnswer(invocation -> NbRBCurrencyTestBuilder.aNbRBCurrency().build())
+                    .when(currencyMapper)
+                    .fromResponse(response);
+            doReturn(List.of(alreadySaved))
+                    .when(nbRBCurrencyDAO)
+                    .findAllByCurrencyIdEffectiveSince(Currency.EUR.getCode(), firstDate.atStartOfDay());
+            doAnswer(invocation -> invocation.getArgument(0))
+                    .when(nbRBCurrencyDAO)
+                    .saveAll(anyList());
+
+            List<NbRBCurrency> actual = nbRBCurrencyService.saveAll(Map.of(firstDate, List.of(response),
+                    secondDate, List.of(response)));
+
+            assertThat(actual)
+                    .extracting(NbRBCurrency::getUpdateDate)
+                    .containsExactly(secondDate.atStartOfDay());
+            verify(rateHistoryCache).put(actual.get(0));
+            verify(rateCache, never()).put(any());
+        }
+
+        @Test
+        @DisplayName("test should skip rate if the same currency already has a rate saved later on that date")
+        void testShouldSkipRateIfTheSameCurrencyAlreadyHasRateSavedLaterOnThatDate() {
+            NbRBCurrency savedOnSchedule = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                    .withUpdateDate(firstDate.atTime(10, 15))
+                    .build();
+
+            doAnswer(invocation -> NbRBCurrencyTestBuilder.aNbRBCurrency().build())
+                    .when(currencyMapper)
+                    .fromResponse(response);
+            doReturn(List.of(savedOnSchedule))
+                    .when(nbRBCurrencyDAO)
+                    .findAllByCurrencyIdEffectiveSince(Currency.EUR.getCode(), firstDate.atStartOfDay());
+            doAnswer(invocation -> invocation.getArgument(0))
+                    .when(nbRBCurrencyDAO)
+                    .saveAll(anyList());
+
+            List<NbRBCurrency> actual = nbRBCurrencyService.saveAll(Map.of(firstDate, List.of(response),
+                    secondDate, List.of(response, response)));
+
+            assertThat(actual)
+                    .extracting(NbRBCurrency::getUpdateDate)
+                    .containsExactly(secondDate.atStartOfDay());
+        }
+
+        @Test
+        @DisplayName("test should not insert anything if all rates are already saved")
+        void testShouldNotInsertAnythingIfAllRatesAreAlreadySaved() {
+            NbRBCurrency alreadySaved = NbRBCurrencyTestBuilder.aNbRBCurrency()
+                    .withUpdateDate(firstDate.atStartOfDay())
+                    .build();
+
+            doAnswer(invocation -> NbRBCurrencyTestBuilder.aNbRBCurrency().build())
+                    .when(currencyMapper)
+                    .fromResponse(response);
+            doReturn(List.of(alreadySaved))
+                    .when(nbRBCurrencyDAO)
+                    .findAllByCurrencyIdEffectiveSince(Currency.EUR.getCode(), firstDate.atStartOfDay());
+
+            List<NbRBCurrency> actual = nbRBCurrencyService.saveAll(Map.of(firstDate, List.of(response)));
+
+            assertThat(actual).isEmpty();
+            verify(nbRBCurrencyDAO, never()).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("test should return empty list for empty history")
+        void testShouldReturnEmptyListForEmptyHistory() {
+            List<NbRBCurrency> actual = nbRBCurrencyService.saveAll(Map.of());
+
+            assertThat(actual).isEmpty();
+            verify(nbRBCurrencyDAO, never()).saveAll(anyList());
         }
 
     }
@@ -169,4 +389,83 @@ class NbRBCurrencyServiceImplTest {
 
     }
 
+    @Nested
+    class ExchangeMatchesStepwiseCalculationTest {
+
+        @ParameterizedTest(name = "{0} -> {1}, sum {2}")
+        @MethodSource("ru.clevertec.cleverbank.service.impl.NbRBCurrencyServiceImplTest#getArgumentsForExchangeTest")
+        @DisplayName("test cross rate exchange should match stepwise calculation within its rounding")
+        void testCrossRateExchangeShouldMatchStepwiseCalculation(Currency currencySender, Currency currencyRecipient,
+                                                                 BigDecimal sum, List<NbRBCurrency> rates) {
+            rates.forEach(rateCache::put);
+            Map<Currency, NbRBCurrency> rateMap = rates.stream()
+                    .collect(Collectors.toMap(NbRBCurrency::getCurrency, Function.identity()));
+            BigDecimal expected = exchangeStepwise(rateMap, currencySender, currencyRecipient, sum);
+            BigDecimal tolerance = stepwiseRoundingError(rateMap.get(currencyRecipient));
+
+            BigDecimal actual = nbRBCurrencyService.exchangeSumByCurrency(currencySender, currencyRecipient, sum);
+
+            assertThat(actual).isCloseTo(expected, within(tolerance));
+        }
+
+    }
+
+    private static Stream<Arguments> getArgumentsForExchangeTest() {
+        Random random = new Random(42);
+        Currency[] currencies = Currency.values();
+        int[] scales = {1, 10, 100};
+        return IntStream.range(0, 300)
+                .mapToObj(i -> {
+                    List<NbRBCurrency> rates = Stream.of(Currency.RUB, Currency.USD, Currency.EUR)
+                            .map(currency -> NbRBCurrencyTestBuilder.aNbRBCurrency()
+                                    .withCurrencyId(currency.getCode())
+                                    .withCurrency(currency)
+                                    .withScale(scales[random.nextInt(scales.length)])
+                                    .withRate(BigDecimal.valueOf(5_000 + random.nextInt(45_000), 4))
+                                    .build())
+                            .toList();
+                    Currency currencySender = currencies[random.nextInt(currencies.length)];
+                    Currency currencyRecipient = currencies[random.nextInt(currencies.length)];
+                    BigDecimal sum = BigDecimal.valueOf(1 + random.nextInt(10_000_000), 2);
+                    return Arguments.of(currencySender, currencyRecipient, sum, rates);
+                });
+    }
+
+    /**
+     * Прежний расчёт обмена через BYN с округлением вверх до копеек на каждом шаге.
+     */
+    private static BigDecimal exchangeStepwise(Map<Currency, NbRBCurrency> rates, Currency currencySender,
+                                               Currency currencyRecipient, BigDecimal sum) {
+        if (currencySender.equals(currencyRecipient)) {
+            return sum;
+        }
+        BigDecimal byn = sum;
+        if (!currencySender.equals(Currency.BYN)) {
+            NbRBCurrency sender = rates.get(currencySender);
+            byn = sum.multiply(sender.getRate())
+                    .divide(BigDecimal.valueOf(sender.getScale()), 2, RoundingMode.UP);
+        }
+        if (currencyRecipient.equals(Currency.BYN)) {
+            return byn;
+        }
+        NbRBCurrency recipient = rates.get(currencyRecipient);
+        return byn.divide(recipient.getRate(), 2, RoundingMode.UP)
+                .multiply(BigDecimal.valueOf(recipient.getScale()))
+                .setScale(2, RoundingMode.UP);
+    }
+
+    /**
+     * Наибольшее расхождение прежнего расчёта с точным: по копейке на округление суммы в BYN и частного, умноженного
+     * на scale валюты получателя, и копейка на округление итоговой суммы.
+     */
+    private static BigDecimal stepwiseRoundingError(NbRBCurrency recipient) {
+        BigDecimal cent = new BigDecimal("0.01");
+        if (recipient == null) {
+            return cent.multiply(BigDecimal.valueOf(3));
+        }
+        BigDecimal scale = BigDecimal.valueOf(recipient.getScale());
+        return cent.add(cent.multiply(scale))
+                .add(cent.multiply(scale).divide(recipient.getRate(), 10, RoundingMode.UP));
+    }
+
 }
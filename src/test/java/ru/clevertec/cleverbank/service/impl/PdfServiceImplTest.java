@@ -0,0 +1,119 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.exception.internalservererror.RenderPdfException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PdfServiceImplTest {
+
+    private static final String CHECK = """
+
+            -------------------------------------------------------------
+            |                       Банковский чек                      |
+            | Тип транзакции:                                  Перевод |
+            -------------------------------------------------------------
+            """;
+
+    private final PdfServiceImpl pdfService = new PdfServiceImpl();
+
+    @Nested
+    class WriteTextTest {
+
+        @Test
+        @DisplayName("test should write text with cyrillic to one page of pdf")
+        void testShouldWriteTextWithCyrillicToOnePageOfPdf() throws IOException {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            pdfService.writeText(new StringReader(CHECK), outputStream);
+
+            PdfReader pdfReader = new PdfReader(outputStream.toByteArray());
+
+            assertAll(
+                    () -> assertThat(pdfReader.getNumberOfPages()).isEqualTo(1),
+                    () -> assertThat(new PdfTextExtractor(pdfReader).getTextFromPage(1))
+                            .contains("Банковский чек", "Тип транзакции:", "Перевод")
+            );
+        }
+
+        @Test
+        @DisplayName("test should start new page when page is full")
+        void testShouldStartNewPageWhenPageIsFull() throws IOException {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            String text = IntStream.rangeClosed(1, 150)
+                    .mapToObj(i -> "Строка " + i)
+                    .collect(Collectors.joining("\n"));
+
+            pdfService.writeText(new StringReader(text), outputStream);
+
+            PdfReader pdfReader = new PdfReader(outputStream.toByteArray());
+            PdfTextExtractor pdfTextExtractor = new PdfTextExtractor(pdfReader);
+
+            assertAll(
+                    () -> assertThat(pdfReader.getNumberOfPages()).isEqualTo(3),
+                    () -> assertThat(pdfTextExtractor.getTextFromPage(1)).contains("Строка 1", "Строка 64")
+                            .doesNotContain("Строка 65"),
+                    () -> assertThat(pdfTextExtractor.getTextFromPage(3)).contains("Строка 150")
+            );
+        }
+
+        @Test
+        @DisplayName("test should write the same pdf from several threads at once")
+        void testShouldWriteTheSamePdfFromSeveralThreadsAtOnce() {
+            List<CompletableFuture<String>> texts = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                        pdfService.writeText(new StringReader(CHECK), outputStream);
+                        try {
+                            return new PdfTextExtractor(new PdfReader(outputStream.toByteArray())).getTextFromPage(1);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }))
+                    .toList();
+
+            assertThat(texts).allSatisfy(text -> assertThat(text.join()).contains("Банковский чек"));
+        }
+
+        @Test
+        @DisplayName("test should throw RenderPdfException with expected message if text can not be read")
+        void testShouldThrowRenderPdfExceptionIfTextCanNotBeRead() {
+            Reader reader = new Reader() {
+
+                @Override
+                public int read(char[] buffer, int offset, int length) throws IOException {
+                    throw new IOException("Stream is closed");
+                }
+
+                @Override
+                public void close() {
+                }
+
+            };
+            String expectedMessage = "Sorry! We got Server render pdf problems";
+
+            Exception exception = assertThrows(RenderPdfException.class,
+                    () -> pdfService.writeText(reader, OutputStream.nullOutputStream()));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+}
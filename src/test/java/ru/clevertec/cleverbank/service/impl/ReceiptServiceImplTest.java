@@ -0,0 +1,135 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dao.ReceiptDAO;
+import ru.clevertec.cleverbank.dto.download.DownloadFile;
+import ru.clevertec.cleverbank.exception.notfound.ReceiptNotFoundException;
+import ru.clevertec.cleverbank.model.Receipt;
+import ru.clevertec.cleverbank.util.ReceiptWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptServiceImplTest {
+
+    private static final String SHA256 = "9d60841e0a7891df0fd55b24d5c883a5d92ae544808675c2ec84537c12589c49";
+
+    @InjectMocks
+    private ReceiptServiceImpl receiptService;
+    @Mock
+    private ReceiptDAO receiptDAO;
+    @Mock
+    private ReceiptWriter receiptWriter;
+    @TempDir
+    private Path directory;
+
+    @Nested
+    class FindCheckByTransactionIdTest {
+
+        @Test
+        @DisplayName("test should return check by transaction id with its indexed sha256 as ETag")
+        void testShouldReturnCheckWithItsIndexedSha256AsETag() throws IOException {
+            Path path = Files.writeString(directory.resolve("1.txt"), "Check");
+            DownloadFile expected = new DownloadFile("check-1.txt", path, 5,
+                    Files.getLastModifiedTime(path).toInstant(), "\"" + SHA256 + "\"");
+
+            doReturn(path)
+                    .when(receiptWriter)
+                    .checkPath(1L);
+            doReturn(Optional.of(new Receipt(1L, SHA256, 5)))
+                    .when(receiptDAO)
+                    .findByTransactionId(1L);
+
+            DownloadFile actual = receiptService.findCheckByTransactionId(1L);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("test should return check which is not indexed with ETag built from its size and modification time")
+        void testShouldReturnCheckWhichIsNotIndexed() throws IOException {
+            Path path = Files.writeString(directory.resolve("1.txt"), "Check");
+            Instant lastModified = Files.getLastModifiedTime(path).toInstant();
+            DownloadFile expected = new DownloadFile("check-1.txt", path, 5, lastModified,
+                    "\"5-%x\"".formatted(lastModified.toEpochMilli()));
+
+            doReturn(path)
+                    .when(receiptWriter)
+                    .checkPath(1L);
+            doReturn(Optional.empty())
+                    .when(receiptDAO)
+                    .findByTransactionId(1L);
+
+            DownloadFile actual = receiptService.findCheckByTransactionId(1L);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("test should throw ReceiptNotFoundException with expected message if check is not written yet")
+        void testShouldThrowReceiptNotFoundExceptionIfCheckIsNotWrittenYet() {
+            String expectedMessage = "Check for transaction with ID 1 is not found!";
+
+            doReturn(directory.resolve("1.txt"))
+                    .when(receiptWriter)
+                    .checkPath(1L);
+
+            Exception exception = assertThrows(ReceiptNotFoundException.class,
+                    () -> receiptService.findCheckByTransactionId(1L));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+            verifyNoInteractions(receiptDAO);
+        }
+
+    }
+
+    @Nested
+    class FindStatementTest {
+
+        @Test
+        @DisplayName("test should return statement with ETag built from its size and modification time")
+        void testShouldReturnStatementWithETagBuiltFromSizeAndModificationTime() throws IOException {
+            Path path = Files.writeString(directory.resolve("TransactionStatement.txt"), "Statement");
+            Instant lastModified = Files.getLastModifiedTime(path).toInstant();
+            DownloadFile expected = new DownloadFile("TransactionStatement.txt", path, 9, lastModified,
+                    "\"9-%x\"".formatted(lastModified.toEpochMilli()));
+
+            doReturn(directory)
+                    .when(receiptWriter)
+                    .getDirectory();
+
+            DownloadFile actual = receiptService.findStatement("TransactionStatement.txt");
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("test should throw ReceiptNotFoundException with expected message if file is not statement")
+        void testShouldThrowReceiptNotFoundExceptionForFileThatIsNotStatement() {
+            String expectedMessage = "File ../application.yaml is not found!";
+
+            Exception exception = assertThrows(ReceiptNotFoundException.class,
+                    () -> receiptService.findStatement("../application.yaml"));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.builder.transaction.TransactionStatementResponseTestBuilder;
+import ru.clevertec.cleverbank.builder.transaction.TransactionStatementTestBuilder;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
+import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.UploadFileService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TextTransactionStatementSinkTest {
+
+    @TempDir
+    private Path directory;
+    @Mock
+    private CheckService checkService;
+    @Mock
+    private UploadFileService uploadFileService;
+    private Path part;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        part = Files.createFile(directory.resolve("TransactionStatement.part"));
+        doReturn(part)
+                .when(uploadFileService)
+                .createStatementPart();
+    }
+
+    @Test
+    @DisplayName("test end should upload file with header and rows of statement")
+    void testEndShouldUploadFileWithHeaderAndRowsOfStatement() throws IOException {
+        TransactionStatementResponse response = TransactionStatementResponseTestBuilder.aTransactionStatementResponse()
+                .withTransactions(null)
+                .build();
+        TransactionStatement first = TransactionStatementTestBuilder.aTransactionStatement().build();
+        TransactionStatement second = TransactionStatementTestBuilder.aTransactionStatement()
+                .withUserLastname("Петров")
+                .build();
+
+        doAnswer(invocation -> invocation.getArgument(0, StringBuilder.class).append("Выписка\n"))
+                .when(checkService)
+                .appendTransactionStatementHeader(any(), eq(response));
+        doAnswer(invocation -> invocation.getArgument(0, StringBuilder.class)
+                .append(invocation.getArgument(2, TransactionStatement.class).userLastname())
+                .append('\n'))
+                .when(checkService)
+                .appendTransactionStatementRow(any(), eq(response), any());
+
+        try (TextTransactionStatementSink sink = new TextTransactionStatementSink(checkService, uploadFileService)) {
+            sink.begin(response);
+            sink.accept(first);
+            sink.accept(second);
+            sink.end();
+        }
+
+        verify(uploadFileService).uploadStatement(part);
+        assertThat(Files.readString(part)).isEqualTo("Выписка\nИванов\nПетров\n");
+    }
+
+    @Test
+    @DisplayName("test close should delete file if statement is not uploaded")
+    void testCloseShouldDeleteFileIfStatementIsNotUploaded() {
+        TextTransactionStatementSink sink = new TextTransactionStatementSink(checkService, uploadFileService);
+
+        sink.close();
+
+        verify(uploadFileService, never()).uploadStatement(any());
+        assertThat(part).doesNotExist();
+    }
+
+}
@@ -0,0 +1,322 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.builder.account.AccountTestBuilder;
+import ru.clevertec.cleverbank.builder.transaction.TransactionRequestTestBuilder;
+import ru.clevertec.cleverbank.cache.impl.AccountCacheImpl;
+import ru.clevertec.cleverbank.dao.AccountDAO;
+import ru.clevertec.cleverbank.dao.TransactionDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
+import ru.clevertec.cleverbank.mapper.TransactionMapperImpl;
+import ru.clevertec.cleverbank.model.Account;
+import ru.clevertec.cleverbank.model.LockingMode;
+import ru.clevertec.cleverbank.model.Transaction;
+import ru.clevertec.cleverbank.model.Type;
+import ru.clevertec.cleverbank.service.BankService;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.NbRBCurrencyService;
+import ru.clevertec.cleverbank.service.TransactionService;
+import ru.clevertec.cleverbank.service.UploadFileService;
+import ru.clevertec.cleverbank.service.UserService;
+import ru.clevertec.cleverbank.util.RetryPolicy;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Проверяет переводы между несколькими счетами из многих потоков на подделке таблицы accounts в памяти
+ * (RowLockingAccountDAO), а не на базе данных. Подделка быстро воспроизводит блокировки строк и откат, но не
+ * выполняет SQL AccountDAOImpl: те же переводы на PostgreSQL проверяет TransactionServiceImplPostgresConcurrencyTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplConcurrencyTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 4000;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    @Mock
+    private TransactionDAO transactionDAO;
+    @Mock
+    private CheckService checkService;
+    @Mock
+    private UploadFileService uploadFileService;
+    @Mock
+    private NbRBCurrencyService nbRBCurrencyService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private BankService bankService;
+
+    private RowLockingAccountDAO accountDAO;
+    private TransactionService transactionService;
+    private final AtomicInteger savedTransactions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        accountDAO = new RowLockingAccountDAO();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountDAO.put(AccountTestBuilder.aAccount()
+                    .withId("ACCOUNT-" + i)
+                    .withBalance(INITIAL_BALANCE)
+                    .build());
+        }
+    }
+
+    @SneakyThrows
+    @ParameterizedTest
+    @EnumSource(LockingMode.class)
+    @DisplayName("test parallel transfers between hot accounts of in-memory fake should conserve total money")
+    void testParallelTransfersShouldConserveTotalMoney(LockingMode lockingMode) {
+        transactionService = new TransactionServiceImpl(
+                new AccountServiceImpl(accountDAO, userService, bankService, null,
+                        new AccountCacheImpl("concurrency", ACCOUNTS, 60), accountDAO),
+                transactionDAO,
+                new TransactionMapperImpl(),
+                checkService,
+                uploadFileService,
+                new ValidationServiceImpl(),
+                nbRBCurrencyService,
+                accountDAO,
+                lockingMode,
+                new RetryPolicy(MAX_ATTEMPTS, 1, 20));
+        doAnswer(invocation -> {
+            savedTransactions.incrementAndGet();
+            return invocation.getArgument(0, Transaction.class);
+        })
+                .when(transactionDAO)
+                .save(any());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transfer();
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            succeeded += Boolean.TRUE.equals(future.get(30, TimeUnit.SECONDS)) ? 1 : 0;
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(accountDAO.totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(accountDAO.balances()).allSatisfy(balance -> assertThat(balance).isNotNegative());
+        assertThat(savedTransactions.get()).isEqualTo(succeeded);
+        assertThat(succeeded).isPositive().isLessThan(TRANSFERS);
+    }
+
+    private boolean transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sender = random.nextInt(ACCOUNTS);
+        int recipient = (sender + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
+                .withAccountSenderId("ACCOUNT-" + sender)
+                .withAccountRecipientId("ACCOUNT-" + recipient)
+                .withSum(BigDecimal.valueOf(random.nextInt(1, 400)))
+                .withType(Type.TRANSFER)
+                .build();
+        try {
+            transactionService.transferBalance(request);
+            return true;
+        } catch (TransactionException | OptimisticLockException e) {
+            assertThat(e.getMessage()).containsAnyOf("Insufficient funds", "was modified concurrently");
+            return false;
+        }
+    }
+
+    /**
+     * Подделка AccountDAO и TransactionManager: хранилище счетов в памяти, которое ведёт себя как строки таблицы
+     * accounts: чтение видит только зафиксированные данные, изменение баланса блокирует строку до конца транзакции,
+     * а откат транзакции возвращает все изменения.
+     * Если порядок блокировок приводит к взаимной блокировке, ожидание строки прерывается ошибкой.
+     */
+    private static class RowLockingAccountDAO implements AccountDAO, TransactionManager {
+
+        private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+        private final Map<String, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        private final ThreadLocal<Deque<Runnable>> undoLog = new ThreadLocal<>();
+        private final ThreadLocal<List<ReentrantLock>> heldLocks = new ThreadLocal<>();
+        private final ThreadLocal<List<Runnable>> afterCompletion = new ThreadLocal<>();
+
+        void put(Account account) {
+            accounts.put(account.getId(), account);
+            rowLocks.put(account.getId(), new ReentrantLock());
+        }
+
+        BigDecimal totalBalance() {
+            return balances().stream()
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        List<BigDecimal> balances() {
+            return accounts.values().stream()
+                    .map(Account::getBalance)
+                    .toList();
+        }
+
+        @Override
+        public <T> T doInTransaction(Supplier<T> action) {
+            undoLog.set(new ArrayDeque<>());
+            heldLocks.set(new ArrayList<>());
+            afterCompletion.set(new ArrayList<>());
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                undoLog.get().forEach(Runnable::run);
+                throw e;
+            } finally {
+                heldLocks.get().forEach(ReentrantLock::unlock);
+                undoLog.remove();
+                heldLocks.remove();
+                List<Runnable> actions = afterCompletion.get();
+                afterCompletion.remove();
+                actions.forEach(Runnable::run);
+            }
+        }
+
+        @Override
+        public void afterCompletion(Runnable action) {
+            List<Runnable> actions = afterCompletion.get();
+            if (actions == null) {
+                action.run();
+            } else {
+                actions.add(action);
+            }
+        }
+
+        @Override
+        public Optional<Account> findById(String id) {
+            ReentrantLock lock = rowLocks.get(id);
+            lock.lock();
+            try {
+                return Optional.ofNullable(accounts.get(id))
+                        .map(account -> new Account(account.getId(), account.getCurrency(), account.getBalance(),
+                                account.getOpeningDate(), account.getClosingDate(), account.getBank(), account.getUser(),
+                                account.getVersion()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Optional<BigDecimal> addToBalance(String id, BigDecimal delta) {
+            Account account = lockRow(id);
+            BigDecimal balance = account.getBalance().add(delta);
+            if (balance.signum() < 0) {
+                return Optional.empty();
+            }
+            write(account, balance);
+            return Optional.of(balance);
+        }
+
+        @Override
+        public Optional<Account> update(Account account) {
+            Account row = lockRow(account.getId());
+            if (!row.getVersion().equals(account.getVersion())) {
+                throw new OptimisticLockException("Account with ID " + account.getId()
+                                                  + " was modified concurrently, expected version " + account.getVersion());
+            }
+            write(row, account.getBalance());
+            account.setVersion(row.getVersion());
+            return Optional.of(account);
+        }
+
+        @SneakyThrows
+        private Account lockRow(String id) {
+            ReentrantLock lock = rowLocks.get(id);
+            if (!lock.isHeldByCurrentThread()) {
+                if (!lock.tryLock(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Deadlock on account " + id);
+                }
+                heldLocks.get().add(lock);
+            }
+            return accounts.get(id);
+        }
+
+        private void write(Account row, BigDecimal balance) {
+            BigDecimal oldBalance = row.getBalance();
+            Long oldVersion = row.getVersion();
+            row.setBalance(balance);
+            row.setVersion(oldVersion + 1);
+            undoLog.get().push(() -> {
+                row.setBalance(oldBalance);
+                row.setVersion(oldVersion);
+            });
+        }
+
+        @Override
+        public List<Account> findAll() {
+            return new ArrayList<>(accounts.values());
+        }
+
+        @Override
+        public List<Account> findAllWithPositiveBalance() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void findAllAfter(String afterId, Integer limit, Consumer<Account> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Account> findAllByIdsForUpdate(Collection<String> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean addToBalances(Map<String, BigDecimal> deltas) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Account> save(Account account) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Account> delete(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
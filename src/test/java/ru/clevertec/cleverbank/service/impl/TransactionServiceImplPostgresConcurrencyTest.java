@@ -0,0 +1,264 @@
+package ru.clevertec.cleverbank.service.impl;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.command.CommandScope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.builder.bank.BankTestBuilder;
+import ru.clevertec.cleverbank.builder.transaction.TransactionRequestTestBuilder;
+import ru.clevertec.cleverbank.builder.user.UserTestBuilder;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.cache.impl.AccountCacheImpl;
+import ru.clevertec.cleverbank.dao.connection.ConnectionManager;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dao.connection.impl.ConnectionManagerImpl;
+import ru.clevertec.cleverbank.dao.connection.impl.TransactionManagerImpl;
+import ru.clevertec.cleverbank.dao.impl.AccountDAOImpl;
+import ru.clevertec.cleverbank.dao.impl.TransactionDAOImpl;
+import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
+import ru.clevertec.cleverbank.mapper.TransactionMapperImpl;
+import ru.clevertec.cleverbank.model.Bank;
+import ru.clevertec.cleverbank.model.LockingMode;
+import ru.clevertec.cleverbank.model.Type;
+import ru.clevertec.cleverbank.model.User;
+import ru.clevertec.cleverbank.service.BankService;
+import ru.clevertec.cleverbank.service.CheckService;
+import ru.clevertec.cleverbank.service.NbRBCurrencyService;
+import ru.clevertec.cleverbank.service.TransactionService;
+import ru.clevertec.cleverbank.service.UploadFileService;
+import ru.clevertec.cleverbank.service.UserService;
+import ru.clevertec.cleverbank.util.RetryPolicy;
+import ru.clevertec.cleverbank.util.YamlUtil;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assumptions.abort;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Проверяет переводы между несколькими счетами из многих потоков на локальной базе PostgreSQL из application.yaml:
+ * балансы изменяет настоящий AccountDAOImpl в транзакциях TransactionManagerImpl, а транзакции сохраняет
+ * TransactionDAOImpl. Миграции применяются в отдельную схему, которая удаляется после тестов. Если база недоступна,
+ * тесты пропускаются.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplPostgresConcurrencyTest {
+
+    private static final String SCHEMA = "concurrency_test";
+    private static final String ACCOUNT_PREFIX = "CONCURRENCY-";
+    private static final int ACCOUNTS = 5;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 1000;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    private static Connection connection;
+    private static HikariDataSource dataSource;
+
+    @Mock
+    private CheckService checkService;
+    @Mock
+    private UploadFileService uploadFileService;
+    @Mock
+    private NbRBCurrencyService nbRBCurrencyService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private BankService bankService;
+    @Mock
+    private ReferenceCache<Long, Bank> bankCache;
+    @Mock
+    private ReferenceCache<Long, User> userCache;
+
+    private TransactionService transactionService;
+
+    @BeforeAll
+    @SneakyThrows
+    static void setUp() {
+        Map<String, String> postgresqlMap = new YamlUtil().getYamlMap().get("postgresql");
+        try {
+            DriverManager.setLoginTimeout(2);
+            connection = DriverManager.getConnection(postgresqlMap.get("url"), postgresqlMap.get("user"),
+                    postgresqlMap.get("password"));
+        } catch (SQLException e) {
+            abort("PostgreSQL is not available: " + e.getMessage());
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+        connection.setSchema(SCHEMA);
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        database.setDefaultSchemaName(SCHEMA);
+        ClassLoaderResourceAccessor classLoaderResourceAccessor = new ClassLoaderResourceAccessor();
+        try {
+            new CommandScope("update")
+                    .addArgumentValue("changeLogFile", "db/changelog/db.changelog-master.yaml")
+                    .addArgumentValue("resourceAccessor", classLoaderResourceAccessor)
+                    .addArgumentValue("database", database)
+                    .execute();
+        } finally {
+            classLoaderResourceAccessor.close();
+        }
+        connection.setAutoCommit(true);
+        try (PreparedStatement preparedStatement = connection.prepareStatement("""
+                INSERT INTO accounts (id, currency, balance, opening_date, bank_id, user_id)
+                VALUES (?, 'BYN', 0, CURRENT_DATE, (SELECT MIN(id) FROM banks), (SELECT MIN(id) FROM users))
+                """)) {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                preparedStatement.setString(1, ACCOUNT_PREFIX + i);
+                preparedStatement.executeUpdate();
+            }
+        }
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgresqlMap.get("url"));
+        config.setUsername(postgresqlMap.get("user"));
+        config.setPassword(postgresqlMap.get("password"));
+        config.setSchema(SCHEMA);
+        config.setMaximumPoolSize(THREADS);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @BeforeEach
+    void resetAccounts() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE accounts SET balance = " + INITIAL_BALANCE + ", version = 0"
+                                    + " WHERE id LIKE '" + ACCOUNT_PREFIX + "%'");
+            statement.executeUpdate("DELETE FROM transactions WHERE account_sender_id LIKE '" + ACCOUNT_PREFIX + "%'");
+        }
+    }
+
+    @SneakyThrows
+    @ParameterizedTest
+    @EnumSource(LockingMode.class)
+    @DisplayName("test parallel transfers on PostgreSQL should conserve total money and never overdraw")
+    void testParallelTransfersOnPostgresShouldConserveTotalMoney(LockingMode lockingMode) {
+        ConnectionManager connectionManager = new ConnectionManagerImpl(dataSource);
+        TransactionManager transactionManager = new TransactionManagerImpl(connectionManager);
+        transactionService = new TransactionServiceImpl(
+                new AccountServiceImpl(new AccountDAOImpl(connectionManager, bankCache, userCache), userService,
+                        bankService, null, new AccountCacheImpl("postgres-concurrency-" + lockingMode, ACCOUNTS, 60),
+                        transactionManager),
+                new TransactionDAOImpl(connectionManager),
+                new TransactionMapperImpl(),
+                checkService,
+                uploadFileService,
+                new ValidationServiceImpl(),
+                nbRBCurrencyService,
+                transactionManager,
+                lockingMode,
+                new RetryPolicy(MAX_ATTEMPTS, 1, 20));
+        doReturn(Optional.of(BankTestBuilder.aBank().build()))
+                .when(bankCache)
+                .get(anyLong());
+        doReturn(Optional.of(UserTestBuilder.aUser().build()))
+                .when(userCache)
+                .get(anyLong());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transfer();
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            succeeded += Boolean.TRUE.equals(future.get(60, TimeUnit.SECONDS)) ? 1 : 0;
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        int expectedSucceeded = succeeded;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("""
+                     SELECT SUM(balance) AS total, MIN(balance) AS min_balance,
+                            (SELECT COUNT(*) FROM transactions WHERE account_sender_id LIKE 'CONCURRENCY-%') AS saved
+                     FROM accounts
+                     WHERE id LIKE 'CONCURRENCY-%'
+                     """)) {
+            resultSet.next();
+            BigDecimal total = resultSet.getBigDecimal("total");
+            BigDecimal minBalance = resultSet.getBigDecimal("min_balance");
+            long saved = resultSet.getLong("saved");
+
+            assertAll(
+                    () -> assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS))),
+                    () -> assertThat(minBalance).isNotNegative(),
+                    () -> assertThat(saved).isEqualTo(expectedSucceeded),
+                    () -> assertThat(expectedSucceeded).isPositive()
+            );
+        }
+    }
+
+    private boolean transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sender = random.nextInt(ACCOUNTS);
+        int recipient = (sender + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
+                .withAccountSenderId(ACCOUNT_PREFIX + sender)
+                .withAccountRecipientId(ACCOUNT_PREFIX + recipient)
+                .withSum(BigDecimal.valueOf(random.nextInt(1, 400)))
+                .withType(Type.TRANSFER)
+                .build();
+        try {
+            transactionService.transferBalance(request);
+            return true;
+        } catch (TransactionException | OptimisticLockException e) {
+            assertThat(e.getMessage()).containsAnyOf("Insufficient funds", "was modified concurrently");
+            return false;
+        }
+    }
+
+}
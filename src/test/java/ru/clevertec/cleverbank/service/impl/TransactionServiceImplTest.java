@@ -5,8 +5,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.account.AccountTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.AmountStatementResponseTestBuilder;
@@ -20,40 +24,70 @@ import ru.clevertec.cleverbank.builder.transaction.TransactionStatementTestBuild
 import ru.clevertec.cleverbank.builder.transaction.TransactionTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.TransferBalanceResponseTestBuilder;
 import ru.clevertec.cleverbank.dao.TransactionDAO;
+import ru.clevertec.cleverbank.dao.connection.TransactionManager;
+import ru.clevertec.cleverbank.dto.transaction.AmountStatement;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionCursor;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.dto.transaction.TransactionPageResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatement;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchItemResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.exception.badrequest.InsufficientFundsException;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
 import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
 import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
 import ru.clevertec.cleverbank.exception.notfound.TransactionNotFoundException;
 import ru.clevertec.cleverbank.mapper.TransactionMapper;
 import ru.clevertec.cleverbank.model.Account;
 import ru.clevertec.cleverbank.model.Currency;
+import ru.clevertec.cleverbank.model.Receipt;
 import ru.clevertec.cleverbank.model.Transaction;
 import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.service.AccountService;
 import ru.clevertec.cleverbank.service.CheckService;
 import ru.clevertec.cleverbank.service.NbRBCurrencyService;
+import ru.clevertec.cleverbank.service.TransactionStatementSink;
 import ru.clevertec.cleverbank.service.UploadFileService;
 import ru.clevertec.cleverbank.service.ValidationService;
+import ru.clevertec.cleverbank.util.RetryPolicy;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceImplTest {
@@ -75,7 +109,11 @@ class TransactionServiceImplTest {
     @Mock
     private NbRBCurrencyService nbRBCurrencyService;
     @Mock
-    private Connection connection;
+    private TransactionManager transactionManager;
+    @Mock
+    private TransactionStatementSink sink;
+    @Spy
+    private RetryPolicy retryPolicy = new RetryPolicy(1, 0, 0);
 
     @Nested
     class ChangeBalanceTest {
@@ -90,8 +128,11 @@ class TransactionServiceImplTest {
             Transaction transaction = TransactionTestBuilder.aTransaction().build();
             String check = "Check";
             BigDecimal newBalance = accountRecipient.getBalance().add(request.sum());
-            Path path = Path.of("Path");
+            CompletableFuture<Receipt> uploaded = new CompletableFuture<>();
 
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doReturn(accountRecipient)
                     .when(accountService)
                     .findById(request.accountRecipientId());
@@ -101,12 +142,9 @@ class TransactionServiceImplTest {
             doNothing()
                     .when(validationService)
                     .validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
-            doNothing()
-                    .when(validationService)
-                    .validateAccountForSufficientBalance(request.type(), request.sum(), accountRecipient.getBalance());
-            doReturn(accountRecipient)
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountRecipient, newBalance);
+                    .addToBalance(accountRecipient, request.sum());
             doReturn(transaction)
                     .when(transactionMapper)
                     .toChangeTransaction(request.type(), accountRecipient.getBank().getId(), accountSender.getBank().getId(), request);
@@ -120,9 +158,9 @@ class TransactionServiceImplTest {
             doReturn(check)
                     .when(checkService)
                     .createChangeBalanceCheck(expected);
-            doReturn(path)
+            doReturn(uploaded)
                     .when(uploadFileService)
-                    .uploadCheck(check);
+                    .uploadCheck(expected.transactionId(), check);
 
             ChangeBalanceResponse actual = transactionService.changeBalance(request);
 
@@ -141,8 +179,11 @@ class TransactionServiceImplTest {
             Transaction transaction = TransactionTestBuilder.aTransaction().build();
             String check = "Check";
             BigDecimal newBalance = accountRecipient.getBalance().subtract(request.sum());
-            Path path = Path.of("Path");
+            CompletableFuture<Receipt> uploaded = new CompletableFuture<>();
 
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doReturn(accountRecipient)
                     .when(accountService)
                     .findById(request.accountRecipientId());
@@ -152,12 +193,9 @@ class TransactionServiceImplTest {
             doNothing()
                     .when(validationService)
                     .validateAccountForClosingDate(accountRecipient.getClosingDate(), accountRecipient.getId());
-            doNothing()
-                    .when(validationService)
-                    .validateAccountForSufficientBalance(request.type(), request.sum(), accountRecipient.getBalance());
-            doReturn(accountRecipient)
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountRecipient, newBalance);
+                    .addToBalance(accountRecipient, request.sum().negate());
             doReturn(transaction)
                     .when(transactionMapper)
                     .toChangeTransaction(request.type(), accountRecipient.getBank().getId(), accountSender.getBank().getId(), request);
@@ -171,9 +209,9 @@ class TransactionServiceImplTest {
             doReturn(check)
                     .when(checkService)
                     .createChangeBalanceCheck(expected);
-            doReturn(path)
+            doReturn(uploaded)
                     .when(uploadFileService)
-                    .uploadCheck(check);
+                    .uploadCheck(expected.transactionId(), check);
 
             ChangeBalanceResponse actual = transactionService.changeBalance(request);
 
@@ -199,11 +237,11 @@ class TransactionServiceImplTest {
             BigDecimal senderNewBalance = accountSender.getBalance().subtract(request.sum());
             BigDecimal recipientNewBalance = accountRecipient.getBalance().add(request.sum());
             String check = "Check";
-            Path path = Path.of("Path");
+            CompletableFuture<Receipt> uploaded = new CompletableFuture<>();
 
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(false);
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doReturn(accountSender)
                     .when(accountService)
                     .findById(request.accountSenderId());
@@ -216,15 +254,12 @@ class TransactionServiceImplTest {
             doNothing()
                     .when(validationService)
                     .validateAccountForCurrency(accountSender.getCurrency(), accountRecipient.getCurrency());
-            doNothing()
-                    .when(validationService)
-                    .validateAccountForSufficientBalance(Type.TRANSFER, request.sum(), accountSender.getBalance());
-            doReturn(accountSender)
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountSender, senderNewBalance);
-            doReturn(accountRecipient)
+                    .addToBalance(accountSender, request.sum().negate());
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountRecipient, recipientNewBalance);
+                    .addToBalance(accountRecipient, request.sum());
             doReturn(transaction)
                     .when(transactionMapper)
                     .toTransferTransaction(Type.TRANSFER, accountSender.getBank().getId(), accountRecipient.getBank().getId(),
@@ -232,9 +267,6 @@ class TransactionServiceImplTest {
             doReturn(transaction)
                     .when(transactionDAO)
                     .save(transaction);
-            doNothing()
-                    .when(connection)
-                    .commit();
             doReturn(expected)
                     .when(transactionMapper)
                     .toTransferResponse(transaction, accountSender.getCurrency(), accountSender.getBank().getName(),
@@ -243,12 +275,9 @@ class TransactionServiceImplTest {
             doReturn(check)
                     .when(checkService)
                     .createTransferBalanceCheck(expected);
-            doReturn(path)
+            doReturn(uploaded)
                     .when(uploadFileService)
-                    .uploadCheck(check);
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(true);
+                    .uploadCheck(expected.transactionId(), check);
 
             TransferBalanceResponse actual = transactionService.transferBalance(request);
 
@@ -266,18 +295,12 @@ class TransactionServiceImplTest {
                     .withAccountSenderId(id)
                     .build();
 
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(false);
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doThrow(new AccountNotFoundException(message))
                     .when(accountService)
                     .findById(id);
-            doNothing()
-                    .when(connection)
-                    .rollback();
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(true);
 
             Exception exception = assertThrows(TransactionException.class, () -> transactionService.transferBalance(request));
             String actualMessage = exception.getMessage();
@@ -285,6 +308,28 @@ class TransactionServiceImplTest {
             assertThat(actualMessage).isEqualTo(expectedMessage);
         }
 
+        @Test
+        @DisplayName("test should rethrow OptimisticLockException if all attempts end in conflict")
+        void testShouldRethrowOptimisticLockExceptionIfAllAttemptsEndInConflict() {
+            String id = "0J2O 6O3P 1CUB VZUT 91SJ X3FU MUR4";
+            String expectedMessage = "Account with ID " + id + " was modified concurrently, expected version 1";
+            TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withAccountSenderId(id)
+                    .build();
+
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+            doThrow(new OptimisticLockException(expectedMessage))
+                    .when(accountService)
+                    .findById(id);
+
+            Exception exception = assertThrows(OptimisticLockException.class,
+                    () -> transactionService.transferBalance(request));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
     }
 
     @Nested
@@ -311,17 +356,8 @@ class TransactionServiceImplTest {
                     .withBalance(expected.recipientOldBalance())
                     .withCurrency(Currency.EUR)
                     .build();
-            BigDecimal recipientOldBalance = accountRecipient.getBalance();
             BigDecimal exchangedSum = expected.sumRecipient();
-            Account updatedAccountSender = AccountTestBuilder.aAccount()
-                    .withId(accountSender.getId())
-                    .withBalance(expected.senderNewBalance())
-                    .build();
-            Account updatedAccountRecipient = AccountTestBuilder.aAccount()
-                    .withId(accountRecipient.getId())
-                    .withBalance(expected.recipientNewBalance())
-                    .withCurrency(Currency.EUR)
-                    .build();
+            BigDecimal recipientOldBalance = expected.recipientNewBalance().subtract(exchangedSum);
             Transaction transaction = TransactionTestBuilder.aTransaction()
                     .withType(Type.EXCHANGE)
                     .withBankSenderId(accountSender.getBank().getId())
@@ -332,20 +368,17 @@ class TransactionServiceImplTest {
                     .withSumRecipient(exchangedSum)
                     .build();
             String check = "Check";
-            Path path = Path.of("Path");
+            CompletableFuture<Receipt> uploaded = new CompletableFuture<>();
 
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(false);
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doReturn(accountSender)
                     .when(accountService)
                     .findById(request.accountSenderId());
             doNothing()
                     .when(validationService)
                     .validateAccountForClosingDate(accountSender.getClosingDate(), accountSender.getId());
-            doNothing()
-                    .when(validationService)
-                    .validateAccountForSufficientBalance(Type.EXCHANGE, request.sum(), senderOldBalance);
             doReturn(accountRecipient)
                     .when(accountService)
                     .findById(request.accountRecipientId());
@@ -355,12 +388,12 @@ class TransactionServiceImplTest {
             doReturn(exchangedSum)
                     .when(nbRBCurrencyService)
                     .exchangeSumByCurrency(accountSender.getCurrency(), accountRecipient.getCurrency(), request.sum());
-            doReturn(updatedAccountSender)
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountSender, accountSender.getBalance().subtract(request.sum()));
-            doReturn(updatedAccountRecipient)
+                    .addToBalance(accountSender, request.sum().negate());
+            doAnswer(TransactionServiceImplTest::addToBalance)
                     .when(accountService)
-                    .updateBalance(accountRecipient, accountRecipient.getBalance().add(exchangedSum));
+                    .addToBalance(accountRecipient, exchangedSum);
             doReturn(transaction)
                     .when(transactionMapper)
                     .toExchangeTransaction(Type.EXCHANGE, accountSender.getBank().getId(),
@@ -369,23 +402,17 @@ class TransactionServiceImplTest {
             doReturn(transaction)
                     .when(transactionDAO)
                     .save(transaction);
-            doNothing()
-                    .when(connection)
-                    .commit();
             doReturn(expected)
                     .when(transactionMapper)
                     .toExchangeResponse(transaction, accountSender.getCurrency(), accountRecipient.getCurrency(),
                             accountSender.getBank().getName(), accountRecipient.getBank().getName(), senderOldBalance,
-                            updatedAccountSender.getBalance(), recipientOldBalance, updatedAccountRecipient.getBalance());
+                            expected.senderNewBalance(), recipientOldBalance, expected.recipientNewBalance());
             doReturn(check)
                     .when(checkService)
                     .createExchangeBalanceCheck(expected);
-            doReturn(path)
+            doReturn(uploaded)
                     .when(uploadFileService)
-                    .uploadCheck(check);
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(true);
+                    .uploadCheck(expected.transactionId(), check);
 
             ExchangeBalanceResponse actual = transactionService.exchangeBalance(request);
 
@@ -403,18 +430,12 @@ class TransactionServiceImplTest {
                     .withAccountSenderId(id)
                     .build();
 
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(false);
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
             doThrow(new AccountNotFoundException(message))
                     .when(accountService)
                     .findById(id);
-            doNothing()
-                    .when(connection)
-                    .rollback();
-            doNothing()
-                    .when(connection)
-                    .setAutoCommit(true);
 
             Exception exception = assertThrows(TransactionException.class, () -> transactionService.exchangeBalance(request));
             String actualMessage = exception.getMessage();
@@ -422,78 +443,275 @@ class TransactionServiceImplTest {
             assertThat(actualMessage).isEqualTo(expectedMessage);
         }
 
+        @Test
+        @DisplayName("test should rethrow OptimisticLockException if all attempts end in conflict")
+        void testShouldRethrowOptimisticLockExceptionIfAllAttemptsEndInConflict() {
+            String id = "0J2O 6O3P 1CUB VZUT 91SJ X3FU MUR4";
+            String expectedMessage = "Account with ID " + id + " was modified concurrently, expected version 1";
+            TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withAccountSenderId(id)
+                    .build();
+
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+            doThrow(new OptimisticLockException(expectedMessage))
+                    .when(accountService)
+                    .findById(id);
+
+            Exception exception = assertThrows(OptimisticLockException.class,
+                    () -> transactionService.exchangeBalance(request));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
     }
 
     @Nested
-    class FindAllByPeriodOfDateAndAccountIdTest {
+    class TransferBatchTest {
+
+        private static final String SENDER_ID = "5X92 ISKH ZUAT 2YF5 D0A9 C2Z4 7UIZ";
+        private static final String RECIPIENT_ID = "BL7U 2IQC IB7Y 3Q0F ZSSW KZOE YRI6";
 
         @Test
-        @DisplayName("test should return expected response that list that contains list of size one")
-        void testShouldReturnExpectedResponseThatContainsListOfSizeOne() {
-            Account account = AccountTestBuilder.aAccount().build();
-            TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
-            TransactionStatement statement = TransactionStatementTestBuilder.aTransactionStatement().build();
-            TransactionStatementResponse expected = TransactionStatementResponseTestBuilder.aTransactionStatementResponse().build();
+        @DisplayName("test should apply all transfers with one batch of balance deltas and one batch of inserts")
+        void testShouldApplyAllTransfersWithOneBatch() {
+            TransactionRequest forward = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withType(Type.TRANSFER)
+                    .build();
+            TransactionRequest backward = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withAccountSenderId(RECIPIENT_ID)
+                    .withAccountRecipientId(SENDER_ID)
+                    .withSum(BigDecimal.valueOf(500))
+                    .withType(Type.TRANSFER)
+                    .build();
+            Account sender = AccountTestBuilder.aAccount().withId(SENDER_ID).build();
+            Account recipient = AccountTestBuilder.aAccount().withId(RECIPIENT_ID).build();
+            Transaction transaction = TransactionTestBuilder.aTransaction().build();
+            TransferBalanceResponse transfer = TransferBalanceResponseTestBuilder.aTransferBalanceResponse().build();
             String check = "Check";
-            Path path = Path.of("Path");
 
-            doReturn(account)
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+            doReturn(List.of(sender, recipient))
                     .when(accountService)
-                    .findById(request.accountId());
-            doReturn(List.of(statement))
+                    .findAllByIdsForUpdate(Set.of(SENDER_ID, RECIPIENT_ID));
+            doReturn(transaction)
+                    .when(transactionMapper)
+                    .toTransferTransaction(any(), any(), any(), any(), any(), any());
+            doReturn(List.of(transaction, transaction))
                     .when(transactionDAO)
-                    .findAllByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-            doReturn(expected)
+                    .saveAll(List.of(transaction, transaction));
+            doReturn(transfer)
                     .when(transactionMapper)
-                    .toStatementResponse(account.getBank().getName(), account.getUser(), account, request, List.of(statement));
+                    .toTransferResponse(any(), any(), any(), any(), any(), any(), any(), any());
             doReturn(check)
                     .when(checkService)
-                    .createTransactionStatement(expected);
-            doReturn(path)
-                    .when(uploadFileService)
-                    .uploadStatement(check);
+                    .createTransferBalanceCheck(transfer);
+
+            TransferBatchResponse actual = transactionService.transferBatch(List.of(forward, backward));
+
+            assertThat(actual.total()).isEqualTo(2);
+            assertThat(actual.succeeded()).isEqualTo(2);
+            assertThat(actual.failed()).isZero();
+            assertThat(actual.items()).containsExactly(new TransferBatchItemResponse(0, transfer, null),
+                    new TransferBatchItemResponse(1, transfer, null));
+            verify(accountService).addToBalances(Map.of(SENDER_ID, BigDecimal.valueOf(-1500),
+                    RECIPIENT_ID, BigDecimal.valueOf(1500)));
+            verify(uploadFileService, times(2)).uploadCheck(transfer.transactionId(), check);
+        }
 
-            TransactionStatementResponse actual = transactionService.findAllByPeriodOfDateAndAccountId(request);
+        @Test
+        @DisplayName("test should return errors of failed items and apply the rest")
+        void testShouldReturnErrorsOfFailedItemsAndApplyTheRest() {
+            String unknownId = "AAAA BBBB CCCC DDDD EEEE FFFF GGGG";
+            TransactionRequest valid = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withType(Type.TRANSFER)
+                    .build();
+            TransactionRequest wrongType = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withType(Type.EXCHANGE)
+                    .build();
+            TransactionRequest unknownAccount = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withAccountRecipientId(unknownId)
+                    .withType(Type.TRANSFER)
+                    .build();
+            TransactionRequest overdraft = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withSum(BigDecimal.valueOf(4000))
+                    .withType(Type.TRANSFER)
+                    .build();
+            Account sender = AccountTestBuilder.aAccount().withId(SENDER_ID).build();
+            Account recipient = AccountTestBuilder.aAccount().withId(RECIPIENT_ID).build();
+            Transaction transaction = TransactionTestBuilder.aTransaction().build();
+            TransferBalanceResponse transfer = TransferBalanceResponseTestBuilder.aTransferBalanceResponse().build();
+            String overdraftMessage = "Insufficient funds in the account!";
 
-            assertThat(actual.transactions()).hasSize(expected.transactions().size());
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+            doReturn(List.of(sender, recipient))
+                    .when(accountService)
+                    .findAllByIdsForUpdate(Set.of(SENDER_ID, RECIPIENT_ID, unknownId));
+            doNothing()
+                    .doThrow(new InsufficientFundsException(overdraftMessage))
+                    .when(validationService)
+                    .validateAccountForSufficientBalance(any(), any(), any());
+            doReturn(transaction)
+                    .when(transactionMapper)
+                    .toTransferTransaction(any(), any(), any(), any(), any(), any());
+            doReturn(List.of(transaction))
+                    .when(transactionDAO)
+                    .saveAll(List.of(transaction));
+            doReturn(transfer)
+                    .when(transactionMapper)
+                    .toTransferResponse(any(), any(), any(), any(), any(), any(), any(), any());
+
+            TransferBatchResponse actual = transactionService.transferBatch(List.of(valid, wrongType, unknownAccount, overdraft));
+
+            assertThat(actual.succeeded()).isEqualTo(1);
+            assertThat(actual.failed()).isEqualTo(3);
+            assertThat(actual.items()).containsExactly(
+                    new TransferBatchItemResponse(0, transfer, null),
+                    new TransferBatchItemResponse(1, null, "type: Available type in batch is: TRANSFER"),
+                    new TransferBatchItemResponse(2, null, "Account with ID " + unknownId + " is not found!"),
+                    new TransferBatchItemResponse(3, null, overdraftMessage));
+            verify(accountService).addToBalances(Map.of(SENDER_ID, BigDecimal.valueOf(-2000),
+                    RECIPIENT_ID, BigDecimal.valueOf(2000)));
         }
 
         @Test
-        @DisplayName("test should return expected response")
-        void testShouldReturnExpectedResponse() {
+        @DisplayName("test should not lock accounts if every item is invalid")
+        void testShouldNotLockAccountsIfEveryItemIsInvalid() {
+            TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest().build();
+
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+
+            TransferBatchResponse actual = transactionService.transferBatch(List.of(request));
+
+            assertThat(actual.failed()).isEqualTo(1);
+            verify(accountService, never()).findAllByIdsForUpdate(any());
+            verify(accountService, never()).addToBalances(any());
+            verify(transactionDAO, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("test should throw TransactionException with expected message")
+        void testShouldThrowTransactionExceptionWithExpectedMessage() {
+            TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
+                    .withType(Type.TRANSFER)
+                    .build();
+            Account sender = AccountTestBuilder.aAccount().withId(SENDER_ID).build();
+            Account recipient = AccountTestBuilder.aAccount().withId(RECIPIENT_ID).build();
+            String message = "Failed to update balances of accounts " + List.of(SENDER_ID, RECIPIENT_ID);
+            String expectedMessage = "Transaction rollback, cause: " + message;
+
+            doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                    .when(transactionManager)
+                    .doInTransaction(any());
+            doReturn(List.of(sender, recipient))
+                    .when(accountService)
+                    .findAllByIdsForUpdate(Set.of(SENDER_ID, RECIPIENT_ID));
+            doThrow(new TransactionException(message))
+                    .when(accountService)
+                    .addToBalances(any());
+
+            Exception exception = assertThrows(TransactionException.class,
+                    () -> transactionService.transferBatch(List.of(request)));
+            String actualMessage = exception.getMessage();
+
+            assertThat(actualMessage).isEqualTo(expectedMessage);
+            verify(transactionDAO, never()).saveAll(any());
+        }
+
+    }
+
+    @Nested
+    class FindAllByPeriodOfDateAndAccountIdTest {
+
+        @TempDir
+        private Path directory;
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should stream transactions to sink and to uploaded statement file")
+        void testShouldStreamTransactionsToSinkAndToUploadedStatementFile() {
             Account account = AccountTestBuilder.aAccount().build();
             TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
             TransactionStatement statement = TransactionStatementTestBuilder.aTransactionStatement().build();
-            TransactionStatementResponse expected = TransactionStatementResponseTestBuilder.aTransactionStatementResponse().build();
-            String check = "Check";
-            Path path = Path.of("Path");
+            TransactionStatementResponse response = TransactionStatementResponseTestBuilder.aTransactionStatementResponse()
+                    .withTransactions(null)
+                    .build();
+            Path part = Files.createFile(directory.resolve("TransactionStatement.part"));
 
             doReturn(account)
                     .when(accountService)
                     .findById(request.accountId());
-            doReturn(List.of(statement))
-                    .when(transactionDAO)
-                    .findAllByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-            doReturn(expected)
+            doReturn(response)
                     .when(transactionMapper)
-                    .toStatementResponse(account.getBank().getName(), account.getUser(), account, request, List.of(statement));
-            doReturn(check)
+                    .toStatementResponse(account.getBank().getName(), account.getUser(), account, request, null);
+            doReturn(part)
+                    .when(uploadFileService)
+                    .createStatementPart();
+            doAnswer(invocation -> {
+                Consumer<TransactionStatement> consumer = invocation.getArgument(3);
+                consumer.accept(statement);
+                consumer.accept(statement);
+                return null;
+            })
+                    .when(transactionDAO)
+                    .findAllByPeriodOfDateAndAccountId(eq(request.from()), eq(request.to()), eq(account.getId()), any());
+            doAnswer(invocation -> invocation.getArgument(0, StringBuilder.class).append("Header\n"))
                     .when(checkService)
-                    .createTransactionStatement(expected);
-            doReturn(path)
+                    .appendTransactionStatementHeader(any(), eq(response));
+            doAnswer(invocation -> invocation.getArgument(0, StringBuilder.class).append("Row\n"))
+                    .when(checkService)
+                    .appendTransactionStatementRow(any(), eq(response), eq(statement));
+
+            transactionService.findAllByPeriodOfDateAndAccountId(request, sink);
+
+            InOrder inOrder = inOrder(sink);
+            inOrder.verify(sink).begin(response);
+            inOrder.verify(sink, times(2)).accept(statement);
+            inOrder.verify(sink).end();
+            verify(uploadFileService).uploadStatement(part);
+            assertThat(Files.readString(part)).isEqualTo("Header\nRow\nRow\n");
+        }
+
+        @Test
+        @SneakyThrows
+        @DisplayName("test should delete statement file and write nothing to sink if reading of transactions fails")
+        void testShouldDeleteStatementFileAndWriteNothingToSinkIfReadingFails() {
+            Account account = AccountTestBuilder.aAccount().build();
+            TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
+            Path part = Files.createFile(directory.resolve("TransactionStatement.part"));
+
+            doReturn(account)
+                    .when(accountService)
+                    .findById(request.accountId());
+            doReturn(part)
                     .when(uploadFileService)
-                    .uploadStatement(check);
+                    .createStatementPart();
+            doThrow(new JDBCConnectionException())
+                    .when(transactionDAO)
+                    .findAllByPeriodOfDateAndAccountId(eq(request.from()), eq(request.to()), eq(account.getId()), any());
 
-            TransactionStatementResponse actual = transactionService.findAllByPeriodOfDateAndAccountId(request);
+            assertThrows(JDBCConnectionException.class,
+                    () -> transactionService.findAllByPeriodOfDateAndAccountId(request, sink));
 
-            assertThat(actual).isEqualTo(expected);
+            assertThat(part).doesNotExist();
+            verifyNoInteractions(sink);
+            verify(uploadFileService, never()).uploadStatement(any());
         }
 
         @Test
+        @SneakyThrows
         @DisplayName("test should throw TransactionNotFoundException with expected message")
         void testShouldThrowTransactionNotFoundExceptionWithExpectedMessage() {
             Account account = AccountTestBuilder.aAccount().build();
             TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
+            Path part = Files.createFile(directory.resolve("TransactionStatement.part"));
             String expectedMessage = "It is not possible to create a transaction amount because" +
                                      " you do not have any transactions for this period of time : from "
                                      + request.from() + " to " + request.to();
@@ -501,15 +719,17 @@ class TransactionServiceImplTest {
             doReturn(account)
                     .when(accountService)
                     .findById(request.accountId());
-            doReturn(List.of())
-                    .when(transactionDAO)
-                    .findAllByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
+            doReturn(part)
+                    .when(uploadFileService)
+                    .createStatementPart();
 
             Exception exception = assertThrows(TransactionNotFoundException.class,
-                    () -> transactionService.findAllByPeriodOfDateAndAccountId(request));
+                    () -> transactionService.findAllByPeriodOfDateAndAccountId(request, sink));
             String actualMessage = exception.getMessage();
 
             assertThat(actualMessage).isEqualTo(expectedMessage);
+            assertThat(part).doesNotExist();
+            verifyNoInteractions(sink);
         }
 
     }
@@ -531,12 +751,9 @@ class TransactionServiceImplTest {
             doReturn(account)
                     .when(accountService)
                     .findById(request.accountId());
-            doReturn(spentFunds)
+            doReturn(new AmountStatement(spentFunds, receivedFunds))
                     .when(transactionDAO)
-                    .findSumOfSpentFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-            doReturn(receivedFunds)
-                    .when(transactionDAO)
-                    .findSumOfReceivedFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
+                    .findSumOfFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
             doReturn(expected)
                     .when(transactionMapper)
                     .toAmountResponse(account.getBank().getName(), account.getUser(), account, request, spentFunds, receivedFunds);
@@ -564,12 +781,9 @@ class TransactionServiceImplTest {
             doReturn(account)
                     .when(accountService)
                     .findById(request.accountId());
-            doReturn(null)
-                    .when(transactionDAO)
-                    .findSumOfSpentFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
-            doReturn(null)
+            doReturn(new AmountStatement(null, null))
                     .when(transactionDAO)
-                    .findSumOfReceivedFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
+                    .findSumOfFundsByPeriodOfDateAndAccountId(request.from(), request.to(), request.accountId());
 
             Exception exception = assertThrows(TransactionNotFoundException.class,
                     () -> transactionService.findSumOfFundsByPeriodOfDateAndAccountId(request));
@@ -732,4 +946,100 @@ class TransactionServiceImplTest {
 
     }
 
+    @Nested
+    class FindHistoryTest {
+
+        private final String id = "0J2O 6O3P 1CUB VZUT 91SJ X3FU MUR4";
+
+        @Test
+        @DisplayName("test should return page without next token if there are no more transactions")
+        void testShouldReturnPageWithoutNextTokenIfThereAreNoMoreTransactions() {
+            TransactionHistoryRequest request = new TransactionHistoryRequest(id, null, null, null, null, null, null,
+                    2);
+            Transaction transaction = TransactionTestBuilder.aTransaction().build();
+            TransactionResponse response = TransactionResponseTestBuilder.aTransactionResponse().build();
+
+            doReturn(List.of(transaction))
+                    .when(transactionDAO)
+                    .findHistoryPage(request, null, 3);
+            doReturn(List.of(response))
+                    .when(transactionMapper)
+                    .toResponseList(List.of(transaction));
+
+            TransactionPageResponse actual = transactionService.findHistory(request);
+
+            assertThat(actual).isEqualTo(new TransactionPageResponse(List.of(response), null));
+        }
+
+        @Test
+        @DisplayName("test should drop extra transaction and return token of last transaction of page")
+        void testShouldDropExtraTransactionAndReturnTokenOfLastTransactionOfPage() {
+            TransactionCursor cursor = new TransactionCursor(LocalDate.of(2023, Month.AUGUST, 30), 10L);
+            TransactionHistoryRequest request = new TransactionHistoryRequest(id, null, null, null, null, null,
+                    cursor.encode(), 2);
+            Transaction first = TransactionTestBuilder.aTransaction().withId(9L).build();
+            Transaction second = TransactionTestBuilder.aTransaction().withId(8L).build();
+            Transaction extra = TransactionTestBuilder.aTransaction().withId(7L).build();
+            List<TransactionResponse> responses = List.of(
+                    TransactionResponseTestBuilder.aTransactionResponse().withId(9L).build(),
+                    TransactionResponseTestBuilder.aTransactionResponse().withId(8L).build());
+
+            doReturn(List.of(first, second, extra))
+                    .when(transactionDAO)
+                    .findHistoryPage(request, cursor, 3);
+            doReturn(responses)
+                    .when(transactionMapper)
+                    .toResponseList(List.of(first, second));
+
+            TransactionPageResponse actual = transactionService.findHistory(request);
+
+            assertAll(
+                    () -> assertThat(actual.transactions()).isEqualTo(responses),
+                    () -> assertThat(TransactionCursor.decode(actual.nextPageToken()))
+                            .isEqualTo(TransactionCursor.of(second))
+            );
+        }
+
+        @Test
+        @DisplayName("test should use default limit if limit is absent and clamp too large limit")
+        void testShouldUseDefaultLimitAndClampTooLargeLimit() {
+            TransactionHistoryRequest withoutLimit = new TransactionHistoryRequest(null, id, null, null, null, null,
+                    null, null);
+            TransactionHistoryRequest tooLarge = new TransactionHistoryRequest(null, id, null, null, null, null,
+                    null, 100_000);
+
+            doReturn(List.of())
+                    .when(transactionDAO)
+                    .findHistoryPage(withoutLimit, null, 51);
+            doReturn(List.of())
+                    .when(transactionDAO)
+                    .findHistoryPage(tooLarge, null, 501);
+
+            TransactionPageResponse defaultPage = transactionService.findHistory(withoutLimit);
+            TransactionPageResponse clampedPage = transactionService.findHistory(tooLarge);
+
+            assertAll(
+                    () -> assertThat(defaultPage.nextPageToken()).isNull(),
+                    () -> assertThat(clampedPage.nextPageToken()).isNull()
+            );
+        }
+
+        @Test
+        @DisplayName("test should throw BadPageTokenException if page token is invalid")
+        void testShouldThrowBadPageTokenExceptionIfPageTokenIsInvalid() {
+            TransactionHistoryRequest request = new TransactionHistoryRequest(id, null, null, null, null, null,
+                    "broken", null);
+
+            assertThrows(BadPageTokenException.class, () -> transactionService.findHistory(request));
+        }
+
+    }
+
+    private static Account addToBalance(InvocationOnMock invocation) {
+        Account account = invocation.getArgument(0);
+        BigDecimal delta = invocation.getArgument(1);
+        account.setBalance(account.getBalance().add(delta));
+        return account;
+    }
+
 }
@@ -1,77 +1,114 @@
 package ru.clevertec.cleverbank.service.impl;
 
-import com.github.marschall.memoryfilesystem.MemoryFileSystemBuilder;
-import lombok.SneakyThrows;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Spy;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
+import ru.clevertec.cleverbank.model.Receipt;
+import ru.clevertec.cleverbank.util.ReceiptWriter;
 
-import java.nio.file.FileSystem;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
 
 @ExtendWith(MockitoExtension.class)
 class UploadFileServiceImplTest {
 
-    @Spy
+    private final Path directory = Path.of("receipts");
+
+    @InjectMocks
     private UploadFileServiceImpl uploadFileService;
+    @Mock
+    private ReceiptWriter receiptWriter;
 
     @Test
-    @SneakyThrows
-    @DisplayName("test uploadCheck method should save a file.txt")
+    @DisplayName("test uploadCheck method should store check under its transaction id")
     void testUploadCheck() {
         String check = "Hello, Check!";
-        FileSystem fileSystem = MemoryFileSystemBuilder.newEmpty().build();
+        CompletableFuture<Receipt> expected = new CompletableFuture<>();
+
+        doReturn(expected)
+                .when(receiptWriter)
+                .store(1L, check);
 
-        Path memoryPath = fileSystem.getPath("memory.txt");
-        Files.writeString(memoryPath, check);
+        CompletableFuture<Receipt> actual = uploadFileService.uploadCheck(1L, check);
 
-        Path actualPath = uploadFileService.uploadCheck(check);
+        assertThat(actual).isSameAs(expected);
+    }
+
+    @Test
+    @DisplayName("test createStatementPart method should create temporary file for statement")
+    void testCreateStatementPart() {
+        Path expected = directory.resolve("TransactionStatement123.part");
 
-        assertThat(Files.exists(actualPath)).isTrue();
-        assertThat(Files.readString(actualPath)).startsWith(Files.readString(memoryPath));
+        doReturn(expected)
+                .when(receiptWriter)
+                .createTemporaryFile("TransactionStatement");
 
-        fileSystem.close();
+        Path actual = uploadFileService.createStatementPart();
+
+        assertThat(actual).isEqualTo(expected);
     }
 
     @Test
-    @SneakyThrows
-    @DisplayName("test uploadStatement method should save a file.txt")
+    @DisplayName("test uploadStatement method should return TransactionStatement.txt after statement part is written")
     void testUploadStatement() {
-        String statement = "Hello, Statement!";
-        FileSystem fileSystem = MemoryFileSystemBuilder.newEmpty().build();
+        Path part = directory.resolve("TransactionStatement123.part");
+        Path expectedPath = directory.resolve("TransactionStatement.txt");
 
-        Path memoryPath = fileSystem.getPath("memory.txt");
-        Files.writeString(memoryPath, statement);
+        doReturn(directory)
+                .when(receiptWriter)
+                .getDirectory();
+        doReturn(CompletableFuture.completedFuture(null))
+                .when(receiptWriter)
+                .appendFile(expectedPath, part);
 
-        Path actualPath = uploadFileService.uploadStatement(statement);
+        Path actualPath = uploadFileService.uploadStatement(part);
 
-        assertThat(Files.exists(actualPath)).isTrue();
-        assertThat(Files.readString(actualPath)).startsWith(Files.readString(memoryPath));
+        assertThat(actualPath).isEqualTo(expectedPath);
+    }
 
-        fileSystem.close();
+    @Test
+    @DisplayName("test uploadStatement method should throw UploadFileException if statement is not written")
+    void testUploadStatementShouldThrowUploadFileExceptionIfStatementIsNotWritten() {
+        Path part = directory.resolve("TransactionStatement123.part");
+        Path path = directory.resolve("TransactionStatement.txt");
+        String expectedMessage = "Sorry! We got Server upload file problems";
+
+        doReturn(directory)
+                .when(receiptWriter)
+                .getDirectory();
+        doReturn(CompletableFuture.failedFuture(new UploadFileException(expectedMessage)))
+                .when(receiptWriter)
+                .appendFile(path, part);
+
+        Exception exception = assertThrows(UploadFileException.class, () -> uploadFileService.uploadStatement(part));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
     }
 
     @Test
-    @SneakyThrows
-    @DisplayName("test uploadAmount method should save a file.txt")
+    @DisplayName("test uploadAmount method should return AmountStatement.txt after amount is written")
     void testUploadAmount() {
         String amount = "Hello, Amount!";
-        FileSystem fileSystem = MemoryFileSystemBuilder.newEmpty().build();
+        Path expectedPath = directory.resolve("AmountStatement.txt");
 
-        Path memoryPath = fileSystem.getPath("memory.txt");
-        Files.writeString(memoryPath, amount);
+        doReturn(directory)
+                .when(receiptWriter)
+                .getDirectory();
+        doReturn(CompletableFuture.completedFuture(null))
+                .when(receiptWriter)
+                .append(expectedPath, amount);
 
         Path actualPath = uploadFileService.uploadAmount(amount);
 
-        assertThat(Files.exists(actualPath)).isTrue();
-        assertThat(Files.readString(actualPath)).startsWith(Files.readString(memoryPath));
-
-        fileSystem.close();
+        assertThat(actualPath).isEqualTo(expectedPath);
     }
 
 }
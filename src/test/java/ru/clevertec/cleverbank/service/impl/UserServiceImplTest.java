@@ -9,12 +9,18 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.builder.user.UserRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.user.UserResponseTestBuilder;
 import ru.clevertec.cleverbank.builder.user.UserTestBuilder;
+import ru.clevertec.cleverbank.cache.AccountCache;
+import ru.clevertec.cleverbank.cache.ReferenceCache;
+import ru.clevertec.cleverbank.cache.impl.DisabledAccountCache;
+import ru.clevertec.cleverbank.cache.impl.ReferenceCacheImpl;
 import ru.clevertec.cleverbank.dao.UserDAO;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.user.UserRequest;
@@ -24,13 +30,21 @@ import ru.clevertec.cleverbank.exception.notfound.UserNotFoundException;
 import ru.clevertec.cleverbank.mapper.UserMapper;
 import ru.clevertec.cleverbank.model.User;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +56,11 @@ class UserServiceImplTest {
     private UserDAO userDAO;
     @Mock
     private UserMapper userMapper;
+    @Spy
+    private ReferenceCache<Long, User> userCache = new ReferenceCacheImpl<>("userServiceTest", User::getId,
+            id -> userDAO.findById(id), List::of, since -> List.of(), List::of, Duration.ZERO, Clock.systemUTC());
+    @Spy
+    private AccountCache accountCache = new DisabledAccountCache();
     @Captor
     private ArgumentCaptor<User> captor;
 
@@ -135,6 +154,34 @@ class UserServiceImplTest {
 
     }
 
+    @Nested
+    class FindAllPageTest {
+
+        @Test
+        @DisplayName("test should pass page of responses to consumer")
+        void testShouldPassPageOfResponsesToConsumer() {
+            UserResponse expected = UserResponseTestBuilder.aUserResponse().build();
+            User user = UserTestBuilder.aUser().build();
+            List<UserResponse> actual = new ArrayList<>();
+
+            doAnswer(invocation -> {
+                Consumer<User> consumer = invocation.getArgument(2);
+                consumer.accept(user);
+                return null;
+            })
+                    .when(userDAO)
+                    .findAllAfter(eq(1L), eq(20), any());
+            doReturn(expected)
+                    .when(userMapper)
+                    .toResponse(user);
+
+            userService.findAll(1L, 20, actual::add);
+
+            assertThat(actual).containsExactly(expected);
+        }
+
+    }
+
     @Nested
     class SaveTest {
 
@@ -163,6 +210,7 @@ class UserServiceImplTest {
 
             User userCaptor = captor.getValue();
             assertThat(userCaptor).isEqualTo(expected);
+            verify(userCache).put(expected);
         }
 
         @Test
@@ -214,6 +262,7 @@ class UserServiceImplTest {
             UserResponse actual = userService.update(user.getId(), request);
 
             assertThat(actual).isEqualTo(expected);
+            verify(userCache).put(user);
         }
 
         @Test
@@ -257,7 +306,12 @@ class UserServiceImplTest {
 
             DeleteResponse actual = userService.delete(user.getId());
 
+            InOrder inOrder = inOrder(userDAO, userCache, accountCache);
+
             assertThat(actual).isEqualTo(expected);
+            inOrder.verify(userDAO).delete(user.getId());
+            inOrder.verify(userCache).invalidate(user.getId());
+            inOrder.verify(accountCache).invalidateAll();
         }
 
         @Test
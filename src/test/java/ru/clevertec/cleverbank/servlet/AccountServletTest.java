@@ -16,18 +16,27 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.account.AccountRequest;
 import ru.clevertec.cleverbank.dto.account.AccountResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.model.Currency;
 import ru.clevertec.cleverbank.service.AccountService;
 import ru.clevertec.cleverbank.builder.account.AccountRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.account.AccountResponseTestBuilder;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class AccountServletTest {
@@ -89,19 +98,22 @@ class AccountServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of(response1, response2))
+        doAnswer(invocation -> {
+            Consumer<AccountResponse> consumer = invocation.getArgument(2);
+            List.of(response1, response2).forEach(consumer);
+            return null;
+        })
                 .when(accountService)
-                .findAllResponses();
+                .findAllResponses(isNull(), isNull(), any());
 
         accountServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
@@ -115,23 +127,62 @@ class AccountServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of())
-                .when(accountService)
-                .findAllResponses();
 
         accountServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should pass keyset page params to service")
+    void testDoGetFindAllShouldPassKeysetPageParamsToService() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn("HK5H 7CEV LQKJ XSF6 WGEL 5AMZ QXVA")
+                .when(req)
+                .getParameter("after");
+        doReturn("2")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        accountServlet.doGet(req, resp);
+
+        verify(accountService).findAllResponses(eq("HK5H 7CEV LQKJ XSF6 WGEL 5AMZ QXVA"), eq(2), any());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should throw BadParameterException if limit is not a number")
+    void testDoGetFindAllShouldThrowBadParameterExceptionIfLimitIsNotANumber() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn(null)
+                .when(req)
+                .getParameter("after");
+        doReturn("abc")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        assertThrows(BadParameterException.class, () -> accountServlet.doGet(req, resp));
+
+        verifyNoInteractions(accountService);
+    }
 
     @Test
     @SneakyThrows
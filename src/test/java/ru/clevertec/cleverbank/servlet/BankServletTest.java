@@ -16,16 +16,25 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.bank.BankRequest;
 import ru.clevertec.cleverbank.dto.bank.BankResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.service.BankService;
 import ru.clevertec.cleverbank.builder.bank.BankRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.bank.BankResponseTestBuilder;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class BankServletTest {
@@ -87,19 +96,22 @@ class BankServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of(response1, response2))
+        doAnswer(invocation -> {
+            Consumer<BankResponse> consumer = invocation.getArgument(2);
+            List.of(response1, response2).forEach(consumer);
+            return null;
+        })
                 .when(bankService)
-                .findAll();
+                .findAll(isNull(), isNull(), any());
 
         bankServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
@@ -113,23 +125,62 @@ class BankServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of())
-                .when(bankService)
-                .findAll();
 
         bankServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should pass keyset page params to service")
+    void testDoGetFindAllShouldPassKeysetPageParamsToService() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn("1")
+                .when(req)
+                .getParameter("after");
+        doReturn("2")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        bankServlet.doGet(req, resp);
+
+        verify(bankService).findAll(eq(1L), eq(2), any());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should throw BadParameterException if limit is negative")
+    void testDoGetFindAllShouldThrowBadParameterExceptionIfLimitIsNegative() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn(null)
+                .when(req)
+                .getParameter("after");
+        doReturn("-1")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        assertThrows(BadParameterException.class, () -> bankServlet.doGet(req, resp));
+
+        verifyNoInteractions(bankService);
+    }
 
     @Test
     @SneakyThrows
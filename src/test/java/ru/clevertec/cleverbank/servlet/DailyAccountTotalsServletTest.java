@@ -0,0 +1,91 @@
+package ru.clevertec.cleverbank.servlet;
+
+import com.google.gson.Gson;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsCheckResponse;
+import ru.clevertec.cleverbank.dto.dailytotals.DailyTotalsRebuildResponse;
+import ru.clevertec.cleverbank.service.DailyAccountTotalsService;
+
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DailyAccountTotalsServletTest {
+
+    private static final LocalDate COMPACTED_THROUGH = LocalDate.of(2023, Month.AUGUST, 29);
+
+    @InjectMocks
+    private DailyAccountTotalsServlet dailyAccountTotalsServlet;
+    @Mock
+    private DailyAccountTotalsService dailyAccountTotalsService;
+    @Mock
+    private HttpServletRequest req;
+    @Mock
+    private HttpServletResponse resp;
+    @Mock
+    private PrintWriter printWriter;
+    @Captor
+    private ArgumentCaptor<String> captor;
+    @Spy
+    private Gson gson;
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should capture json with check result from PrintWriter")
+    void testDoGetShouldCaptureJsonWithCheckResult() {
+        DailyTotalsCheckResponse response = new DailyTotalsCheckResponse(null, true, List.of());
+
+        doReturn(response)
+                .when(dailyAccountTotalsService)
+                .check();
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        dailyAccountTotalsServlet.doGet(req, resp);
+        verify(printWriter).print(captor.capture());
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).isEqualTo("{\"consistent\":true,\"mismatches\":[]}");
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doPost should capture json with rebuild result from PrintWriter")
+    void testDoPostShouldCaptureJsonWithRebuildResult() {
+        DailyTotalsRebuildResponse response = new DailyTotalsRebuildResponse(COMPACTED_THROUGH, 42);
+
+        doReturn(response)
+                .when(dailyAccountTotalsService)
+                .rebuild();
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        dailyAccountTotalsServlet.doPost(req, resp);
+        verify(printWriter).print(captor.capture());
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).contains("\"rows_count\":42");
+    }
+
+}
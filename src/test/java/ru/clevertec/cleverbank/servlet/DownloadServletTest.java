@@ -1,79 +1,344 @@
 package ru.clevertec.cleverbank.servlet;
 
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.dto.download.DownloadFile;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+import ru.clevertec.cleverbank.exception.badrequest.MissingParameterException;
+import ru.clevertec.cleverbank.service.PdfService;
+import ru.clevertec.cleverbank.service.ReceiptService;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class DownloadServletTest {
 
+    private static final String FILE_NAME = "TransactionStatement.txt";
+    private static final String ETAG = "\"a-18a4b1c2d00\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2023-08-30T10:15:30Z");
+
     @InjectMocks
     private DownloadServlet downloadServlet;
     @Mock
-    private HttpServletRequest req;
+    private ReceiptService receiptService;
     @Mock
-    private HttpServletResponse resp;
+    private PdfService pdfService;
     @Mock
-    private ServletOutputStream outputStream;
+    private HttpServletRequest req;
     @Mock
-    private BufferedReader reader;
+    private HttpServletResponse resp;
+    @TempDir
+    private Path directory;
+
+    private final Map<String, String> parameters = new HashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+    };
+    private DownloadFile file;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        Path path = Files.writeString(directory.resolve(FILE_NAME), "0123456789");
+        file = new DownloadFile(FILE_NAME, path, 10, LAST_MODIFIED, ETAG);
+    }
 
     @Test
     @SneakyThrows
-    @DisplayName("test doGet should capture expected values")
-    void testDoGetShouldCaptureExpectedValues() {
-        String file = "BankCheck.txt";
-        ArgumentCaptor<String> headerNameCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> headerValueCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> contentTypeCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> characterEncodingCaptor = ArgumentCaptor.forClass(String.class);
-        String expectedHeaderName = "Content-Disposition";
-        String expectedHeaderValue = "attachment; filename=\"%s\"".formatted(file);
-        String expectedContentType = "text/plain";
-        String expectedCharacterEncoding = "UTF-8";
-
-        doReturn(reader)
-                .when(req)
-                .getReader();
-        doReturn(file, (Object) null)
-                .when(reader)
-                .readLine();
+    @DisplayName("test doGet should send whole statement with validators by file parameter")
+    void testDoGetShouldSendWholeStatementWithValidatorsByFileParameter() {
+        stubStatementRequest();
+        doReturn(outputStream)
+                .when(resp)
+                .getOutputStream();
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp).setHeader("Content-Disposition", "attachment; filename=\"%s\"".formatted(FILE_NAME)),
+                () -> verify(resp).setContentType("text/plain"),
+                () -> verify(resp).setCharacterEncoding("UTF-8"),
+                () -> verify(resp).setHeader("Accept-Ranges", "bytes"),
+                () -> verify(resp).setHeader("ETag", ETAG),
+                () -> verify(resp).setDateHeader("Last-Modified", LAST_MODIFIED.toEpochMilli()),
+                () -> verify(resp).setContentLengthLong(10),
+                () -> verify(resp, never()).setStatus(anyInt()),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("0123456789")
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should send check of transaction by transaction_id")
+    void testDoGetShouldSendCheckOfTransactionByTransactionId() {
+        Path path = Files.writeString(directory.resolve("check.txt"), "Check");
+
+        parameters.put("transaction_id", "1");
+        stubParameters();
+        doReturn(new DownloadFile("check-1.txt", path, 5, LAST_MODIFIED, ETAG))
+                .when(receiptService)
+                .findCheckByTransactionId(1L);
+        doReturn(outputStream)
+                .when(resp)
+                .getOutputStream();
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp).setHeader("Content-Disposition", "attachment; filename=\"check-1.txt\""),
+                () -> verify(resp).setContentLengthLong(5),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("Check")
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should send partial content for range")
+    void testDoGetShouldSendPartialContentForRange() {
+        headers.put("Range", "bytes=2-5");
+        stubStatementRequest();
+        doReturn(outputStream)
+                .when(resp)
+                .getOutputStream();
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT),
+                () -> verify(resp).setHeader("Content-Range", "bytes 2-5/10"),
+                () -> verify(resp).setContentLengthLong(4),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("2345")
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should send tail of file for suffix range")
+    void testDoGetShouldSendTailOfFileForSuffixRange() {
+        headers.put("Range", "bytes=-3");
+        stubStatementRequest();
         doReturn(outputStream)
                 .when(resp)
                 .getOutputStream();
 
         downloadServlet.doGet(req, resp);
 
-        verify(resp).setHeader(headerNameCaptor.capture(), headerValueCaptor.capture());
-        verify(resp).setContentType(contentTypeCaptor.capture());
-        verify(resp).setCharacterEncoding(characterEncodingCaptor.capture());
+        assertAll(
+                () -> verify(resp).setHeader("Content-Range", "bytes 7-9/10"),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("789")
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should respond 416 if range starts after end of file")
+    void testDoGetShouldRespond416IfRangeStartsAfterEndOfFile() {
+        headers.put("Range", "bytes=20-");
+        stubStatementRequest();
 
-        String actualHeaderName = headerNameCaptor.getValue();
-        String actualHeaderValue = headerValueCaptor.getValue();
-        String actualContentType = contentTypeCaptor.getValue();
-        String actualCharacterEncoding = characterEncodingCaptor.getValue();
+        downloadServlet.doGet(req, resp);
 
         assertAll(
-                () -> assertThat(actualHeaderName).isEqualTo(expectedHeaderName),
-                () -> assertThat(actualHeaderValue).isEqualTo(expectedHeaderValue),
-                () -> assertThat(actualContentType).isEqualTo(expectedContentType),
-                () -> assertThat(actualCharacterEncoding).isEqualTo(expectedCharacterEncoding)
+                () -> verify(resp).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE),
+                () -> verify(resp).setHeader("Content-Range", "bytes */10"),
+                () -> verify(resp, never()).getOutputStream()
         );
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should send whole file if If-Range does not match ETag")
+    void testDoGetShouldSendWholeFileIfIfRangeDoesNotMatchETag() {
+        headers.put("Range", "bytes=2-5");
+        headers.put("If-Range", "\"outdated\"");
+        stubStatementRequest();
+        doReturn(outputStream)
+                .when(resp)
+                .getOutputStream();
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp, never()).setStatus(anyInt()),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("0123456789")
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should respond 304 if If-None-Match contains ETag")
+    void testDoGetShouldRespond304IfIfNoneMatchContainsETag() {
+        headers.put("If-None-Match", "\"other\", W/" + ETAG);
+        stubStatementRequest();
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED),
+                () -> verify(resp, never()).getOutputStream()
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should respond 304 if file is not modified since date of If-Modified-Since")
+    void testDoGetShouldRespond304IfFileIsNotModifiedSinceDate() {
+        stubStatementRequest();
+        doReturn(LAST_MODIFIED.toEpochMilli() + 999)
+                .when(req)
+                .getDateHeader("If-Modified-Since");
+
+        downloadServlet.doGet(req, resp);
+
+        verify(resp).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should hand file over to sendfile if container supports it")
+    void testDoGetShouldHandFileOverToSendfileIfContainerSupportsIt() {
+        headers.put("Range", "bytes=2-5");
+        stubStatementRequest();
+        doReturn(true)
+                .when(req)
+                .getAttribute("org.apache.tomcat.sendfile.support");
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(req).setAttribute("org.apache.tomcat.sendfile.filename",
+                        file.path().toRealPath().toString()),
+                () -> verify(req).setAttribute("org.apache.tomcat.sendfile.start", 2L),
+                () -> verify(req).setAttribute("org.apache.tomcat.sendfile.end", 6L),
+                () -> verify(resp, never()).getOutputStream()
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should send statement rendered to pdf if format is pdf")
+    void testDoGetShouldSendStatementRenderedToPdfIfFormatIsPdf() {
+        parameters.put("file", FILE_NAME);
+        parameters.put("format", "pdf");
+        stubParameters();
+        doReturn(file)
+                .when(receiptService)
+                .findStatement(FILE_NAME);
+        doReturn(outputStream)
+                .when(resp)
+                .getOutputStream();
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Reader.class).transferTo(new StringWriter());
+            outputStream.print("%PDF");
+            return null;
+        })
+                .when(pdfService)
+                .writeText(any(Reader.class), eq(outputStream));
+
+        downloadServlet.doGet(req, resp);
+
+        assertAll(
+                () -> verify(resp).setHeader("Content-Disposition", "attachment; filename=\"TransactionStatement.pdf\""),
+                () -> verify(resp).setContentType("application/pdf"),
+                () -> verify(resp).setDateHeader("Last-Modified", LAST_MODIFIED.toEpochMilli()),
+                () -> verify(resp, never()).setContentLengthLong(anyLong()),
+                () -> assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("%PDF")
+        );
+    }
+
+    @Test
+    @DisplayName("test doGet should throw MissingParameterException with expected message if no file is requested")
+    void testDoGetShouldThrowMissingParameterExceptionIfNoFileIsRequested() {
+        String expectedMessage = "Request parameter transaction_id or file is required";
+
+        Exception exception = assertThrows(MissingParameterException.class, () -> downloadServlet.doGet(req, resp));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+    }
+
+    @Test
+    @DisplayName("test doGet should throw BadParameterException with expected message if transaction_id is not a number")
+    void testDoGetShouldThrowBadParameterExceptionIfTransactionIdIsNotANumber() {
+        String expectedMessage = "Transaction id abc is not an integer number";
+
+        parameters.put("transaction_id", "abc");
+        stubParameters();
+
+        Exception exception = assertThrows(BadParameterException.class, () -> downloadServlet.doGet(req, resp));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        verifyNoInteractions(receiptService);
+    }
+
+    private void stubStatementRequest() {
+        parameters.put("file", FILE_NAME);
+        stubParameters();
+        doReturn(file)
+                .when(receiptService)
+                .findStatement(FILE_NAME);
+        doAnswer(invocation -> headers.get(invocation.<String>getArgument(0)))
+                .when(req)
+                .getHeader(anyString());
+    }
+
+    private void stubParameters() {
+        doAnswer(invocation -> parameters.get(invocation.<String>getArgument(0)))
+                .when(req)
+                .getParameter(anyString());
+    }
+
 }
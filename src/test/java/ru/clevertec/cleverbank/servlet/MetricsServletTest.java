@@ -0,0 +1,58 @@
+package ru.clevertec.cleverbank.servlet;
+
+import com.google.gson.Gson;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.util.MetricsRegistry;
+
+import java.io.PrintWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsServletTest {
+
+    @InjectMocks
+    private MetricsServlet metricsServlet;
+    @Mock
+    private HttpServletRequest req;
+    @Mock
+    private HttpServletResponse resp;
+    @Mock
+    private PrintWriter printWriter;
+    @Captor
+    private ArgumentCaptor<String> captor;
+    @Spy
+    private Gson gson;
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet should capture json with registered metrics from PrintWriter")
+    void testDoGetShouldCaptureJsonWithRegisteredMetrics() {
+        MetricsRegistry.increment("test.servlet.counter");
+
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        metricsServlet.doGet(req, resp);
+        verify(printWriter).print(captor.capture());
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).contains("\"test.servlet.counter\":1");
+    }
+
+}
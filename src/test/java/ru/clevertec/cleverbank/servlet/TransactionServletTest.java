@@ -25,30 +25,54 @@ import ru.clevertec.cleverbank.builder.transaction.TransactionRequestTestBuilder
 import ru.clevertec.cleverbank.builder.transaction.TransactionResponseTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.TransactionStatementRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.TransactionStatementResponseTestBuilder;
+import ru.clevertec.cleverbank.builder.transaction.TransactionStatementTestBuilder;
 import ru.clevertec.cleverbank.builder.transaction.TransferBalanceResponseTestBuilder;
 import ru.clevertec.cleverbank.dto.transaction.AmountStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.ChangeBalanceResponse;
 import ru.clevertec.cleverbank.dto.transaction.ExchangeBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransactionHistoryRequest;
+import ru.clevertec.cleverbank.dto.transaction.TransactionPageResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementRequest;
 import ru.clevertec.cleverbank.dto.transaction.TransactionStatementResponse;
 import ru.clevertec.cleverbank.dto.transaction.TransferBalanceResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchItemResponse;
+import ru.clevertec.cleverbank.dto.transaction.TransferBatchResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadPageTokenException;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+import ru.clevertec.cleverbank.exception.conflict.LocalDateParseException;
+import ru.clevertec.cleverbank.exception.internalservererror.JDBCConnectionException;
+import ru.clevertec.cleverbank.exception.internalservererror.TransactionException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
 import ru.clevertec.cleverbank.model.Type;
 import ru.clevertec.cleverbank.service.TransactionService;
+import ru.clevertec.cleverbank.service.TransactionStatementSink;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.sql.SQLException;
+import java.io.StringWriter;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServletTest {
@@ -71,6 +95,8 @@ class TransactionServletTest {
     private ArgumentCaptor<String> captor;
     @Spy
     private Gson gson;
+    @Spy
+    private Executor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
     private CountDownLatch latch;
 
     @Nested
@@ -171,56 +197,70 @@ class TransactionServletTest {
 
         @SneakyThrows
         @RepeatedTest(5)
-        @DisplayName("test doPost findAllByPeriodOfDateAndAccountId should capture expected json from PrintWriter and status 201")
-        void testDoPostFindAllByPeriodOfDateAndAccountIdShouldCaptureExpectedJsonFromPrintWriter() {
+        @DisplayName("test doPost findAllByPeriodOfDateAndAccountId should stream expected json and status 201")
+        void testDoPostFindAllByPeriodOfDateAndAccountIdShouldStreamExpectedJson() {
             TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
-            TransactionStatementResponse response = TransactionStatementResponseTestBuilder.aTransactionStatementResponse().build();
+            TransactionStatementResponse response = TransactionStatementResponseTestBuilder.aTransactionStatementResponse()
+                    .withTransactions(List.of(TransactionStatementTestBuilder.aTransactionStatement().build(),
+                            TransactionStatementTestBuilder.aTransactionStatement().withUserLastname("Петров").build()))
+                    .build();
             String expectedJson = gson.toJson(response);
+            StringWriter stringWriter = new StringWriter();
 
-            doReturn(asyncContext)
-                    .when(req)
-                    .startAsync();
-            doReturn(null)
-                    .when(servletRequest)
-                    .getAttribute("changeBalanceRequest");
-            doReturn(request)
-                    .when(servletRequest)
-                    .getAttribute("statementRequest");
-            doReturn(servletRequest)
-                    .when(asyncContext)
-                    .getRequest();
-            doReturn(response)
-                    .when(transactionService)
-                    .findAllByPeriodOfDateAndAccountId(request);
-            doReturn(resp)
-                    .when(asyncContext)
-                    .getResponse();
-            doReturn(printWriter)
-                    .when(resp)
-                    .getWriter();
+            stubStatementRequest(request);
             doAnswer(invocation -> {
-                latch.countDown();
+                TransactionStatementSink sink = invocation.getArgument(1);
+                sink.begin(TransactionStatementResponseTestBuilder.aTransactionStatementResponse()
+                        .withTransactions(null)
+                        .build());
+                response.transactions().forEach(sink::accept);
+                sink.end();
                 return null;
             })
-                    .when(asyncContext)
-                    .complete();
+                    .when(transactionService)
+                    .findAllByPeriodOfDateAndAccountId(eq(request), any(JsonTransactionStatementSink.class));
+            doReturn(new PrintWriter(stringWriter))
+                    .when(resp)
+                    .getWriter();
 
             transactionServlet.doPost(req, resp);
             latch.await(5, TimeUnit.SECONDS);
 
             verify(resp).setStatus(201);
-            verify(printWriter).print(captor.capture());
-            verify(printWriter).flush();
 
-            String actualJson = captor.getValue();
+            assertThat(stringWriter.toString()).isEqualTo(expectedJson);
+        }
 
-            assertThat(actualJson).isEqualTo(expectedJson);
+        @SneakyThrows
+        @RepeatedTest(5)
+        @DisplayName("test doPost findAllByPeriodOfDateAndAccountId should not redirect if statement stream is started")
+        void testDoPostFindAllByPeriodOfDateAndAccountIdShouldNotRedirectIfStreamIsStarted() {
+            TransactionStatementRequest request = TransactionStatementRequestTestBuilder.aTransactionStatementRequest().build();
+
+            stubStatementRequest(request);
+            doAnswer(invocation -> {
+                invocation.getArgument(1, TransactionStatementSink.class)
+                        .begin(TransactionStatementResponseTestBuilder.aTransactionStatementResponse()
+                                .withTransactions(null)
+                                .build());
+                throw new JDBCConnectionException();
+            })
+                    .when(transactionService)
+                    .findAllByPeriodOfDateAndAccountId(eq(request), any(JsonTransactionStatementSink.class));
+            doReturn(new PrintWriter(new StringWriter()))
+                    .when(resp)
+                    .getWriter();
+
+            transactionServlet.doPost(req, resp);
+            latch.await(5, TimeUnit.SECONDS);
+
+            verify(asyncContext, never()).dispatch(any());
         }
 
         @SneakyThrows
         @RepeatedTest(5)
-        @DisplayName("test doPut transferBalance should catch SQLException and redirect to exception handler")
-        void testDoPutTransferBalanceShouldCatchSQLException() {
+        @DisplayName("test doPut transferBalance should catch TransactionException and redirect to exception handler")
+        void testDoPutTransferBalanceShouldCatchTransactionException() {
             TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
                     .withType(Type.TRANSFER)
                     .build();
@@ -235,7 +275,7 @@ class TransactionServletTest {
             doReturn(servletRequest)
                     .when(asyncContext)
                     .getRequest();
-            doThrow(new SQLException("Error message"))
+            doThrow(new TransactionException("Error message"))
                     .when(transactionService)
                     .transferBalance(request);
             doAnswer(invocation -> {
@@ -257,8 +297,8 @@ class TransactionServletTest {
 
         @SneakyThrows
         @RepeatedTest(5)
-        @DisplayName("test doPut exchangeBalance should catch SQLException and redirect to exception handler")
-        void testDoPutExchangeBalanceShouldCatchSQLException() {
+        @DisplayName("test doPut exchangeBalance should catch TransactionException and redirect to exception handler")
+        void testDoPutExchangeBalanceShouldCatchTransactionException() {
             TransactionRequest request = TransactionRequestTestBuilder.aTransactionRequest()
                     .withType(Type.EXCHANGE)
                     .build();
@@ -273,7 +313,7 @@ class TransactionServletTest {
             doReturn(servletRequest)
                     .when(asyncContext)
                     .getRequest();
-            doThrow(new SQLException("Error message"))
+            doThrow(new TransactionException("Error message"))
                     .when(transactionService)
                     .exchangeBalance(request);
             doAnswer(invocation -> {
@@ -340,6 +380,58 @@ class TransactionServletTest {
             assertThat(actualJson).isEqualTo(expectedJson);
         }
 
+        @SneakyThrows
+        @RepeatedTest(5)
+        @DisplayName("test doPut transferBatch should capture expected json from PrintWriter and status 201")
+        void testDoPutTransferBatchShouldCaptureExpectedJsonFromPrintWriter() {
+            List<TransactionRequest> requests = List.of(TransactionRequestTestBuilder.aTransactionRequest()
+                    .withType(Type.TRANSFER)
+                    .build());
+            TransferBalanceResponse transfer = TransferBalanceResponseTestBuilder.aTransferBalanceResponse().build();
+            TransferBatchResponse response = new TransferBatchResponse(1, 1, 0,
+                    List.of(new TransferBatchItemResponse(0, transfer, null)));
+            String expectedJson = gson.toJson(response);
+
+            doReturn(asyncContext)
+                    .when(req)
+                    .startAsync();
+            doReturn(null)
+                    .when(servletRequest)
+                    .getAttribute("transferBalanceRequest");
+            doReturn(requests)
+                    .when(servletRequest)
+                    .getAttribute("transferBatchRequest");
+            doReturn(servletRequest)
+                    .when(asyncContext)
+                    .getRequest();
+            doReturn(response)
+                    .when(transactionService)
+                    .transferBatch(requests);
+            doReturn(resp)
+                    .when(asyncContext)
+                    .getResponse();
+            doReturn(printWriter)
+                    .when(resp)
+                    .getWriter();
+            doAnswer(invocation -> {
+                latch.countDown();
+                return null;
+            })
+                    .when(asyncContext)
+                    .complete();
+
+            transactionServlet.doPut(req, resp);
+            latch.await(5, TimeUnit.SECONDS);
+
+            verify(resp).setStatus(201);
+            verify(printWriter).print(captor.capture());
+            verify(printWriter).flush();
+
+            String actualJson = captor.getValue();
+
+            assertThat(actualJson).isEqualTo(expectedJson);
+        }
+
         @SneakyThrows
         @RepeatedTest(5)
         @DisplayName("test doPut exchangeBalance should capture expected json from PrintWriter and status 201")
@@ -401,6 +493,9 @@ class TransactionServletTest {
             doReturn(null)
                     .when(servletRequest)
                     .getAttribute("transferBalanceRequest");
+            doReturn(null)
+                    .when(servletRequest)
+                    .getAttribute("transferBatchRequest");
             doReturn(request)
                     .when(servletRequest)
                     .getAttribute("amountRequest");
@@ -478,6 +573,76 @@ class TransactionServletTest {
             assertThat(actualPath).isEqualTo(expectedPath);
         }
 
+        private void stubStatementRequest(TransactionStatementRequest request) {
+            doReturn(asyncContext)
+                    .when(req)
+                    .startAsync();
+            doReturn(null)
+                    .when(servletRequest)
+                    .getAttribute("changeBalanceRequest");
+            doReturn(request)
+                    .when(servletRequest)
+                    .getAttribute("statementRequest");
+            doReturn(servletRequest)
+                    .when(asyncContext)
+                    .getRequest();
+            doReturn(resp)
+                    .when(asyncContext)
+                    .getResponse();
+            doAnswer(invocation -> {
+                latch.countDown();
+                return null;
+            })
+                    .when(asyncContext)
+                    .complete();
+        }
+
+    }
+
+    @Test
+    @DisplayName("test doPost should redirect to exception handler if executor rejects the task")
+    void testDoPostShouldRedirectToExceptionHandlerIfExecutorRejectsTask() {
+        ExecutorOverloadedException exception = new ExecutorOverloadedException("Server is overloaded");
+        String expectedPath = "/exception_handler";
+
+        doReturn(asyncContext)
+                .when(req)
+                .startAsync();
+        doThrow(exception)
+                .when(executor)
+                .execute(any());
+
+        transactionServlet.doPost(req, resp);
+
+        verify(req).setAttribute(ERROR_EXCEPTION, exception);
+        verify(asyncContext).dispatch(captor.capture());
+
+        String actualPath = captor.getValue();
+
+        assertThat(actualPath).isEqualTo(expectedPath);
+    }
+
+    @Test
+    @DisplayName("test doPut should redirect to exception handler if executor rejects the task")
+    void testDoPutShouldRedirectToExceptionHandlerIfExecutorRejectsTask() {
+        ExecutorOverloadedException exception = new ExecutorOverloadedException("Server is overloaded");
+        String expectedPath = "/exception_handler";
+
+        doReturn(asyncContext)
+                .when(req)
+                .startAsync();
+        doThrow(exception)
+                .when(executor)
+                .execute(any());
+
+        transactionServlet.doPut(req, resp);
+
+        verify(req).setAttribute(ERROR_EXCEPTION, exception);
+        verify(asyncContext).dispatch(captor.capture());
+
+        String actualPath = captor.getValue();
+
+        assertThat(actualPath).isEqualTo(expectedPath);
     }
 
     @Test
@@ -643,4 +808,151 @@ class TransactionServletTest {
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findHistory should pass filters to service and capture page with next token")
+    void testDoGetFindHistoryShouldCaptureExpectedJsonFromPrintWriter() {
+        String id = "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q";
+        TransactionHistoryRequest request = new TransactionHistoryRequest(id, null, Type.TRANSFER,
+                LocalDate.of(2023, 8, 1), LocalDate.of(2023, 8, 31), "55JN NKDA XKNN Y2QR 3TAX KVJ9 QSAB",
+                "AABK0wAAAAAAAAAJ", 20);
+        TransactionPageResponse response = new TransactionPageResponse(
+                List.of(TransactionResponseTestBuilder.aTransactionResponse().build()), "AAB7CgAAAAAAAAAB");
+        String expectedJson = gson.toJson(response);
+
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn(id)
+                .when(req)
+                .getParameter("account_sender_id");
+        doReturn(null)
+                .when(req)
+                .getParameter("account_recipient_id");
+        doReturn(Map.of("account_sender_id", new String[]{id}, "type", new String[]{"TRANSFER"}))
+                .when(req)
+                .getParameterMap();
+        doReturn("TRANSFER")
+                .when(req)
+                .getParameter("type");
+        doReturn("2023-08-01")
+                .when(req)
+                .getParameter("from");
+        doReturn("2023-08-31")
+                .when(req)
+                .getParameter("to");
+        doReturn(request.counterpartyId())
+                .when(req)
+                .getParameter("counterparty_id");
+        doReturn(request.pageToken())
+                .when(req)
+                .getParameter("page_token");
+        doReturn("20")
+                .when(req)
+                .getParameter("limit");
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+        doReturn(response)
+                .when(transactionService)
+                .findHistory(request);
+
+        transactionServlet.doGet(req, resp);
+
+        verify(printWriter).print(captor.capture());
+        verify(printWriter).flush();
+
+        String actualJson = captor.getValue();
+
+        assertThat(actualJson).isEqualTo(expectedJson);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findHistory should throw LocalDateParseException if date is out of pattern")
+    void testDoGetFindHistoryShouldThrowLocalDateParseExceptionIfDateIsOutOfPattern() {
+        String id = "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q";
+
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn(null)
+                .when(req)
+                .getParameter("account_sender_id");
+        doReturn(id)
+                .when(req)
+                .getParameter("account_recipient_id");
+        doReturn(Map.of("account_recipient_id", new String[]{id}, "from", new String[]{"30.08.2023"}))
+                .when(req)
+                .getParameterMap();
+        doReturn(null)
+                .when(req)
+                .getParameter("type");
+        doReturn("30.08.2023")
+                .when(req)
+                .getParameter("from");
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+
+        assertThrows(LocalDateParseException.class, () -> transactionServlet.doGet(req, resp));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findHistory should throw BadParameterException with expected message if type is invalid")
+    void testDoGetFindHistoryShouldThrowBadParameterExceptionIfTypeIsInvalid() {
+        String expectedMessage = "Type DEPOSIT is invalid. Allowed types: [REPLENISHMENT, WITHDRAWAL, TRANSFER, EXCHANGE]";
+
+        stubHistoryRequest("type", "DEPOSIT");
+
+        Exception exception = assertThrows(BadParameterException.class, () -> transactionServlet.doGet(req, resp));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findHistory should throw BadParameterException with expected message if limit is invalid")
+    void testDoGetFindHistoryShouldThrowBadParameterExceptionIfLimitIsInvalid() {
+        String expectedMessage = "Limit ten is not an integer number";
+
+        stubHistoryRequest("limit", "ten");
+
+        Exception exception = assertThrows(BadParameterException.class, () -> transactionServlet.doGet(req, resp));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findHistory should throw BadPageTokenException with expected message if token is invalid")
+    void testDoGetFindHistoryShouldThrowBadPageTokenExceptionIfTokenIsInvalid() {
+        String expectedMessage = "Page token not-a-token is invalid";
+
+        stubHistoryRequest("page_token", "not-a-token");
+
+        Exception exception = assertThrows(BadPageTokenException.class, () -> transactionServlet.doGet(req, resp));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        verifyNoInteractions(transactionService);
+    }
+
+    @SneakyThrows
+    private void stubHistoryRequest(String name, String value) {
+        Map<String, String> parameters = Map.of("account_sender_id", "G5QZ 6B43 A6XG AHNK CO6S PSO6 718Q", name, value);
+
+        doAnswer(invocation -> parameters.get(invocation.<String>getArgument(0)))
+                .when(req)
+                .getParameter(anyString());
+        doReturn(Map.of("account_sender_id", new String[]{parameters.get("account_sender_id")}, name, new String[]{value}))
+                .when(req)
+                .getParameterMap();
+        doReturn(printWriter)
+                .when(resp)
+                .getWriter();
+    }
+
 }
@@ -16,16 +16,25 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.clevertec.cleverbank.dto.DeleteResponse;
 import ru.clevertec.cleverbank.dto.user.UserRequest;
 import ru.clevertec.cleverbank.dto.user.UserResponse;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
 import ru.clevertec.cleverbank.service.UserService;
 import ru.clevertec.cleverbank.builder.user.UserRequestTestBuilder;
 import ru.clevertec.cleverbank.builder.user.UserResponseTestBuilder;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class UserServletTest {
@@ -87,19 +96,22 @@ class UserServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of(response1, response2))
+        doAnswer(invocation -> {
+            Consumer<UserResponse> consumer = invocation.getArgument(2);
+            List.of(response1, response2).forEach(consumer);
+            return null;
+        })
                 .when(userService)
-                .findAll();
+                .findAll(isNull(), isNull(), any());
 
         userServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
@@ -113,23 +125,63 @@ class UserServletTest {
         doReturn(null)
                 .when(req)
                 .getParameter("id");
-        doReturn(printWriter)
+        StringWriter stringWriter = new StringWriter();
+
+        doReturn(new PrintWriter(stringWriter))
                 .when(resp)
                 .getWriter();
-        doReturn(List.of())
-                .when(userService)
-                .findAll();
 
         userServlet.doGet(req, resp);
 
-        verify(printWriter).print(captor.capture());
-        verify(printWriter).flush();
-
-        String actualJson = captor.getValue();
+        String actualJson = stringWriter.toString();
 
         assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should pass keyset page params to service")
+    void testDoGetFindAllShouldPassKeysetPageParamsToService() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn("1")
+                .when(req)
+                .getParameter("after");
+        doReturn("2")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        userServlet.doGet(req, resp);
+
+        verify(userService).findAll(eq(1L), eq(2), any());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test doGet findAll should throw BadParameterException if limit is negative")
+    void testDoGetFindAllShouldThrowBadParameterExceptionIfLimitIsNegative() {
+        doReturn(null)
+                .when(req)
+                .getParameter("id");
+        doReturn(null)
+                .when(req)
+                .getParameter("after");
+        doReturn("-1")
+                .when(req)
+                .getParameter("limit");
+        doReturn(new PrintWriter(new StringWriter()))
+                .when(resp)
+                .getWriter();
+
+        assertThrows(BadParameterException.class, () -> userServlet.doGet(req, resp));
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("test doPost should capture expected json from PrintWriter and status 201")
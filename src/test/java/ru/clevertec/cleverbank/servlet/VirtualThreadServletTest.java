@@ -0,0 +1,136 @@
+package ru.clevertec.cleverbank.servlet;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.cleverbank.exception.notfound.AccountNotFoundException;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class VirtualThreadServletTest {
+
+    @Mock
+    private HttpServletRequest req;
+    @Mock
+    private HttpServletResponse resp;
+    @Mock
+    private AsyncContext asyncContext;
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should handle request on container thread if there is no request executor")
+    void testServiceShouldHandleRequestOnContainerThreadIfThereIsNoRequestExecutor() {
+        AtomicReference<Thread> handlerThread = new AtomicReference<>();
+        VirtualThreadServlet servlet = new RecordingServlet(null, handlerThread, null);
+
+        doReturn("GET")
+                .when(req)
+                .getMethod();
+
+        servlet.service(req, resp);
+
+        assertThat(handlerThread.get()).isSameAs(Thread.currentThread());
+        verify(req, never()).startAsync();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should handle request on virtual thread and complete async context")
+    void testServiceShouldHandleRequestOnVirtualThreadAndCompleteAsyncContext() {
+        AtomicReference<Thread> handlerThread = new AtomicReference<>();
+        doReturn(asyncContext)
+                .when(req)
+                .startAsync();
+        doReturn("GET")
+                .when(req)
+                .getMethod();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            new RecordingServlet(executor, handlerThread, null).service(req, resp);
+        }
+
+        assertThat(handlerThread.get().isVirtual()).isTrue();
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should dispatch handler exception to exception handler")
+    void testServiceShouldDispatchHandlerExceptionToExceptionHandler() {
+        AccountNotFoundException exception = new AccountNotFoundException("Account with ID 1 is not found!");
+        VirtualThreadServlet servlet = new RecordingServlet(Runnable::run, new AtomicReference<>(), exception);
+
+        doReturn(asyncContext)
+                .when(req)
+                .startAsync();
+        doReturn("GET")
+                .when(req)
+                .getMethod();
+
+        servlet.service(req, resp);
+
+        verify(req).setAttribute(ERROR_EXCEPTION, exception);
+        verify(asyncContext).dispatch("/exception_handler");
+        verify(asyncContext, never()).complete();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("test service should dispatch rejection to exception handler if request executor is overloaded")
+    void testServiceShouldDispatchRejectionToExceptionHandlerIfRequestExecutorIsOverloaded() {
+        ExecutorOverloadedException exception = new ExecutorOverloadedException("Server is overloaded");
+        VirtualThreadServlet servlet = new RecordingServlet(command -> {
+            throw exception;
+        }, new AtomicReference<>(), null);
+
+        doReturn(asyncContext)
+                .when(req)
+                .startAsync();
+
+        servlet.service(req, resp);
+
+        verify(req).setAttribute(ERROR_EXCEPTION, exception);
+        verify(asyncContext).dispatch("/exception_handler");
+        verifyNoInteractions(resp);
+    }
+
+    private static class RecordingServlet extends VirtualThreadServlet {
+
+        private final transient AtomicReference<Thread> handlerThread;
+        private final RuntimeException exception;
+
+        RecordingServlet(Executor executor, AtomicReference<Thread> handlerThread, RuntimeException exception) {
+            super(executor);
+            this.handlerThread = handlerThread;
+            this.exception = exception;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+            handlerThread.set(Thread.currentThread());
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedVirtualThreadExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("virtual-test", 2);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("test execute should run task on a virtual thread")
+    void testExecuteShouldRunTaskOnVirtualThread() {
+        boolean actual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor)
+                .join();
+
+        assertThat(actual).isTrue();
+    }
+
+    @Test
+    @DisplayName("test execute should reject task with ExecutorOverloadedException when max concurrency is reached")
+    void testExecuteShouldRejectTaskWhenMaxConcurrencyIsReached() throws InterruptedException {
+        long rejectedBefore = MetricsRegistry.count("executor.virtual-test.rejected");
+        CountDownLatch started = new CountDownLatch(2);
+
+        executor.execute(() -> awaitRelease(started));
+        executor.execute(() -> awaitRelease(started));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThat(executor.getActiveCount()).isEqualTo(2);
+        assertThrows(ExecutorOverloadedException.class, () -> executor.execute(() -> awaitRelease(started)));
+        assertThat(MetricsRegistry.count("executor.virtual-test.rejected") - rejectedBefore).isOne();
+    }
+
+    @Test
+    @DisplayName("test execute should release permit after task completes")
+    void testExecuteShouldReleasePermitAfterTaskCompletes() {
+        CompletableFuture.runAsync(() -> {
+            throw new IllegalStateException("Failure");
+        }, executor)
+                .exceptionally(e -> null)
+                .join();
+        CompletableFuture.runAsync(() -> {
+        }, executor).join();
+
+        assertThat(executor.getActiveCount()).isZero();
+    }
+
+    private void awaitRelease(CountDownLatch started) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.exception.serviceunavailable.ExecutorOverloadedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutorManagerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = ExecutorManager.createExecutor("test", 1, 1, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("test should reject task with ExecutorOverloadedException when threads and queue are busy")
+    void testShouldRejectTaskWhenThreadsAndQueueAreBusy() throws InterruptedException {
+        long rejectedBefore = MetricsRegistry.count("executor.test.rejected");
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(this::awaitRelease);
+
+        assertThrows(ExecutorOverloadedException.class, () -> executor.execute(this::awaitRelease));
+        assertThat(MetricsRegistry.count("executor.test.rejected") - rejectedBefore).isOne();
+    }
+
+    @Test
+    @DisplayName("test should publish queue depth and active threads gauges")
+    void testShouldPublishQueueDepthAndActiveThreadsGauges() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(this::awaitRelease);
+
+        assertAll(
+                () -> assertThat(MetricsRegistry.snapshot()).containsEntry("executor.test.queue.depth", 1),
+                () -> assertThat(MetricsRegistry.snapshot()).containsEntry("executor.test.active.threads", 1),
+                () -> assertThat(MetricsRegistry.snapshot()).containsEntry("executor.test.pool.size", 1)
+        );
+    }
+
+    @Test
+    @DisplayName("test should return transaction executor configured from application.yaml")
+    void testShouldReturnTransactionExecutorConfiguredFromYaml() {
+        ThreadPoolExecutor transactionExecutor = (ThreadPoolExecutor) ExecutorManager.getTransactionExecutor();
+
+        assertAll(
+                () -> assertThat(transactionExecutor.getCorePoolSize()).isEqualTo(20),
+                () -> assertThat(transactionExecutor.getMaximumPoolSize()).isEqualTo(20),
+                () -> assertThat(transactionExecutor.getQueue().remainingCapacity()).isEqualTo(200)
+        );
+    }
+
+    @Test
+    @DisplayName("test should publish active threads gauge of virtual executor")
+    void testShouldPublishActiveThreadsGaugeOfVirtualExecutor() throws InterruptedException {
+        BoundedVirtualThreadExecutor virtualExecutor = ExecutorManager.createVirtualExecutor("virtual", 4);
+        CountDownLatch started = new CountDownLatch(1);
+
+        virtualExecutor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        assertAll(
+                () -> assertThat(MetricsRegistry.snapshot()).containsEntry("executor.virtual.active.threads", 1),
+                () -> assertThat(MetricsRegistry.snapshot()).doesNotContainKey("executor.virtual.queue.depth")
+        );
+        virtualExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("test should not create request executor when virtual threads are disabled")
+    void testShouldNotCreateRequestExecutorWhenVirtualThreadsAreDisabled() {
+        assertThat(ExecutorManager.getRequestExecutor()).isEmpty();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("test should sum increments of counter")
+    void testShouldSumIncrementsOfCounter() {
+        String name = "test.counter.increments";
+
+        MetricsRegistry.increment(name);
+        MetricsRegistry.add(name, 4);
+
+        assertThat(MetricsRegistry.count(name)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("test snapshot should contain counters and current values of gauges")
+    void testSnapshotShouldContainCountersAndGauges() {
+        AtomicInteger gauge = new AtomicInteger(7);
+        MetricsRegistry.increment("test.snapshot.counter");
+        MetricsRegistry.registerGauge("test.snapshot.gauge", gauge::get);
+        gauge.set(8);
+
+        assertThat(MetricsRegistry.snapshot())
+                .containsEntry("test.snapshot.counter", 1L)
+                .containsEntry("test.snapshot.gauge", 8);
+    }
+
+    @Test
+    @DisplayName("test count should return zero for unknown counter")
+    void testCountShouldReturnZeroForUnknownCounter() {
+        assertThat(MetricsRegistry.count("test.unknown")).isZero();
+    }
+
+}
@@ -0,0 +1,132 @@
+package ru.clevertec.cleverbank.util;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.dto.nbrbcurrency.NbRBCurrencyResponse;
+import ru.clevertec.cleverbank.exception.internalservererror.FailedConnectionException;
+import ru.clevertec.cleverbank.model.Currency;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NbRBClientTest {
+
+    private static final String EUR = """
+            {"Cur_ID":451,"Date":"2023-08-29T00:00:00","Cur_Abbreviation":"EUR","Cur_Scale":1,
+            "Cur_Name":"Евро","Cur_OfficialRate":3.4773}""";
+    private static final String RATES_ON_DATE = """
+            [{"Cur_ID":440,"Date":"2023-08-29T00:00:00","Cur_Abbreviation":"AUD","Cur_Scale":1,
+            "Cur_Name":"Австралийский доллар","Cur_OfficialRate":2.0512},
+            {"Cur_ID":431,"Date":"2023-08-29T00:00:00","Cur_Abbreviation":"USD","Cur_Scale":1,
+            "Cur_Name":"Доллар США","Cur_OfficialRate":3.2511},
+            %s,
+            {"Cur_ID":456,"Date":"2023-08-29T00:00:00","Cur_Abbreviation":"RUB","Cur_Scale":100,
+            "Cur_Name":"Российских рублей","Cur_OfficialRate":3.3817}]""".formatted(EUR);
+    private static final String FAILING_DATE = "2023-08-27";
+
+    private final Queue<String> requestedQueries = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+    private HttpClient httpClient;
+    private NbRBClient nbRBClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/exrates/rates/", this::handle);
+        server.start();
+        httpClient = HttpClient.newHttpClient();
+        String apiUrl = "http://localhost:" + server.getAddress().getPort() + "/exrates/rates/";
+        nbRBClient = new NbRBClient(httpClient, new Gson(), apiUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    @DisplayName("test fetchRate should return rate of currency by its code")
+    void testFetchRateShouldReturnRateOfCurrency() {
+        NbRBCurrencyResponse expected = new NbRBCurrencyResponse(451, Currency.EUR, 1, new BigDecimal("3.4773"));
+
+        NbRBCurrencyResponse actual = nbRBClient.fetchRate(Currency.EUR).join();
+
+        assertAll(
+                () -> assertThat(actual).isEqualTo(expected),
+                () -> assertThat(requestedQueries).containsExactly("/exrates/rates/451")
+        );
+    }
+
+    @Test
+    @DisplayName("test fetchRatesOnDate should return only rates of known currencies")
+    void testFetchRatesOnDateShouldReturnOnlyRatesOfKnownCurrencies() {
+        List<NbRBCurrencyResponse> actual = nbRBClient.fetchRatesOnDate(LocalDate.of(2023, 8, 29)).join();
+
+        assertAll(
+                () -> assertThat(actual)
+                        .extracting(NbRBCurrencyResponse::currency)
+                        .containsExactly(Currency.USD, Currency.EUR, Currency.RUB),
+                () -> assertThat(requestedQueries)
+                        .containsExactly("/exrates/rates/?ondate=2023-08-29&periodicity=0")
+        );
+    }
+
+    @Test
+    @DisplayName("test fetchRatesOnDate should complete exceptionally if NbRB responds with error")
+    void testFetchRatesOnDateShouldCompleteExceptionallyIfNbRBRespondsWithError() {
+        LocalDate date = LocalDate.parse(FAILING_DATE);
+
+        Exception exception = assertThrows(CompletionException.class, () -> nbRBClient.fetchRatesOnDate(date).join());
+
+        assertThat(exception.getCause()).isInstanceOf(FailedConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("test fetchHistory should request every date once and skip failed dates")
+    void testFetchHistoryShouldRequestEveryDateOnceAndSkipFailedDates() {
+        LocalDate lastDate = LocalDate.of(2023, 8, 29);
+
+        Map<LocalDate, List<NbRBCurrencyResponse>> actual = nbRBClient.fetchHistory(lastDate, 3);
+
+        assertAll(
+                () -> assertThat(actual).containsOnlyKeys(lastDate, lastDate.minusDays(1)),
+                () -> assertThat(actual.get(lastDate)).hasSize(3),
+                () -> assertThat(requestedQueries).containsExactlyInAnyOrder(
+                        "/exrates/rates/?ondate=2023-08-29&periodicity=0",
+                        "/exrates/rates/?ondate=2023-08-28&periodicity=0",
+                        "/exrates/rates/?ondate=2023-08-27&periodicity=0")
+        );
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().toString();
+        requestedQueries.add(query);
+        int status = query.contains(FAILING_DATE) ? 500 : 200;
+        byte[] body = (query.contains("ondate") ? RATES_ON_DATE : EUR).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+}
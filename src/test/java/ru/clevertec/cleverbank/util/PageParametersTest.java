@@ -0,0 +1,83 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.exception.badrequest.BadParameterException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageParametersTest {
+
+    @Nested
+    class ParseLimitTest {
+
+        @Test
+        @DisplayName("test should return null if limit is not passed")
+        void testShouldReturnNullIfLimitIsNotPassed() {
+            assertThat(PageParameters.parseLimit(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("test should return parsed limit")
+        void testShouldReturnParsedLimit() {
+            assertThat(PageParameters.parseLimit("20")).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("test should clamp limit to max limit")
+        void testShouldClampLimitToMaxLimit() {
+            assertThat(PageParameters.parseLimit("1000000")).isEqualTo(1000);
+        }
+
+        @Test
+        @DisplayName("test should throw BadParameterException with expected message if limit is not a number")
+        void testShouldThrowBadParameterExceptionIfLimitIsNotANumber() {
+            String expectedMessage = "Limit abc is not an integer number";
+
+            Exception exception = assertThrows(BadParameterException.class, () -> PageParameters.parseLimit("abc"));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+        @Test
+        @DisplayName("test should throw BadParameterException with expected message if limit is negative")
+        void testShouldThrowBadParameterExceptionIfLimitIsNegative() {
+            String expectedMessage = "Limit -1 must not be negative";
+
+            Exception exception = assertThrows(BadParameterException.class, () -> PageParameters.parseLimit("-1"));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+    @Nested
+    class ParseAfterTest {
+
+        @Test
+        @DisplayName("test should return null if after is not passed")
+        void testShouldReturnNullIfAfterIsNotPassed() {
+            assertThat(PageParameters.parseAfter(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("test should return parsed after")
+        void testShouldReturnParsedAfter() {
+            assertThat(PageParameters.parseAfter("42")).isEqualTo(42L);
+        }
+
+        @Test
+        @DisplayName("test should throw BadParameterException with expected message if after is not a number")
+        void testShouldThrowBadParameterExceptionIfAfterIsNotANumber() {
+            String expectedMessage = "After abc is not an integer number";
+
+            Exception exception = assertThrows(BadParameterException.class, () -> PageParameters.parseAfter("abc"));
+
+            assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReceiptTemplateTest {
+
+    @Test
+    @DisplayName("test render should pad fields to the right and to the left like formatted")
+    void testRenderShouldPadFieldsLikeFormatted() {
+        ReceiptTemplate template = new ReceiptTemplate("| {sum:10} | {type:-12}|{currency}\n",
+                "type", "sum", "currency");
+        String expected = "| %10s | %-12s|%s\n".formatted(new BigDecimal("-12.50"), "Перевод", "BYN");
+
+        String actual = template.render("Перевод", new BigDecimal("-12.50"), "BYN");
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("test render should print value longer than width entirely and null as null")
+    void testRenderShouldPrintLongValueEntirelyAndNullAsNull() {
+        ReceiptTemplate template = new ReceiptTemplate("{name:3}/{name:-3}/{value}", "name", "value");
+
+        String actual = template.render("Клевер-Банк", null);
+
+        assertThat(actual).isEqualTo("Клевер-Банк/Клевер-Банк/null");
+    }
+
+    @Test
+    @DisplayName("test appendTo should append rendered template to the end of builder")
+    void testAppendToShouldAppendRenderedTemplateToEndOfBuilder() {
+        ReceiptTemplate row = new ReceiptTemplate("{date} {sum:5}\n", "date", "sum");
+        StringBuilder builder = new StringBuilder("Выписка\n");
+
+        row.appendTo(builder, LocalDate.of(2023, 9, 1), 10);
+        StringBuilder actual = row.appendTo(builder, LocalDate.of(2023, 9, 2), 200);
+
+        assertAll(
+                () -> assertThat(actual).isSameAs(builder),
+                () -> assertThat(actual).hasToString("Выписка\n2023-09-01    10\n2023-09-02   200\n")
+        );
+    }
+
+    @Test
+    @DisplayName("test load should read template from resources")
+    void testLoadShouldReadTemplateFromResources() {
+        ReceiptTemplate template = ReceiptTemplate.load("template/TransactionStatementRow.txt",
+                "date", "type", "lastname", "sum", "currency");
+
+        String actual = template.render(LocalDate.of(2023, 9, 1), "Пополнение", "Иванов", 100, "BYN");
+
+        assertThat(actual).isEqualTo("2023-09-01    | Пополнение      от Иванов             | 100 BYN\n");
+    }
+
+    @Test
+    @DisplayName("test load should throw IllegalStateException with expected message if template is not found")
+    void testLoadShouldThrowIllegalStateExceptionIfTemplateIsNotFound() {
+        String expectedMessage = "Template template/Unknown.txt is not found";
+
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> ReceiptTemplate.load("template/Unknown.txt"));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "| {sum:10 |; Field at position 2 is not closed",
+            "{unknown}; Field unknown is not declared",
+            "{sum:wide}; Width of field sum is not a number"
+    })
+    @DisplayName("test constructor should throw IllegalArgumentException with expected message if template is invalid")
+    void testConstructorShouldThrowIllegalArgumentExceptionIfTemplateIsInvalid(String text, String expectedMessage) {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new ReceiptTemplate(text, "sum"));
+
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+    }
+
+}
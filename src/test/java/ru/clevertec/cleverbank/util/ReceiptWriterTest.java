@@ -0,0 +1,257 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.clevertec.cleverbank.exception.internalservererror.UploadFileException;
+import ru.clevertec.cleverbank.model.DurabilityMode;
+import ru.clevertec.cleverbank.model.Receipt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReceiptWriterTest {
+
+    private static final String CHECK_SHA256 = "9d60841e0a7891df0fd55b24d5c883a5d92ae544808675c2ec84537c12589c49";
+
+    @TempDir
+    private Path directory;
+    private final Queue<List<Receipt>> indexedBatches = new ConcurrentLinkedQueue<>();
+
+    @ParameterizedTest
+    @EnumSource(DurabilityMode.class)
+    @DisplayName("test append should write texts to their files in order of enqueueing")
+    void testAppendShouldWriteTextsToTheirFilesInOrderOfEnqueueing(DurabilityMode durabilityMode) throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterTest", 8, durabilityMode, indexedBatches::add);
+        Path statements = directory.resolve("TransactionStatement.txt");
+        Path amounts = directory.resolve("AmountStatement.txt");
+
+        List<CompletableFuture<Void>> written = IntStream.range(0, 20)
+                .mapToObj(i -> receiptWriter.append(i % 2 == 0 ? statements : amounts, "receipt " + i + "\n"))
+                .toList();
+        CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).join();
+        receiptWriter.close(5);
+
+        assertAll(
+                () -> assertThat(Files.readAllLines(statements)).containsExactly("receipt 0", "receipt 2", "receipt 4",
+                        "receipt 6", "receipt 8", "receipt 10", "receipt 12", "receipt 14", "receipt 16", "receipt 18"),
+                () -> assertThat(Files.readAllLines(amounts)).hasSize(10).startsWith("receipt 1", "receipt 3")
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityMode.class)
+    @DisplayName("test store should write check to file sharded by transaction id and index it with its sha256")
+    void testStoreShouldWriteCheckToFileShardedByTransactionIdAndIndexIt(DurabilityMode durabilityMode)
+            throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterStoreTest", 8, durabilityMode,
+                indexedBatches::add);
+        String check = "Check";
+        Receipt expected = new Receipt(12_345_678L, CHECK_SHA256, 5);
+        Path expectedPath = directory.resolve("checks/12/345/12345678.txt");
+
+        Receipt actual = receiptWriter.store(12_345_678L, check).join();
+        receiptWriter.close(5);
+
+        assertAll(
+                () -> assertThat(actual).isEqualTo(expected),
+                () -> assertThat(receiptWriter.checkPath(12_345_678L)).isEqualTo(expectedPath),
+                () -> assertThat(Files.readString(expectedPath)).isEqualTo(check),
+                () -> assertThat(indexedBatches).containsExactly(List.of(expected))
+        );
+    }
+
+    @Test
+    @DisplayName("test store should write own file for each transaction even if checks are equal")
+    void testStoreShouldWriteOwnFileForEachTransactionEvenIfChecksAreEqual() throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterDedupTest", 8, DurabilityMode.WRITE,
+                indexedBatches::add);
+
+        List<CompletableFuture<Receipt>> stored = List.of(receiptWriter.store(1L, "Check"),
+                receiptWriter.store(2L, "Check"), receiptWriter.store(3L, "Another check"));
+        CompletableFuture.allOf(stored.toArray(CompletableFuture[]::new)).join();
+        receiptWriter.close(5);
+
+        try (Stream<Path> files = Files.walk(directory.resolve("checks"))) {
+            List<String> fileNames = files.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .toList();
+
+            assertAll(
+                    () -> assertThat(fileNames).containsExactlyInAnyOrder("1.txt", "2.txt", "3.txt"),
+                    () -> assertThat(indexedBatches.stream().flatMap(List::stream).map(Receipt::getTransactionId))
+                            .containsExactly(1L, 2L, 3L)
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityMode.class)
+    @DisplayName("test appendFile should append temporary files between texts in order and delete them")
+    void testAppendFileShouldAppendTemporaryFilesBetweenTextsInOrderAndDeleteThem(DurabilityMode durabilityMode)
+            throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterAppendFileTest", 8, durabilityMode,
+                indexedBatches::add);
+        Path statements = directory.resolve("TransactionStatement.txt");
+        Path first = receiptWriter.createTemporaryFile("TransactionStatement");
+        Path second = receiptWriter.createTemporaryFile("TransactionStatement");
+        Files.writeString(first, "first statement\n");
+        Files.writeString(second, "second statement\n");
+
+        List<CompletableFuture<Void>> written = List.of(receiptWriter.append(statements, "text 1\n"),
+                receiptWriter.appendFile(statements, first), receiptWriter.appendFile(statements, second),
+                receiptWriter.append(statements, "text 2\n"));
+        CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).join();
+        receiptWriter.close(5);
+
+        assertAll(
+                () -> assertThat(Files.readAllLines(statements))
+                        .containsExactly("text 1", "first statement", "second statement", "text 2"),
+                () -> assertThat(first.getParent()).isEqualTo(directory),
+                () -> assertThat(first).doesNotExist(),
+                () -> assertThat(second).doesNotExist()
+        );
+    }
+
+    @Test
+    @DisplayName("test store should complete with written check if index is not saved")
+    void testStoreShouldCompleteWithWrittenCheckIfIndexIsNotSaved() throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterIndexFailureTest", 8, DurabilityMode.WRITE,
+                receipts -> {
+                    throw new IllegalStateException("Index is not available");
+                });
+
+        Receipt actual = receiptWriter.store(1L, "Check").join();
+        receiptWriter.close(5);
+
+        assertAll(
+                () -> assertThat(actual).isEqualTo(new Receipt(1L, CHECK_SHA256, 5)),
+                () -> assertThat(Files.readString(receiptWriter.checkPath(1L))).isEqualTo("Check"),
+                () -> assertThat(MetricsRegistry.count("receiptWriterIndexFailureTest.index.failed")).isEqualTo(1),
+                () -> assertThat(MetricsRegistry.count("receiptWriterIndexFailureTest.failed")).isZero()
+        );
+    }
+
+    @Test
+    @DisplayName("test append should keep writing after failed write to another file")
+    void testAppendShouldKeepWritingAfterFailedWrite() throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterFailureTest", 8, DurabilityMode.WRITE,
+                indexedBatches::add);
+        Path missing = directory.resolve("missing").resolve("TransactionStatement.txt");
+        Path statements = directory.resolve("TransactionStatement.txt");
+
+        CompletableFuture<Void> failed = receiptWriter.append(missing, "lost");
+        receiptWriter.append(statements, "saved").join();
+        receiptWriter.close(5);
+
+        Exception exception = assertThrows(CompletionException.class, failed::join);
+
+        assertAll(
+                () -> assertThat(exception.getCause()).isInstanceOf(UploadFileException.class),
+                () -> assertThat(Files.readString(statements)).isEqualTo("saved"),
+                () -> assertThat(MetricsRegistry.count("receiptWriterFailureTest.failed")).isEqualTo(1)
+        );
+    }
+
+    @Test
+    @DisplayName("test append should throw UploadFileException with expected message after close")
+    void testAppendShouldThrowUploadFileExceptionAfterClose() {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterClosedTest", 8, DurabilityMode.WRITE,
+                indexedBatches::add);
+        Path statements = directory.resolve("TransactionStatement.txt");
+        String expectedMessage = "Receipt writer is closed";
+
+        receiptWriter.close(5);
+
+        Exception exception = assertThrows(UploadFileException.class, () -> receiptWriter.append(statements, "late"));
+
+        assertAll(
+                () -> assertThat(exception.getMessage()).isEqualTo(expectedMessage),
+                () -> assertThat(Files.exists(statements)).isFalse()
+        );
+    }
+
+    @Test
+    @DisplayName("test close should write texts that are still in queue")
+    void testCloseShouldWriteTextsThatAreStillInQueue() throws IOException {
+        ReceiptWriter receiptWriter = createReceiptWriter("receiptWriterDrainTest", 1000, DurabilityMode.FSYNC,
+                indexedBatches::add);
+        Path statements = directory.resolve("TransactionStatement.txt");
+
+        IntStream.range(0, 500)
+                .forEach(i -> receiptWriter.append(statements, "x"));
+        receiptWriter.close(5);
+
+        assertAll(
+                () -> assertThat(Files.readString(statements)).hasSize(500),
+                () -> assertThat(MetricsRegistry.snapshot()).containsEntry("receiptWriterDrainTest.queue.depth", 0)
+        );
+    }
+
+    @Test
+    @DisplayName("test store should complete future of check that is queued while writer is closing")
+    void testStoreShouldCompleteFutureOfCheckThatIsQueuedWhileWriterIsClosing() throws InterruptedException {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReceiptWriter receiptWriter = new ReceiptWriter("receiptWriterClosingTest", 1, 1, DurabilityMode.WRITE,
+                directory, receipts -> {
+                    indexing.countDown();
+                    awaitQuietly(release);
+                });
+
+        CompletableFuture<Receipt> first = receiptWriter.store(1L, "first");
+        indexing.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Receipt> second = receiptWriter.store(2L, "second");
+        CompletableFuture<Receipt> third = CompletableFuture.supplyAsync(() -> receiptWriter.store(3L, "third"))
+                .thenCompose(Function.identity());
+        while (MetricsRegistry.count("receiptWriterClosingTest.queue.full") == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(() -> receiptWriter.close(5));
+        release.countDown();
+        closing.join();
+
+        Throwable thirdFailure = third.orTimeout(5, TimeUnit.SECONDS)
+                .handle((receipt, e) -> e)
+                .join();
+
+        assertAll(
+                () -> assertThat(first).isCompleted(),
+                () -> assertThat(second).isCompleted(),
+                () -> assertThat(thirdFailure).isNotInstanceOf(TimeoutException.class)
+        );
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ReceiptWriter createReceiptWriter(String name, int queueCapacity, DurabilityMode durabilityMode,
+                                              Consumer<List<Receipt>> indexer) {
+        return new ReceiptWriter(name, queueCapacity, 4, durabilityMode, directory, indexer);
+    }
+
+}
@@ -0,0 +1,63 @@
+package ru.clevertec.cleverbank.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.cleverbank.exception.conflict.OptimisticLockException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(3, 1, 2);
+
+    @Test
+    @DisplayName("test should return result of first successful attempt and count retries")
+    void testShouldReturnResultOfFirstSuccessfulAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        long retriesBefore = MetricsRegistry.count("accounts.optimistic.retries");
+        String expected = "Result";
+
+        String actual = retryPolicy.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("Conflict");
+            }
+            return expected;
+        });
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(attempts).hasValue(3);
+        assertThat(MetricsRegistry.count("accounts.optimistic.retries") - retriesBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("test should throw OptimisticLockException if all attempts fail")
+    void testShouldThrowOptimisticLockExceptionIfAllAttemptsFail() {
+        AtomicInteger attempts = new AtomicInteger();
+        long exhaustedBefore = MetricsRegistry.count("accounts.optimistic.retries.exhausted");
+
+        assertThrows(OptimisticLockException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockException("Conflict");
+        }));
+
+        assertThat(attempts).hasValue(3);
+        assertThat(MetricsRegistry.count("accounts.optimistic.retries.exhausted") - exhaustedBefore).isOne();
+    }
+
+    @Test
+    @DisplayName("test should not retry other exceptions")
+    void testShouldNotRetryOtherExceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Failure");
+        }));
+
+        assertThat(attempts).hasValue(1);
+    }
+
+}
@@ -23,17 +23,20 @@ class YamlUtilTest {
         Map<String, String> postgresqlMap = yamlUtil.getYamlMap().get("postgresql");
         String expectedUrl = "jdbc:postgresql://localhost:5432/clever_bank";
         String expectedMaximumPoolSize = "30";
+        String expectedFetchSize = "500";
 
         String actualUrl = postgresqlMap.get("url");
         String actualUser = postgresqlMap.get("user");
         String actualPassword = postgresqlMap.get("password");
         String actualMaximumPoolSize = postgresqlMap.get("maximumPoolSize");
+        String actualFetchSize = postgresqlMap.get("fetchSize");
 
         assertAll(
                 () -> assertThat(actualUrl).isEqualTo(expectedUrl),
                 () -> assertThat(actualUser).isNotEmpty(),
                 () -> assertThat(actualPassword).isNotEmpty(),
-                () -> assertThat(actualMaximumPoolSize).isEqualTo(expectedMaximumPoolSize)
+                () -> assertThat(actualMaximumPoolSize).isEqualTo(expectedMaximumPoolSize),
+                () -> assertThat(actualFetchSize).isEqualTo(expectedFetchSize)
         );
     }
 
@@ -82,15 +85,132 @@ class YamlUtilTest {
         String expectedUrl = "https://api.nbrb.by/exrates/rates/";
         String expectedInitialDelay = "6";
         String expectedPeriod = "86400";
+        String expectedBackfillDays = "0";
 
         String actualUrl = shedulerMap.get("url");
         String actualInitialDelay = shedulerMap.get("initialDelay");
         String actualPeriod = shedulerMap.get("period");
+        String actualBackfillDays = shedulerMap.get("backfillDays");
 
         assertAll(
                 () -> assertThat(actualUrl).isEqualTo(expectedUrl),
                 () -> assertThat(actualInitialDelay).isEqualTo(expectedInitialDelay),
-                () -> assertThat(actualPeriod).isEqualTo(expectedPeriod)
+                () -> assertThat(actualPeriod).isEqualTo(expectedPeriod),
+                () -> assertThat(actualBackfillDays).isEqualTo(expectedBackfillDays)
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of locking params")
+    void testShouldReturnMapOfLockingParams() {
+        Map<String, String> lockingMap = new YamlUtil().getYamlMap().get("locking");
+        String expectedMode = "PESSIMISTIC";
+        String expectedMaxAttempts = "5";
+
+        String actualMode = lockingMap.get("mode");
+        String actualMaxAttempts = lockingMap.get("maxAttempts");
+
+        assertAll(
+                () -> assertThat(actualMode).isEqualTo(expectedMode),
+                () -> assertThat(actualMaxAttempts).isEqualTo(expectedMaxAttempts),
+                () -> assertThat(lockingMap).containsKeys("initialBackoffMillis", "maxBackoffMillis")
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of executor params")
+    void testShouldReturnMapOfExecutorParams() {
+        Map<String, String> executorMap = new YamlUtil().getYamlMap().get("executor");
+        String expectedCorePoolSize = "20";
+        String expectedQueueCapacity = "200";
+
+        String actualCorePoolSize = executorMap.get("corePoolSize");
+        String actualQueueCapacity = executorMap.get("queueCapacity");
+
+        assertAll(
+                () -> assertThat(actualCorePoolSize).isEqualTo(expectedCorePoolSize),
+                () -> assertThat(actualQueueCapacity).isEqualTo(expectedQueueCapacity),
+                () -> assertThat(executorMap).containsKeys("maximumPoolSize", "keepAliveSeconds", "shutdownTimeoutSeconds"),
+                () -> assertThat(executorMap).containsEntry("virtualThreads", "false")
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of cache params")
+    void testShouldReturnMapOfCacheParams() {
+        Map<String, String> cacheMap = new YamlUtil().getYamlMap().get("cache");
+        String expectedAccountsEnabled = "true";
+        String expectedAccountsMaximumSize = "10000";
+
+        String actualAccountsEnabled = cacheMap.get("accountsEnabled");
+        String actualAccountsMaximumSize = cacheMap.get("accountsMaximumSize");
+
+        assertAll(
+                () -> assertThat(actualAccountsEnabled).isEqualTo(expectedAccountsEnabled),
+                () -> assertThat(actualAccountsMaximumSize).isEqualTo(expectedAccountsMaximumSize),
+                () -> assertThat(cacheMap).containsKey("accountsExpireAfterWriteSeconds"),
+                () -> assertThat(cacheMap).containsKeys("referenceRefreshSeconds", "referenceRefreshOverlapSeconds",
+                        "rateHistoryDays")
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of transactionHistory params")
+    void testShouldReturnMapOfTransactionHistoryParams() {
+        Map<String, String> transactionHistoryMap = new YamlUtil().getYamlMap().get("transactionHistory");
+        String expectedDefaultLimit = "50";
+        String expectedMaxLimit = "500";
+
+        String actualDefaultLimit = transactionHistoryMap.get("defaultLimit");
+        String actualMaxLimit = transactionHistoryMap.get("maxLimit");
+
+        assertAll(
+                () -> assertThat(actualDefaultLimit).isEqualTo(expectedDefaultLimit),
+                () -> assertThat(actualMaxLimit).isEqualTo(expectedMaxLimit)
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of dailyTotals params")
+    void testShouldReturnMapOfDailyTotalsParams() {
+        Map<String, String> dailyTotalsMap = new YamlUtil().getYamlMap().get("dailyTotals");
+        String expectedInitialDelay = "15";
+        String expectedPeriod = "3600";
+        String expectedCheckLimit = "100";
+
+        String actualInitialDelay = dailyTotalsMap.get("initialDelay");
+        String actualPeriod = dailyTotalsMap.get("period");
+        String actualCheckLimit = dailyTotalsMap.get("checkLimit");
+
+        assertAll(
+                () -> assertThat(actualInitialDelay).isEqualTo(expectedInitialDelay),
+                () -> assertThat(actualPeriod).isEqualTo(expectedPeriod),
+                () -> assertThat(actualCheckLimit).isEqualTo(expectedCheckLimit)
+        );
+    }
+
+    @Test
+    @DisplayName("test should return Map of receipts params")
+    void testShouldReturnMapOfReceiptsParams() {
+        Map<String, String> receiptsMap = new YamlUtil().getYamlMap().get("receipts");
+        String expectedDirectory = "receipts";
+        String expectedQueueCapacity = "10000";
+        String expectedBatchSize = "256";
+        String expectedDurability = "WRITE";
+        String expectedShutdownTimeoutSeconds = "10";
+
+        String actualDirectory = receiptsMap.get("directory");
+        String actualQueueCapacity = receiptsMap.get("queueCapacity");
+        String actualBatchSize = receiptsMap.get("batchSize");
+        String actualDurability = receiptsMap.get("durability");
+        String actualShutdownTimeoutSeconds = receiptsMap.get("shutdownTimeoutSeconds");
+
+        assertAll(
+                () -> assertThat(actualDirectory).isEqualTo(expectedDirectory),
+                () -> assertThat(actualQueueCapacity).isEqualTo(expectedQueueCapacity),
+                () -> assertThat(actualBatchSize).isEqualTo(expectedBatchSize),
+                () -> assertThat(actualDurability).isEqualTo(expectedDurability),
+                () -> assertThat(actualShutdownTimeoutSeconds).isEqualTo(expectedShutdownTimeoutSeconds)
         );
     }
 